@@ -0,0 +1,118 @@
+package sg.edu.nus.comp.cs4218;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.HashSet;
+import java.util.Set;
+
+import sg.edu.nus.comp.cs4218.exception.AbstractApplicationException;
+import sg.edu.nus.comp.cs4218.exception.ShellException;
+
+/**
+ * Handle to one evaluation of a command, through which it can be terminated from another thread.
+ * <p>
+ * A parsed command may be evaluated by several evaluations at once, so the threads running its
+ * applications are tracked here rather than in the command. The commands look up the evaluation
+ * they are part of with {@link #current()}. Terminating an evaluation interrupts every application
+ * it is running and keeps it from starting any more, including ones which would only have started
+ * after the call to {@link #terminate()}.
+ */
+public final class Evaluation {
+    private static final ThreadLocal<Evaluation> CURRENT_EVALUATION = new ThreadLocal<>();
+
+    private final Object lock = new Object();
+    private final Set<Thread> runningThreads = new HashSet<>();
+    private boolean terminated;
+
+    /**
+     * Returns the evaluation the current thread is evaluating a command for, or a new evaluation if
+     * it is not evaluating one yet.
+     */
+    public static Evaluation current() {
+        Evaluation evaluation = CURRENT_EVALUATION.get();
+        return evaluation == null ? new Evaluation() : evaluation;
+    }
+
+    /**
+     * Evaluates the command on the current thread as part of this evaluation.
+     */
+    public void evaluate(Command command, InputStream stdin, OutputStream stdout)
+            throws AbstractApplicationException, ShellException {
+        run(() -> command.evaluate(stdin, stdout));
+    }
+
+    /**
+     * Runs the work on the current thread as part of this evaluation, so that the commands it
+     * evaluates find this evaluation through {@link #current()}.
+     */
+    public void run(CommandWork work) throws AbstractApplicationException, ShellException {
+        Evaluation previous = CURRENT_EVALUATION.get();
+        CURRENT_EVALUATION.set(this);
+
+        try {
+            work.run();
+        } finally {
+            if (previous == null) {
+                CURRENT_EVALUATION.remove();
+            } else {
+                CURRENT_EVALUATION.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Interrupts the threads running an application of this evaluation. Applications which wait for
+     * more input, such as tail -f, return when they are interrupted.
+     */
+    public void terminate() {
+        synchronized (lock) {
+            terminated = true;
+            runningThreads.forEach(Thread::interrupt);
+        }
+    }
+
+    public boolean isTerminated() {
+        synchronized (lock) {
+            return terminated;
+        }
+    }
+
+    /**
+     * Records that the current thread is about to run an application of this evaluation.
+     *
+     * @return false if the evaluation has been terminated, in which case the application must not run.
+     */
+    public boolean startApp() {
+        synchronized (lock) {
+            if (terminated) {
+                return false;
+            }
+
+            runningThreads.add(Thread.currentThread());
+            return true;
+        }
+    }
+
+    /**
+     * Records that the current thread has finished running an application of this evaluation. An
+     * interrupt from {@link #terminate()} which arrived after the application returned is cleared, so
+     * it does not leak into whatever the thread runs next.
+     */
+    public void finishApp() {
+        synchronized (lock) {
+            runningThreads.remove(Thread.currentThread());
+
+            if (terminated) {
+                Thread.interrupted();
+            }
+        }
+    }
+
+    /**
+     * Work evaluating commands, run as part of an evaluation.
+     */
+    @FunctionalInterface
+    public interface CommandWork {
+        void run() throws AbstractApplicationException, ShellException;
+    }
+}
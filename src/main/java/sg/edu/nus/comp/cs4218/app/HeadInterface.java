@@ -0,0 +1,28 @@
+package sg.edu.nus.comp.cs4218.app;
+
+import java.io.InputStream;
+
+import sg.edu.nus.comp.cs4218.Application;
+
+public interface HeadInterface extends Application {
+    /**
+     * Returns string containing the first lines of the specified files. If more than one file is
+     * specified, each file is preceded by a header with its name.
+     *
+     * @param numOfLines Long of the number of lines to output from each file
+     * @param fileNames  Array of String of file names, where "-" stands for Stdin
+     * @return
+     * @throws Exception
+     */
+    String headFromFiles(Long numOfLines, String... fileNames) throws Exception;
+
+    /**
+     * Returns string containing the first lines of the standard input.
+     *
+     * @param numOfLines Long of the number of lines to output
+     * @param stdin      InputStream containing arguments from Stdin
+     * @return
+     * @throws Exception
+     */
+    String headFromStdin(Long numOfLines, InputStream stdin) throws Exception;
+}
@@ -0,0 +1,39 @@
+package sg.edu.nus.comp.cs4218.app;
+
+import java.io.InputStream;
+import java.util.List;
+
+import sg.edu.nus.comp.cs4218.Application;
+
+public interface SortInterface extends Application {
+    /**
+     * Returns string containing the lines of the specified files sorted together. Lines whose keys
+     * are equal are ordered by the whole line, unless only unique lines are kept.
+     *
+     * @param isNumeric Compare keys by their leading numbers instead of as text
+     * @param isReverse Reverse the result of comparisons
+     * @param isUnique  Output only the first of the lines whose keys are equal
+     * @param keys      List of key definitions FIELD or FIELD,FIELD, with fields numbered from 1.
+     *                  Whole lines are compared if the list is empty
+     * @param fileNames Array of String of file names, where "-" stands for Stdin
+     * @return
+     * @throws Exception
+     */
+    String sortFromFiles(Boolean isNumeric, Boolean isReverse, Boolean isUnique, List<String> keys,
+                         String... fileNames) throws Exception;
+
+    /**
+     * Returns string containing the lines of the standard input in sorted order.
+     *
+     * @param isNumeric Compare keys by their leading numbers instead of as text
+     * @param isReverse Reverse the result of comparisons
+     * @param isUnique  Output only the first of the lines whose keys are equal
+     * @param keys      List of key definitions FIELD or FIELD,FIELD, with fields numbered from 1.
+     *                  Whole lines are compared if the list is empty
+     * @param stdin     InputStream containing arguments from Stdin
+     * @return
+     * @throws Exception
+     */
+    String sortFromStdin(Boolean isNumeric, Boolean isReverse, Boolean isUnique, List<String> keys,
+                         InputStream stdin) throws Exception;
+}
@@ -75,4 +75,21 @@ public interface SplitInterface extends Application {
      */
     void splitStdinByBytes(InputStream stdin, String prefix, String bytesPerFile)
             throws Exception;
+
+    /**
+     * Split a file into the specified number of pieces, whose boundaries are computed
+     * from the size of the file. Output splits naming convention: prefix + counter.
+     * Default prefix is "x". Default counter is aa, ab, ..., zz,
+     * zaa, zab, ..., zzz, zzaa, etc. For example: xaa, xab, etc.
+     *
+     * @param fileName String of source file name
+     * @param prefix   String of output file prefix (default is 'x')
+     * @param chunks   String of either N, to split into N pieces of equal size
+     *                 with the last piece taking the remainder, or l/N, to split
+     *                 into N pieces of about equal size without splitting lines.
+     *                 Some pieces may be empty.
+     * @throws Exception
+     */
+    void splitFileByChunks(String fileName, String prefix, String chunks)
+            throws Exception;
 }
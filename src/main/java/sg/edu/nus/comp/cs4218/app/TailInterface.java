@@ -0,0 +1,30 @@
+package sg.edu.nus.comp.cs4218.app;
+
+import java.io.InputStream;
+
+import sg.edu.nus.comp.cs4218.Application;
+
+public interface TailInterface extends Application {
+    /**
+     * Returns string containing the last lines of the specified files. If more than one file is
+     * specified, each file is preceded by a header with its name.
+     *
+     * @param numOfLines String of either N, to output the last N lines, or +N, to output the lines
+     *                   starting from line N
+     * @param fileNames  Array of String of file names, where "-" stands for Stdin
+     * @return
+     * @throws Exception
+     */
+    String tailFromFiles(String numOfLines, String... fileNames) throws Exception;
+
+    /**
+     * Returns string containing the last lines of the standard input.
+     *
+     * @param numOfLines String of either N, to output the last N lines, or +N, to output the lines
+     *                   starting from line N
+     * @param stdin      InputStream containing arguments from Stdin
+     * @return
+     * @throws Exception
+     */
+    String tailFromStdin(String numOfLines, InputStream stdin) throws Exception;
+}
@@ -0,0 +1,21 @@
+package sg.edu.nus.comp.cs4218.exception;
+
+import static sg.edu.nus.comp.cs4218.impl.util.ApplicationRunner.APP_HEAD;
+import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.STRING_LABEL_VALUE_PAIR;
+
+import java.io.Serial;
+
+public class HeadException extends AbstractApplicationException {
+    @Serial
+    private static final long serialVersionUID = -2671503921843027731L;
+
+    public HeadException(String message) {
+        super(String.format(STRING_LABEL_VALUE_PAIR, APP_HEAD, message));
+    }
+
+    public HeadException(String message, Throwable cause) {
+        this(message);
+
+        this.initCause(cause);
+    }
+}
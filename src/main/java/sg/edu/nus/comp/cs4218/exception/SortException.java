@@ -0,0 +1,21 @@
+package sg.edu.nus.comp.cs4218.exception;
+
+import static sg.edu.nus.comp.cs4218.impl.util.ApplicationRunner.APP_SORT;
+import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.STRING_LABEL_VALUE_PAIR;
+
+import java.io.Serial;
+
+public class SortException extends AbstractApplicationException {
+    @Serial
+    private static final long serialVersionUID = 4096731928477251731L;
+
+    public SortException(String message) {
+        super(String.format(STRING_LABEL_VALUE_PAIR, APP_SORT, message));
+    }
+
+    public SortException(String message, Throwable cause) {
+        this(message);
+
+        this.initCause(cause);
+    }
+}
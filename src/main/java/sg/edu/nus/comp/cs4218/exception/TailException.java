@@ -0,0 +1,21 @@
+package sg.edu.nus.comp.cs4218.exception;
+
+import static sg.edu.nus.comp.cs4218.impl.util.ApplicationRunner.APP_TAIL;
+import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.STRING_LABEL_VALUE_PAIR;
+
+import java.io.Serial;
+
+public class TailException extends AbstractApplicationException {
+    @Serial
+    private static final long serialVersionUID = 6220781377910495217L;
+
+    public TailException(String message) {
+        super(String.format(STRING_LABEL_VALUE_PAIR, APP_TAIL, message));
+    }
+
+    public TailException(String message, Throwable cause) {
+        this(message);
+
+        this.initCause(cause);
+    }
+}
@@ -1,28 +1,82 @@
 package sg.edu.nus.comp.cs4218.impl;
 
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_READ_STREAM;
+
+import java.io.BufferedOutputStream;
 import java.io.BufferedReader;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.List;
+import java.util.stream.Stream;
 
 import sg.edu.nus.comp.cs4218.Command;
 import sg.edu.nus.comp.cs4218.Shell;
 import sg.edu.nus.comp.cs4218.exception.AbstractApplicationException;
 import sg.edu.nus.comp.cs4218.exception.ShellException;
 import sg.edu.nus.comp.cs4218.impl.util.ApplicationRunner;
-import sg.edu.nus.comp.cs4218.impl.util.CommandBuilderUtil;
+import sg.edu.nus.comp.cs4218.impl.util.CommandPlanCache;
+import sg.edu.nus.comp.cs4218.impl.util.IOUtils;
 import sg.edu.nus.comp.cs4218.impl.util.StringUtils;
 
 public class ShellImpl implements Shell {
+    public static final String OPTION_CONCURRENT_PIPE = "--concurrent-pipe";
+    private static final int BATCH_BUFFER_SIZE = 64 * 1024;
+
+    private final CommandPlanCache commandCache;
+
+    public ShellImpl() {
+        this(false);
+    }
+
+    /**
+     * @param isConcurrentPipe true if the stages of a pipe should run concurrently instead of one
+     *                         after another.
+     */
+    public ShellImpl(boolean isConcurrentPipe) {
+        this.commandCache = new CommandPlanCache(
+                CommandPlanCache.DEFAULT_CAPACITY,
+                new ApplicationRunner(),
+                isConcurrentPipe
+        );
+    }
+
+    /**
+     * Returns the cache of parsed commands, whose hit and miss counts can be inspected.
+     */
+    public CommandPlanCache getCommandCache() {
+        return commandCache;
+    }
 
     /**
      * Main method for the Shell Interpreter program.
+     * <p>
+     * Without a script file, commands are read from stdin. If stdin is not a terminal, or a script file
+     * is given, the shell runs in batch mode: no prompt is shown and the commands run back to back.
      *
-     * @param args List of strings arguments, unused.
+     * @param args List of strings arguments. Pass --concurrent-pipe to run pipe stages concurrently,
+     *             and the path of a script file to run the commands in it.
      */
     public static void main(String... args) {
+        ShellImpl shell = new ShellImpl(List.of(args).contains(OPTION_CONCURRENT_PIPE));
+        String scriptFile = Stream.of(args)
+                .filter(arg -> !OPTION_CONCURRENT_PIPE.equals(arg))
+                .findFirst()
+                .orElse(null);
+
+        if (scriptFile == null && System.console() != null) {
+            runInteractive(shell);
+        } else {
+            runBatch(shell, scriptFile);
+        }
+    }
+
+    private static void runInteractive(Shell shell) {
         BufferedReader reader = new BufferedReader(new InputStreamReader(System.in));//NOPMD
-        Shell shell = new ShellImpl();
 
         while (true) {
             try {
@@ -43,6 +97,10 @@ public class ShellImpl implements Shell {
                     break; // Streams are closed, terminate process
                 }
 
+                if (commandString == null) {
+                    break; // End of input, terminate process
+                }
+
                 if (!StringUtils.isBlank(commandString)) {
                     shell.parseAndEvaluate(commandString, System.out);
                 }
@@ -52,10 +110,96 @@ public class ShellImpl implements Shell {
         }
     }
 
+    /**
+     * Runs the commands from the script file, or from stdin if it is null, with buffered stdout.
+     * <p>
+     * Anything written to stderr first flushes stdout, so both appear in the order they were written
+     * without having to wait for the console.
+     */
+    private static void runBatch(ShellImpl shell, String scriptFile) {
+        PrintStream stdout = new PrintStream(//NOPMD - becomes System.out for the rest of the process
+                new BufferedOutputStream(new FileOutputStream(FileDescriptor.out), BATCH_BUFFER_SIZE),
+                false
+        );
+        PrintStream stderr = new PrintStream(//NOPMD - becomes System.err for the rest of the process
+                new StdoutFlushingOutputStream(new FileOutputStream(FileDescriptor.err), stdout),
+                true
+        );
+        System.setOut(stdout);
+        System.setErr(stderr);
+
+        // the exit application terminates the process without returning here
+        Runtime.getRuntime().addShutdownHook(new Thread(stdout::flush));
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(//NOPMD
+                scriptFile == null ? System.in : IOUtils.openInputStream(scriptFile)))) {
+            shell.runScript(reader, stdout, stderr);
+        } catch (ShellException e) {
+            stderr.println(e.getMessage());
+        } catch (IOException e) {
+            stderr.println(new ShellException(ERR_READ_STREAM, e).getMessage());
+        }
+
+        stdout.flush();
+    }
+
+    /**
+     * Evaluates each non-blank line read from the reader as a command, without prompting.
+     * <p>
+     * An error in one command is written to stderr and does not stop the following commands.
+     *
+     * @param reader reader of the command lines.
+     * @param stdout stream to write the output of the commands to.
+     * @param stderr stream to write error messages to.
+     * @throws IOException if the command lines cannot be read.
+     */
+    public void runScript(BufferedReader reader, OutputStream stdout, PrintStream stderr) throws IOException {
+        String commandString;
+
+        while ((commandString = reader.readLine()) != null) {
+            if (StringUtils.isBlank(commandString)) {
+                continue;
+            }
+
+            try {
+                parseAndEvaluate(commandString, stdout);
+            } catch (Exception e) {
+                stdout.flush();
+                stderr.println(e.getMessage());
+            }
+        }
+
+        stdout.flush();
+    }
+
     @Override
     public void parseAndEvaluate(String commandString, OutputStream stdout)
             throws AbstractApplicationException, ShellException {
-        Command command = CommandBuilderUtil.parseCommand(commandString, new ApplicationRunner());
+        Command command = commandCache.getCommand(commandString);
         command.evaluate(System.in, stdout);
     }
+
+    /**
+     * Flushes stdout before anything is written to the wrapped stderr stream.
+     */
+    private static final class StdoutFlushingOutputStream extends FilterOutputStream {
+        private final OutputStream stdout;
+
+        private StdoutFlushingOutputStream(OutputStream stderr, OutputStream stdout) {
+            super(stderr);
+            this.stdout = stdout;
+        }
+
+        @Override
+        public void write(int byteValue) throws IOException {
+            stdout.flush();
+            out.write(byteValue);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            stdout.flush();
+            out.write(bytes, offset, length);
+        }
+    }
 }
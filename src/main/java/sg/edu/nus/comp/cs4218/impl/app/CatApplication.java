@@ -11,17 +11,14 @@ import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_NULL_ARGS;
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_READING_FILE;
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_READ_STREAM;
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_WRITE_STREAM;
-import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.STRING_NEWLINE;
 import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.STRING_STDIN_FLAG;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.Arrays;
 import java.util.List;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 import sg.edu.nus.comp.cs4218.app.CatInterface;
 import sg.edu.nus.comp.cs4218.exception.CatException;
@@ -31,6 +28,8 @@ import sg.edu.nus.comp.cs4218.impl.parser.CatArgsParser;
 import sg.edu.nus.comp.cs4218.impl.result.CatResult;
 import sg.edu.nus.comp.cs4218.impl.util.CollectionUtils;
 import sg.edu.nus.comp.cs4218.impl.util.IOUtils;
+import sg.edu.nus.comp.cs4218.impl.util.LineSink;
+import sg.edu.nus.comp.cs4218.impl.util.LineSource;
 
 @SuppressWarnings("PMD.GodClass")
 public class CatApplication implements CatInterface {
@@ -66,33 +65,65 @@ public class CatApplication implements CatInterface {
             throw new CatException(ERR_NO_INPUT);
         }
 
-        String output = catContent(isLineNumber, stdin, fileNames);
+        LineSink sink = new LineSink(stdout, true);
 
-        if (output.isEmpty()) {
+        catContent(isLineNumber, stdin, sink, fileNames);
+
+        flushOutput(sink);
+    }
+
+    private void catContent(boolean isLineNumber, InputStream stdin, LineSink sink, String... fileNames)
+            throws CatException {
+        if (fileNames == null || fileNames.length == 0) {
+            writeCatStdin(isLineNumber, stdin, sink);
+            return;
+        }
+
+        if (List.of(fileNames).contains(STRING_STDIN_FLAG)) {
+            writeCatFileAndStdin(isLineNumber, stdin, sink, fileNames);
             return;
         }
 
+        writeCatFiles(isLineNumber, sink, fileNames);
+    }
+
+    private void flushOutput(LineSink sink) throws CatException {
         try {
-            stdout.write(output.getBytes());
-            stdout.write(STRING_NEWLINE.getBytes());
+            sink.flush();
         } catch (Exception e) {
             throw new CatException(ERR_WRITE_STREAM, e);
         }
     }
 
-    private String catContent(boolean isLineNumber, InputStream stdin, String... fileNames) throws CatException {
-        if (fileNames == null || fileNames.length == 0) {
-            return catStdin(isLineNumber, stdin);
-        }
-
-        if (List.of(fileNames).contains(STRING_STDIN_FLAG)) {
-            return catFileAndStdin(isLineNumber, stdin, fileNames);
+    /**
+     * Writes all lines of the input stream to the sink as a new section, numbering them if required.
+     *
+     * @throws IOException  if the input stream cannot be read.
+     * @throws CatException if the sink cannot be written to.
+     */
+    private void writeLines(boolean isLineNumber, InputStream inputStream, LineSink sink)
+            throws IOException, CatException {
+        sink.startSection();
+
+        try (LineSource source = new LineSource(inputStream)) {
+            long lineNumber = 0;
+            String line;
+
+            while ((line = source.readLine()) != null) {
+                lineNumber++;
+
+                try {
+                    sink.writeLine(isLineNumber ? String.format("%s %s", lineNumber, line) : line);
+                } catch (IOException e) {
+                    throw new CatException(ERR_WRITE_STREAM, e);
+                }
+            }
         }
-
-        return catFiles(isLineNumber, fileNames);
     }
 
-    private CatResult computeCatFile(String fileName) {
+    private void writeCatFile(boolean isLineNumber, String fileName, LineSink sink) throws CatException {
+        CatResult result = new CatResult(List.of());
+
         try {
             if (fileName.isEmpty()) {
                 throw new InvalidDirectoryException(fileName, ERR_FILE_NOT_FOUND);
@@ -109,27 +140,50 @@ public class CatApplication implements CatInterface {
             }
 
             try {
-                return new CatResult(IOUtils.getLinesFromInputStream(Files.newInputStream(filePath)));
-
-            } catch (Exception e) {
+                if (isLineNumber) {
+                    writeLines(true, Files.newInputStream(filePath), sink);
+                } else {
+                    // nothing to change in the lines, so the file is copied as it is
+                    sink.writeFile(filePath);
+                }
+
+            } catch (IOException e) {
                 throw new InvalidDirectoryException(fileName, ERR_READING_FILE, e);
             }
 
+        } catch (CatException e) {
+            throw e;
         } catch (Exception e) {
-            return new CatResult(new CatException(e.getMessage(), e).getMessage());
+            result = new CatResult(new CatException(e.getMessage(), e).getMessage());
         }
+
+        outputError(result, sink);
     }
 
-    private CatResult computeCatStdin(InputStream stdin) {
+    private void writeCatStdin(boolean isLineNumber, InputStream stdin, LineSink sink) throws CatException {
+        CatResult result = new CatResult(List.of());
+
         try {
-            return new CatResult(IOUtils.getLinesFromInputStream(stdin));
-        } catch (Exception e) {
-            return new CatResult(new CatException(ERR_READ_STREAM, e).getMessage());
+            writeLines(isLineNumber, stdin, sink);
+        } catch (IOException e) {
+            result = new CatResult(new CatException(ERR_READ_STREAM, e).getMessage());
         }
+
+        outputError(result, sink);
     }
 
-    @Override
-    public String catFiles(Boolean isLineNumber, String... fileNames) throws CatException {
+    /**
+     * Writes the error of the result (if any) to stderr, after the lines written so far have
+     * reached stdout.
+     */
+    private void outputError(CatResult result, LineSink sink) throws CatException {
+        if (result.isError()) {
+            flushOutput(sink);
+            result.outputError();
+        }
+    }
+
+    private void writeCatFiles(Boolean isLineNumber, LineSink sink, String... fileNames) throws CatException {
         if (fileNames == null || fileNames.length == 0) {
             throw new CatException(ERR_NO_FILE_ARGS);
         }
@@ -142,23 +196,12 @@ public class CatApplication implements CatInterface {
             throw new CatException(ERR_NULL_ARGS);
         }
 
-        List<String> result = Arrays.stream(fileNames)
-                .flatMap(fileName -> {
-                    CatResult content = computeCatFile(fileName);
-
-                    content.outputError();
-
-                    String contentString = content.formatToString(isLineNumber);
-
-                    return contentString.isEmpty() ? Stream.empty() : Stream.of(contentString);
-                })
-                .collect(Collectors.toList());
-
-        return String.join(STRING_NEWLINE, result);
+        for (String fileName : fileNames) {
+            writeCatFile(isLineNumber, fileName, sink);
+        }
     }
 
-    @Override
-    public String catStdin(Boolean isLineNumber, InputStream stdin) throws CatException {
+    private void writeCatStdin(Boolean isLineNumber, InputStream stdin, LineSink sink) throws CatException {
         if (stdin == null) {
             throw new CatException(ERR_NO_ISTREAM);
         }
@@ -167,15 +210,11 @@ public class CatApplication implements CatInterface {
             throw new CatException(ERR_NULL_ARGS);
         }
 
-        CatResult result = computeCatStdin(stdin);
-
-        result.outputError();
-
-        return result.formatToString(isLineNumber);
+        writeCatStdin(isLineNumber.booleanValue(), stdin, sink);
     }
 
-    @Override
-    public String catFileAndStdin(Boolean isLineNumber, InputStream stdin, String... fileNames) throws CatException {
+    private void writeCatFileAndStdin(Boolean isLineNumber, InputStream stdin, LineSink sink, String... fileNames)
+            throws CatException {
         if (stdin == null) {
             throw new CatException(ERR_NO_ISTREAM);
         }
@@ -192,20 +231,27 @@ public class CatApplication implements CatInterface {
             throw new CatException(ERR_NULL_ARGS);
         }
 
-        List<String> result = Arrays.stream(fileNames)
-                .flatMap(fileName -> {
-                    CatResult content = fileName.equals(STRING_STDIN_FLAG)
-                            ? computeCatStdin(stdin)
-                            : computeCatFile(fileName);
-
-                    content.outputError();
+        for (String fileName : fileNames) {
+            if (fileName.equals(STRING_STDIN_FLAG)) {
+                writeCatStdin(isLineNumber.booleanValue(), stdin, sink);
+            } else {
+                writeCatFile(isLineNumber, fileName, sink);
+            }
+        }
+    }
 
-                    String contentString = content.formatToString(isLineNumber);
+    @Override
+    public String catFiles(Boolean isLineNumber, String... fileNames) throws CatException {
+        return LineSink.collectToString(sink -> writeCatFiles(isLineNumber, sink, fileNames));
+    }
 
-                    return contentString.isEmpty() ? Stream.empty() : Stream.of(contentString);
-                })
-                .collect(Collectors.toList());
+    @Override
+    public String catStdin(Boolean isLineNumber, InputStream stdin) throws CatException {
+        return LineSink.collectToString(sink -> writeCatStdin(isLineNumber, stdin, sink));
+    }
 
-        return String.join(STRING_NEWLINE, result);
+    @Override
+    public String catFileAndStdin(Boolean isLineNumber, InputStream stdin, String... fileNames) throws CatException {
+        return LineSink.collectToString(sink -> writeCatFileAndStdin(isLineNumber, stdin, sink, fileNames));
     }
 }
@@ -1,6 +1,7 @@
 package sg.edu.nus.comp.cs4218.impl.app;
 
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_FILE_NOT_FOUND;
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_INVALID_ARGS;
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_INVALID_FILES;
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_INVALID_REGEX;
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_IS_DIR;
@@ -13,19 +14,32 @@ import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_NULL_ARGS;
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_READING_FILE;
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_READ_STREAM;
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_WRITE_STREAM;
-import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.STRING_NEWLINE;
+import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.STRING_EMPTY;
+import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.STRING_LABEL_VALUE_PAIR;
 import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.STRING_STDIN_FLAG;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.Arrays;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 import sg.edu.nus.comp.cs4218.app.GrepInterface;
 import sg.edu.nus.comp.cs4218.exception.GrepException;
@@ -34,13 +48,84 @@ import sg.edu.nus.comp.cs4218.exception.InvalidDirectoryException;
 import sg.edu.nus.comp.cs4218.impl.parser.GrepArgsParser;
 import sg.edu.nus.comp.cs4218.impl.result.GrepResult;
 import sg.edu.nus.comp.cs4218.impl.util.CollectionUtils;
+import sg.edu.nus.comp.cs4218.impl.util.FileChunk;
 import sg.edu.nus.comp.cs4218.impl.util.IOUtils;
+import sg.edu.nus.comp.cs4218.impl.util.LineSink;
+import sg.edu.nus.comp.cs4218.impl.util.LineSource;
+import sg.edu.nus.comp.cs4218.impl.util.LiteralSearcher;
+import sg.edu.nus.comp.cs4218.impl.util.OrderedTaskRunner;
+import sg.edu.nus.comp.cs4218.impl.util.OrderedTaskRunner.IoTask;
+import sg.edu.nus.comp.cs4218.impl.util.SpillingLineQueue;
 
 @SuppressWarnings("PMD.GodClass")
 public class GrepApplication implements GrepInterface {
 
     public static final String STDIN_LABEL = "(standard input)";
 
+    public static final long DEFAULT_CHUNK_SIZE = 8 * 1024 * 1024;
+
+    public static final long DEFAULT_MEMORY_BUDGET = 64 * 1024 * 1024;
+
+    private final Executor executor;
+    private final int parallelism;
+    private final long chunkSize;
+    private final long memoryBudget;
+    private final Path spillDirectory;
+
+    public GrepApplication() {
+        this(ForkJoinPool.commonPool(), Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param executor    executor used to search multiple files, or chunks of a large file, concurrently.
+     * @param parallelism maximum number of files or chunks searched at the same time, or 1 to search
+     *                    everything sequentially.
+     */
+    public GrepApplication(Executor executor, int parallelism) {
+        this(executor, parallelism, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * @param executor    executor used to search multiple files, or chunks of a large file, concurrently.
+     * @param parallelism maximum number of files or chunks searched at the same time, or 1 to search
+     *                    everything sequentially.
+     * @param chunkSize   size in bytes above which a single file is split into chunks of about this
+     *                    size, which are searched concurrently.
+     */
+    public GrepApplication(Executor executor, int parallelism, long chunkSize) {
+        this(
+                executor,
+                parallelism,
+                chunkSize,
+                Math.min(DEFAULT_MEMORY_BUDGET, Runtime.getRuntime().maxMemory() / 8),
+                Path.of(System.getProperty("java.io.tmpdir"))
+        );
+    }
+
+    /**
+     * @param executor       executor used to search multiple files, or chunks of a large file,
+     *                       concurrently.
+     * @param parallelism    maximum number of files or chunks searched at the same time, or 1 to search
+     *                       everything sequentially.
+     * @param chunkSize      size in bytes above which a single file is split into chunks of about this
+     *                       size, which are searched concurrently.
+     * @param memoryBudget   number of bytes of heap the matching lines of the files waiting to be
+     *                       written may take up together before they are spilled into temporary files.
+     * @param spillDirectory directory for the temporary files the matching lines are spilled into.
+     */
+    public GrepApplication(Executor executor, int parallelism, long chunkSize, long memoryBudget,
+                           Path spillDirectory) {
+        if (executor == null || parallelism < 1 || chunkSize < 1 || memoryBudget < 1 || spillDirectory == null) {
+            throw new IllegalArgumentException(ERR_INVALID_ARGS);
+        }
+
+        this.executor = executor;
+        this.parallelism = parallelism;
+        this.chunkSize = chunkSize;
+        this.memoryBudget = memoryBudget;
+        this.spillDirectory = spillDirectory;
+    }
+
     /**
      * Runs the grep application with the specified arguments.
      *
@@ -74,115 +159,428 @@ public class GrepApplication implements GrepInterface {
             throw new GrepException(ERR_NO_INPUT);
         }
 
-        String output = grepContent(
-                pattern,
-                isCaseInsensitive,
-                isCountLines,
-                isPrefixFileName,
-                stdin,
-                fileNames
-        );
+        LineSink sink = new LineSink(stdout, true);
 
-        if (output.isEmpty()) {
-            return;
-        }
+        grepContent(pattern, isCaseInsensitive, isCountLines, isPrefixFileName, stdin, sink, fileNames);
 
-        try {
-            stdout.write(output.getBytes());
-            stdout.write(STRING_NEWLINE.getBytes());
-        } catch (Exception e) {
-            throw new GrepException(ERR_WRITE_STREAM, e);
-        }
+        flushOutput(sink);
     }
 
-    private String grepContent(
+    private void grepContent(
             String pattern,
             boolean isCaseInsensitive,
             boolean isCountLines,
             boolean isPrefixFileName,
             InputStream stdin,
+            LineSink sink,
             String... fileNames
     ) throws GrepException {
         if (fileNames == null || fileNames.length == 0) {
-            return grepFromStdin(pattern, isCaseInsensitive, isCountLines, isPrefixFileName, stdin);
+            writeGrepFromStdin(pattern, isCaseInsensitive, isCountLines, isPrefixFileName, stdin, sink);
+            return;
         }
 
         if (List.of(fileNames).contains(STRING_STDIN_FLAG)) {
-            return grepFromFileAndStdin(pattern, isCaseInsensitive, isCountLines, isPrefixFileName, stdin, fileNames);
+            writeGrepFromFileAndStdin(pattern, isCaseInsensitive, isCountLines, isPrefixFileName, stdin, sink,
+                    fileNames);
+            return;
         }
 
-        return grepFromFiles(pattern, isCaseInsensitive, isCountLines, isPrefixFileName, fileNames);
+        writeGrepFromFiles(pattern, isCaseInsensitive, isCountLines, isPrefixFileName, sink, fileNames);
     }
 
-    private Pattern processRegexPattern(String pattern, boolean isCaseInsensitive) throws GrepException {
+    private void flushOutput(LineSink sink) throws GrepException {
+        try {
+            sink.flush();
+        } catch (Exception e) {
+            throw new GrepException(ERR_WRITE_STREAM, e);
+        }
+    }
+
+    /**
+     * Returns a test of whether a line contains a match of the pattern, which can be shared between
+     * threads.
+     * <p>
+     * Patterns without regex metacharacters are searched for as plain strings, which is much faster
+     * than running the regex engine on every line.
+     */
+    private Predicate<String> processRegexPattern(String pattern, boolean isCaseInsensitive) throws GrepException {
+        if (LiteralSearcher.isLiteral(pattern)) {
+            return new LiteralSearcher(pattern, isCaseInsensitive)::isFoundIn;
+        }
+
+        Pattern grepPattern;
         try {
-            return isCaseInsensitive
+            grepPattern = isCaseInsensitive
                     ? Pattern.compile(pattern, Pattern.CASE_INSENSITIVE)
                     : Pattern.compile(pattern);
         } catch (PatternSyntaxException e) {
             throw new GrepException(ERR_INVALID_REGEX, e);
         }
+
+        // reuse one matcher per thread instead of creating one for every line
+        ThreadLocal<Matcher> matchers = ThreadLocal.withInitial(() -> grepPattern.matcher(STRING_EMPTY));
+        return line -> matchers.get().reset(line).find();
     }
 
-    private List<String> grepFromInputStream(
-            Pattern grepPattern,
-            InputStream inputStream
+    /**
+     * Writes the lines of the input stream which match the pattern to the sink as a new section,
+     * or only their count if required.
+     *
+     * @throws IOException   if the input stream cannot be read.
+     * @throws GrepException if the sink cannot be written to.
+     */
+    private void writeMatches(
+            Predicate<String> lineMatcher,
+            String label,
+            boolean isCountLines,
+            boolean isPrefixFileName,
+            InputStream inputStream,
+            LineSink sink
+    ) throws IOException, GrepException {
+        sink.startSection();
+
+        long count = 0;
+
+        try (LineSource source = new LineSource(inputStream)) {
+            String line;
+
+            while ((line = source.readLine()) != null) {
+                if (!lineMatcher.test(line)) {
+                    continue;
+                }
+
+                count++;
+
+                if (!isCountLines) {
+                    writeLine(sink, isPrefixFileName ? String.format(STRING_LABEL_VALUE_PAIR, label, line) : line);
+                }
+            }
+        }
+
+        if (isCountLines) {
+            String stringCount = String.valueOf(count);
+            writeLine(sink, isPrefixFileName ? String.format(STRING_LABEL_VALUE_PAIR, label, stringCount) : stringCount);
+        }
+    }
+
+    private void writeLine(LineSink sink, String line) throws GrepException {
+        try {
+            sink.writeLine(line);
+        } catch (IOException e) {
+            throw new GrepException(ERR_WRITE_STREAM, e);
+        }
+    }
+
+    /**
+     * Returns the path of the file, checking that it is a file which exists.
+     */
+    private Path resolveFilePath(String fileName) throws Exception {
+        if (fileName.isEmpty()) {
+            throw new InvalidDirectoryException(fileName, ERR_FILE_NOT_FOUND);
+        }
+
+        Path filePath = IOUtils.resolveAbsoluteFilePath(fileName);
+
+        if (Files.notExists(filePath)) {
+            throw new InvalidDirectoryException(fileName, ERR_FILE_NOT_FOUND);
+        }
+
+        if (Files.isDirectory(filePath)) {
+            throw new InvalidDirectoryException(fileName, ERR_IS_DIR);
+        }
+
+        return filePath;
+    }
+
+    private void writeGrepFromFile(
+            Predicate<String> lineMatcher,
+            boolean isCountLines,
+            boolean isPrefixFileName,
+            String fileName,
+            LineSink sink
     ) throws GrepException {
+        GrepResult result = new GrepResult(fileName, List.of());
+
         try {
-            return IOUtils.getLinesFromInputStream(inputStream)
-                    .stream()
-                    .filter(line -> grepPattern.matcher(line).find())
-                    .collect(Collectors.toList());
+            Path filePath = resolveFilePath(fileName);
+
+            try {
+                if (isSearchedInChunks(filePath)) {
+                    writeMatchesInChunks(lineMatcher, fileName, isCountLines, isPrefixFileName, filePath, sink);
+                } else {
+                    writeMatches(lineMatcher, fileName, isCountLines, isPrefixFileName, Files.newInputStream(filePath),
+                            sink);
+                }
+
+            } catch (IOException e) {
+                throw new InvalidDirectoryException(fileName, ERR_READING_FILE, e);
+            }
+
+        } catch (GrepException e) {
+            throw e;
         } catch (Exception e) {
-            throw new GrepException(e.getMessage(), e);
+            result = new GrepResult(new GrepException(e.getMessage(), e).getMessage());
         }
+
+        outputError(result, sink);
     }
 
-    private GrepResult computeGrepFromFile(
-            Pattern grepPattern,
-            String fileName
-    ) {
-        try {
-            if (fileName.isEmpty()) {
-                throw new InvalidDirectoryException(fileName, ERR_FILE_NOT_FOUND);
+    /**
+     * Returns true if the file is large enough to be split into chunks which are searched concurrently.
+     * <p>
+     * Chunks end just after a newline byte, which is only the end of a line in encodings where the
+     * newline byte never occurs inside another character.
+     */
+    private boolean isSearchedInChunks(Path filePath) throws IOException {
+        Charset charset = Charset.defaultCharset();
+
+        return parallelism > 1
+                && Files.size(filePath) > chunkSize
+                && (StandardCharsets.UTF_8.equals(charset)
+                || StandardCharsets.US_ASCII.equals(charset)
+                || StandardCharsets.ISO_8859_1.equals(charset));
+    }
+
+    /**
+     * Writes the matching lines of a large file to the sink as a new section, or only their count if
+     * required, after searching chunks of the memory-mapped file concurrently.
+     *
+     * @throws IOException   if the file cannot be read.
+     * @throws GrepException if the sink cannot be written to.
+     */
+    private void writeMatchesInChunks(
+            Predicate<String> lineMatcher,
+            String label,
+            boolean isCountLines,
+            boolean isPrefixFileName,
+            Path filePath,
+            LineSink sink
+    ) throws IOException, GrepException {
+        try (FileChannel channel = FileChannel.open(filePath, StandardOpenOption.READ)) {
+            List<FileChunk> chunks = FileChunk.split(channel, chunkSize);
+            List<IoTask<GrepResult>> tasks = chunks.stream()
+                    .<IoTask<GrepResult>>map(chunk -> () ->
+                            computeGrepFromChunk(lineMatcher, isCountLines, label, channel, chunk))
+                    .collect(Collectors.toList());
+            long[] count = {0};
+
+            sink.startSection();
+
+            OrderedTaskRunner.runInOrder(executor, parallelism, tasks, result -> {
+                count[0] += result.getCount();
+
+                if (!isCountLines) {
+                    for (String line : result.formatToLines(false, isPrefixFileName)) {
+                        writeLine(sink, line);
+                    }
+                }
+            });
+
+            if (isCountLines) {
+                writeLine(sink, new GrepResult(label, count[0]).formatToString(true, isPrefixFileName));
             }
+        }
+    }
 
-            Path filePath = IOUtils.resolveAbsoluteFilePath(fileName);
+    /**
+     * Collects the lines of one chunk of a file which match the pattern, splitting lines the same way
+     * as {@link LineSource}.
+     *
+     * @throws IOException if the chunk cannot be read.
+     */
+    private GrepResult computeGrepFromChunk(
+            Predicate<String> lineMatcher,
+            boolean isCountLines,
+            String label,
+            FileChannel channel,
+            FileChunk chunk
+    ) throws IOException {
+        CharBuffer chars = Charset.defaultCharset().decode(chunk.map(channel));
+
+        char[] array = chars.array();
+        int end = chars.arrayOffset() + chars.limit();
+        int lineStart = chars.arrayOffset() + chars.position();
+        List<String> lines = new ArrayList<>();
+        long count = 0;
+
+        for (int index = lineStart; index <= end; index++) {
+            boolean isEndOfChunk = index == end;
+
+            if (!isEndOfChunk && array[index] != '\n' && array[index] != '\r') {
+                continue;
+            }
 
-            if (Files.notExists(filePath)) {
-                throw new InvalidDirectoryException(fileName, ERR_FILE_NOT_FOUND);
+            if (isEndOfChunk && lineStart == end) {
+                break;
             }
 
-            if (Files.isDirectory(filePath)) {
-                throw new InvalidDirectoryException(fileName, ERR_IS_DIR);
+            String line = new String(array, lineStart, index - lineStart);
+            if (lineMatcher.test(line)) {
+                count++;
+
+                if (!isCountLines) {
+                    lines.add(line);
+                }
             }
 
-            try {
-                return new GrepResult(fileName, grepFromInputStream(grepPattern, Files.newInputStream(filePath)));
+            if (!isEndOfChunk && array[index] == '\r' && index + 1 < end && array[index + 1] == '\n') {
+                index++;
+            }
+            lineStart = index + 1;
+        }
+
+        return isCountLines ? new GrepResult(label, count) : new GrepResult(label, lines);
+    }
+
+    /**
+     * Adds the lines of the file which match the pattern to the queue, or only counts them if
+     * required. Unlike {@link #writeGrepFromFile}, this does not write anything, so it can run on any
+     * thread.
+     *
+     * @return the count of matching lines, or the error if the file cannot be read.
+     */
+    private GrepResult searchFile(
+            Predicate<String> lineMatcher,
+            boolean isCountLines,
+            String fileName,
+            SpillingLineQueue matches
+    ) {
+        try {
+            Path filePath = resolveFilePath(fileName);
+
+            try (LineSource source = new LineSource(Files.newInputStream(filePath))) {
+                long count = 0;
+                String line;
+
+                while ((line = source.readLine()) != null) {
+                    if (lineMatcher.test(line)) {
+                        count++;
+
+                        if (!isCountLines) {
+                            matches.add(line);
+                        }
+                    }
+                }
+
+                matches.finish();
+                return new GrepResult(fileName, count);
 
-            } catch (Exception e) {
+            } catch (IOException e) {
                 throw new InvalidDirectoryException(fileName, ERR_READING_FILE, e);
             }
 
         } catch (Exception e) {
             return new GrepResult(new GrepException(e.getMessage(), e).getMessage());
+        } finally {
+            // the lines written so far are not waited on forever even if the file cannot be read
+            finishQuietly(matches);
         }
     }
 
-    private GrepResult computeGrepFromStdin(Pattern grepPattern, InputStream stdin) {
+    private static void finishQuietly(SpillingLineQueue matches) {
         try {
-            return new GrepResult(STDIN_LABEL, grepFromInputStream(grepPattern, stdin));
-        } catch (Exception e) {
-            return new GrepResult(new GrepException(ERR_READ_STREAM, e).getMessage());
+            matches.finish();
+        } catch (IOException e) {
+            // the error has already been reported by the search
         }
     }
 
-    @Override
-    public String grepFromFiles(
+    /**
+     * Searches the files concurrently, at most {@code parallelism} files ahead of the one being
+     * written, and writes the result of each file in the order the files are given.
+     * <p>
+     * The matching lines of the file being written are written as they are found. Those of the files
+     * after it are held until their turn, each file in a queue which spills them into a temporary file
+     * once they take up its share of the memory budget.
+     */
+    private void writeGrepFromFilesInParallel(
+            Predicate<String> lineMatcher,
+            boolean isCountLines,
+            LineSink sink,
+            String... fileNames
+    ) throws GrepException {
+        Deque<FileSearch> searches = new ArrayDeque<>();
+        long queueMemoryBudget = Math.max(1, memoryBudget / parallelism);
+        int nextIndex = 0;
+
+        try {
+            while (nextIndex < fileNames.length || !searches.isEmpty()) {
+                while (nextIndex < fileNames.length && searches.size() < parallelism) {
+                    String fileName = fileNames[nextIndex++];
+                    SpillingLineQueue matches = //NOPMD - closed together with its search
+                            new SpillingLineQueue(queueMemoryBudget, spillDirectory);
+                    searches.add(new FileSearch(fileName, matches, CompletableFuture.supplyAsync(
+                            () -> searchFile(lineMatcher, isCountLines, fileName, matches), executor)));
+                }
+
+                FileSearch search = searches.peek();
+                sink.startSection();
+                search.matches.forEachLine(line -> writeLine(sink, String.format(STRING_LABEL_VALUE_PAIR,
+                        search.fileName, line)));
+
+                GrepResult result = search.result.join();
+                if (isCountLines && !result.isError()) {
+                    writeLine(sink, result.formatToString(true, true));
+                }
+                outputError(result, sink);
+
+                searches.remove().matches.close();
+            }
+        } catch (IOException e) {
+            throw new GrepException(ERR_READ_STREAM, e);
+        } finally {
+            // searches still running are no longer needed if writing failed
+            for (FileSearch search : searches) {
+                search.result.cancel(false);
+                closeQuietly(search.matches);
+            }
+        }
+    }
+
+    private static void closeQuietly(SpillingLineQueue matches) {
+        try {
+            matches.close();
+        } catch (IOException e) {
+            // the error which caused the close is reported instead
+        }
+    }
+
+    private void writeGrepFromStdin(
+            Predicate<String> lineMatcher,
+            boolean isCountLines,
+            boolean isPrefixFileName,
+            InputStream stdin,
+            LineSink sink
+    ) throws GrepException {
+        GrepResult result = new GrepResult(STDIN_LABEL, List.of());
+
+        try {
+            writeMatches(lineMatcher, STDIN_LABEL, isCountLines, isPrefixFileName, stdin, sink);
+        } catch (IOException e) {
+            result = new GrepResult(new GrepException(ERR_READ_STREAM, e).getMessage());
+        }
+
+        outputError(result, sink);
+    }
+
+    /**
+     * Writes the error of the result (if any) to stderr, after the lines written so far have
+     * reached stdout.
+     */
+    private void outputError(GrepResult result, LineSink sink) throws GrepException {
+        if (result.isError()) {
+            flushOutput(sink);
+            result.outputError();
+        }
+    }
+
+    private void writeGrepFromFiles(
             String pattern,
             Boolean isCaseInsensitive,
             Boolean isCountLines,
             Boolean isPrefixFileName,
+            LineSink sink,
             String... fileNames
     ) throws GrepException {
         if (pattern == null) {
@@ -200,30 +598,25 @@ public class GrepApplication implements GrepInterface {
             throw new GrepException(ERR_NULL_ARGS);
         }
 
-        Pattern grepPattern = processRegexPattern(pattern, isCaseInsensitive);
-
-        List<String> result = Arrays.stream(fileNames)
-                .flatMap(fileName -> {
-                    GrepResult content = computeGrepFromFile(grepPattern, fileName);
+        Predicate<String> lineMatcher = processRegexPattern(pattern, isCaseInsensitive);
 
-                    content.outputError();
-
-                    String contentString = content.formatToString(isCountLines, isPrefixFileName || fileNames.length > 1);
-
-                    return contentString.isEmpty() ? Stream.empty() : Stream.of(contentString);
-                })
-                .collect(Collectors.toList());
+        if (fileNames.length > 1 && parallelism > 1) {
+            writeGrepFromFilesInParallel(lineMatcher, isCountLines, sink, fileNames);
+            return;
+        }
 
-        return String.join(STRING_NEWLINE, result);
+        for (String fileName : fileNames) {
+            writeGrepFromFile(lineMatcher, isCountLines, isPrefixFileName || fileNames.length > 1, fileName, sink);
+        }
     }
 
-    @Override
-    public String grepFromStdin(
+    private void writeGrepFromStdin(
             String pattern,
             Boolean isCaseInsensitive,
             Boolean isCountLines,
             Boolean isPrefixFileName,
-            InputStream stdin
+            InputStream stdin,
+            LineSink sink
     ) throws GrepException {
         if (pattern == null) {
             throw new GrepException(ERR_NO_REGEX);
@@ -237,22 +630,18 @@ public class GrepApplication implements GrepInterface {
             throw new GrepException(ERR_NULL_ARGS);
         }
 
-        Pattern grepPattern = processRegexPattern(pattern, isCaseInsensitive);
+        Predicate<String> lineMatcher = processRegexPattern(pattern, isCaseInsensitive);
 
-        GrepResult result = computeGrepFromStdin(grepPattern, stdin);
-
-        result.outputError();
-
-        return result.formatToString(isCountLines, isPrefixFileName);
+        writeGrepFromStdin(lineMatcher, isCountLines, isPrefixFileName, stdin, sink);
     }
 
-    @Override
-    public String grepFromFileAndStdin(
+    private void writeGrepFromFileAndStdin(
             String pattern,
             Boolean isCaseInsensitive,
             Boolean isCountLines,
             Boolean isPrefixFileName,
             InputStream stdin,
+            LineSink sink,
             String... fileNames
     ) throws GrepException {
         if (pattern == null) {
@@ -275,22 +664,67 @@ public class GrepApplication implements GrepInterface {
             throw new GrepException(ERR_NULL_ARGS);
         }
 
-        Pattern grepPattern = processRegexPattern(pattern, isCaseInsensitive);
+        Predicate<String> lineMatcher = processRegexPattern(pattern, isCaseInsensitive);
+        boolean isPrefix = isPrefixFileName || fileNames.length > 1;
 
-        List<String> result = Arrays.stream(fileNames)
-                .flatMap(fileName -> {
-                    GrepResult content = fileName.equals(STRING_STDIN_FLAG)
-                            ? computeGrepFromStdin(grepPattern, stdin)
-                            : computeGrepFromFile(grepPattern, fileName);
+        for (String fileName : fileNames) {
+            if (fileName.equals(STRING_STDIN_FLAG)) {
+                writeGrepFromStdin(lineMatcher, isCountLines, isPrefix, stdin, sink);
+            } else {
+                writeGrepFromFile(lineMatcher, isCountLines, isPrefix, fileName, sink);
+            }
+        }
+    }
 
-                    content.outputError();
+    @Override
+    public String grepFromFiles(
+            String pattern,
+            Boolean isCaseInsensitive,
+            Boolean isCountLines,
+            Boolean isPrefixFileName,
+            String... fileNames
+    ) throws GrepException {
+        return LineSink.collectToString(sink ->
+                writeGrepFromFiles(pattern, isCaseInsensitive, isCountLines, isPrefixFileName, sink, fileNames));
+    }
 
-                    String contentString = content.formatToString(isCountLines, isPrefixFileName || fileNames.length > 1);
+    @Override
+    public String grepFromStdin(
+            String pattern,
+            Boolean isCaseInsensitive,
+            Boolean isCountLines,
+            Boolean isPrefixFileName,
+            InputStream stdin
+    ) throws GrepException {
+        return LineSink.collectToString(sink ->
+                writeGrepFromStdin(pattern, isCaseInsensitive, isCountLines, isPrefixFileName, stdin, sink));
+    }
 
-                    return contentString.isEmpty() ? Stream.empty() : Stream.of(contentString);
-                })
-                .collect(Collectors.toList());
+    @Override
+    public String grepFromFileAndStdin(
+            String pattern,
+            Boolean isCaseInsensitive,
+            Boolean isCountLines,
+            Boolean isPrefixFileName,
+            InputStream stdin,
+            String... fileNames
+    ) throws GrepException {
+        return LineSink.collectToString(sink -> writeGrepFromFileAndStdin(
+                pattern, isCaseInsensitive, isCountLines, isPrefixFileName, stdin, sink, fileNames));
+    }
 
-        return String.join(STRING_NEWLINE, result);
+    /**
+     * A file being searched, with the queue its matching lines are added to.
+     */
+    private static final class FileSearch {
+        private final String fileName;
+        private final SpillingLineQueue matches;
+        private final CompletableFuture<GrepResult> result;
+
+        private FileSearch(String fileName, SpillingLineQueue matches, CompletableFuture<GrepResult> result) {
+            this.fileName = fileName;
+            this.matches = matches;
+            this.result = result;
+        }
     }
 }
@@ -0,0 +1,275 @@
+package sg.edu.nus.comp.cs4218.impl.app;
+
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_FILE_NOT_FOUND;
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_ILLEGAL_LINE_COUNT;
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_IS_DIR;
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_NO_FILE_ARGS;
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_NO_ISTREAM;
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_NO_OSTREAM;
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_NULL_ARGS;
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_READING_FILE;
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_READ_STREAM;
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_WRITE_STREAM;
+import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.STRING_FILE_HEADER;
+import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.STRING_NEWLINE;
+import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.STRING_STDIN_FLAG;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import sg.edu.nus.comp.cs4218.app.HeadInterface;
+import sg.edu.nus.comp.cs4218.exception.HeadException;
+import sg.edu.nus.comp.cs4218.exception.InvalidArgsException;
+import sg.edu.nus.comp.cs4218.exception.InvalidDirectoryException;
+import sg.edu.nus.comp.cs4218.impl.parser.HeadArgsParser;
+import sg.edu.nus.comp.cs4218.impl.result.HeadResult;
+import sg.edu.nus.comp.cs4218.impl.util.CollectionUtils;
+import sg.edu.nus.comp.cs4218.impl.util.IOUtils;
+
+/**
+ * The head command writes the first lines of each input.
+ * <p>
+ * Lines are counted in the raw bytes as they are read, and reading stops as soon as enough lines have
+ * been written, so the rest of a large input is never read.
+ */
+@SuppressWarnings("PMD.GodClass")
+public class HeadApplication implements HeadInterface {
+    public static final long DEFAULT_NUM_OF_LINES = 10;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    @Override
+    public void run(String[] args, InputStream stdin, OutputStream stdout) throws HeadException {
+        HeadArgsParser parser = new HeadArgsParser();
+
+        try {
+            parser.parse(args);
+        } catch (InvalidArgsException e) {
+            throw new HeadException(e.getMessage(), e);
+        }
+
+        if (stdout == null) {
+            throw new HeadException(ERR_NO_OSTREAM);
+        }
+
+        long numOfLines = parseNumOfLines(parser.getNumOfLines());
+
+        if (parser.getFileNames().isEmpty()) {
+            writeHeadFromStdin(numOfLines, stdin, stdout);
+        } else {
+            writeHeadFromFiles(numOfLines, stdin, stdout, parser.getFileNames().toArray(new String[0]));
+        }
+    }
+
+    private static long parseNumOfLines(String numOfLines) throws HeadException {
+        if (numOfLines == null) {
+            return DEFAULT_NUM_OF_LINES;
+        }
+
+        try {
+            long result = Long.parseLong(numOfLines);
+            if (result >= 0) {
+                return result;
+            }
+        } catch (NumberFormatException e) {
+            throw new HeadException(ERR_ILLEGAL_LINE_COUNT, e);
+        }
+
+        throw new HeadException(ERR_ILLEGAL_LINE_COUNT);
+    }
+
+    private void writeHeadFromStdin(Long numOfLines, InputStream stdin, OutputStream stdout) throws HeadException {
+        if (stdin == null) {
+            throw new HeadException(ERR_NO_ISTREAM);
+        }
+
+        writeHeadFromFiles(numOfLines, stdin, stdout, STRING_STDIN_FLAG);
+    }
+
+    private void writeHeadFromFiles(Long numOfLines, InputStream stdin, OutputStream stdout, String... fileNames)
+            throws HeadException {
+        if (fileNames == null || fileNames.length == 0) {
+            throw new HeadException(ERR_NO_FILE_ARGS);
+        }
+
+        if (numOfLines == null || CollectionUtils.isAnyNull((Object[]) fileNames)) {
+            throw new HeadException(ERR_NULL_ARGS);
+        }
+
+        if (numOfLines < 0) {
+            throw new HeadException(ERR_ILLEGAL_LINE_COUNT);
+        }
+
+        boolean hasWrittenHeader = false;
+
+        for (String fileName : fileNames) {
+            // a header before each file, separated from the previous file by an empty line
+            String header = fileNames.length > 1
+                    ? (hasWrittenHeader ? STRING_NEWLINE : "") + String.format(STRING_FILE_HEADER, fileName)
+                    + STRING_NEWLINE
+                    : "";
+
+            if (fileName.equals(STRING_STDIN_FLAG)) {
+                writeHeadFromStdin(header, numOfLines, stdin, stdout);
+                hasWrittenHeader = true;
+            } else if (writeHeadFromFile(fileName, header, numOfLines, stdout)) {
+                hasWrittenHeader = true;
+            }
+        }
+    }
+
+    /**
+     * Writes the header and the head of stdin, which is left open for the commands after this one.
+     */
+    private static void writeHeadFromStdin(String header, long numOfLines, InputStream stdin, OutputStream stdout)
+            throws HeadException {
+        if (stdin == null) {
+            throw new HeadException(ERR_NO_ISTREAM);
+        }
+
+        writeBytes(stdout, header.getBytes());
+
+        try {
+            writeHead(stdin, numOfLines, stdout);
+        } catch (IOException e) {
+            outputError(stdout, new HeadResult(new HeadException(ERR_READ_STREAM, e).getMessage()));
+        }
+    }
+
+    /**
+     * Writes the header and the head of a file. Like cat, a file which cannot be opened or read is
+     * reported instead, so that the rest of the files are still written.
+     *
+     * @return true if the file could be opened and its header was written.
+     */
+    private static boolean writeHeadFromFile(String fileName, String header, long numOfLines, OutputStream stdout)
+            throws HeadException {
+        Path filePath;
+
+        try {
+            filePath = resolveFile(fileName);
+        } catch (Exception e) {
+            outputError(stdout, new HeadResult(new HeadException(e.getMessage(), e).getMessage()));
+            return false;
+        }
+
+        boolean isOpened = false;
+
+        try (InputStream inputStream = Files.newInputStream(filePath)) {
+            isOpened = true;
+            writeBytes(stdout, header.getBytes());
+            writeHead(inputStream, numOfLines, stdout);
+        } catch (IOException e) {
+            String message = new InvalidDirectoryException(fileName, ERR_READING_FILE, e).getMessage();
+            outputError(stdout, new HeadResult(new HeadException(message, e).getMessage()));
+        }
+
+        return isOpened;
+    }
+
+    private static Path resolveFile(String fileName) throws Exception {
+        if (fileName.isEmpty()) {
+            throw new InvalidDirectoryException(fileName, ERR_FILE_NOT_FOUND);
+        }
+
+        Path filePath = IOUtils.resolveAbsoluteFilePath(fileName);
+
+        if (Files.notExists(filePath)) {
+            throw new InvalidDirectoryException(fileName, ERR_FILE_NOT_FOUND);
+        }
+
+        if (Files.isDirectory(filePath)) {
+            throw new InvalidDirectoryException(fileName, ERR_IS_DIR);
+        }
+
+        return filePath;
+    }
+
+    /**
+     * Writes the error of an input to stderr, after the lines written so far have reached stdout.
+     */
+    private static void outputError(OutputStream stdout, HeadResult result) throws HeadException {
+        try {
+            stdout.flush();
+        } catch (IOException e) {
+            throw new HeadException(ERR_WRITE_STREAM, e);
+        }
+
+        result.outputError();
+    }
+
+    /**
+     * Copies the input up to and including its n-th newline, without reading any further blocks of
+     * the input. A newline is appended if the last line written does not end with one.
+     *
+     * @throws IOException   if the input cannot be read.
+     * @throws HeadException if the output cannot be written to.
+     */
+    private static void writeHead(InputStream inputStream, long numOfLines, OutputStream stdout)
+            throws IOException, HeadException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        long remainingLines = numOfLines;
+        byte lastByte = '\n';
+
+        while (remainingLines > 0) {
+            int read = inputStream.read(buffer);
+            if (read < 0) {
+                break;
+            }
+
+            int end = 0;
+            while (end < read && remainingLines > 0) {
+                if (buffer[end] == '\n') {
+                    remainingLines--;
+                }
+                end++;
+            }
+
+            if (end > 0) {
+                writeBytes(stdout, buffer, end);
+                lastByte = buffer[end - 1];
+            }
+        }
+
+        if (lastByte != '\n') {
+            writeBytes(stdout, STRING_NEWLINE.getBytes());
+        }
+    }
+
+    private static void writeBytes(OutputStream stdout, byte[] bytes) throws HeadException {
+        writeBytes(stdout, bytes, bytes.length);
+    }
+
+    private static void writeBytes(OutputStream stdout, byte[] bytes, int length) throws HeadException {
+        try {
+            stdout.write(bytes, 0, length);
+        } catch (IOException e) {
+            throw new HeadException(ERR_WRITE_STREAM, e);
+        }
+    }
+
+    private static String toResult(ByteArrayOutputStream outputStream) {
+        String output = outputStream.toString();
+        return output.endsWith(STRING_NEWLINE)
+                ? output.substring(0, output.length() - STRING_NEWLINE.length())
+                : output;
+    }
+
+    @Override
+    public String headFromFiles(Long numOfLines, String... fileNames) throws HeadException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        writeHeadFromFiles(numOfLines, null, outputStream, fileNames);
+        return toResult(outputStream);
+    }
+
+    @Override
+    public String headFromStdin(Long numOfLines, InputStream stdin) throws HeadException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        writeHeadFromStdin(numOfLines, stdin, outputStream);
+        return toResult(outputStream);
+    }
+}
@@ -1,7 +1,9 @@
 package sg.edu.nus.comp.cs4218.impl.app;
 
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_FILE_NOT_FOUND;
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_INVALID_ARGS;
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_INVALID_FILES;
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_IO_EXCEPTION;
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_NO_OSTREAM;
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_NULL_ARGS;
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_READING_FILE;
@@ -9,19 +11,25 @@ import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_WRITE_STREAM;
 import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.STRING_CURR_DIR;
 import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.STRING_EMPTY;
 import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.STRING_FILE_SEP;
-import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.STRING_NEWLINE;
 
-import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-import java.util.function.Predicate;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 
 import sg.edu.nus.comp.cs4218.app.LsInterface;
 import sg.edu.nus.comp.cs4218.exception.InvalidArgsException;
@@ -30,11 +38,68 @@ import sg.edu.nus.comp.cs4218.exception.LsException;
 import sg.edu.nus.comp.cs4218.impl.parser.LsArgsParser;
 import sg.edu.nus.comp.cs4218.impl.result.LsResult;
 import sg.edu.nus.comp.cs4218.impl.util.CollectionUtils;
+import sg.edu.nus.comp.cs4218.impl.util.ExternalSorter;
 import sg.edu.nus.comp.cs4218.impl.util.IOUtils;
-
+import sg.edu.nus.comp.cs4218.impl.util.LineSink;
+import sg.edu.nus.comp.cs4218.impl.util.OrderedTaskRunner.ResultConsumer;
+import sg.edu.nus.comp.cs4218.impl.util.OrderedTreeWalker;
+
+/**
+ * The ls command lists the contents of directories.
+ * <p>
+ * The listing of each directory is written as soon as it is read and sorted. The names of a directory
+ * are sorted with an {@link ExternalSorter}, which spills them into temporary files if they take up
+ * more than the memory budget. With -R, subdirectories are listed concurrently, and the listings are
+ * written in the same order as when they are listed one after another.
+ */
 public class LsApplication implements LsInterface {
+    public static final long DEFAULT_MEMORY_BUDGET = 64 * 1024 * 1024;
+
     private static final String PATH_CURR_DIR = STRING_CURR_DIR + STRING_FILE_SEP;
 
+    private final Executor executor;
+    private final int parallelism;
+    private final long memoryBudget;
+    private final Path spillDirectory;
+
+    public LsApplication() {
+        this(ForkJoinPool.commonPool(), Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param executor    executor used to list the subdirectories of -R concurrently.
+     * @param parallelism maximum number of directories listed ahead of the one being written, or 1 to
+     *                    list them one after another.
+     */
+    public LsApplication(Executor executor, int parallelism) {
+        this(
+                executor,
+                parallelism,
+                Math.min(DEFAULT_MEMORY_BUDGET, Runtime.getRuntime().maxMemory() / 8),
+                Path.of(System.getProperty("java.io.tmpdir"))
+        );
+    }
+
+    /**
+     * @param executor       executor used to list the subdirectories of -R concurrently.
+     * @param parallelism    maximum number of directories listed ahead of the one being written, or 1 to
+     *                       list them one after another.
+     * @param memoryBudget   number of bytes of heap the names of one directory may take up before they
+     *                       are sorted and spilled into a temporary file. At most {@code parallelism}
+     *                       directories are held at once.
+     * @param spillDirectory directory for the temporary files the sorted names are spilled into.
+     */
+    public LsApplication(Executor executor, int parallelism, long memoryBudget, Path spillDirectory) {
+        if (executor == null || parallelism < 1 || memoryBudget < 1 || spillDirectory == null) {
+            throw new IllegalArgumentException(ERR_INVALID_ARGS);
+        }
+
+        this.executor = executor;
+        this.parallelism = parallelism;
+        this.memoryBudget = memoryBudget;
+        this.spillDirectory = spillDirectory;
+    }
+
     /**
      * Runs the ls application with the specified arguments.
      *
@@ -62,79 +127,81 @@ public class LsApplication implements LsInterface {
         boolean isSortByExt = parser.isSortByExt();
         String[] folderNames = parser.getFolderNames().toArray(String[]::new);
 
-        String output = listFolderContent(isFoldersOnly, isRecursive, isSortByExt, folderNames);
+        writeFolderContent(isFoldersOnly, isRecursive, isSortByExt, new LineSink(stdout), folderNames);
+    }
 
-        if (output.isEmpty()) {
+    /**
+     * Lists the folders, and with -R the directories under them, passing the results to the consumer
+     * in order.
+     */
+    private void listFolders(
+            FolderLister lister,
+            boolean isRecursive,
+            String[] folderNames,
+            ResultConsumer<LsResult, LsException> consumer
+    ) throws LsException {
+        List<Folder> folders = new ArrayList<>(folderNames.length);
+        for (String folderName : folderNames) {
+            folders.add(new Folder(folderName, null));
+        }
+
+        if (isRecursive && parallelism > 1) {
+            OrderedTreeWalker.walkInOrder(executor, parallelism, folders, lister::listFolder,
+                    LsApplication::listSubfolders, consumer);
             return;
         }
 
-        try {
-            stdout.write(output.getBytes());
-            stdout.write(STRING_NEWLINE.getBytes());
-        } catch (Exception e) {
-            throw new LsException(ERR_WRITE_STREAM, e);
+        for (Folder folder : folders) {
+            listTree(lister, isRecursive, folder, consumer);
         }
     }
 
-    private LsResult listFolder(boolean isFoldersOnly, String folderName) throws LsException {
-        try {
-            Path filePath = IOUtils.resolveAbsoluteFilePath(folderName);
-
-            if (Files.notExists(filePath)) {
-                throw new InvalidDirectoryException(folderName, ERR_FILE_NOT_FOUND);
-            }
-
-            if (!Files.isDirectory(filePath)) {
-                return new LsResult(STRING_EMPTY, List.of(filePath.toFile()));
-            }
-
-            try {
-                List<File> files = Arrays.asList(
-                        Objects.requireNonNull(
-                                filePath.toFile()
-                                        .listFiles(file -> !file.isHidden() && (!isFoldersOnly || file.isDirectory()))
-                        )
-                );
+    private static void listTree(
+            FolderLister lister,
+            boolean isRecursive,
+            Folder folder,
+            ResultConsumer<LsResult, LsException> consumer
+    ) throws LsException {
+        LsResult content = lister.listFolder(folder);//NOPMD - released by the lister once it is written
 
-                return new LsResult(folderName, files);
+        consumer.accept(content);
 
-            } catch (Exception e) {
-                throw new InvalidDirectoryException(folderName, ERR_READING_FILE, e);
+        if (isRecursive) {
+            for (Folder subfolder : listSubfolders(folder, content)) {
+                listTree(lister, true, subfolder, consumer);
             }
-
-        } catch (Exception e) {
-            return new LsResult(new LsException(e.getMessage(), e).getMessage());
         }
     }
 
-    private List<LsResult> listFolders(
-            boolean isFoldersOnly,
-            boolean isRecursive,
-            String... folderNames
-    ) throws LsException {
-        List<LsResult> result = new ArrayList<>();
-
-        for (String folderName : folderNames) {
-            LsResult content = listFolder(isFoldersOnly, folderName);
+    /**
+     * Returns the subdirectories of a listed folder, named after the folder and keeping the paths
+     * already resolved, so they do not have to be resolved again.
+     */
+    private static List<Folder> listSubfolders(Folder folder, LsResult content) {
+        List<Path> directories = content.getDirectories();
 
-            result.add(content);
+        if (directories.isEmpty()) {
+            return List.of();
+        }
 
-            if (isRecursive) {
-                for (File file : content.getFiles().stream().sorted().collect(Collectors.toList())) {
-                    if (!file.isDirectory()) {
-                        continue;
-                    }
+        String parentName = Path.of(folder.name.isEmpty() ? PATH_CURR_DIR : folder.name).toString();
+        String prefix = parentName.endsWith(STRING_FILE_SEP) ? parentName : parentName + STRING_FILE_SEP;
+        List<Folder> subfolders = new ArrayList<>(directories.size());
 
-                    String newFolderName = Path.of(
-                            folderName.isEmpty() ? PATH_CURR_DIR : folderName,
-                            file.getName()
-                    ).toString();
-                    result.addAll(listFolders(isFoldersOnly, true, newFolderName));
-                }
-            }
+        for (Path directory : directories) {
+            subfolders.add(new Folder(prefix + directory.getFileName(), directory));
         }
 
-        return result;
+        return subfolders;
+    }
+
+    private static BasicFileAttributes readAttributes(Path path) throws IOException {
+        try {
+            return Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            // a broken symbolic link is listed as the link itself
+            return Files.readAttributes(path, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+        }
     }
 
     @Override
@@ -153,21 +220,228 @@ public class LsApplication implements LsInterface {
             throw new LsException(ERR_NULL_ARGS);
         }
 
+        return LineSink.collectToString(sink ->
+                writeFolderContent(isFoldersOnly, isRecursive, isSortByExt, sink, folderNames));
+    }
+
+    /**
+     * Writes each listing to the sink as soon as it is sorted, separated from the previous one by an
+     * empty line, and flushes the sink after each listing.
+     */
+    private void writeFolderContent(
+            boolean isFoldersOnly,
+            boolean isRecursive,
+            boolean isSortByExt,
+            LineSink sink,
+            String... folderNames
+    ) throws LsException {
         String[] nonNullFolderNames = Objects.requireNonNullElse(folderNames, new String[]{STRING_EMPTY});
 
         if (nonNullFolderNames.length == 0) {
             nonNullFolderNames = new String[]{STRING_EMPTY};
         }
 
-        List<LsResult> result = listFolders(isFoldersOnly, isRecursive, nonNullFolderNames);
+        BlockWriter writer = new BlockWriter(sink, nonNullFolderNames.length > 1, isRecursive, isSortByExt);
 
-        result.forEach(LsResult::outputError);
+        try (FolderLister lister = new FolderLister(isFoldersOnly, isRecursive, isSortByExt)) {
+            listFolders(lister, isRecursive, nonNullFolderNames, result -> {
+                try {
+                    writer.write(result);
+                } finally {
+                    lister.release(result);
+                }
+            });
+        }
+    }
 
-        List<String> resultString = result.stream()
-                .map(content -> content.formatToString(result.size() > 1, isSortByExt))
-                .filter(Predicate.not(String::isEmpty))
-                .collect(Collectors.toList());
+    private static final class Folder {
+        private final String name;
+        private final Path path;
+
+        /**
+         * @param name String of the name of the folder in the output.
+         * @param path Path of the folder, or null if it is to be resolved from the name.
+         */
+        private Folder(String name, Path path) {
+            this.name = name;
+            this.path = path;
+        }
+    }
 
-        return String.join(STRING_NEWLINE + STRING_NEWLINE, resultString);
+    /**
+     * Lists folders for one run of ls. The results which may hold temporary files are tracked until
+     * they are released, and those still held when the lister is closed, for example because writing
+     * failed, are closed then, or as soon as they are listed if that happens later.
+     */
+    private final class FolderLister implements AutoCloseable {
+        private final boolean isFoldersOnly;
+        private final boolean isRecursive;
+        private final boolean isSortByExt;
+        private final Set<LsResult> openResults = new HashSet<>();
+        private boolean isClosed;
+
+        private FolderLister(boolean isFoldersOnly, boolean isRecursive, boolean isSortByExt) {
+            this.isFoldersOnly = isFoldersOnly;
+            this.isRecursive = isRecursive;
+            this.isSortByExt = isSortByExt;
+        }
+
+        private LsResult listFolder(Folder folder) {
+            String folderName = folder.name;
+
+            try {
+                Path filePath = folder.path == null ? IOUtils.resolveAbsoluteFilePath(folderName) : folder.path;
+                BasicFileAttributes attributes;
+
+                try {
+                    attributes = Files.readAttributes(filePath, BasicFileAttributes.class);
+                } catch (NoSuchFileException e) {
+                    throw new InvalidDirectoryException(folderName, ERR_FILE_NOT_FOUND, e);
+                }
+
+                if (!attributes.isDirectory()) {
+                    return new LsResult(STRING_EMPTY, Map.of(filePath, attributes));
+                }
+
+                ExternalSorter sorter = new ExternalSorter(//NOPMD - closed with the result it is given to
+                        LsResult.createNameComparator(isSortByExt), false, memoryBudget, spillDirectory);
+
+                try {
+                    Map<Path, BasicFileAttributes> directories = readEntries(filePath, sorter);
+                    return open(new LsResult(folderName, directories, sorter));
+                } catch (Exception e) {
+                    sorter.close();
+                    throw new InvalidDirectoryException(folderName, ERR_READING_FILE, e);
+                }
+
+            } catch (Exception e) {
+                return new LsResult(new LsException(e.getMessage(), e).getMessage());
+            }
+        }
+
+        /**
+         * Adds the names of the visible entries of a directory to the sorter, and returns the
+         * subdirectories needed for -R. The attributes of each entry are read once, and only when they
+         * are needed to tell directories apart, so a plain listing reads no attributes at all.
+         */
+        private Map<Path, BasicFileAttributes> readEntries(Path directory, ExternalSorter sorter)
+                throws IOException {
+            Map<Path, BasicFileAttributes> directories = new HashMap<>();
+
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+                for (Path path : stream) {
+                    if (Files.isHidden(path)) {
+                        continue;
+                    }
+
+                    BasicFileAttributes attributes = isFoldersOnly || isRecursive ? readAttributes(path) : null;
+                    if (isFoldersOnly && !attributes.isDirectory()) {
+                        continue;
+                    }
+
+                    sorter.add(path.getFileName().toString());
+
+                    if (isRecursive && attributes.isDirectory()) {
+                        directories.put(path, attributes);
+                    }
+                }
+            }
+
+            return directories;
+        }
+
+        private LsResult open(LsResult result) throws IOException {
+            synchronized (this) {
+                if (!isClosed) {
+                    openResults.add(result);
+                    return result;
+                }
+            }
+
+            // no longer needed, as the run has ended before it could be written
+            result.close();
+            return result;
+        }
+
+        private void release(LsResult result) throws LsException {
+            synchronized (this) {
+                openResults.remove(result);
+            }
+
+            try {
+                result.close();
+            } catch (IOException e) {
+                throw new LsException(ERR_IO_EXCEPTION, e);
+            }
+        }
+
+        @Override
+        public void close() throws LsException {
+            List<LsResult> results;
+
+            synchronized (this) {
+                isClosed = true;
+                results = new ArrayList<>(openResults);
+                openResults.clear();
+            }
+
+            for (int i = 0; i < results.size(); i++) {
+                release(results.get(i));
+            }
+        }
+    }
+
+    /**
+     * Writes each listing as a block of lines as soon as it is passed in, writing its error to stderr
+     * instead if there is one.
+     */
+    private static final class BlockWriter {
+        private final LineSink sink;
+        private final boolean isMultipleFolders;
+        private final boolean isRecursive;
+        private final boolean isSortByExt;
+        private Boolean showLabel;
+        private boolean hasWritten;
+        private boolean isBlockStarted;
+
+        private BlockWriter(LineSink sink, boolean isMultipleFolders, boolean isRecursive, boolean isSortByExt) {
+            this.sink = sink;
+            this.isMultipleFolders = isMultipleFolders;
+            this.isRecursive = isRecursive;
+            this.isSortByExt = isSortByExt;
+        }
+
+        private void write(LsResult result) throws LsException {
+            result.outputError();
+
+            if (showLabel == null) {
+                // labels are shown if there is more than one listing, which the first one tells
+                showLabel = isMultipleFolders || isRecursive && !result.getDirectories().isEmpty();
+            }
+
+            isBlockStarted = false;
+
+            try {
+                result.forEachLine(showLabel, isSortByExt, this::writeLine);
+                sink.flush();
+            } catch (IOException e) {
+                throw new LsException(ERR_IO_EXCEPTION, e);
+            }
+        }
+
+        private void writeLine(String line) throws LsException {
+            try {
+                if (!isBlockStarted && hasWritten) {
+                    // an empty line between blocks
+                    sink.writeLine(STRING_EMPTY);
+                }
+                sink.writeLine(line);
+            } catch (IOException e) {
+                throw new LsException(ERR_WRITE_STREAM, e);
+            }
+
+            isBlockStarted = true;
+            hasWritten = true;
+        }
     }
 }
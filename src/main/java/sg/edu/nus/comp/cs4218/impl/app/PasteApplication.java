@@ -1,6 +1,7 @@
 package sg.edu.nus.comp.cs4218.impl.app;
 
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_FILE_NOT_FOUND;
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_INVALID_ARGS;
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_IS_DIR;
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_MISSING_ARG;
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_NO_INPUT;
@@ -10,16 +11,28 @@ import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.STRING_NEWLINE;
 import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.STRING_STDIN_FLAG;
 
 import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 
 import sg.edu.nus.comp.cs4218.app.PasteInterface;
 import sg.edu.nus.comp.cs4218.exception.InvalidArgsException;
@@ -27,9 +40,42 @@ import sg.edu.nus.comp.cs4218.exception.InvalidDirectoryException;
 import sg.edu.nus.comp.cs4218.exception.PasteException;
 import sg.edu.nus.comp.cs4218.impl.parser.PasteArgsParser;
 import sg.edu.nus.comp.cs4218.impl.util.IOUtils;
+import sg.edu.nus.comp.cs4218.impl.util.OrderedTaskRunner;
+import sg.edu.nus.comp.cs4218.impl.util.OrderedTaskRunner.IoTask;
+import sg.edu.nus.comp.cs4218.impl.util.TrimmingWriter;
 
+/**
+ * The paste command merges lines of its inputs, either side by side or, with -s, one input per line.
+ * <p>
+ * The merged lines are written to the output as they are read, so the memory used does not depend on
+ * the size of the inputs. With -s, the inputs are merged concurrently into temporary segments, which
+ * are copied to the output in order.
+ */
 @SuppressWarnings("PMD.GodClass")
 public class PasteApplication implements PasteInterface {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Executor executor;
+    private final int parallelism;
+
+    public PasteApplication() {
+        this(ForkJoinPool.commonPool(), Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param executor    executor used to merge the inputs of -s concurrently.
+     * @param parallelism maximum number of inputs merged at the same time, or 1 to merge every input
+     *                    straight to the output.
+     */
+    public PasteApplication(Executor executor, int parallelism) {
+        if (executor == null || parallelism < 1) {
+            throw new IllegalArgumentException(ERR_INVALID_ARGS);
+        }
+
+        this.executor = executor;
+        this.parallelism = parallelism;
+    }
+
     @Override
     public void run(String[] args, InputStream stdin, OutputStream stdout) throws PasteException {
         PasteArgsParser parser = new PasteArgsParser();
@@ -49,8 +95,7 @@ public class PasteApplication implements PasteInterface {
 
         try {
             List<InputStream> streams = fileNamesToInputStreams(stdin, fileNames);
-            String result = mergeInputStreams(isSerial, streams.toArray(InputStream[]::new));
-            stdout.write(result.getBytes());
+            writeMerged(isSerial, stdout, streams.toArray(InputStream[]::new));
             stdout.write(STRING_NEWLINE.getBytes());
         } catch (PasteException e) {
             throw e;
@@ -111,47 +156,134 @@ public class PasteApplication implements PasteInterface {
         }
     }
 
-    @SuppressWarnings("PMD.CloseResource")
     public String mergeInputStreams(Boolean isSerial, InputStream... streams) throws Exception {
-        StringBuilder stringBuilder = new StringBuilder();
-        if (isSerial) {
-            for (InputStream stream : streams) {
-                BufferedReader reader = new BufferedReader(new InputStreamReader(stream));
-                String line = reader.lines().collect(Collectors.joining(String.valueOf(CHAR_TAB)));
-                stringBuilder.append(line.trim()).append(STRING_NEWLINE);
-                reader.close();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        writeMerged(isSerial, outputStream, streams);
+        return outputStream.toString();
+    }
+
+    /**
+     * Writes the merged lines of the streams, trimmed as a whole and without a final newline, and
+     * closes the streams.
+     */
+    private void writeMerged(Boolean isSerial, OutputStream outputStream, InputStream... streams)
+            throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream), BUFFER_SIZE);
+
+        try {
+            if (isSerial && parallelism > 1 && streams.length > 1) {
+                writeSerialSegments(writer, outputStream, streams);
+            } else {
+                try (TrimmingWriter output = new TrimmingWriter(writer)) {
+                    if (isSerial) {
+                        for (InputStream stream : streams) {//NOPMD - closed by the finally block below
+                            writeSerialLine(new BufferedReader(new InputStreamReader(stream)), output);
+                            output.write(STRING_NEWLINE);
+                        }
+                    } else {
+                        writeParallelLines(output, streams);
+                    }
+                }
+            }
+        } finally {
+            for (InputStream stream : streams) {//NOPMD - a stream may be given more than once
                 stream.close();
             }
-        } else {
-            boolean hasData = true;
-            Map<InputStream, BufferedReader> streamToReader = new HashMap<>();
-            for (InputStream stream : streams) {
-                if (!streamToReader.containsKey(stream)) {
-                    streamToReader.put(stream, new BufferedReader(new InputStreamReader(stream)));
+        }
+    }
+
+    /**
+     * Writes the lines of one input joined by tabs and trimmed.
+     */
+    private static void writeSerialLine(BufferedReader reader, Writer writer) throws IOException {
+        try (TrimmingWriter line = new TrimmingWriter(writer)) {
+            String element = reader.readLine();
+
+            while (element != null) {
+                line.write(element);
+                element = reader.readLine();
+                if (element != null) {
+                    line.write(CHAR_TAB);
                 }
             }
-            while (hasData) {
-                StringBuilder line = new StringBuilder();
-                hasData = false;
-                for (InputStream stream : streams) {
-                    BufferedReader reader = streamToReader.get(stream);
-                    String element = reader.readLine();
-                    if (element != null) {
-                        line.append(element.trim());
-                        hasData = true;
-                    }
-                    line.append('\t');
-                }
-                if (hasData) {
-                    stringBuilder.append(line.toString().stripTrailing()).append(STRING_NEWLINE);
+        }
+    }
+
+    /**
+     * Writes one line for every line of the longest input, made up of the trimmed lines of every input
+     * in turn separated by tabs, without trailing whitespace.
+     */
+    private static void writeParallelLines(Writer writer, InputStream... streams) throws IOException {
+        // the same stream given more than once is read in turn by the same reader
+        Map<InputStream, BufferedReader> streamToReader = new HashMap<>();
+        for (InputStream stream : streams) {//NOPMD - the streams are closed by writeMerged
+            streamToReader.computeIfAbsent(stream, key -> new BufferedReader(new InputStreamReader(key)));
+        }
+
+        StringBuilder line = new StringBuilder();
+        boolean hasData = true;
+
+        while (hasData) {
+            line.setLength(0);
+            hasData = false;
+            for (InputStream stream : streams) {//NOPMD - the streams are closed by writeMerged
+                String element = streamToReader.get(stream).readLine();
+                if (element != null) {
+                    line.append(element.trim());
+                    hasData = true;
                 }
+                line.append(CHAR_TAB);
             }
-            for (InputStream stream : streams) {
-                streamToReader.get(stream).close();
-                stream.close();
+
+            int length = line.length();
+            while (length > 0 && Character.isWhitespace(line.charAt(length - 1))) {
+                length--;
+            }
+
+            if (hasData) {
+                writer.append(line, 0, length).write(STRING_NEWLINE);
+            }
+        }
+    }
+
+    /**
+     * Merges every input into its own temporary segment concurrently, and copies the segments to the
+     * output in order as they are done. Only a bounded number of segments exist at the same time.
+     */
+    private void writeSerialSegments(Writer writer, OutputStream outputStream, InputStream... streams)
+            throws IOException {
+        Set<InputStream> mergedStreams = Collections.newSetFromMap(new IdentityHashMap<>());
+        Queue<Path> segments = new ConcurrentLinkedQueue<>();
+        List<IoTask<Path>> tasks = new ArrayList<>();
+
+        for (InputStream stream : streams) {//NOPMD - the streams are closed by writeMerged
+            // a stream given more than once has nothing left after it is first merged
+            InputStream input = mergedStreams.add(stream) ? stream : InputStream.nullInputStream();
+            tasks.add(() -> writeSegment(input, segments));
+        }
+
+        SegmentJoiner joiner = new SegmentJoiner(writer, outputStream);
+
+        try {
+            OrderedTaskRunner.runInOrder(executor, parallelism, tasks, joiner::append);
+            writer.flush();
+        } finally {
+            for (Path segment : segments) {
+                Files.deleteIfExists(segment);
             }
         }
-        return stringBuilder.toString().trim();
+    }
+
+    private static Path writeSegment(InputStream stream, Queue<Path> segments) throws IOException {
+        Path segment = Files.createTempFile("paste", ".tmp");
+        segments.add(segment);
+
+        try (Writer writer = new BufferedWriter(
+                new OutputStreamWriter(Files.newOutputStream(segment)), BUFFER_SIZE)) {
+            writeSerialLine(new BufferedReader(new InputStreamReader(stream)), writer);
+        }
+
+        return segment;
     }
 
     public List<InputStream> fileNamesToInputStreams(InputStream stdin, String... fileNames) throws Exception {
@@ -176,4 +308,38 @@ public class PasteApplication implements PasteInterface {
         }
         return streams;
     }
+
+    /**
+     * Copies trimmed segments to the output one per line, as if the lines were joined and trimmed
+     * as a whole: empty segments before the first and after the last non-empty segment are dropped.
+     */
+    private static final class SegmentJoiner {
+        private final Writer writer;
+        private final OutputStream outputStream;
+        private boolean hasWritten;
+        private int numOfEmptySegments;
+
+        private SegmentJoiner(Writer writer, OutputStream outputStream) {
+            this.writer = writer;
+            this.outputStream = outputStream;
+        }
+
+        private void append(Path segment) throws IOException {
+            try (FileChannel channel = FileChannel.open(segment)) {
+                if (channel.size() == 0) {
+                    numOfEmptySegments++;
+                } else {
+                    if (hasWritten) {
+                        writer.write(STRING_NEWLINE.repeat(numOfEmptySegments + 1));
+                    }
+                    writer.flush();
+                    IOUtils.transferTo(channel, outputStream);
+                    hasWritten = true;
+                    numOfEmptySegments = 0;
+                }
+            }
+
+            Files.delete(segment);
+        }
+    }
 }
@@ -0,0 +1,248 @@
+package sg.edu.nus.comp.cs4218.impl.app;
+
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_FILE_NOT_FOUND;
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_INVALID_ARGS;
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_INVALID_KEY;
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_IO_EXCEPTION;
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_IS_DIR;
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_NO_FILE_ARGS;
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_NO_ISTREAM;
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_NO_OSTREAM;
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_NULL_ARGS;
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_READING_FILE;
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_READ_STREAM;
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_WRITE_STREAM;
+import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.STRING_STDIN_FLAG;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+import sg.edu.nus.comp.cs4218.app.SortInterface;
+import sg.edu.nus.comp.cs4218.exception.InvalidArgsException;
+import sg.edu.nus.comp.cs4218.exception.InvalidDirectoryException;
+import sg.edu.nus.comp.cs4218.exception.SortException;
+import sg.edu.nus.comp.cs4218.impl.parser.SortArgsParser;
+import sg.edu.nus.comp.cs4218.impl.util.CollectionUtils;
+import sg.edu.nus.comp.cs4218.impl.util.ExternalSorter;
+import sg.edu.nus.comp.cs4218.impl.util.IOUtils;
+import sg.edu.nus.comp.cs4218.impl.util.LineComparator;
+import sg.edu.nus.comp.cs4218.impl.util.LineSink;
+import sg.edu.nus.comp.cs4218.impl.util.LineSource;
+
+@SuppressWarnings("PMD.GodClass")
+public class SortApplication implements SortInterface {
+    public static final long DEFAULT_MEMORY_BUDGET = 256 * 1024 * 1024;
+
+    private final long memoryBudget;
+    private final Path spillDirectory;
+
+    public SortApplication() {
+        this(
+                Math.min(DEFAULT_MEMORY_BUDGET, Runtime.getRuntime().maxMemory() / 4),
+                Path.of(System.getProperty("java.io.tmpdir"))
+        );
+    }
+
+    /**
+     * @param memoryBudget   number of bytes of heap the lines may take up before they are sorted and
+     *                       spilled into a temporary file.
+     * @param spillDirectory directory for the temporary files the sorted lines are spilled into.
+     */
+    public SortApplication(long memoryBudget, Path spillDirectory) {
+        if (memoryBudget < 1 || spillDirectory == null) {
+            throw new IllegalArgumentException(ERR_INVALID_ARGS);
+        }
+
+        this.memoryBudget = memoryBudget;
+        this.spillDirectory = spillDirectory;
+    }
+
+    @Override
+    public void run(String[] args, InputStream stdin, OutputStream stdout) throws SortException {
+        SortArgsParser parser = new SortArgsParser();
+
+        try {
+            parser.parse(args);
+        } catch (InvalidArgsException e) {
+            throw new SortException(e.getMessage(), e);
+        }
+
+        if (stdout == null) {
+            throw new SortException(ERR_NO_OSTREAM);
+        }
+
+        List<String> fileNames = parser.getFileNames();
+        LineSink sink = new LineSink(stdout, true);
+
+        if (fileNames.isEmpty()) {
+            writeSortedStdin(parser.isNumeric(), parser.isReverse(), parser.isUnique(), parser.getKeys(), stdin, sink);
+        } else {
+            writeSortedFiles(parser.isNumeric(), parser.isReverse(), parser.isUnique(), parser.getKeys(), stdin, sink,
+                    fileNames.toArray(new String[0]));
+        }
+
+        try {
+            sink.flush();
+        } catch (IOException e) {
+            throw new SortException(ERR_WRITE_STREAM, e);
+        }
+    }
+
+    /**
+     * Returns the order of the lines: by their keys, then by the whole lines unless only unique lines
+     * are kept, in which case lines with equal keys count as duplicates.
+     */
+    private static Comparator<String> createComparator(boolean isNumeric, boolean isReverse, boolean isUnique,
+                                                       List<String> keys) throws SortException {
+        List<LineComparator.SortKey> parsedKeys = new ArrayList<>();
+
+        try {
+            for (String key : keys) {
+                parsedKeys.add(LineComparator.parseKey(key));
+            }
+        } catch (IllegalArgumentException e) {
+            throw new SortException(ERR_INVALID_KEY, e);
+        }
+
+        Comparator<String> comparator = new LineComparator(isNumeric, parsedKeys);
+        if (!isUnique && (isNumeric || !parsedKeys.isEmpty())) {
+            comparator = comparator.thenComparing(Comparator.naturalOrder());
+        }
+
+        return isReverse ? comparator.reversed() : comparator;
+    }
+
+    private void writeSortedStdin(Boolean isNumeric, Boolean isReverse, Boolean isUnique, List<String> keys,
+                                  InputStream stdin, LineSink sink) throws SortException {
+        if (stdin == null) {
+            throw new SortException(ERR_NO_ISTREAM);
+        }
+
+        writeSortedFiles(isNumeric, isReverse, isUnique, keys, stdin, sink, STRING_STDIN_FLAG);
+    }
+
+    /**
+     * Reads the lines of every input into the sorter, which spills them into temporary files if they
+     * exceed the memory budget, then writes the sorted lines to the sink.
+     */
+    private void writeSortedFiles(Boolean isNumeric, Boolean isReverse, Boolean isUnique, List<String> keys,
+                                  InputStream stdin, LineSink sink, String... fileNames) throws SortException {
+        if (fileNames == null || fileNames.length == 0) {
+            throw new SortException(ERR_NO_FILE_ARGS);
+        }
+
+        if (CollectionUtils.isAnyNull(isNumeric, isReverse, isUnique, keys)
+                || CollectionUtils.isAnyNull((Object[]) fileNames) || keys.stream().anyMatch(Objects::isNull)) {
+            throw new SortException(ERR_NULL_ARGS);
+        }
+
+        Comparator<String> comparator = createComparator(isNumeric, isReverse, isUnique, keys);
+
+        try (ExternalSorter sorter = new ExternalSorter(comparator, isUnique, memoryBudget, spillDirectory)) {
+            for (String fileName : fileNames) {
+                if (fileName.equals(STRING_STDIN_FLAG)) {
+                    readLines(stdin, ERR_READ_STREAM, sorter);
+                } else {
+                    readFile(fileName, sorter);
+                }
+            }
+
+            sorter.forEachLine(line -> writeLine(sink, line));
+        } catch (IOException e) {
+            throw new SortException(ERR_IO_EXCEPTION, e);
+        }
+    }
+
+    private void readFile(String fileName, ExternalSorter sorter) throws SortException {
+        InputStream inputStream;
+
+        try {
+            if (fileName.isEmpty()) {
+                throw new InvalidDirectoryException(fileName, ERR_FILE_NOT_FOUND);
+            }
+
+            Path filePath = IOUtils.resolveAbsoluteFilePath(fileName);
+
+            if (Files.notExists(filePath)) {
+                throw new InvalidDirectoryException(fileName, ERR_FILE_NOT_FOUND);
+            }
+
+            if (Files.isDirectory(filePath)) {
+                throw new InvalidDirectoryException(fileName, ERR_IS_DIR);
+            }
+
+            try {
+                inputStream = Files.newInputStream(filePath);
+            } catch (Exception e) {
+                throw new InvalidDirectoryException(fileName, ERR_READING_FILE, e);
+            }
+        } catch (Exception e) {
+            throw new SortException(e.getMessage(), e);
+        }
+
+        String readErrorMessage = new InvalidDirectoryException(fileName, ERR_READING_FILE).getMessage();
+
+        try (InputStream fileInputStream = inputStream) {
+            readLines(fileInputStream, readErrorMessage, sorter);
+        } catch (IOException e) {
+            throw new SortException(readErrorMessage, e);
+        }
+    }
+
+    private static void readLines(InputStream inputStream, String readErrorMessage, ExternalSorter sorter)
+            throws SortException {
+        if (inputStream == null) {
+            throw new SortException(ERR_NO_ISTREAM);
+        }
+
+        LineSource source = new LineSource(inputStream);
+        String line;
+
+        while (true) {
+            try {
+                line = source.readLine();
+            } catch (IOException e) {
+                throw new SortException(readErrorMessage, e);
+            }
+
+            if (line == null) {
+                return;
+            }
+
+            try {
+                sorter.add(line);
+            } catch (IOException e) {
+                throw new SortException(ERR_IO_EXCEPTION, e);
+            }
+        }
+    }
+
+    private static void writeLine(LineSink sink, String line) throws SortException {
+        try {
+            sink.writeLine(line);
+        } catch (IOException e) {
+            throw new SortException(ERR_WRITE_STREAM, e);
+        }
+    }
+
+    @Override
+    public String sortFromFiles(Boolean isNumeric, Boolean isReverse, Boolean isUnique, List<String> keys,
+                                String... fileNames) throws SortException {
+        return LineSink.collectToString(sink ->
+                writeSortedFiles(isNumeric, isReverse, isUnique, keys, null, sink, fileNames));
+    }
+
+    @Override
+    public String sortFromStdin(Boolean isNumeric, Boolean isReverse, Boolean isUnique, List<String> keys,
+                                InputStream stdin) throws SortException {
+        return LineSink.collectToString(sink ->
+                writeSortedStdin(isNumeric, isReverse, isUnique, keys, stdin, sink));
+    }
+}
@@ -2,30 +2,38 @@ package sg.edu.nus.comp.cs4218.impl.app;
 
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_FILE_NOT_FOUND;
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_ILLEGAL_BYTE_COUNT;
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_ILLEGAL_CHUNK_COUNT;
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_ILLEGAL_LINE_COUNT;
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_IO_EXCEPTION;
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_INVALID_ARGS;
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_IS_DIR;
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_NO_ISTREAM;
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_NULL_ARGS;
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_READING_FILE;
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_UNKNOWN_INPUT_SIZE;
 import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.STRING_EMPTY;
-import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.STRING_FILE_SEP;
 import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.STRING_STDIN_FLAG;
 
-import java.io.BufferedReader;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.io.OutputStream;
-import java.io.PrintWriter;
-import java.nio.charset.StandardCharsets;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.file.AccessDeniedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntToLongFunction;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.IntStream;
 
 import sg.edu.nus.comp.cs4218.EnvironmentUtil;
 import sg.edu.nus.comp.cs4218.app.SplitInterface;
@@ -33,7 +41,10 @@ import sg.edu.nus.comp.cs4218.exception.InvalidArgsException;
 import sg.edu.nus.comp.cs4218.exception.InvalidDirectoryException;
 import sg.edu.nus.comp.cs4218.exception.SplitException;
 import sg.edu.nus.comp.cs4218.impl.parser.SplitArgsParser;
+import sg.edu.nus.comp.cs4218.impl.util.FileChunk;
 import sg.edu.nus.comp.cs4218.impl.util.IOUtils;
+import sg.edu.nus.comp.cs4218.impl.util.OrderedTaskRunner;
+import sg.edu.nus.comp.cs4218.impl.util.OrderedTaskRunner.IoTask;
 import sg.edu.nus.comp.cs4218.impl.util.StringUtils;
 
 @SuppressWarnings("PMD.GodClass")
@@ -41,6 +52,29 @@ public class SplitApplication implements SplitInterface {
 
     public static final int DEFAULT_LINES = 1000;
     public static final String DEFAULT_PREFIX = "x";
+    private static final int BUFFER_SIZE = 1 << 20;
+    private static final Pattern CHUNKS_PATTERN = Pattern.compile("^(l/)?(\\d+)$");
+
+    private final Executor executor;
+    private final int parallelism;
+
+    public SplitApplication() {
+        this(ForkJoinPool.commonPool(), Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param executor    executor used to write the pieces of a regular file concurrently.
+     * @param parallelism maximum number of pieces written at the same time, or 1 to write every piece
+     *                    sequentially.
+     */
+    public SplitApplication(Executor executor, int parallelism) {
+        if (executor == null || parallelism < 1) {
+            throw new IllegalArgumentException(ERR_INVALID_ARGS);
+        }
+
+        this.executor = executor;
+        this.parallelism = parallelism;
+    }
 
     @Override
     public void run(String[] args, InputStream stdin, OutputStream stdout) throws SplitException {
@@ -57,7 +91,12 @@ public class SplitApplication implements SplitInterface {
         String fileName = parser.getFileName();
         String prefix = Objects.requireNonNullElse(parser.getPrefix(), DEFAULT_PREFIX);
 
-        if (isSplitByBytes) {
+        if (parser.isSplitByChunks()) {
+            if (fileName == null || fileName.equals(STRING_STDIN_FLAG)) {
+                throw new SplitException(ERR_UNKNOWN_INPUT_SIZE);
+            }
+            splitFileByChunks(fileName, prefix, numOfLinesOrBytes);
+        } else if (isSplitByBytes) {
             if (fileName == null || fileName.equals(STRING_STDIN_FLAG)) {
                 splitStdinByBytes(stdin, prefix, numOfLinesOrBytes);
             } else {
@@ -90,15 +129,50 @@ public class SplitApplication implements SplitInterface {
         return suffix.toString();
     }
 
-    private int parseBytes(String string) throws SplitException {
+    private String resolvePrefix(String prefix) {
+        if (prefix == null || StringUtils.isBlank(prefix)) {
+            return DEFAULT_PREFIX;
+        }
+        return prefix;
+    }
+
+    private FileChannel openPiece(Path directory, String prefix, int pieceNo) throws IOException {
+        return FileChannel.open(directory.resolve(prefix + generateSuffix(pieceNo)),
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer bytes) throws IOException {
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+    }
+
+    private static void transferFully(FileChannel source, long position, long count, FileChannel target)
+            throws IOException {
+        long transferred = 0;
+        while (transferred < count) {
+            long numOfBytes = source.transferTo(position + transferred, count - transferred, target);
+            if (numOfBytes == 0) {
+                // the file has been truncated since its size was read
+                break;
+            }
+            transferred += numOfBytes;
+        }
+    }
+
+    private long parseBytes(String string) throws SplitException {
+        if (string == null) {
+            throw new SplitException(ERR_NULL_ARGS);
+        }
+
         Pattern pattern = Pattern.compile("^(\\d+)([bkm]?)$");
         Matcher matcher = pattern.matcher(string);
         if (!matcher.matches()) {
             throw new SplitException(ERR_ILLEGAL_BYTE_COUNT);
         }
-        int numOfBytes;
+        long numOfBytes;
         try {
-            numOfBytes = Integer.parseInt(matcher.group(1));
+            numOfBytes = Long.parseLong(matcher.group(1));
         } catch (NumberFormatException e) {
             throw new SplitException(ERR_ILLEGAL_BYTE_COUNT, e);
         }
@@ -108,17 +182,21 @@ public class SplitApplication implements SplitInterface {
 
         final String appendage = matcher.group(2);
 
-        switch (appendage) {
-        case STRING_EMPTY:
-            return numOfBytes;
-        case "b":
-            return numOfBytes * 512;
-        case "k":
-            return numOfBytes * 1024;
-        case "m":
-            return numOfBytes * 1048576;
-        default:
-            throw new SplitException(ERR_ILLEGAL_BYTE_COUNT);
+        try {
+            switch (appendage) {
+            case STRING_EMPTY:
+                return numOfBytes;
+            case "b":
+                return Math.multiplyExact(numOfBytes, 512L);
+            case "k":
+                return Math.multiplyExact(numOfBytes, 1024L);
+            case "m":
+                return Math.multiplyExact(numOfBytes, 1048576L);
+            default:
+                throw new SplitException(ERR_ILLEGAL_BYTE_COUNT);
+            }
+        } catch (ArithmeticException e) {
+            throw new SplitException(ERR_ILLEGAL_BYTE_COUNT, e);
         }
     }
 
@@ -133,8 +211,8 @@ public class SplitApplication implements SplitInterface {
                 throw new InvalidDirectoryException(fileName, ERR_IS_DIR);
             }
 
-            try {
-                splitStdinByLines(Files.newInputStream(filePath), prefix, linesPerFile);
+            try (FileChannel channel = FileChannel.open(filePath)) {
+                splitByLines(channel, prefix, linesPerFile);
             } catch (AccessDeniedException e) {
                 throw new InvalidDirectoryException(fileName, ERR_READING_FILE, e);
             }
@@ -157,8 +235,54 @@ public class SplitApplication implements SplitInterface {
                 throw new InvalidDirectoryException(fileName, ERR_IS_DIR);
             }
 
-            try {
-                splitStdinByBytes(Files.newInputStream(filePath), prefix, bytesPerFile);
+            long bytesPerPiece = parseBytes(bytesPerFile);
+
+            try (FileChannel channel = FileChannel.open(filePath)) {
+                if (Files.isRegularFile(filePath)) {
+                    splitRegularFileByBytes(channel, prefix, bytesPerPiece);
+                } else {
+                    splitByBytes(channel, prefix, bytesPerPiece);
+                }
+            } catch (AccessDeniedException e) {
+                throw new InvalidDirectoryException(fileName, ERR_READING_FILE, e);
+            }
+        } catch (SplitException e) {
+            // allow exception to propagate
+            throw e;
+        } catch (Exception e) {
+            throw new SplitException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void splitFileByChunks(String fileName, String prefix, String chunks) throws SplitException {
+        try {
+            Path filePath = IOUtils.resolveAbsoluteFilePath(fileName);
+            if (Files.notExists(filePath)) {
+                throw new InvalidDirectoryException(fileName, ERR_FILE_NOT_FOUND);
+            }
+            if (Files.isDirectory(filePath)) {
+                throw new InvalidDirectoryException(fileName, ERR_IS_DIR);
+            }
+            if (!Files.isRegularFile(filePath)) {
+                throw new SplitException(ERR_UNKNOWN_INPUT_SIZE);
+            }
+
+            Matcher matcher = parseChunks(chunks);
+            boolean isByLines = matcher.group(1) != null;
+            int numOfChunks = Integer.parseInt(matcher.group(2));
+
+            try (FileChannel channel = FileChannel.open(filePath)) {
+                if (isByLines) {
+                    List<FileChunk> lineChunks = FileChunk.splitInto(channel, numOfChunks);
+                    writePieces(channel, prefix, lineChunks.size(), index -> lineChunks.get(index).getEnd());
+                } else {
+                    long size = channel.size();
+                    long chunkSize = size / numOfChunks;
+                    // the last chunk also takes the remainder
+                    writePieces(channel, prefix, numOfChunks,
+                            index -> index == numOfChunks - 1 ? size : (index + 1) * chunkSize);
+                }
             } catch (AccessDeniedException e) {
                 throw new InvalidDirectoryException(fileName, ERR_READING_FILE, e);
             }
@@ -176,72 +300,177 @@ public class SplitApplication implements SplitInterface {
             throw new SplitException(ERR_NO_ISTREAM);
         }
 
+        splitByLines(Channels.newChannel(stdin), prefix, linesPerFile);
+    }
+
+    /**
+     * Copies the bytes read from the source into pieces of linesPerFile lines each, scanning the bytes
+     * for '\n' without decoding them, so that line endings and the encoding are left unchanged.
+     */
+    private void splitByLines(ReadableByteChannel source, String prefix, int linesPerFile) throws SplitException {
         if (linesPerFile < 1) {
             throw new SplitException(ERR_ILLEGAL_LINE_COUNT);
         }
 
-        String validPrefix = prefix;
+        splitStream(source, prefix, (buffer, piece) -> {
+            int linesInPiece = 0;
 
-        if (prefix == null || StringUtils.isBlank(prefix)) {
-            validPrefix = DEFAULT_PREFIX;
-        }
+            while (linesInPiece < linesPerFile && fillIfEmpty(source, buffer)) {
+                byte[] bytes = buffer.array();
+                int start = buffer.position();
+                int index = start;
 
-        try {
-            BufferedReader reader = new BufferedReader(new InputStreamReader(stdin));
-            PrintWriter writer = null;//NOPMD
-            int linesRead = 0;
-            String line;
-            while ((line = reader.readLine()) != null) {
-                if (linesRead % linesPerFile == 0) {
-                    if (writer != null) {
-                        writer.close();
+                while (index < buffer.limit() && linesInPiece < linesPerFile) {
+                    if (bytes[index++] == '\n') {
+                        linesInPiece++;
                     }
-                    String fileName = EnvironmentUtil.currentDirectory + STRING_FILE_SEP + validPrefix + generateSuffix(linesRead / linesPerFile + 1);
-                    writer = new PrintWriter(fileName, StandardCharsets.UTF_8);
                 }
-                writer.println(line);
-                linesRead++;
+
+                writeFully(piece, ByteBuffer.wrap(bytes, start, index - start));
+                buffer.position(index);
             }
-            if (writer != null) {
-                writer.close();
+        });
+    }
+
+    /**
+     * Copies the bytes read from the source into pieces through a buffer of fixed size, however large
+     * the pieces are. A piece is only created once there is at least one byte to write into it, and is
+     * closed as soon as the copier has filled it.
+     */
+    private void splitStream(ReadableByteChannel source, String prefix, PieceCopier copier) throws SplitException {
+        String validPrefix = resolvePrefix(prefix);
+        Path directory = Path.of(EnvironmentUtil.currentDirectory);
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE).flip();
+        int pieceNo = 0;
+
+        try {
+            while (fillIfEmpty(source, buffer)) {
+                pieceNo++;
+                try (FileChannel piece = openPiece(directory, validPrefix, pieceNo)) {
+                    copier.copy(buffer, piece);
+                }
             }
-            reader.close();
         } catch (IOException e) {
             throw new SplitException(ERR_IO_EXCEPTION, e);
         }
     }
 
+    /**
+     * Reads more bytes from the source into the buffer once all bytes in it have been copied.
+     *
+     * @return false if the buffer is empty because the source has ended.
+     */
+    private static boolean fillIfEmpty(ReadableByteChannel source, ByteBuffer buffer) throws IOException {
+        if (buffer.hasRemaining()) {
+            return true;
+        }
+
+        buffer.clear();
+        int read;
+        do {
+            read = source.read(buffer);
+        } while (read == 0);
+        buffer.flip();
+
+        return read > 0;
+    }
+
     @Override
     public void splitStdinByBytes(InputStream stdin, String prefix, String bytesPerFile) throws SplitException {
         if (stdin == null) {
             throw new SplitException(ERR_NO_ISTREAM);
         }
 
-        if (bytesPerFile == null) {
-            throw new SplitException(ERR_NULL_ARGS);
-        }
+        splitByBytes(Channels.newChannel(stdin), prefix, parseBytes(bytesPerFile));
+    }
 
-        String validPrefix = prefix;
+    /**
+     * Copies the bytes read from the source into pieces of bytesPerPiece bytes each.
+     */
+    private void splitByBytes(ReadableByteChannel source, String prefix, long bytesPerPiece) throws SplitException {
+        splitStream(source, prefix, (buffer, piece) -> {
+            long bytesLeftInPiece = bytesPerPiece;
 
-        if (prefix == null || StringUtils.isBlank(prefix)) {
-            validPrefix = DEFAULT_PREFIX;
-        }
+            while (bytesLeftInPiece > 0 && fillIfEmpty(source, buffer)) {
+                int length = (int) Math.min(bytesLeftInPiece, buffer.remaining());
+                writeFully(piece, ByteBuffer.wrap(buffer.array(), buffer.position(), length));
+                buffer.position(buffer.position() + length);
+                bytesLeftInPiece -= length;
+            }
+        });
+    }
+
+    /**
+     * Splits a regular file into pieces of bytesPerPiece bytes each, whose boundaries are known from
+     * the size of the file.
+     */
+    private void splitRegularFileByBytes(FileChannel source, String prefix, long bytesPerPiece)
+            throws IOException, SplitException {
+        long size = source.size();
+        int numOfPieces = Math.toIntExact(size / bytesPerPiece + (size % bytesPerPiece == 0 ? 0 : 1));
+
+        writePieces(source, prefix, numOfPieces,
+                index -> index == numOfPieces - 1 ? size : (index + 1) * bytesPerPiece);
+    }
+
+    /**
+     * Writes the pieces of a regular file concurrently, each one transferred from its offset range of
+     * the file by the operating system without passing through a buffer on the heap. Piece i covers
+     * the bytes from the end of piece i - 1 up to pieceEnd(i). The task writing a piece is only
+     * created when it is about to start, so only {@code parallelism} of them exist at once.
+     */
+    private void writePieces(FileChannel source, String prefix, int numOfPieces, IntToLongFunction pieceEnd)
+            throws SplitException {
+        String validPrefix = resolvePrefix(prefix);
+        Path directory = Path.of(EnvironmentUtil.currentDirectory);
+        Iterator<IoTask<Void>> tasks = IntStream.range(0, numOfPieces)
+                .<IoTask<Void>>mapToObj(index -> {
+                    long pieceStart = index == 0 ? 0 : pieceEnd.applyAsLong(index - 1);
+                    long pieceLength = pieceEnd.applyAsLong(index) - pieceStart;
+
+                    return () -> {
+                        try (FileChannel piece = openPiece(directory, validPrefix, index + 1)) {
+                            transferFully(source, pieceStart, pieceLength, piece);
+                        }
+                        return null;
+                    };
+                })
+                .iterator();
 
         try {
-            int numOfBytesPerFile = parseBytes(bytesPerFile);
-            byte[] buffer = new byte[numOfBytesPerFile];
-
-            int pieceNo = 1;
-            int bytesRead;
-            while ((bytesRead = stdin.read(buffer, 0, numOfBytesPerFile)) != -1) {
-                String fileName = EnvironmentUtil.currentDirectory + STRING_FILE_SEP + validPrefix + generateSuffix(pieceNo);
-                FileOutputStream outputStream = new FileOutputStream(fileName);//NOPMD
-                outputStream.write(buffer, 0, bytesRead);
-                outputStream.close();
-                pieceNo++;
-            }
+            OrderedTaskRunner.runInOrder(executor, parallelism, tasks, result -> {
+                // every piece is written by its own task
+            });
         } catch (IOException e) {
             throw new SplitException(ERR_IO_EXCEPTION, e);
         }
     }
+
+    private Matcher parseChunks(String string) throws SplitException {
+        if (string == null) {
+            throw new SplitException(ERR_NULL_ARGS);
+        }
+
+        Matcher matcher = CHUNKS_PATTERN.matcher(string);
+        if (!matcher.matches()) {
+            throw new SplitException(ERR_ILLEGAL_CHUNK_COUNT);
+        }
+        try {
+            if (Integer.parseInt(matcher.group(2)) < 1) {
+                throw new SplitException(ERR_ILLEGAL_CHUNK_COUNT);
+            }
+        } catch (NumberFormatException e) {
+            throw new SplitException(ERR_ILLEGAL_CHUNK_COUNT, e);
+        }
+        return matcher;
+    }
+
+    /**
+     * Copies the bytes of one piece from the buffer, refilling it from the source as needed, and
+     * leaves the bytes after the piece in the buffer.
+     */
+    @FunctionalInterface
+    private interface PieceCopier {
+        void copy(ByteBuffer buffer, FileChannel piece) throws IOException;
+    }
 }
@@ -0,0 +1,497 @@
+package sg.edu.nus.comp.cs4218.impl.app;
+
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_FILE_NOT_FOUND;
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_ILLEGAL_LINE_COUNT;
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_IO_EXCEPTION;
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_IS_DIR;
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_NO_FILE_ARGS;
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_NO_ISTREAM;
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_NO_OSTREAM;
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_NULL_ARGS;
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_READING_FILE;
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_READ_STREAM;
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_WRITE_STREAM;
+import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.STRING_FILE_HEADER;
+import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.STRING_NEWLINE;
+import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.STRING_STDIN_FLAG;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import sg.edu.nus.comp.cs4218.app.TailInterface;
+import sg.edu.nus.comp.cs4218.exception.InvalidArgsException;
+import sg.edu.nus.comp.cs4218.exception.InvalidDirectoryException;
+import sg.edu.nus.comp.cs4218.exception.TailException;
+import sg.edu.nus.comp.cs4218.impl.parser.TailArgsParser;
+import sg.edu.nus.comp.cs4218.impl.result.TailResult;
+import sg.edu.nus.comp.cs4218.impl.util.CollectionUtils;
+import sg.edu.nus.comp.cs4218.impl.util.FileFollower;
+import sg.edu.nus.comp.cs4218.impl.util.IOUtils;
+
+/**
+ * The tail command writes the last lines of each input, or the lines starting from a given line.
+ * <p>
+ * A regular file is scanned backwards from its end one block at a time, so only the blocks holding
+ * the last lines are read before they are copied out. Other inputs are read to the end while only the
+ * last lines are kept.
+ * <p>
+ * With -f, the regular files are then followed by a {@link FileFollower} until the command is
+ * terminated.
+ */
+@SuppressWarnings("PMD.GodClass")
+public class TailApplication implements TailInterface {
+    public static final long DEFAULT_NUM_OF_LINES = 10;
+
+    private static final char CHAR_FROM_START = '+';
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    @Override
+    public void run(String[] args, InputStream stdin, OutputStream stdout) throws TailException {
+        TailArgsParser parser = new TailArgsParser();
+
+        try {
+            parser.parse(args);
+        } catch (InvalidArgsException e) {
+            throw new TailException(e.getMessage(), e);
+        }
+
+        if (stdout == null) {
+            throw new TailException(ERR_NO_OSTREAM);
+        }
+
+        String numOfLines = parser.getNumOfLines() == null
+                ? String.valueOf(DEFAULT_NUM_OF_LINES)
+                : parser.getNumOfLines();
+
+        if (parser.getFileNames().isEmpty()) {
+            // like a pipe, stdin cannot be followed
+            writeTailFromStdin(numOfLines, stdin, stdout);
+        } else if (parser.isFollow()) {
+            followFiles(numOfLines, stdin, stdout, parser.getFileNames().toArray(new String[0]));
+        } else {
+            writeTailFromFiles(numOfLines, stdin, stdout, null, parser.getFileNames().toArray(new String[0]));
+        }
+    }
+
+    /**
+     * Writes the tail of the files, then writes what is appended to the regular files among them
+     * until the thread is interrupted, which is how {@link sg.edu.nus.comp.cs4218.Command#terminate()}
+     * stops a command.
+     */
+    private void followFiles(String numOfLines, InputStream stdin, OutputStream stdout, String... fileNames)
+            throws TailException {
+        try (FileFollower follower = new FileFollower(stdout)) {
+            writeTailFromFiles(numOfLines, stdin, stdout, follower, fileNames);
+            flush(stdout);
+            follower.follow();
+        } catch (IOException e) {
+            throw new TailException(ERR_IO_EXCEPTION, e);
+        }
+    }
+
+    private void writeTailFromStdin(String numOfLines, InputStream stdin, OutputStream stdout)
+            throws TailException {
+        if (stdin == null) {
+            throw new TailException(ERR_NO_ISTREAM);
+        }
+
+        writeTailFromFiles(numOfLines, stdin, stdout, null, STRING_STDIN_FLAG);
+    }
+
+    /**
+     * Writes the tail of each file. If a follower is given, each regular file is added to it from the
+     * position its tail was written up to.
+     */
+    private void writeTailFromFiles(String numOfLines, InputStream stdin, OutputStream stdout,
+                                    FileFollower follower, String... fileNames) throws TailException {
+        if (fileNames == null || fileNames.length == 0) {
+            throw new TailException(ERR_NO_FILE_ARGS);
+        }
+
+        if (numOfLines == null || CollectionUtils.isAnyNull((Object[]) fileNames)) {
+            throw new TailException(ERR_NULL_ARGS);
+        }
+
+        LineCount lineCount = LineCount.parse(numOfLines);
+
+        boolean hasWrittenHeader = false;
+
+        for (String fileName : fileNames) {
+            // a header before each file, separated from the previous file by an empty line
+            String header = fileNames.length > 1
+                    ? (hasWrittenHeader ? STRING_NEWLINE : "") + String.format(STRING_FILE_HEADER, fileName)
+                    + STRING_NEWLINE
+                    : "";
+
+            if (fileName.equals(STRING_STDIN_FLAG)) {
+                writeTailOfStdin(header, lineCount, stdin, stdout);
+                hasWrittenHeader = true;
+            } else if (writeTailOfFile(fileName, header, lineCount, stdout, follower)) {
+                hasWrittenHeader = true;
+            }
+        }
+    }
+
+    /**
+     * Writes the header and the tail of stdin, which is left open for the commands after this one.
+     */
+    private static void writeTailOfStdin(String header, LineCount lineCount, InputStream stdin,
+                                         OutputStream stdout) throws TailException {
+        if (stdin == null) {
+            throw new TailException(ERR_NO_ISTREAM);
+        }
+
+        writeBytes(stdout, header.getBytes());
+
+        try {
+            writeTail(stdin, lineCount, stdout);
+        } catch (IOException e) {
+            outputError(stdout, new TailResult(new TailException(ERR_READ_STREAM, e).getMessage()));
+        }
+    }
+
+    /**
+     * Writes the header and the tail of a file. Like cat, a file which cannot be opened or read is
+     * reported instead, so that the rest of the files are still written.
+     *
+     * @return true if the file could be opened and its header was written.
+     */
+    private static boolean writeTailOfFile(String fileName, String header, LineCount lineCount,
+                                           OutputStream stdout, FileFollower follower) throws TailException {
+        Path filePath;
+
+        try {
+            filePath = resolveFile(fileName);
+        } catch (Exception e) {
+            outputError(stdout, new TailResult(new TailException(e.getMessage(), e).getMessage()));
+            return false;
+        }
+
+        boolean isOpened = false;
+
+        try (FileChannel channel = FileChannel.open(filePath)) {
+            isOpened = true;
+            writeBytes(stdout, header.getBytes());
+
+            if (Files.isRegularFile(filePath)) {
+                writeTailFromFile(channel, filePath, fileName, lineCount, stdout, follower);
+            } else {
+                // pipes and devices can only be read forwards
+                writeTail(Channels.newInputStream(channel), lineCount, stdout);
+            }
+        } catch (IOException e) {
+            String message = new InvalidDirectoryException(fileName, ERR_READING_FILE, e).getMessage();
+            outputError(stdout, new TailResult(new TailException(message, e).getMessage()));
+        }
+
+        return isOpened;
+    }
+
+    private static Path resolveFile(String fileName) throws Exception {
+        if (fileName.isEmpty()) {
+            throw new InvalidDirectoryException(fileName, ERR_FILE_NOT_FOUND);
+        }
+
+        Path filePath = IOUtils.resolveAbsoluteFilePath(fileName);
+
+        if (Files.notExists(filePath)) {
+            throw new InvalidDirectoryException(fileName, ERR_FILE_NOT_FOUND);
+        }
+
+        if (Files.isDirectory(filePath)) {
+            throw new InvalidDirectoryException(fileName, ERR_IS_DIR);
+        }
+
+        return filePath;
+    }
+
+    /**
+     * Writes the tail of a regular file. If a follower is given, the file is added to it from the
+     * position its tail was written up to.
+     *
+     * @throws IOException   if the file cannot be read.
+     * @throws TailException if the output cannot be written to.
+     */
+    private static void writeTailFromFile(FileChannel channel, Path filePath, String fileName, LineCount lineCount,
+                                          OutputStream stdout, FileFollower follower)
+            throws IOException, TailException {
+        long start = lineCount.isFromStart
+                ? findLineStart(channel, lineCount.count)
+                : findLastLinesStart(channel, lineCount.count);
+
+        long end = start < channel.size() ? start + IOUtils.transferTo(channel, start, stdout) : start;
+
+        if (follower == null) {
+            if (end > start && readByte(channel, end - 1) != '\n') {
+                writeBytes(stdout, STRING_NEWLINE.getBytes());
+            }
+        } else {
+            // the rest of an unterminated last line may still be appended
+            follower.add(filePath, fileName, end);
+        }
+    }
+
+    /**
+     * Writes the error of an input to stderr, after the lines written so far have reached stdout.
+     */
+    private static void outputError(OutputStream stdout, TailResult result) throws TailException {
+        flush(stdout);
+        result.outputError();
+    }
+
+    /**
+     * Returns the position of the first of the last n lines of a file, reading blocks backwards from
+     * its end until n newlines are found. The last byte is not searched as a newline there only ends
+     * the last line.
+     */
+    private static long findLastLinesStart(FileChannel channel, long numOfLines) throws IOException {
+        long blockEnd = channel.size() - 1;
+        if (numOfLines == 0 || blockEnd < 0) {
+            return channel.size();
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        long remainingLines = numOfLines;
+
+        while (blockEnd > 0) {
+            long blockStart = Math.max(0, blockEnd - BUFFER_SIZE);
+            buffer.clear().limit((int) (blockEnd - blockStart));
+            readFully(channel, buffer, blockStart);
+
+            for (int i = buffer.limit() - 1; i >= 0; i--) {
+                if (buffer.get(i) == '\n') {
+                    remainingLines--;
+                    if (remainingLines == 0) {
+                        return blockStart + i + 1;
+                    }
+                }
+            }
+
+            blockEnd = blockStart;
+        }
+
+        return 0;
+    }
+
+    /**
+     * Returns the position of the given line of a file, counting from 1, or the size of the file if it
+     * has fewer lines.
+     */
+    private static long findLineStart(FileChannel channel, long lineNumber) throws IOException {
+        long remainingLines = lineNumber - 1;
+        if (remainingLines <= 0) {
+            return 0;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        long size = channel.size();
+        long blockStart = 0;
+
+        while (blockStart < size) {
+            buffer.clear().limit((int) Math.min(BUFFER_SIZE, size - blockStart));
+            readFully(channel, buffer, blockStart);
+
+            for (int i = 0; i < buffer.limit(); i++) {
+                if (buffer.get(i) == '\n') {
+                    remainingLines--;
+                    if (remainingLines == 0) {
+                        return blockStart + i + 1;
+                    }
+                }
+            }
+
+            blockStart += buffer.limit();
+        }
+
+        return size;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                // the file was truncated while it was being read
+                buffer.limit(buffer.position());
+            }
+        }
+    }
+
+    private static byte readByte(FileChannel channel, long position) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(1);
+        readFully(channel, buffer, position);
+        return buffer.position() == 0 ? (byte) '\n' : buffer.get(0);
+    }
+
+    /**
+     * Writes the lines of an input which can only be read forwards.
+     *
+     * @throws IOException   if the input cannot be read.
+     * @throws TailException if the output cannot be written to.
+     */
+    private static void writeTail(InputStream inputStream, LineCount lineCount, OutputStream stdout)
+            throws IOException, TailException {
+        if (lineCount.isFromStart) {
+            writeLinesFrom(inputStream, lineCount.count, stdout);
+        } else {
+            writeLastLines(inputStream, lineCount.count, stdout);
+        }
+    }
+
+    /**
+     * Copies an input from the given line, counting from 1, once the lines before it are skipped.
+     */
+    private static void writeLinesFrom(InputStream inputStream, long lineNumber, OutputStream stdout)
+            throws IOException, TailException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        long linesToSkip = Math.max(0, lineNumber - 1);
+        byte lastByte = '\n';
+
+        while (true) {
+            int read = inputStream.read(buffer);
+            if (read < 0) {
+                break;
+            }
+
+            int lineStart = 0;
+            for (int i = 0; i < read && linesToSkip > 0; i++) {
+                if (buffer[i] == '\n') {
+                    linesToSkip--;
+                    lineStart = i + 1;
+                }
+            }
+
+            if (linesToSkip == 0 && lineStart < read) {
+                writeBytes(stdout, buffer, lineStart, read - lineStart);
+                lastByte = buffer[read - 1];
+            }
+        }
+
+        if (lastByte != '\n') {
+            writeBytes(stdout, STRING_NEWLINE.getBytes());
+        }
+    }
+
+    /**
+     * Writes the last n lines of an input. Only the last n complete lines read so far are kept,
+     * together with the line being read.
+     */
+    private static void writeLastLines(InputStream inputStream, long numOfLines, OutputStream stdout)
+            throws IOException, TailException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        Deque<byte[]> lastLines = new ArrayDeque<>();
+        ByteArrayOutputStream pendingLine = new ByteArrayOutputStream();
+
+        while (true) {
+            int read = inputStream.read(buffer);
+            if (read < 0) {
+                break;
+            }
+
+            int lineStart = 0;
+            for (int i = 0; i < read; i++) {
+                if (buffer[i] == '\n') {
+                    pendingLine.write(buffer, lineStart, i + 1 - lineStart);
+                    addLastLine(lastLines, pendingLine.toByteArray(), numOfLines);
+                    pendingLine.reset();
+                    lineStart = i + 1;
+                }
+            }
+
+            pendingLine.write(buffer, lineStart, read - lineStart);
+        }
+
+        if (pendingLine.size() > 0) {
+            pendingLine.write('\n');
+            addLastLine(lastLines, pendingLine.toByteArray(), numOfLines);
+        }
+
+        for (byte[] line : lastLines) {
+            writeBytes(stdout, line);
+        }
+    }
+
+    private static void addLastLine(Deque<byte[]> lastLines, byte[] line, long numOfLines) {
+        lastLines.addLast(line);
+        if (lastLines.size() > numOfLines) {
+            lastLines.removeFirst();
+        }
+    }
+
+    private static void writeBytes(OutputStream stdout, byte[] bytes) throws TailException {
+        writeBytes(stdout, bytes, 0, bytes.length);
+    }
+
+    private static void writeBytes(OutputStream stdout, byte[] bytes, int offset, int length) throws TailException {
+        try {
+            stdout.write(bytes, offset, length);
+        } catch (IOException e) {
+            throw new TailException(ERR_WRITE_STREAM, e);
+        }
+    }
+
+    private static void flush(OutputStream stdout) throws TailException {
+        try {
+            stdout.flush();
+        } catch (IOException e) {
+            throw new TailException(ERR_WRITE_STREAM, e);
+        }
+    }
+
+    private static String toResult(ByteArrayOutputStream outputStream) {
+        String output = outputStream.toString();
+        return output.endsWith(STRING_NEWLINE)
+                ? output.substring(0, output.length() - STRING_NEWLINE.length())
+                : output;
+    }
+
+    @Override
+    public String tailFromFiles(String numOfLines, String... fileNames) throws TailException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        writeTailFromFiles(numOfLines, null, outputStream, null, fileNames);
+        return toResult(outputStream);
+    }
+
+    @Override
+    public String tailFromStdin(String numOfLines, InputStream stdin) throws TailException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        writeTailFromStdin(numOfLines, stdin, outputStream);
+        return toResult(outputStream);
+    }
+
+    /**
+     * Either the number of last lines to write, or the line to start writing from when it is preceded
+     * by a plus sign.
+     */
+    private static final class LineCount {
+        private final boolean isFromStart;
+        private final long count;
+
+        private LineCount(boolean isFromStart, long count) {
+            this.isFromStart = isFromStart;
+            this.count = count;
+        }
+
+        private static LineCount parse(String numOfLines) throws TailException {
+            boolean isFromStart = !numOfLines.isEmpty() && numOfLines.charAt(0) == CHAR_FROM_START;
+            String count = isFromStart ? numOfLines.substring(1) : numOfLines;
+
+            if (count.isEmpty() || !count.chars().allMatch(c -> c >= '0' && c <= '9')) {
+                throw new TailException(ERR_ILLEGAL_LINE_COUNT);
+            }
+
+            try {
+                return new LineCount(isFromStart, Long.parseLong(count));
+            } catch (NumberFormatException e) {
+                throw new TailException(ERR_ILLEGAL_LINE_COUNT, e);
+            }
+        }
+    }
+}
@@ -4,6 +4,7 @@ import static java.nio.file.StandardOpenOption.APPEND;
 import static java.nio.file.StandardOpenOption.CREATE;
 import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
 import static java.nio.file.StandardOpenOption.WRITE;
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_CLOSING_STREAM;
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_FILE_NOT_FOUND;
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_INVALID_FILES;
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_IS_DIR;
@@ -11,14 +12,20 @@ import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_NO_ISTREAM;
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_NO_OSTREAM;
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_NO_PERM;
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_NULL_ARGS;
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_READ_STREAM;
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_WRITE_STREAM;
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_WRITING_FILE;
 import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.STRING_NEWLINE;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 
 import sg.edu.nus.comp.cs4218.app.TeeInterface;
@@ -62,29 +69,17 @@ public class TeeApplication implements TeeInterface {
         boolean isAppend = parser.isAppend();
         String[] fileNames = parser.getFileNames().toArray(String[]::new);
 
-        String output = teeFromStdin(isAppend, stdin, fileNames);
-
-        if (output.isEmpty()) {
-            return;
-        }
-
-        try {
-            stdout.write(output.getBytes());
-            stdout.write(STRING_NEWLINE.getBytes());
-        } catch (Exception e) {
-            throw new TeeException(ERR_WRITE_STREAM, e);
-        }
+        writeTee(isAppend, stdin, stdout, fileNames);
     }
 
-    private List<String> teeFromInputStream(InputStream inputStream) throws TeeException {
-        try {
-            return IOUtils.getLinesFromInputStream(inputStream);
-        } catch (Exception e) {
-            throw new TeeException(e.getMessage(), e);
-        }
-    }
+    /**
+     * Opens the output file for writing, so that errors are reported before any input is consumed.
+     *
+     * @return the opened output file, or null if it cannot be written to.
+     */
+    private TeeTarget openTarget(boolean isAppend, String fileName) {
+        TeeResult result;
 
-    private TeeResult teeToFile(boolean isAppend, List<String> content, String fileName) {
         try {
             if (fileName.isEmpty()) {
                 throw new InvalidDirectoryException(fileName, ERR_FILE_NOT_FOUND);
@@ -101,21 +96,34 @@ public class TeeApplication implements TeeInterface {
             }
 
             try {
-                Files.write(filePath, content, CREATE, WRITE, isAppend ? APPEND : TRUNCATE_EXISTING);
+                FileChannel channel = FileChannel.open(filePath, CREATE, WRITE,//NOPMD - owned and closed by the target
+                        isAppend ? APPEND : TRUNCATE_EXISTING);
 
-                return new TeeResult();
+                return new TeeTarget(fileName, channel);
 
             } catch (Exception e) {
                 throw new InvalidDirectoryException(fileName, ERR_WRITING_FILE, e);
             }
 
         } catch (Exception e) {
-            return new TeeResult(new TeeException(e.getMessage()).getMessage());
+            result = new TeeResult(new TeeException(e.getMessage()).getMessage());
         }
+
+        result.outputError();
+
+        return null;
     }
 
-    @Override
-    public String teeFromStdin(Boolean isAppend, InputStream stdin, String... fileNames) throws TeeException {
+    /**
+     * Copies stdin to stdout and to every output file one chunk at a time, as soon as each chunk is
+     * read, so that the input is never held in memory and stdout keeps up with stdin.
+     * <p>
+     * A newline is appended to every output if stdin does not end with one. A file which fails while
+     * being written to is reported once stdin has been fully copied, without affecting the other
+     * outputs.
+     */
+    private void writeTee(Boolean isAppend, InputStream stdin, OutputStream stdout, String... fileNames)
+            throws TeeException {
         if (stdin == null) {
             throw new TeeException(ERR_NO_ISTREAM);
         }
@@ -129,14 +137,125 @@ public class TeeApplication implements TeeInterface {
             throw new TeeException(ERR_NULL_ARGS);
         }
 
-        List<String> result = teeFromInputStream(stdin);
+        List<TeeTarget> targets = new ArrayList<>();
+
+        for (String fileName : fileNames == null ? new String[0] : fileNames) {
+            TeeTarget target = openTarget(isAppend, fileName);
+
+            if (target != null) {
+                targets.add(target);
+            }
+        }
+
+        try {
+            copyChunks(stdin, stdout, targets);
+        } finally {
+            for (TeeTarget target : targets) {
+                target.close().outputError();
+            }
+        }
+    }
+
+    private void copyChunks(InputStream stdin, OutputStream stdout, List<TeeTarget> targets) throws TeeException {
+        byte[] buffer = IOUtils.getCopyBuffer();
+        byte lastByte = '\n';
+        int read;
+
+        while ((read = readChunk(stdin, buffer)) >= 0) {
+            if (read > 0) {
+                writeChunk(buffer, read, stdout, targets);
+                lastByte = buffer[read - 1];
+            }
+        }
+
+        if (lastByte != '\n') {
+            buffer[0] = '\n';
+            writeChunk(buffer, 1, stdout, targets);
+        }
+
+        try {
+            stdin.close();
+        } catch (IOException e) {
+            throw new TeeException(ERR_CLOSING_STREAM, e);
+        }
+    }
+
+    private void writeChunk(byte[] buffer, int length, OutputStream stdout, List<TeeTarget> targets)
+            throws TeeException {
+        try {
+            stdout.write(buffer, 0, length);
+            stdout.flush();
+        } catch (IOException e) {
+            throw new TeeException(ERR_WRITE_STREAM, e);
+        }
+
+        for (TeeTarget target : targets) {
+            target.write(ByteBuffer.wrap(buffer, 0, length));
+        }
+    }
+
+    private int readChunk(InputStream stdin, byte[] buffer) throws TeeException {
+        try {
+            return stdin.read(buffer);
+        } catch (IOException e) {
+            throw new TeeException(ERR_READ_STREAM, e);
+        }
+    }
+
+    @Override
+    public String teeFromStdin(Boolean isAppend, InputStream stdin, String... fileNames) throws TeeException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        writeTee(isAppend, stdin, outputStream, fileNames);
+
+        String output = outputStream.toString();
+        return output.endsWith(STRING_NEWLINE)
+                ? output.substring(0, output.length() - STRING_NEWLINE.length())
+                : output;
+    }
+
+    /**
+     * An output file opened by tee, which stops accepting chunks after its first write failure.
+     */
+    private static final class TeeTarget {
+        private final String fileName;
+        private final FileChannel channel;
+        private IOException failure;
+
+        private TeeTarget(String fileName, FileChannel channel) {
+            this.fileName = fileName;
+            this.channel = channel;
+        }
+
+        private void write(ByteBuffer chunk) {
+            if (failure != null) {
+                return;
+            }
 
-        if (fileNames != null) {
-            for (String fileName : fileNames) {
-                teeToFile(isAppend, result, fileName).outputError();
+            try {
+                while (chunk.hasRemaining()) {
+                    channel.write(chunk);
+                }
+            } catch (IOException e) {
+                failure = e;
             }
         }
 
-        return String.join(STRING_NEWLINE, result);
+        /**
+         * Closes the file, returning the result of writing to it.
+         */
+        private TeeResult close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                failure = failure == null ? e : failure;
+            }
+
+            if (failure == null) {
+                return new TeeResult();
+            }
+
+            String message = new InvalidDirectoryException(fileName, ERR_WRITING_FILE, failure).getMessage();
+            return new TeeResult(new TeeException(message).getMessage());
+        }
     }
 }
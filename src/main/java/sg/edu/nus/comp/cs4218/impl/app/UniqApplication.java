@@ -5,6 +5,7 @@ import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
 import static java.nio.file.StandardOpenOption.WRITE;
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_FILE_NOT_FOUND;
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_INVALID_ARGS;
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_IO_EXCEPTION;
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_IS_DIR;
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_NO_FILE_ARGS;
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_NO_INPUT;
@@ -13,29 +14,56 @@ import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_NO_OSTREAM;
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_NO_PERM;
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_NULL_ARGS;
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_READING_FILE;
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_READ_STREAM;
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_WRITE_STREAM;
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_WRITING_FILE;
-import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.STRING_NEWLINE;
 import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.STRING_STDIN_FLAG;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.Arrays;
-import java.util.stream.Collectors;
+import java.nio.file.StandardCopyOption;
 
 import sg.edu.nus.comp.cs4218.app.UniqInterface;
 import sg.edu.nus.comp.cs4218.exception.InvalidArgsException;
 import sg.edu.nus.comp.cs4218.exception.InvalidDirectoryException;
 import sg.edu.nus.comp.cs4218.exception.UniqException;
 import sg.edu.nus.comp.cs4218.impl.parser.UniqArgsParser;
-import sg.edu.nus.comp.cs4218.impl.result.UniqResult;
 import sg.edu.nus.comp.cs4218.impl.util.CollectionUtils;
+import sg.edu.nus.comp.cs4218.impl.util.GlobalLineCounter;
 import sg.edu.nus.comp.cs4218.impl.util.IOUtils;
+import sg.edu.nus.comp.cs4218.impl.util.LineSink;
+import sg.edu.nus.comp.cs4218.impl.util.LineSource;
 
 @SuppressWarnings("PMD.GodClass")
 public class UniqApplication implements UniqInterface {
+    public static final long DEFAULT_MEMORY_BUDGET = 64 * 1024 * 1024;
+
+    private final long memoryBudget;
+    private final Path spillDirectory;
+
+    public UniqApplication() {
+        this(
+                Math.min(DEFAULT_MEMORY_BUDGET, Runtime.getRuntime().maxMemory() / 4),
+                Path.of(System.getProperty("java.io.tmpdir"))
+        );
+    }
+
+    /**
+     * @param memoryBudget   number of bytes of memory outside of the heap which the counts of the
+     *                       global mode may take up before they are spilled, at most 2 GB.
+     * @param spillDirectory directory for the temporary files the counts are spilled into.
+     */
+    public UniqApplication(long memoryBudget, Path spillDirectory) {
+        if (memoryBudget < 1 || memoryBudget > Integer.MAX_VALUE || spillDirectory == null) {
+            throw new IllegalArgumentException(ERR_INVALID_ARGS);
+        }
+
+        this.memoryBudget = memoryBudget;
+        this.spillDirectory = spillDirectory;
+    }
 
     @Override
     public void run(String[] args, InputStream stdin, OutputStream stdout) throws UniqException {
@@ -50,6 +78,7 @@ public class UniqApplication implements UniqInterface {
         boolean isCount = parser.isCount();
         boolean isRepeated = parser.isRepeated();
         boolean isAllRepeated = parser.isAllRepeated();
+        boolean isGlobal = parser.isGlobal();
         String inputFileName = parser.getInputFileName();
         String outputFileName = parser.getOutputFilename();
 
@@ -61,43 +90,159 @@ public class UniqApplication implements UniqInterface {
             throw new UniqException(ERR_NO_OSTREAM);
         }
 
-        String output = uniqContent(
-                isCount,
-                isRepeated,
-                isAllRepeated,
-                stdin,
-                inputFileName,
-                outputFileName
-        );
+        // the output file takes the place of stdout
+        LineSink sink = new LineSink(outputFileName == null ? stdout : OutputStream.nullOutputStream(), true);
 
-        if (outputFileName != null || output.isEmpty()) {
-            return;
-        }
+        uniqContent(isCount, isRepeated, isAllRepeated, isGlobal, stdin, inputFileName, outputFileName, sink);
 
         try {
-            stdout.write(output.getBytes());
-            stdout.write(STRING_NEWLINE.getBytes());
+            sink.flush();
         } catch (Exception e) {
             throw new UniqException(ERR_WRITE_STREAM, e);
         }
     }
 
-    private String uniqContent(
+    private void uniqContent(
             boolean isCount,
             boolean isRepeated,
             boolean isAllRepeated,
+            boolean isGlobal,
             InputStream stdin,
             String inputFilename,
-            String outputFileName
+            String outputFileName,
+            LineSink sink
     ) throws UniqException {
         if (inputFilename == null || inputFilename.equals(STRING_STDIN_FLAG)) {
-            return uniqFromStdin(isCount, isRepeated, isAllRepeated, stdin, outputFileName);
+            writeUniqFromStdin(isCount, isRepeated, isAllRepeated, isGlobal, stdin, outputFileName, sink);
+        } else {
+            writeUniqFromFile(isCount, isRepeated, isAllRepeated, isGlobal, inputFilename, outputFileName, sink);
+        }
+    }
+
+    /**
+     * Reads the lines one at a time and writes each group of adjacent identical lines as soon as the
+     * next line differs, so that only the current group is held in memory.
+     */
+    private void writeAdjacentGroups(InputStream inputStream, String readErrorMessage, GroupWriter writer)
+            throws UniqException {
+        LineSource source = new LineSource(inputStream);
+        String previousLine = null;
+        long count = 0;
+        String line;
+
+        while ((line = readLine(source, readErrorMessage)) != null) {
+            if (line.equals(previousLine)) {
+                count++;
+                continue;
+            }
+
+            if (previousLine != null) {
+                writer.writeGroup(previousLine, count);
+            }
+
+            previousLine = line;
+            count = 1;
+        }
+
+        if (previousLine != null) {
+            writer.writeGroup(previousLine, count);
+        }
+    }
+
+    /**
+     * Counts the occurrences of each distinct line anywhere in the input, then writes each line with
+     * its count in the order of first occurrence. The counts are kept outside of the heap and spilled
+     * to temporary files if they exceed the memory budget.
+     */
+    private void writeGlobalGroups(InputStream inputStream, String readErrorMessage, GroupWriter writer)
+            throws UniqException {
+        LineSource source = new LineSource(inputStream);
+
+        try (GlobalLineCounter counter = new GlobalLineCounter(memoryBudget, spillDirectory)) {
+            String line;
+            while ((line = readLine(source, readErrorMessage)) != null) {
+                counter.add(line);
+            }
+
+            counter.forEachGroup(writer::writeGroup);
+        } catch (IOException e) {
+            throw new UniqException(ERR_IO_EXCEPTION, e);
+        }
+    }
+
+    private void writeGroups(InputStream inputStream, String readErrorMessage, boolean isGlobal, GroupWriter writer)
+            throws UniqException {
+        if (isGlobal) {
+            writeGlobalGroups(inputStream, readErrorMessage, writer);
         } else {
-            return uniqFromFile(isCount, isRepeated, isAllRepeated, inputFilename, outputFileName);
+            writeAdjacentGroups(inputStream, readErrorMessage, writer);
         }
     }
 
-    private void uniqToFile(String content, String fileName) throws UniqException {
+    private String readLine(LineSource source, String readErrorMessage) throws UniqException {
+        try {
+            return source.readLine();
+        } catch (IOException e) {
+            throw new UniqException(readErrorMessage, e);
+        }
+    }
+
+    /**
+     * Writes the groups read from the input to the sink, and also to the output file if there is one.
+     * <p>
+     * If the output file is the input file itself, the groups are written to a temporary file which
+     * replaces the input file once it has been read completely.
+     */
+    private void writeUniq(
+            boolean isCount,
+            boolean isRepeated,
+            boolean isAllRepeated,
+            boolean isGlobal,
+            InputStream inputStream,
+            String readErrorMessage,
+            Path inputPath,
+            String outputFileName,
+            LineSink sink
+    ) throws UniqException {
+        if (outputFileName == null) {
+            GroupWriter writer = new GroupWriter(isCount, isRepeated, isAllRepeated, ERR_WRITE_STREAM, sink);
+            writeGroups(inputStream, readErrorMessage, isGlobal, writer);
+            return;
+        }
+
+        Path outputPath = resolveOutputFile(outputFileName);
+        String writeErrorMessage = new InvalidDirectoryException(outputFileName, ERR_WRITING_FILE).getMessage();
+
+        try {
+            boolean isInPlace = inputPath != null && Files.exists(outputPath) && Files.isSameFile(inputPath, outputPath);
+            Path targetPath = isInPlace ? Files.createTempFile(outputPath.getParent(), ".uniq", null) : outputPath;
+
+            try {
+                try (OutputStream outputStream = Files.newOutputStream(targetPath, CREATE, WRITE, TRUNCATE_EXISTING)) {
+                    LineSink fileSink = new LineSink(outputStream);
+                    GroupWriter writer = new GroupWriter(isCount, isRepeated, isAllRepeated, writeErrorMessage,
+                            fileSink, sink);
+
+                    writeGroups(inputStream, readErrorMessage, isGlobal, writer);
+                    fileSink.flush();
+                }
+
+                if (isInPlace) {
+                    Files.move(targetPath, outputPath, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                if (isInPlace) {
+                    Files.deleteIfExists(targetPath);
+                }
+            }
+        } catch (UniqException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new UniqException(writeErrorMessage, e);
+        }
+    }
+
+    private Path resolveOutputFile(String fileName) throws UniqException {
         try {
             if (fileName.isEmpty()) {
                 throw new InvalidDirectoryException(fileName, ERR_FILE_NOT_FOUND);
@@ -113,28 +258,40 @@ public class UniqApplication implements UniqInterface {
                 throw new InvalidDirectoryException(fileName, ERR_NO_PERM);
             }
 
-            try {
-                Files.write(
-                        filePath,
-                        Arrays.stream(content.split(STRING_NEWLINE)).collect(Collectors.toList()),
-                        CREATE,
-                        WRITE,
-                        TRUNCATE_EXISTING
-                );
-            } catch (Exception e) {
-                throw new InvalidDirectoryException(fileName, ERR_WRITING_FILE, e);
-            }
+            return filePath;
         } catch (Exception e) {
             throw new UniqException(e.getMessage(), e);
         }
     }
 
-    @Override
-    public String uniqFromFile(Boolean isCount, Boolean isRepeated, Boolean isAllRepeated, String inputFileName, String outputFileName) throws UniqException {
+    private void writeUniqFromFile(
+            Boolean isCount,
+            Boolean isRepeated,
+            Boolean isAllRepeated,
+            boolean isGlobal,
+            String inputFileName,
+            String outputFileName,
+            LineSink sink
+    ) throws UniqException {
         if (inputFileName == null) {
             throw new UniqException(ERR_NO_FILE_ARGS);
         }
 
+        checkOptions(isCount, isRepeated, isAllRepeated);
+
+        Path filePath = resolveInputFile(inputFileName);
+        String readErrorMessage = new InvalidDirectoryException(inputFileName, ERR_READING_FILE).getMessage();
+
+        try (InputStream inputStream = openInputFile(filePath, inputFileName)) {
+            writeUniq(isCount, isRepeated, isAllRepeated, isGlobal, inputStream, readErrorMessage, filePath,
+                    outputFileName, sink);
+        } catch (IOException e) {
+            throw new UniqException(readErrorMessage, e);
+        }
+    }
+
+    private static void checkOptions(Boolean isCount, Boolean isRepeated, Boolean isAllRepeated)
+            throws UniqException {
         if (CollectionUtils.isAnyNull(isCount, isRepeated, isAllRepeated)) {
             throw new UniqException(ERR_NULL_ARGS);
         }
@@ -142,70 +299,114 @@ public class UniqApplication implements UniqInterface {
         if (isAllRepeated && isCount) {
             throw new UniqException(ERR_INVALID_ARGS);
         }
+    }
 
-        UniqResult result;
-
+    private Path resolveInputFile(String fileName) throws UniqException {
         try {
-            if (inputFileName.isEmpty()) {
-                throw new InvalidDirectoryException(inputFileName, ERR_FILE_NOT_FOUND);
+            if (fileName.isEmpty()) {
+                throw new InvalidDirectoryException(fileName, ERR_FILE_NOT_FOUND);
             }
 
-            Path filePath = IOUtils.resolveAbsoluteFilePath(inputFileName);
+            Path filePath = IOUtils.resolveAbsoluteFilePath(fileName);
 
             if (Files.notExists(filePath)) {
-                throw new InvalidDirectoryException(inputFileName, ERR_FILE_NOT_FOUND);
+                throw new InvalidDirectoryException(fileName, ERR_FILE_NOT_FOUND);
             }
 
             if (Files.isDirectory(filePath)) {
-                throw new InvalidDirectoryException(inputFileName, ERR_IS_DIR);
+                throw new InvalidDirectoryException(fileName, ERR_IS_DIR);
             }
 
-            try {
-                result = new UniqResult(IOUtils.getLinesFromInputStream(Files.newInputStream(filePath)));
-            } catch (Exception e) {
-                throw new InvalidDirectoryException(inputFileName, ERR_READING_FILE, e);
-            }
+            return filePath;
         } catch (Exception e) {
             throw new UniqException(e.getMessage(), e);
         }
+    }
 
-        String content = result.formatToString(isCount, isRepeated, isAllRepeated);
-
-        if (outputFileName != null) {
-            uniqToFile(content, outputFileName);
+    private static InputStream openInputFile(Path filePath, String fileName) throws UniqException {
+        try {
+            return Files.newInputStream(filePath);
+        } catch (Exception e) {
+            throw new UniqException(new InvalidDirectoryException(fileName, ERR_READING_FILE, e).getMessage(), e);
         }
-
-        return content;
     }
 
-    @Override
-    public String uniqFromStdin(Boolean isCount, Boolean isRepeated, Boolean isAllRepeated, InputStream stdin, String outputFileName) throws UniqException {
+    private void writeUniqFromStdin(
+            Boolean isCount,
+            Boolean isRepeated,
+            Boolean isAllRepeated,
+            boolean isGlobal,
+            InputStream stdin,
+            String outputFileName,
+            LineSink sink
+    ) throws UniqException {
         if (stdin == null) {
             throw new UniqException(ERR_NO_ISTREAM);
         }
 
-        if (CollectionUtils.isAnyNull(isCount, isRepeated, isAllRepeated)) {
-            throw new UniqException(ERR_NULL_ARGS);
-        }
+        checkOptions(isCount, isRepeated, isAllRepeated);
 
-        if (isAllRepeated && isCount) {
-            throw new UniqException(ERR_INVALID_ARGS);
-        }
+        writeUniq(isCount, isRepeated, isAllRepeated, isGlobal, stdin, ERR_READ_STREAM, null, outputFileName, sink);
+    }
+
+    @Override
+    public String uniqFromFile(Boolean isCount, Boolean isRepeated, Boolean isAllRepeated, String inputFileName, String outputFileName) throws UniqException {
+        return LineSink.collectToString(sink ->
+                writeUniqFromFile(isCount, isRepeated, isAllRepeated, false, inputFileName, outputFileName, sink));
+    }
 
-        UniqResult result;
+    @Override
+    public String uniqFromStdin(Boolean isCount, Boolean isRepeated, Boolean isAllRepeated, InputStream stdin, String outputFileName) throws UniqException {
+        return LineSink.collectToString(sink ->
+                writeUniqFromStdin(isCount, isRepeated, isAllRepeated, false, stdin, outputFileName, sink));
+    }
 
-        try {
-            result = new UniqResult(IOUtils.getLinesFromInputStream(stdin));
-        } catch (Exception e) {
-            throw new UniqException(e.getMessage(), e);
+    /**
+     * Writes each group of identical lines to every sink in the format selected by the options,
+     * as soon as the group is complete.
+     */
+    private static final class GroupWriter {
+        private final boolean isCount;
+        private final boolean isRepeated;
+        private final boolean isAllRepeated;
+        private final String writeErrorMessage;
+        private final LineSink[] sinks;
+        private final StringBuilder builder = new StringBuilder();//NOPMD - reset for every counted line
+
+        private GroupWriter(boolean isCount, boolean isRepeated, boolean isAllRepeated, String writeErrorMessage,
+                            LineSink... sinks) {
+            this.isCount = isCount;
+            this.isRepeated = isRepeated;
+            this.isAllRepeated = isAllRepeated;
+            this.writeErrorMessage = writeErrorMessage;
+            this.sinks = sinks;
         }
 
-        String content = result.formatToString(isCount, isRepeated, isAllRepeated);
+        private void writeGroup(String line, long count) throws UniqException {
+            if ((isRepeated || isAllRepeated) && count < 2) {
+                return;
+            }
 
-        if (outputFileName != null) {
-            uniqToFile(content, outputFileName);
+            try {
+                if (isAllRepeated) {
+                    for (long i = 0; i < count; i++) {
+                        writeLine(line);
+                    }
+                } else if (isCount) {
+                    builder.setLength(0);
+                    writeLine(builder.append(count).append(' ').append(line).toString());
+                } else {
+                    writeLine(line);
+                }
+            } catch (IOException e) {
+                throw new UniqException(writeErrorMessage, e);
+            }
         }
 
-        return content;
+        private void writeLine(String line) throws IOException {
+            for (LineSink sink : sinks) {
+                sink.writeLine(line);
+            }
+        }
     }
 }
@@ -1,6 +1,7 @@
 package sg.edu.nus.comp.cs4218.impl.app;
 
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_FILE_NOT_FOUND;
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_INVALID_ARGS;
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_INVALID_FILES;
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_IS_DIR;
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_NO_FILE_ARGS;
@@ -15,12 +16,19 @@ import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.STRING_EMPTY;
 import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.STRING_NEWLINE;
 import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.STRING_STDIN_FLAG;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -28,13 +36,14 @@ import java.util.stream.Stream;
 import sg.edu.nus.comp.cs4218.app.WcInterface;
 import sg.edu.nus.comp.cs4218.exception.InvalidArgsException;
 import sg.edu.nus.comp.cs4218.exception.InvalidDirectoryException;
-import sg.edu.nus.comp.cs4218.exception.ShellException;
 import sg.edu.nus.comp.cs4218.exception.WcException;
 import sg.edu.nus.comp.cs4218.impl.parser.WcArgsParser;
 import sg.edu.nus.comp.cs4218.impl.result.WcResult;
 import sg.edu.nus.comp.cs4218.impl.util.CollectionUtils;
 import sg.edu.nus.comp.cs4218.impl.util.IOUtils;
-import sg.edu.nus.comp.cs4218.impl.util.StringUtils;
+import sg.edu.nus.comp.cs4218.impl.util.OrderedTaskRunner;
+import sg.edu.nus.comp.cs4218.impl.util.OrderedTaskRunner.IoTask;
+import sg.edu.nus.comp.cs4218.impl.util.WcCounter;
 
 @SuppressWarnings("PMD.GodClass")
 public class WcApplication implements WcInterface {
@@ -42,6 +51,35 @@ public class WcApplication implements WcInterface {
     public static final String TOTAL_LABEL = "total";
     public static final String STDIN_LABEL = STRING_EMPTY;
 
+    public static final long DEFAULT_CHUNK_SIZE = 16 * 1024 * 1024;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Executor executor;
+    private final int parallelism;
+    private final long chunkSize;
+
+    public WcApplication() {
+        this(ForkJoinPool.commonPool(), Runtime.getRuntime().availableProcessors(), DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * @param executor    executor used to count chunks of a large file concurrently.
+     * @param parallelism maximum number of chunks counted at the same time, or 1 to count every file
+     *                    sequentially.
+     * @param chunkSize   size in bytes above which a file is split into chunks of this size, which are
+     *                    counted concurrently. At most 2 GB, the largest size that can be mapped.
+     */
+    public WcApplication(Executor executor, int parallelism, long chunkSize) {
+        if (executor == null || parallelism < 1 || chunkSize < 1 || chunkSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(ERR_INVALID_ARGS);
+        }
+
+        this.executor = executor;
+        this.parallelism = parallelism;
+        this.chunkSize = chunkSize;
+    }
+
     /**
      * Runs the wc application with the specified arguments.
      *
@@ -124,30 +162,32 @@ public class WcApplication implements WcInterface {
         return Stream.concat(statisticsList.stream(), Stream.of(totalStatistics)).collect(Collectors.toList());
     }
 
+    /**
+     * Counts the input stream in a single pass over its bytes, then closes it.
+     */
     private WcResult computeStatisticsFromInputStream(
             String label,
             InputStream inputStream,
-            Path filePath
+            boolean isLines,
+            boolean isWords
     ) throws WcException {
-        try {
-            List<String> lines = IOUtils.getLinesFromInputStream(inputStream);
+        try (inputStream) {
+            WcCounter counter = new WcCounter(isLines, isWords);
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
 
-            long numLines = lines.size();
-            long numWords = lines.stream().map(StringUtils::tokenize).flatMap(Stream::of).count();
-            long numBytes = filePath == null
-                    ? lines.stream().mapToInt(line -> line.getBytes().length).sum() + numLines * STRING_NEWLINE.getBytes().length
-                    : Files.size(filePath);
+            while ((read = inputStream.read(buffer)) != -1) {
+                counter.update(ByteBuffer.wrap(buffer, 0, read));
+            }
 
-            return new WcResult(label, numLines, numWords, numBytes);
+            return new WcResult(label, counter.getNumLines(), counter.getNumWords(), counter.getNumBytes());
 
-        } catch (ShellException e) {
-            throw new WcException(e.getMessage(), e);
         } catch (Exception e) {
             throw new WcException(ERR_READ_STREAM, e);
         }
     }
 
-    private WcResult computeStatisticsFromFile(String fileName) {
+    private WcResult computeStatisticsFromFile(String fileName, boolean isLines, boolean isWords) {
         try {
             if (fileName.isEmpty()) {
                 throw new InvalidDirectoryException(fileName, ERR_FILE_NOT_FOUND);
@@ -164,7 +204,16 @@ public class WcApplication implements WcInterface {
             }
 
             try {
-                return computeStatisticsFromInputStream(fileName, Files.newInputStream(filePath), filePath);
+                if (!isLines && !isWords) {
+                    // the size of the file is known without reading it
+                    return new WcResult(fileName, 0, 0, Files.size(filePath));
+                }
+
+                if (parallelism > 1 && Files.size(filePath) > chunkSize) {
+                    return computeStatisticsInChunks(fileName, filePath, isLines, isWords);
+                }
+
+                return computeStatisticsFromInputStream(fileName, Files.newInputStream(filePath), isLines, isWords);
             } catch (Exception e) {
                 throw new InvalidDirectoryException(fileName, ERR_READING_FILE, e);
             }
@@ -174,9 +223,37 @@ public class WcApplication implements WcInterface {
         }
     }
 
-    private WcResult computeStatisticsFromStdin(InputStream stdin) {
+    /**
+     * Counts a large file by splitting it at fixed offsets and counting the memory-mapped chunks
+     * concurrently, then merging the counts of the chunks in file order.
+     */
+    private WcResult computeStatisticsInChunks(String label, Path filePath, boolean isLines, boolean isWords)
+            throws IOException {
+        try (FileChannel channel = FileChannel.open(filePath, StandardOpenOption.READ)) {
+            long size = channel.size();
+            List<IoTask<WcCounter>> tasks = new ArrayList<>();
+
+            for (long start = 0; start < size; start += chunkSize) {
+                long chunkStart = start;
+                long chunkLength = Math.min(chunkSize, size - start);
+
+                tasks.add(() -> {
+                    WcCounter counter = new WcCounter(isLines, isWords);
+                    counter.update(channel.map(FileChannel.MapMode.READ_ONLY, chunkStart, chunkLength));
+                    return counter;
+                });
+            }
+
+            WcCounter total = new WcCounter(isLines, isWords);
+            OrderedTaskRunner.runInOrder(executor, parallelism, tasks, total::merge);
+
+            return new WcResult(label, total.getNumLines(), total.getNumWords(), total.getNumBytes());
+        }
+    }
+
+    private WcResult computeStatisticsFromStdin(InputStream stdin, boolean isLines, boolean isWords) {
         try {
-            return computeStatisticsFromInputStream(STDIN_LABEL, stdin, null);
+            return computeStatisticsFromInputStream(STDIN_LABEL, stdin, isLines, isWords);
         } catch (Exception e) {
             return new WcResult(new WcException(ERR_READ_STREAM, e).getMessage());
         }
@@ -220,7 +297,7 @@ public class WcApplication implements WcInterface {
 
         List<WcResult> result = Arrays.stream(fileNames)
                 .map(fileName -> {
-                    WcResult statistics = computeStatisticsFromFile(fileName);
+                    WcResult statistics = computeStatisticsFromFile(fileName, isLines, isWords);
 
                     statistics.outputError();
 
@@ -246,7 +323,7 @@ public class WcApplication implements WcInterface {
             throw new WcException(ERR_NULL_ARGS);
         }
 
-        WcResult statistics = computeStatisticsFromStdin(stdin);
+        WcResult statistics = computeStatisticsFromStdin(stdin, isLines, isWords);
 
         statistics.outputError();
 
@@ -280,8 +357,8 @@ public class WcApplication implements WcInterface {
         List<WcResult> result = Arrays.stream(fileNames)
                 .map(fileName -> {
                     WcResult statistics = fileName.equals(STRING_STDIN_FLAG)
-                            ? computeStatisticsFromStdin(stdin)
-                            : computeStatisticsFromFile(fileName);
+                            ? computeStatisticsFromStdin(stdin, isLines, isWords)
+                            : computeStatisticsFromFile(fileName, isLines, isWords);
 
                     statistics.outputError();
 
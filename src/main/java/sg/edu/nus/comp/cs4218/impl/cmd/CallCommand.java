@@ -9,12 +9,13 @@ import java.util.List;
 import java.util.Objects;
 
 import sg.edu.nus.comp.cs4218.Command;
+import sg.edu.nus.comp.cs4218.Evaluation;
 import sg.edu.nus.comp.cs4218.exception.AbstractApplicationException;
 import sg.edu.nus.comp.cs4218.exception.ShellException;
 import sg.edu.nus.comp.cs4218.impl.util.ApplicationRunner;
-import sg.edu.nus.comp.cs4218.impl.util.ArgumentResolverUtil;
 import sg.edu.nus.comp.cs4218.impl.util.CollectionUtils;
 import sg.edu.nus.comp.cs4218.impl.util.IORedirectionHandler;
+import sg.edu.nus.comp.cs4218.impl.util.RedirectionPlan;
 
 /**
  * A Call Command is a sub-command consisting of at least one non-keyword or quoted.
@@ -24,6 +25,8 @@ import sg.edu.nus.comp.cs4218.impl.util.IORedirectionHandler;
 public class CallCommand implements Command {
     private final List<String> argsList;
     private final ApplicationRunner appRunner;
+    private final RedirectionPlan redirectionPlan;
+    private final RunningEvaluations runningEvaluations = new RunningEvaluations();
 
     public CallCommand(List<String> argsList, ApplicationRunner appRunner) throws ShellException {
         if (
@@ -36,29 +39,44 @@ public class CallCommand implements Command {
 
         this.argsList = new ArrayList<>(argsList);
         this.appRunner = appRunner;
+        this.redirectionPlan = RedirectionPlan.analyze(this.argsList);
     }
 
     @Override
     public void evaluate(InputStream stdin, OutputStream stdout)
             throws AbstractApplicationException, ShellException {
-        // Handle IO redirection
-        IORedirectionHandler redirHandler = new IORedirectionHandler(argsList, stdin, stdout);
+        runningEvaluations.run(() -> evaluateApp(stdin, stdout));
+    }
+
+    private void evaluateApp(InputStream stdin, OutputStream stdout)
+            throws AbstractApplicationException, ShellException {
+        // Handle IO redirection, whose structure was analysed when the command was built
+        IORedirectionHandler redirHandler = IORedirectionHandler.fromPlan(redirectionPlan, stdin, stdout);
         redirHandler.extractRedirOptions();
-        List<String> noRedirArgsList = redirHandler.getNoRedirArgsList();
         InputStream inputStream = redirHandler.getInputStream();//NOPMD
         OutputStream outputStream = redirHandler.getOutputStream();//NOPMD
 
-        // Handle quoting + globing + command substitution
-        List<String> parsedArgsList = ArgumentResolverUtil.parseArguments(noRedirArgsList);
-        if (!parsedArgsList.isEmpty()) {
+        // Handle globing + command substitution, quoting having been resolved already
+        List<String> parsedArgsList = redirectionPlan.resolveNoRedirArgs();
+        Evaluation evaluation = Evaluation.current();
+        if (!parsedArgsList.isEmpty() && evaluation.startApp()) {
             String app = parsedArgsList.remove(0);
-            appRunner.runApp(app, parsedArgsList.toArray(String[]::new), inputStream, outputStream);
+            try {
+                appRunner.runApp(app, parsedArgsList.toArray(String[]::new), inputStream, outputStream);
+            } finally {
+                evaluation.finishApp();
+            }
         }
     }
 
+    /**
+     * Terminates every evaluation this command is currently part of, interrupting the applications
+     * they run. Applications which wait for more input, such as tail -f, return when they are
+     * interrupted. A command which is not being evaluated is left unchanged.
+     */
     @Override
     public void terminate() {
-        // Unused for now
+        runningEvaluations.terminateAll();
     }
 
     public List<String> getArgsList() {
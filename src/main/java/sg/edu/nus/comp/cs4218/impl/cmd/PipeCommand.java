@@ -4,25 +4,43 @@ import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_INVALID_ARGS;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.Serial;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import sg.edu.nus.comp.cs4218.Command;
+import sg.edu.nus.comp.cs4218.Evaluation;
 import sg.edu.nus.comp.cs4218.exception.AbstractApplicationException;
 import sg.edu.nus.comp.cs4218.exception.ShellException;
+import sg.edu.nus.comp.cs4218.impl.util.BoundedBytePipe;
 
 /**
  * A Pipe Command is a command consisting of multiple Call Commands separated with a pipe.
  * <p>
  * Command format: <Call> | <Call> ...
+ * <p>
+ * By default, each Call Command runs to completion before the next one starts. In concurrent mode,
+ * every Call Command runs on its own thread and consecutive commands are connected by a
+ * {@link BoundedBytePipe}, so the memory used by the pipeline does not grow with the input size.
  */
 public class PipeCommand implements Command {
     private final List<CallCommand> callCommands;
+    private final boolean concurrent;
+    private final RunningEvaluations runningEvaluations = new RunningEvaluations();
 
     public PipeCommand(List<CallCommand> callCommands) throws ShellException {
+        this(callCommands, false);
+    }
+
+    public PipeCommand(List<CallCommand> callCommands, boolean isConcurrent) throws ShellException {
         if (
                 callCommands == null
                         || callCommands.stream().anyMatch(Objects::isNull)
@@ -32,12 +50,26 @@ public class PipeCommand implements Command {
         }
 
         this.callCommands = new ArrayList<>(callCommands);
+        this.concurrent = isConcurrent;
     }
 
     @Override
     public void evaluate(InputStream stdin, OutputStream stdout)
             throws AbstractApplicationException, ShellException {
+        runningEvaluations.run(() -> evaluateStages(stdin, stdout));
+    }
+
+    private void evaluateStages(InputStream stdin, OutputStream stdout)
+            throws AbstractApplicationException, ShellException {
+        if (concurrent) {
+            evaluateConcurrently(stdin, stdout);
+        } else {
+            evaluateSequentially(stdin, stdout);
+        }
+    }
 
+    private void evaluateSequentially(InputStream stdin, OutputStream stdout)
+            throws AbstractApplicationException, ShellException {
         InputStream nextInputStream = stdin;
         OutputStream nextOutputStream;//NOPMD
 
@@ -58,12 +90,162 @@ public class PipeCommand implements Command {
         }
     }
 
+    private void evaluateConcurrently(InputStream stdin, OutputStream stdout)
+            throws AbstractApplicationException, ShellException {
+        // the stages run on other threads, which are made part of this thread's evaluation
+        Evaluation evaluation = Evaluation.current();
+        int numCommands = callCommands.size();
+        ExecutorService executor = Executors.newFixedThreadPool(numCommands);
+        List<Future<Void>> stages = new ArrayList<>();
+
+        InputStream nextInputStream = stdin;
+
+        for (int i = 0; i < numCommands; i++) {
+            CallCommand callCommand = callCommands.get(i);
+            InputStream inputStream = nextInputStream;//NOPMD
+            BoundedBytePipe pipe = i == numCommands - 1 ? null : new BoundedBytePipe();
+            OutputStream outputStream = pipe == null ? stdout : new PipeOutputStream(pipe);//NOPMD
+
+            if (pipe != null) {
+                nextInputStream = pipe.getInputStream();//NOPMD - closed by the stage which reads it
+            }
+
+            stages.add(executor.submit(
+                    () -> runStage(callCommand, evaluation, inputStream, outputStream, stdin, stdout)));
+        }
+
+        executor.shutdown();
+
+        awaitStages(stages);
+    }
+
+    /**
+     * Runs one stage of the pipeline. Its own pipe ends are always closed afterwards so that the
+     * next stage sees end of stream and the previous stage stops writing to a stage that has finished.
+     */
+    private Void runStage(
+            CallCommand callCommand,
+            Evaluation evaluation,
+            InputStream inputStream,
+            OutputStream outputStream,
+            InputStream stdin,
+            OutputStream stdout
+    ) throws AbstractApplicationException, ShellException, IOException {
+        try {
+            evaluation.evaluate(callCommand, inputStream, outputStream);
+        } finally {
+            if (!inputStream.equals(stdin)) {
+                inputStream.close();
+            }
+            if (!outputStream.equals(stdout)) {
+                outputStream.close();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Waits for all stages to finish. A stage ended by writing to a stage that has finished is not a
+     * failure, just as SIGPIPE silently ends the writer of a shell pipeline. When more than one stage
+     * fails, the exception from the right-most stage is rethrown, since a failing stage causes the
+     * stages before it to fail on a closed pipe rather than the other way round.
+     */
+    private void awaitStages(List<Future<Void>> stages) throws AbstractApplicationException, ShellException {
+        Throwable failure = null;
+
+        for (Future<Void> stage : stages) {
+            try {
+                stage.get();
+            } catch (ExecutionException e) {
+                if (!(e.getCause() instanceof BrokenPipeError)) {
+                    failure = e.getCause();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                stages.forEach(remaining -> remaining.cancel(true));
+                throw new ShellException(e.getMessage(), e);
+            }
+        }
+
+        if (failure instanceof AbstractApplicationException) {
+            throw (AbstractApplicationException) failure;
+        }
+        if (failure instanceof ShellException) {
+            throw (ShellException) failure;
+        }
+        if (failure != null) {
+            throw new ShellException(failure.getMessage(), failure);
+        }
+    }
+
+    /**
+     * Terminates every evaluation this command is currently part of, stopping all of its stages.
+     */
     @Override
     public void terminate() {
-        // Unused for now
+        runningEvaluations.terminateAll();
     }
 
     public List<CallCommand> getCallCommands() {
         return callCommands;
     }
+
+    public boolean isConcurrent() {
+        return concurrent;
+    }
+
+    /**
+     * Thrown by a write to a pipe whose reading stage has finished. It ends the writing stage like
+     * SIGPIPE ends a process. It is an error rather than an exception so that applications, which
+     * catch exceptions around their writes to report them, let it through instead of reporting it.
+     */
+    private static final class BrokenPipeError extends Error {
+        @Serial
+        private static final long serialVersionUID = -3163842217381960413L;
+
+        private BrokenPipeError(IOException cause) {
+            super(cause.getMessage(), cause);
+        }
+    }
+
+    /**
+     * The producer end of a pipe, which throws {@link BrokenPipeError} once the consumer end is closed.
+     */
+    private static final class PipeOutputStream extends OutputStream {
+        private final BoundedBytePipe pipe;
+
+        private PipeOutputStream(BoundedBytePipe pipe) {
+            this.pipe = pipe;
+        }
+
+        @Override
+        public void write(int value) throws IOException {
+            try {
+                pipe.getOutputStream().write(value);
+            } catch (IOException e) {
+                throw toBrokenPipe(e);
+            }
+        }
+
+        @Override
+        public void write(byte[] src, int off, int len) throws IOException {
+            try {
+                pipe.getOutputStream().write(src, off, len);
+            } catch (IOException e) {
+                throw toBrokenPipe(e);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            pipe.getOutputStream().close();
+        }
+
+        private IOException toBrokenPipe(IOException exception) {
+            if (pipe.isReaderClosed()) {
+                throw new BrokenPipeError(exception);
+            }
+            return exception;
+        }
+    }
 }
@@ -0,0 +1,38 @@
+package sg.edu.nus.comp.cs4218.impl.cmd;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import sg.edu.nus.comp.cs4218.Evaluation;
+import sg.edu.nus.comp.cs4218.exception.AbstractApplicationException;
+import sg.edu.nus.comp.cs4218.exception.ShellException;
+
+/**
+ * The evaluations a parsed command is currently part of, through which
+ * {@link sg.edu.nus.comp.cs4218.Command#terminate()} stops every run of the command.
+ * <p>
+ * A command evaluated outside of an evaluation starts a new one, which the commands it contains
+ * then share, so that terminating the outermost command also stops the applications it runs.
+ */
+final class RunningEvaluations {
+    private final Set<Evaluation> evaluations = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Runs the work as part of the current evaluation, which is terminated by {@link #terminateAll()}
+     * until the work returns.
+     */
+    void run(Evaluation.CommandWork work) throws AbstractApplicationException, ShellException {
+        Evaluation evaluation = Evaluation.current();
+        evaluations.add(evaluation);
+
+        try {
+            evaluation.run(work);
+        } finally {
+            evaluations.remove(evaluation);
+        }
+    }
+
+    void terminateAll() {
+        evaluations.forEach(Evaluation::terminate);
+    }
+}
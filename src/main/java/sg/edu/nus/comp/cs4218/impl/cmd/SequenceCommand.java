@@ -11,6 +11,7 @@ import java.util.List;
 import java.util.Objects;
 
 import sg.edu.nus.comp.cs4218.Command;
+import sg.edu.nus.comp.cs4218.Evaluation;
 import sg.edu.nus.comp.cs4218.exception.AbstractApplicationException;
 import sg.edu.nus.comp.cs4218.exception.ShellException;
 
@@ -21,6 +22,7 @@ import sg.edu.nus.comp.cs4218.exception.ShellException;
  */
 public class SequenceCommand implements Command {
     private final List<Command> commands;
+    private final RunningEvaluations runningEvaluations = new RunningEvaluations();
 
     public SequenceCommand(List<Command> commands) throws ShellException {
         if (
@@ -37,9 +39,20 @@ public class SequenceCommand implements Command {
     @Override
     public void evaluate(InputStream stdin, OutputStream stdout)
             throws AbstractApplicationException, ShellException {
+        runningEvaluations.run(() -> evaluateInOrder(stdin, stdout));
+    }
+
+    private void evaluateInOrder(InputStream stdin, OutputStream stdout)
+            throws AbstractApplicationException, ShellException {
         List<String> outputLines = new ArrayList<>();
+        // the commands after the one being evaluated are skipped once the evaluation is terminated
+        Evaluation evaluation = Evaluation.current();
 
         for (Command command : commands) {
+            if (evaluation.isTerminated()) {
+                break;
+            }
+
             try {
                 OutputStream outputStream = new ByteArrayOutputStream();
                 command.evaluate(stdin, outputStream);
@@ -62,9 +75,13 @@ public class SequenceCommand implements Command {
         }
     }
 
+    /**
+     * Terminates every evaluation this command is currently part of, stopping the command being
+     * evaluated and skipping the commands after it.
+     */
     @Override
     public void terminate() {
-        // Unused for now
+        runningEvaluations.terminateAll();
     }
 
     public List<Command> getCommands() {
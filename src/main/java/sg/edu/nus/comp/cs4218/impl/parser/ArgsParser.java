@@ -1,6 +1,7 @@
 package sg.edu.nus.comp.cs4218.impl.parser;
 
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_NULL_ARGS;
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_OPTION_REQUIRES_ARGUMENT;
 import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.CHAR_FLAG_PREFIX;
 
 import java.util.ArrayList;
@@ -50,6 +51,55 @@ public class ArgsParser {
         validateArgs();
     }
 
+    /**
+     * Takes out every occurrence of an option which has a value, such as -n 5 or -n5, possibly preceded
+     * by other flags as in -rn 5, and adds its values to the given list in order.
+     *
+     * @param option Character of the option
+     * @param values List of String to which the values of the option are added
+     * @param args   Array of String of the arguments
+     * @return Array of String of the remaining arguments
+     * @throws InvalidArgsException if the option is the last argument and has no value
+     */
+    protected static String[] extractOption(char option, List<String> values, String... args)
+            throws InvalidArgsException {
+        if (args == null) {
+            throw new InvalidArgsException(ERR_NULL_ARGS);
+        }
+
+        List<String> otherArgs = new ArrayList<>();
+        int index = 0;
+
+        while (index < args.length) {
+            String arg = args[index];
+            index++;
+
+            int optionIndex = arg == null || arg.length() < 2 || arg.charAt(0) != CHAR_FLAG_PREFIX
+                    ? -1
+                    : arg.indexOf(option);
+            if (optionIndex < 0) {
+                otherArgs.add(arg);
+                continue;
+            }
+
+            if (optionIndex > 1) {
+                // flags in front of the option
+                otherArgs.add(arg.substring(0, optionIndex));
+            }
+
+            if (optionIndex + 1 < arg.length()) {
+                values.add(arg.substring(optionIndex + 1));
+            } else if (index < args.length) {
+                values.add(args[index]);
+                index++;
+            } else {
+                throw new InvalidArgsException(ERR_OPTION_REQUIRES_ARGUMENT);
+            }
+        }
+
+        return otherArgs.toArray(new String[0]);
+    }
+
     /**
      * Checks for the existence of illegal flags. Presence of any illegal flags would result in a
      * non-empty set after subtracting the set of legal flags from the set of parsed flags.
@@ -0,0 +1,73 @@
+package sg.edu.nus.comp.cs4218.impl.parser;
+
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_INVALID_KEY;
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_NULL_ARGS;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import sg.edu.nus.comp.cs4218.exception.InvalidArgsException;
+import sg.edu.nus.comp.cs4218.impl.util.LineComparator;
+
+public class SortArgsParser extends ArgsParser {
+    private static final char FLAG_IS_NUMERIC = 'n';
+    private static final char FLAG_IS_REVERSE = 'r';
+    private static final char FLAG_IS_UNIQUE = 'u';
+    private static final char OPTION_KEY = 'k';
+
+    private final List<String> keys = new ArrayList<>();
+
+    public SortArgsParser() {
+        super();
+
+        legalFlags.add(FLAG_IS_NUMERIC);
+        legalFlags.add(FLAG_IS_REVERSE);
+        legalFlags.add(FLAG_IS_UNIQUE);
+    }
+
+    /**
+     * Takes out every -k option together with its key definition, which is either the rest of the
+     * argument or the next argument, and parses the remaining arguments as usual.
+     */
+    @Override
+    public void parse(String... args) throws InvalidArgsException {
+        super.parse(extractOption(OPTION_KEY, keys, args));
+    }
+
+    public boolean isNumeric() {
+        return flags.contains(FLAG_IS_NUMERIC);
+    }
+
+    public boolean isReverse() {
+        return flags.contains(FLAG_IS_REVERSE);
+    }
+
+    public boolean isUnique() {
+        return flags.contains(FLAG_IS_UNIQUE);
+    }
+
+    public List<String> getKeys() {
+        return keys;
+    }
+
+    public List<String> getFileNames() {
+        return nonFlagArgs;
+    }
+
+    @Override
+    protected void validateArgs() throws InvalidArgsException {
+        super.validateArgs();
+
+        for (String key : keys) {
+            if (key == null) {
+                throw new InvalidArgsException(ERR_NULL_ARGS);
+            }
+
+            try {
+                LineComparator.parseKey(key);
+            } catch (IllegalArgumentException e) {
+                throw new InvalidArgsException(ERR_INVALID_KEY, e);
+            }
+        }
+    }
+}
@@ -9,6 +9,7 @@ import sg.edu.nus.comp.cs4218.exception.InvalidArgsException;
 public class SplitArgsParser extends ArgsParser {
     private static final char FLAG_IS_SPLIT_BY_LINES = 'l';
     private static final char FLAG_IS_SPLIT_BY_BYTES = 'b';
+    private static final char FLAG_IS_SPLIT_BY_CHUNKS = 'n';
     private static final int INDEX_OF_LINES_OR_BYTES = 0;
     private static final int INDEX_FILE = 0;
     private static final int INDEX_PREFIX = 1;
@@ -18,6 +19,7 @@ public class SplitArgsParser extends ArgsParser {
 
         legalFlags.add(FLAG_IS_SPLIT_BY_LINES);
         legalFlags.add(FLAG_IS_SPLIT_BY_BYTES);
+        legalFlags.add(FLAG_IS_SPLIT_BY_CHUNKS);
     }
 
     // allows null args
@@ -38,8 +40,12 @@ public class SplitArgsParser extends ArgsParser {
         return flags.contains(FLAG_IS_SPLIT_BY_BYTES);
     }
 
+    public boolean isSplitByChunks() {
+        return flags.contains(FLAG_IS_SPLIT_BY_CHUNKS);
+    }
+
     private boolean hasOption() {
-        return isSplitByBytes() || isSplitByLines();
+        return isSplitByBytes() || isSplitByLines() || isSplitByChunks();
     }
 
     public String getNumOfLinesOrBytes() {
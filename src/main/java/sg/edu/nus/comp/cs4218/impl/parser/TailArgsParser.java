@@ -0,0 +1,55 @@
+package sg.edu.nus.comp.cs4218.impl.parser;
+
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_NULL_ARGS;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import sg.edu.nus.comp.cs4218.exception.InvalidArgsException;
+
+public class TailArgsParser extends ArgsParser {
+    private static final char FLAG_IS_FOLLOW = 'f';
+    private static final char OPTION_NUM_OF_LINES = 'n';
+
+    private final List<String> numsOfLines = new ArrayList<>();
+
+    public TailArgsParser() {
+        super();
+
+        legalFlags.add(FLAG_IS_FOLLOW);
+    }
+
+    /**
+     * Takes out every -n option together with its number of lines, which is either the rest of the
+     * argument or the next argument, and parses the remaining arguments as usual.
+     */
+    @Override
+    public void parse(String... args) throws InvalidArgsException {
+        super.parse(extractOption(OPTION_NUM_OF_LINES, numsOfLines, args));
+    }
+
+    public boolean isFollow() {
+        return flags.contains(FLAG_IS_FOLLOW);
+    }
+
+    /**
+     * Returns the number of lines of the last -n option, or null if there is none.
+     */
+    public String getNumOfLines() {
+        return numsOfLines.isEmpty() ? null : numsOfLines.get(numsOfLines.size() - 1);
+    }
+
+    public List<String> getFileNames() {
+        return nonFlagArgs;
+    }
+
+    @Override
+    protected void validateArgs() throws InvalidArgsException {
+        super.validateArgs();
+
+        if (numsOfLines.stream().anyMatch(Objects::isNull)) {
+            throw new InvalidArgsException(ERR_NULL_ARGS);
+        }
+    }
+}
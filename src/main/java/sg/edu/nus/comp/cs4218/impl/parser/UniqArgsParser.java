@@ -8,6 +8,7 @@ public class UniqArgsParser extends ArgsParser {
     private static final char FLAG_IS_COUNT = 'c';
     private static final char FLAG_IS_REPEATED = 'd';
     private static final char FLAG_IS_ALL_REPEATED = 'D';
+    private static final char FLAG_IS_GLOBAL = 'g';
     private static final int INDEX_INPUT_FILE = 0;
     private static final int INDEX_OUTPUT_FILE = 1;
 
@@ -17,6 +18,7 @@ public class UniqArgsParser extends ArgsParser {
         legalFlags.add(FLAG_IS_COUNT);
         legalFlags.add(FLAG_IS_REPEATED);
         legalFlags.add(FLAG_IS_ALL_REPEATED);
+        legalFlags.add(FLAG_IS_GLOBAL);
     }
 
     // allows null args
@@ -41,6 +43,10 @@ public class UniqArgsParser extends ArgsParser {
         return flags.contains(FLAG_IS_ALL_REPEATED);
     }
 
+    public boolean isGlobal() {
+        return flags.contains(FLAG_IS_GLOBAL);
+    }
+
     public String getInputFileName() {
         return nonFlagArgs.size() > 0 ? nonFlagArgs.get(INDEX_INPUT_FILE) : null;
     }
@@ -26,7 +26,7 @@ public class CatResult extends Result {
     }
 
     public String formatToString(boolean isLineNumber) {
-        if (isError) {
+        if (hasError) {
             return STRING_EMPTY;
         }
 
@@ -11,6 +11,7 @@ import java.util.stream.Collectors;
 public class GrepResult extends Result {
     private String label = STRING_EMPTY;
     private List<String> lines = List.of();
+    private long count;
 
     public GrepResult(String label, List<String> lines) {
         super(false);
@@ -21,26 +22,50 @@ public class GrepResult extends Result {
 
         this.label = label;
         this.lines = List.copyOf(lines);
+        this.count = lines.size();
+    }
+
+    /**
+     * Creates a result which only keeps the number of matching lines.
+     */
+    public GrepResult(String label, long count) {
+        super(false);
+
+        if (label == null) {
+            throw new IllegalArgumentException(ERR_NULL_ARGS);
+        }
+
+        this.label = label;
+        this.count = count;
     }
 
     public GrepResult(String errorMessage) {
         super(true, errorMessage);
     }
 
+    /**
+     * Returns the number of matching lines.
+     */
+    public long getCount() {
+        return count;
+    }
+
     public String formatToString(boolean isCountLines, boolean isPrefixFileName) {
-        if (isError) {
-            return STRING_EMPTY;
+        return String.join(STRING_NEWLINE, formatToLines(isCountLines, isPrefixFileName));
+    }
+
+    public List<String> formatToLines(boolean isCountLines, boolean isPrefixFileName) {
+        if (hasError) {
+            return List.of();
         }
 
         if (isCountLines) {
-            String stringCount = String.valueOf(lines.size());
-            return isPrefixFileName ? String.format(STRING_LABEL_VALUE_PAIR, label, stringCount) : stringCount;
+            String stringCount = String.valueOf(count);
+            return List.of(isPrefixFileName ? String.format(STRING_LABEL_VALUE_PAIR, label, stringCount) : stringCount);
         }
 
-        List<String> formattedLines = lines.stream()
+        return lines.stream()
                 .map(line -> isPrefixFileName ? String.format(STRING_LABEL_VALUE_PAIR, label, line) : line)
                 .collect(Collectors.toList());
-
-        return String.join(STRING_NEWLINE, formattedLines);
     }
 }
@@ -0,0 +1,11 @@
+package sg.edu.nus.comp.cs4218.impl.result;
+
+/**
+ * The error of a single input of head, which is reported before the remaining inputs are written.
+ */
+public class HeadResult extends Result {
+
+    public HeadResult(String errorMessage) {
+        super(true, errorMessage);
+    }
+}
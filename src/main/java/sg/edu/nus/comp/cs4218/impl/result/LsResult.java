@@ -5,17 +5,27 @@ import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.STRING_EMPTY;
 import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.STRING_LABEL_VALUE_PAIR;
 import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.STRING_NEWLINE;
 
+import java.io.Closeable;
 import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
+import sg.edu.nus.comp.cs4218.impl.util.ExternalSorter;
+import sg.edu.nus.comp.cs4218.impl.util.ExternalSorter.LineConsumer;
 import sg.edu.nus.comp.cs4218.impl.util.StringUtils;
 
-public class LsResult extends Result {
+public class LsResult extends Result implements Closeable {
     private String label = STRING_EMPTY;
-    private List<File> files = List.of();
+    private List<Entry> entries = List.of();
+    private ExternalSorter sortedNames;
 
     public LsResult(String label, List<File> files) {
         super(false);
@@ -25,34 +35,153 @@ public class LsResult extends Result {
         }
 
         this.label = label;
-        this.files = List.copyOf(files);
+        this.entries = files.stream()
+                .map(file -> new Entry(file.toPath(), null))
+                .collect(Collectors.toUnmodifiableList());
+    }
+
+    /**
+     * Creates a result from entries whose attributes have already been read, so that they are not
+     * read from the file system again.
+     *
+     * @param label   String of the label of the listing.
+     * @param entries Map of the path of each entry to its attributes, or to null if they were not read.
+     */
+    public LsResult(String label, Map<Path, BasicFileAttributes> entries) {
+        super(false);
+
+        if (label == null || entries == null) {
+            throw new IllegalArgumentException(ERR_NULL_ARGS);
+        }
+
+        List<Entry> result = new ArrayList<>(entries.size());
+        for (Map.Entry<Path, BasicFileAttributes> entry : entries.entrySet()) {
+            result.add(new Entry(entry.getKey(), entry.getValue()));
+        }
+
+        this.label = label;
+        this.entries = Collections.unmodifiableList(result);
+    }
+
+    /**
+     * Creates a result whose names have been added to a sorter, which may have spilled them into
+     * temporary files, so that the names of a large directory need not be held in memory. Only the
+     * entries needed to list subdirectories are kept with their attributes.
+     *
+     * @param label       String of the label of the listing.
+     * @param directories Map of the path of each subdirectory to its attributes.
+     * @param sortedNames ExternalSorter the names have been added to, sorted in the order given by
+     *                    {@link #createNameComparator(boolean)}. It is closed with this result.
+     */
+    public LsResult(String label, Map<Path, BasicFileAttributes> directories, ExternalSorter sortedNames) {
+        this(label, directories);
+
+        if (sortedNames == null) {
+            throw new IllegalArgumentException(ERR_NULL_ARGS);
+        }
+
+        this.sortedNames = sortedNames;
     }
 
     public LsResult(String errorMessage) {
         super(true, errorMessage);
     }
 
+    /**
+     * Returns the entries kept with the result, which for names added to a sorter are only the
+     * subdirectories.
+     */
     public List<File> getFiles() {
-        return List.copyOf(files);
+        return entries.stream().map(entry -> entry.path.toFile()).collect(Collectors.toList());
     }
 
-    public String formatToString(boolean showLabel, boolean isSortByExt) {
-        if (isError) {
-            return STRING_EMPTY;
+    /**
+     * Returns the paths of the entries which are directories according to their attributes, sorted by
+     * name. Entries without attributes are never directories.
+     */
+    public List<Path> getDirectories() {
+        return entries.stream()
+                .filter(entry -> entry.attributes != null && entry.attributes.isDirectory())
+                .sorted(Comparator.comparing(entry -> entry.name))
+                .map(entry -> entry.path)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Returns the order in which the names of a listing are written.
+     *
+     * @param isSortByExt true if names are sorted by their extension first.
+     */
+    public static Comparator<String> createNameComparator(boolean isSortByExt) {
+        return isSortByExt
+                ? Comparator.comparing(StringUtils::getFileExtension).thenComparing(Comparator.naturalOrder())
+                : Comparator.naturalOrder();
+    }
+
+    /**
+     * Passes the lines of the listing to the consumer one at a time, so that they can be written
+     * without joining them first. Names added to a sorter are passed in the sorter's order.
+     *
+     * @throws IOException if the names spilled into temporary files cannot be read.
+     * @throws E           if the consumer fails.
+     */
+    public <E extends Exception> void forEachLine(boolean showLabel, boolean isSortByExt, LineConsumer<E> consumer)
+            throws IOException, E {
+        if (hasError) {
+            return;
+        }
+
+        if (showLabel && !label.isEmpty()) {
+            consumer.accept(String.format(STRING_LABEL_VALUE_PAIR, label, STRING_EMPTY).stripTrailing());
         }
 
-        List<String> result = files.stream()
-                .map(File::getName)
-                .sorted(isSortByExt ? Comparator.comparing(StringUtils::getFileExtension).thenComparing(Comparator.naturalOrder()) : Comparator.naturalOrder())
+        if (sortedNames != null) {
+            sortedNames.forEachLine(consumer);
+            return;
+        }
+
+        List<String> names = entries.stream()
+                .map(entry -> entry.name)
+                .sorted(createNameComparator(isSortByExt))
                 .collect(Collectors.toList());
 
-        if (showLabel && !label.isEmpty()) {
-            result = Stream.concat(Stream.of(
-                    String.format(STRING_LABEL_VALUE_PAIR, label, STRING_EMPTY).stripTrailing()),
-                    result.stream()
-            ).collect(Collectors.toList());
+        for (String name : names) {
+            consumer.accept(name);
+        }
+    }
+
+    public String formatToString(boolean showLabel, boolean isSortByExt) {
+        List<String> result = new ArrayList<>();
+
+        try {
+            forEachLine(showLabel, isSortByExt, result::add);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
 
         return String.join(STRING_NEWLINE, result);
     }
+
+    /**
+     * Deletes the temporary files the names may have been spilled into.
+     */
+    @Override
+    public void close() throws IOException {
+        if (sortedNames != null) {
+            sortedNames.close();
+        }
+    }
+
+    private static final class Entry {
+        private final Path path;
+        private final String name;
+        private final BasicFileAttributes attributes;
+
+        private Entry(Path path, BasicFileAttributes attributes) {
+            this.path = path;
+            Path fileName = path.getFileName();
+            this.name = fileName == null ? STRING_EMPTY : fileName.toString();
+            this.attributes = attributes;
+        }
+    }
 }
@@ -9,11 +9,11 @@ import sg.edu.nus.comp.cs4218.impl.util.StringUtils;
  * Base class to represent the computed result of an application for a SINGLE input stream.
  */
 public class Result {
-    protected boolean isError;
+    protected boolean hasError;
     protected String errorMessage = STRING_EMPTY;
 
     protected Result(boolean isError) {
-        this.isError = isError;
+        this.hasError = isError;
     }
 
     protected Result(boolean isError, String errorMessage) {
@@ -21,16 +21,20 @@ public class Result {
             throw new IllegalArgumentException(ERR_NULL_ARGS);
         }
 
-        this.isError = isError;
+        this.hasError = isError;
         this.errorMessage = errorMessage;
     }
 
+    public boolean isError() {
+        return hasError;
+    }
+
     /**
      * Writes stored error message to stderr.
-     * Do nothing if isError is false or errorMessage is blank.
+     * Do nothing if hasError is false or errorMessage is blank.
      */
     public void outputError() {
-        if (!isError || StringUtils.isBlank(errorMessage)) {
+        if (!hasError || StringUtils.isBlank(errorMessage)) {
             return;
         }
 
@@ -0,0 +1,11 @@
+package sg.edu.nus.comp.cs4218.impl.result;
+
+/**
+ * The error of a single input of tail, which is reported before the remaining inputs are written.
+ */
+public class TailResult extends Result {
+
+    public TailResult(String errorMessage) {
+        super(true, errorMessage);
+    }
+}
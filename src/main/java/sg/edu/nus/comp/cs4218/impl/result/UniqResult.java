@@ -51,8 +51,12 @@ public class UniqResult extends Result {
     }
 
     public String formatToString(boolean isCount, boolean isRepeated, boolean isAllRepeated) {
-        if (isError) {
-            return "";
+        return String.join(STRING_NEWLINE, formatToLines(isCount, isRepeated, isAllRepeated));
+    }
+
+    public List<String> formatToLines(boolean isCount, boolean isRepeated, boolean isAllRepeated) {
+        if (hasError) {
+            return List.of();
         }
 
         List<Integer> adjCounts = new ArrayList<>();
@@ -86,6 +90,6 @@ public class UniqResult extends Result {
                     .collect(Collectors.toList());
         }
 
-        return String.join(STRING_NEWLINE, result);
+        return result;
     }
 }
@@ -40,7 +40,7 @@ public class WcResult extends Result {
     }
 
     public String formatToString(boolean isBytes, boolean isLines, boolean isWords) {
-        if (isError) {
+        if (hasError) {
             return STRING_EMPTY;
         }
 
@@ -15,11 +15,14 @@ import sg.edu.nus.comp.cs4218.impl.app.CpApplication;
 import sg.edu.nus.comp.cs4218.impl.app.EchoApplication;
 import sg.edu.nus.comp.cs4218.impl.app.ExitApplication;
 import sg.edu.nus.comp.cs4218.impl.app.GrepApplication;
+import sg.edu.nus.comp.cs4218.impl.app.HeadApplication;
 import sg.edu.nus.comp.cs4218.impl.app.LsApplication;
 import sg.edu.nus.comp.cs4218.impl.app.MvApplication;
 import sg.edu.nus.comp.cs4218.impl.app.PasteApplication;
 import sg.edu.nus.comp.cs4218.impl.app.RmApplication;
+import sg.edu.nus.comp.cs4218.impl.app.SortApplication;
 import sg.edu.nus.comp.cs4218.impl.app.SplitApplication;
+import sg.edu.nus.comp.cs4218.impl.app.TailApplication;
 import sg.edu.nus.comp.cs4218.impl.app.TeeApplication;
 import sg.edu.nus.comp.cs4218.impl.app.UniqApplication;
 import sg.edu.nus.comp.cs4218.impl.app.WcApplication;
@@ -39,6 +42,9 @@ public class ApplicationRunner {
     public static final String APP_RM = "rm";
     public static final String APP_UNIQ = "uniq";
     public static final String APP_CP = "cp";
+    public static final String APP_SORT = "sort";
+    public static final String APP_HEAD = "head";
+    public static final String APP_TAIL = "tail";
     public static final String SHELL = "shell";
 
     /**
@@ -101,6 +107,15 @@ public class ApplicationRunner {
         case APP_UNIQ:
             application = new UniqApplication();
             break;
+        case APP_SORT:
+            application = new SortApplication();
+            break;
+        case APP_HEAD:
+            application = new HeadApplication();
+            break;
+        case APP_TAIL:
+            application = new TailApplication();
+            break;
         default:
             throw new ShellException(String.format(STRING_LABEL_VALUE_PAIR, app, ERR_INVALID_APP));
         }
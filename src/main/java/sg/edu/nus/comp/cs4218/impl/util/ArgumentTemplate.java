@@ -0,0 +1,254 @@
+package sg.edu.nus.comp.cs4218.impl.util;
+
+import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.CHAR_ASTERISK;
+import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.CHAR_BACK_QUOTE;
+import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.CHAR_DOUBLE_QUOTE;
+import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.CHAR_SINGLE_QUOTE;
+import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.CHAR_SPACE;
+import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.STRING_EMPTY;
+import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.STRING_NEWLINE;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Stack;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import sg.edu.nus.comp.cs4218.Command;
+import sg.edu.nus.comp.cs4218.exception.AbstractApplicationException;
+import sg.edu.nus.comp.cs4218.exception.ShellException;
+
+/**
+ * One argument whose quoting has been analysed once, so that it can be resolved any number of times.
+ * <p>
+ * Resolving only performs the steps which depend on the state of the shell: command substitution
+ * and globing. An argument without back quotes or unquoted asterisks always resolves to the same
+ * result, which is computed up front.
+ */
+public final class ArgumentTemplate {
+    private final List<TemplatePart> parts;
+    private final List<String> constantResult;
+
+    private ArgumentTemplate(List<TemplatePart> parts, List<String> constantResult) {
+        this.parts = parts;
+        this.constantResult = constantResult;
+    }
+
+    /**
+     * Unwraps single and double quotes from one argument, recording where globing and command
+     * substitution have to be performed.
+     * <p>
+     * Single quotes disable the interpretation of all special characters.
+     * Double quotes disable the interpretation of all special characters, except for back quotes.
+     *
+     * @param arg String containing one argument.
+     * @return The analysed argument.
+     */
+    public static ArgumentTemplate compile(String arg) { //NOPMD
+        Stack<Character> unmatchedQuotes = new Stack<>();
+        List<TemplatePart> parts = new ArrayList<>();
+        StringBuilder text = new StringBuilder();
+        StringBuilder subCommand = new StringBuilder();
+        boolean isConstant = true;
+        boolean hasSegment = false;
+
+        for (char chr : arg.toCharArray()) {
+            if (chr == CHAR_BACK_QUOTE) {
+                if (unmatchedQuotes.isEmpty() || unmatchedQuotes.peek() == CHAR_DOUBLE_QUOTE) {
+                    // start of command substitution
+                    addText(parts, text);
+                    parts.add(new TemplatePart(PartType.SUBSTITUTION_START, STRING_EMPTY));
+                    unmatchedQuotes.add(chr);
+                    isConstant = false;
+
+                } else if (unmatchedQuotes.peek() == chr) {
+                    // end of command substitution, tokenize the output unless back quotes are nested
+                    unmatchedQuotes.pop();
+                    parts.add(new TemplatePart(
+                            unmatchedQuotes.isEmpty() ? PartType.SUBSTITUTION : PartType.NESTED_SUBSTITUTION,
+                            subCommand.toString()
+                    ));
+                    subCommand.setLength(0);
+                } else {
+                    // ongoing single quote
+                    text.append(chr);
+                }
+            } else if (chr == CHAR_SINGLE_QUOTE || chr == CHAR_DOUBLE_QUOTE) {
+                if (unmatchedQuotes.isEmpty()) {
+                    // start of quote
+                    unmatchedQuotes.add(chr);
+                } else if (unmatchedQuotes.peek() == chr) {
+                    // end of quote, which makes sure the argument is not dropped even if empty
+                    unmatchedQuotes.pop();
+                    addText(parts, text);
+                    parts.add(new TemplatePart(PartType.QUOTE_END, STRING_EMPTY));
+                    hasSegment = true;
+                } else if (unmatchedQuotes.peek() == CHAR_BACK_QUOTE) {
+                    // ongoing back quote: add chr to subCommand
+                    subCommand.append(chr);
+                } else {
+                    // ongoing single/double quote
+                    text.append(chr);
+                }
+            } else if (!unmatchedQuotes.isEmpty() && unmatchedQuotes.peek() == CHAR_BACK_QUOTE) {
+                // ongoing back quote: add chr to subCommand
+                subCommand.append(chr);
+            } else if (chr == CHAR_ASTERISK && unmatchedQuotes.isEmpty()) {
+                // each unquoted * matches a (possibly empty) sequence of non-slash chars
+                addText(parts, text);
+                parts.add(new TemplatePart(PartType.ASTERISK, String.valueOf(CHAR_ASTERISK)));
+                isConstant = false;
+            } else {
+                // not a special character, or ongoing single/double quote
+                text.append(chr);
+            }
+        }
+
+        addText(parts, text);
+
+        if (!isConstant) {
+            return new ArgumentTemplate(List.copyOf(parts), null);
+        }
+
+        // without globing and command substitution, the argument resolves to its unquoted text
+        String plaintext = parts.stream().map(part -> part.text).collect(Collectors.joining());
+        hasSegment = hasSegment || !plaintext.isEmpty();
+
+        return new ArgumentTemplate(List.copyOf(parts), hasSegment ? List.of(plaintext) : List.of());
+    }
+
+    private static void addText(List<TemplatePart> parts, StringBuilder text) {
+        if (text.length() > 0) {
+            parts.add(new TemplatePart(PartType.TEXT, text.toString()));
+            text.setLength(0);
+        }
+    }
+
+    /**
+     * Returns true if the argument resolves to the same result regardless of the state of the shell.
+     */
+    public boolean isConstant() {
+        return constantResult != null;
+    }
+
+    /**
+     * Performs command substitution and globing for the argument.
+     *
+     * @return A list containing one or more parsed args, depending on the outcome of the parsing.
+     */
+    public List<String> resolve() throws AbstractApplicationException, ShellException {
+        if (constantResult != null) {
+            return new ArrayList<>(constantResult);
+        }
+
+        List<RegexArgument> parsedArgsSegment = new ArrayList<>();
+        RegexArgument parsedArg = new RegexArgument();
+
+        for (TemplatePart part : parts) {
+            switch (part.type) {
+            case TEXT:
+                for (char chr : part.text.toCharArray()) {
+                    parsedArg.append(chr);
+                }
+                break;
+            case ASTERISK:
+                parsedArg.appendAsterisk();
+                break;
+            case QUOTE_END:
+                // make sure parsedArgsSegment is not empty
+                appendParsedArgIntoSegment(parsedArgsSegment, new RegexArgument());
+                break;
+            case SUBSTITUTION_START:
+                if (!parsedArg.isEmpty()) {
+                    appendParsedArgIntoSegment(parsedArgsSegment, parsedArg);
+                    parsedArg = new RegexArgument();
+                }
+                break;
+            case SUBSTITUTION:
+                appendSubCommandOutput(parsedArgsSegment, evaluateSubCommand(part.text));
+                break;
+            default:
+                // don't tokenize subCommand output
+                appendParsedArgIntoSegment(parsedArgsSegment, new RegexArgument(evaluateSubCommand(part.text)));
+                break;
+            }
+        }
+
+        if (!parsedArg.isEmpty()) {
+            appendParsedArgIntoSegment(parsedArgsSegment, parsedArg);
+        }
+
+        // perform globing
+        return parsedArgsSegment.stream()
+                .flatMap(regexArgument -> regexArgument.globFiles().stream())
+                .collect(Collectors.toList());
+    }
+
+    private static void appendSubCommandOutput(List<RegexArgument> parsedArgsSegment, String subCommandOutput) {
+        List<RegexArgument> subOutputSegment = Stream
+                .of(StringUtils.tokenize(subCommandOutput))
+                .map(RegexArgument::new)
+                .collect(Collectors.toList());
+
+        // append the first token to the previous parsedArg
+        // e.g. arg: abc`1 2 3`xyz`4 5 6` (contents in `` is after command sub)
+        // expected: [abc1, 2, 3xyz4, 5, 6]
+        if (!subOutputSegment.isEmpty()) {
+            RegexArgument firstOutputArg = subOutputSegment.remove(0);
+            appendParsedArgIntoSegment(parsedArgsSegment, firstOutputArg);
+        }
+        // add remaining tokens to parsedArgsSegment
+        parsedArgsSegment.addAll(subOutputSegment);
+    }
+
+    private static String evaluateSubCommand(String commandString) throws AbstractApplicationException, ShellException {
+        if (StringUtils.isBlank(commandString)) {
+            return STRING_EMPTY;
+        }
+
+        OutputStream outputStream = new ByteArrayOutputStream();
+        Command command = CommandBuilderUtil.parseCommand(commandString, new ApplicationRunner());
+        command.evaluate(System.in, outputStream);
+
+        // replace newlines with spaces
+        String result = outputStream.toString();
+        if (result.endsWith(STRING_NEWLINE)) {
+            result = result.substring(0, result.length() - STRING_NEWLINE.length());
+        }
+        return result.replace(STRING_NEWLINE, String.valueOf(CHAR_SPACE));
+    }
+
+    /**
+     * Append current parsedArg to the last parsedArg in parsedArgsSegment.
+     * If parsedArgsSegment is empty, then just add current parsedArg.
+     */
+    private static void appendParsedArgIntoSegment(List<RegexArgument> parsedArgsSegment,
+                                                   RegexArgument parsedArg) {
+        if (parsedArgsSegment.isEmpty()) {
+            parsedArgsSegment.add(parsedArg);
+        } else {
+            parsedArgsSegment.get(parsedArgsSegment.size() - 1).merge(parsedArg);
+        }
+    }
+
+    private enum PartType {
+        TEXT,
+        ASTERISK,
+        QUOTE_END,
+        SUBSTITUTION_START,
+        SUBSTITUTION,
+        NESTED_SUBSTITUTION
+    }
+
+    private static final class TemplatePart {
+        private final PartType type;
+        private final String text;
+
+        private TemplatePart(PartType type, String text) {
+            this.type = type;
+            this.text = text;
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package sg.edu.nus.comp.cs4218.impl.util;
+
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_INVALID_ARGS;
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_STREAM_CLOSED;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.Objects;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A fixed-capacity byte channel connecting a producer thread to a consumer thread.
+ * <p>
+ * The producer blocks while the buffer is full and the consumer blocks while it is empty, so the
+ * memory held by the channel never exceeds its capacity regardless of how much data flows through.
+ * Closing the output side signals end of stream to the consumer. Closing the input side makes
+ * any further write fail, so a producer never blocks forever on a consumer that has stopped reading.
+ */
+public final class BoundedBytePipe {
+    public static final int DEFAULT_CAPACITY = 64 * 1024;
+
+    private final byte[] buffer;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private final InputStream inputStream = new PipeInputStream();
+    private final OutputStream outputStream = new PipeOutputStream();
+
+    private int readIndex;
+    private int count;
+    private boolean producerClosed;
+    private boolean consumerClosed;
+
+    public BoundedBytePipe() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public BoundedBytePipe(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException(ERR_INVALID_ARGS);
+        }
+
+        this.buffer = new byte[capacity];
+    }
+
+    /**
+     * Returns the consumer end of the pipe.
+     */
+    public InputStream getInputStream() {
+        return inputStream;
+    }
+
+    /**
+     * Returns the producer end of the pipe.
+     */
+    public OutputStream getOutputStream() {
+        return outputStream;
+    }
+
+    /**
+     * Returns true if the consumer end has been closed, after which every write fails.
+     */
+    public boolean isReaderClosed() {
+        lock.lock();
+        try {
+            return consumerClosed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int read(byte[] dest, int off, int len) throws IOException {
+        Objects.checkFromIndexSize(off, len, dest.length);
+
+        if (len == 0) {
+            return 0;
+        }
+
+        lock.lock();
+        try {
+            while (count == 0) {
+                if (consumerClosed) {
+                    throw new IOException(ERR_STREAM_CLOSED);
+                }
+                if (producerClosed) {
+                    return -1;
+                }
+                await(notEmpty);
+            }
+
+            if (consumerClosed) {
+                throw new IOException(ERR_STREAM_CLOSED);
+            }
+
+            int numBytes = Math.min(len, count);
+            int firstPart = Math.min(numBytes, buffer.length - readIndex);
+            System.arraycopy(buffer, readIndex, dest, off, firstPart);
+            System.arraycopy(buffer, 0, dest, off + firstPart, numBytes - firstPart);
+
+            readIndex = (readIndex + numBytes) % buffer.length;
+            count -= numBytes;
+            notFull.signalAll();
+
+            return numBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void write(byte[] src, int off, int len) throws IOException {
+        Objects.checkFromIndexSize(off, len, src.length);
+
+        int offset = off;
+        int remaining = len;
+
+        lock.lock();
+        try {
+            while (remaining > 0) {
+                while (count == buffer.length && !consumerClosed && !producerClosed) {
+                    await(notFull);
+                }
+
+                if (consumerClosed || producerClosed) {
+                    throw new IOException(ERR_STREAM_CLOSED);
+                }
+
+                int writeIndex = (readIndex + count) % buffer.length;
+                int numBytes = Math.min(remaining, buffer.length - count);
+                int firstPart = Math.min(numBytes, buffer.length - writeIndex);
+                System.arraycopy(src, offset, buffer, writeIndex, firstPart);
+                System.arraycopy(src, offset + firstPart, buffer, 0, numBytes - firstPart);
+
+                count += numBytes;
+                offset += numBytes;
+                remaining -= numBytes;
+                notEmpty.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void closeWriter() {
+        lock.lock();
+        try {
+            producerClosed = true;
+            notEmpty.signalAll();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void closeReader() {
+        lock.lock();
+        try {
+            consumerClosed = true;
+            count = 0;
+            notEmpty.signalAll();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void await(Condition condition) throws InterruptedIOException {
+        try {
+            condition.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw (InterruptedIOException) new InterruptedIOException(ERR_STREAM_CLOSED).initCause(e);
+        }
+    }
+
+    private class PipeInputStream extends InputStream {
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            return BoundedBytePipe.this.read(single, 0, 1) == -1 ? -1 : Byte.toUnsignedInt(single[0]);
+        }
+
+        @Override
+        public int read(byte[] dest, int off, int len) throws IOException {
+            return BoundedBytePipe.this.read(dest, off, len);
+        }
+
+        @Override
+        public int available() {
+            lock.lock();
+            try {
+                return count;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public void close() {
+            closeReader();
+        }
+    }
+
+    private class PipeOutputStream extends OutputStream {
+        @Override
+        public void write(int value) throws IOException {
+            BoundedBytePipe.this.write(new byte[]{(byte) value}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] src, int off, int len) throws IOException {
+            BoundedBytePipe.this.write(src, off, len);
+        }
+
+        @Override
+        public void close() {
+            closeWriter();
+        }
+    }
+}
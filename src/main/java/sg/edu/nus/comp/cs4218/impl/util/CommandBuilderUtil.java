@@ -9,8 +9,6 @@ import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.STRING_NEWLINE;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import sg.edu.nus.comp.cs4218.Command;
 import sg.edu.nus.comp.cs4218.exception.ShellException;
@@ -19,21 +17,6 @@ import sg.edu.nus.comp.cs4218.impl.cmd.PipeCommand;
 import sg.edu.nus.comp.cs4218.impl.cmd.SequenceCommand;
 
 public final class CommandBuilderUtil {
-    /**
-     * Regular expression for extracting valid arguments from the command string:
-     * (NO_QUOTE | SINGLE_QUOTE | NESTED_BACK_QUOTE | DOUBLE_QUOTE | BACK_QUOTE)+
-     * <p>
-     * The order matters because it affects the matching priority.
-     * <p>
-     * NO_QUOTE: [^'\"`|<>;\\s]+
-     * SINGLE_QUOTE: '[^']*'
-     * NESTED_BACK_QUOTE: \"([^\"`]*`.*?`[^\"`]*)+\"
-     * DOUBLE_QUOTE: \"[^\"]*\"
-     * BACK_QUOTE: `[^`]*`
-     */
-    private static final Pattern ARGUMENT_REGEX = Pattern
-            .compile("([^'\"`|<>;\\s]+|'[^']*'|\"([^\"`]*`.*?`[^\"`]*)+\"|\"[^\"]*\"|`[^`]*`)+");
-
     private CommandBuilderUtil() {
     }
 
@@ -64,6 +47,7 @@ public final class CommandBuilderUtil {
 
     private static void handleSemicolon(
             ApplicationRunner appRunner,
+            boolean isConcurrentPipe,
             List<Command> cmdsForSequence,
             List<CallCommand> callCmdsForPipe,
             List<String> tokens
@@ -81,7 +65,7 @@ public final class CommandBuilderUtil {
             tokens.clear();
 
             // add PipeCommand as part of a SequenceCommand
-            cmdsForSequence.add(new PipeCommand(callCmdsForPipe));
+            cmdsForSequence.add(new PipeCommand(callCmdsForPipe, isConcurrentPipe));
             callCmdsForPipe.clear();
         }
     }
@@ -89,6 +73,7 @@ public final class CommandBuilderUtil {
     private static void processSpecialChar(
             char firstChar,
             ApplicationRunner appRunner,
+            boolean isConcurrentPipe,
             List<Command> cmdsForSequence,
             List<CallCommand> callCmdsForPipe,
             List<String> tokens
@@ -102,7 +87,7 @@ public final class CommandBuilderUtil {
             handlePipeChar(appRunner, callCmdsForPipe, tokens);
             break;
         case CHAR_SEMICOLON:
-            handleSemicolon(appRunner, cmdsForSequence, callCmdsForPipe, tokens);
+            handleSemicolon(appRunner, isConcurrentPipe, cmdsForSequence, callCmdsForPipe, tokens);
             break;
         default:
             // encountered a mismatched quote
@@ -119,7 +104,18 @@ public final class CommandBuilderUtil {
      * @return Final command to be evaluated.
      * @throws ShellException If the provided command string has an invalid syntax.
      */
-    public static Command parseCommand(String commandString, ApplicationRunner appRunner) //NOPMD
+    public static Command parseCommand(String commandString, ApplicationRunner appRunner) throws ShellException {
+        return parseCommand(commandString, appRunner, false);
+    }
+
+    /**
+     * Parses and tokenizes the provided command string into command(s) and arguments.
+     *
+     * @param isConcurrentPipe true if the stages of every PipeCommand should run concurrently.
+     * @return Final command to be evaluated.
+     * @throws ShellException If the provided command string has an invalid syntax.
+     */
+    public static Command parseCommand(String commandString, ApplicationRunner appRunner, boolean isConcurrentPipe) //NOPMD
             throws ShellException {
         if (StringUtils.isBlank(commandString) || commandString.contains(STRING_NEWLINE)) {
             throw new ShellException(ERR_SYNTAX);
@@ -129,39 +125,27 @@ public final class CommandBuilderUtil {
         List<CallCommand> callCmdsForPipe = new ArrayList<>();
         List<String> tokens = new ArrayList<>();
 
-        String commandSubstring = commandString;
-        while (!StringUtils.isBlank(commandSubstring)) {
-            commandSubstring = commandSubstring.trim();
-            Matcher matcher = ARGUMENT_REGEX.matcher(commandSubstring);
-
-            if (commandSubstring.equals(String.valueOf(CHAR_SEMICOLON))) {
-                break;
-            }
-
-            // no valid arguments found
-            if (!matcher.find()) {
-                throw new ShellException(ERR_SYNTAX);
-            }
+        CommandLexer lexer = new CommandLexer(commandString);
+        while (lexer.hasNext()) {
+            String argument = lexer.nextArgument();
 
-            // found a valid argument at the start of the command substring
-            if (matcher.start() == 0) {
-                tokens.add(matcher.group());
-                commandSubstring = commandSubstring.substring(matcher.end());
+            // found a valid argument at the current position
+            if (argument != null) {
+                tokens.add(argument);
                 continue;
             }
 
-            // found a valid argument but not at the start of the command substring
-            char firstChar = commandSubstring.charAt(0);
-            commandSubstring = commandSubstring.substring(1);
+            // found a valid argument but not at the current position
+            char firstChar = lexer.nextSpecialChar();
 
-            processSpecialChar(firstChar, appRunner, cmdsForSequence, callCmdsForPipe, tokens);
+            processSpecialChar(firstChar, appRunner, isConcurrentPipe, cmdsForSequence, callCmdsForPipe, tokens);
         }
 
         Command finalCommand = new CallCommand(tokens, appRunner);
         if (!callCmdsForPipe.isEmpty()) {
             // add CallCommand as part of ongoing PipeCommand
             callCmdsForPipe.add((CallCommand) finalCommand);
-            finalCommand = new PipeCommand(callCmdsForPipe);
+            finalCommand = new PipeCommand(callCmdsForPipe, isConcurrentPipe);
         }
         if (!cmdsForSequence.isEmpty()) {
             // add CallCommand / PipeCommand as part of ongoing SequenceCommand
@@ -0,0 +1,318 @@
+package sg.edu.nus.comp.cs4218.impl.util;
+
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_SYNTAX;
+import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.CHAR_BACK_QUOTE;
+import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.CHAR_DOUBLE_QUOTE;
+import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.CHAR_PIPE;
+import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.CHAR_REDIR_INPUT;
+import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.CHAR_REDIR_OUTPUT;
+import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.CHAR_SEMICOLON;
+import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.CHAR_SINGLE_QUOTE;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+import sg.edu.nus.comp.cs4218.exception.ShellException;
+
+/**
+ * Splits a command string into arguments and special characters in a single left-to-right scan.
+ * <p>
+ * An argument is a maximal sequence of the following parts, the same as in {@link CommandBuilderUtil}:
+ * <ul>
+ *     <li>NO_QUOTE: characters other than quotes, whitespace, '|', '&lt;', '&gt;' and ';'</li>
+ *     <li>SINGLE_QUOTE: '...'</li>
+ *     <li>NESTED_BACK_QUOTE: "...`...`..." where each back quoted part may contain double quotes</li>
+ *     <li>DOUBLE_QUOTE: "..."</li>
+ *     <li>BACK_QUOTE: `...`</li>
+ * </ul>
+ * The position of the next occurrence of each kind of character is remembered, so no part of the
+ * command string is scanned more than a constant number of times and parsing takes linear time.
+ */
+final class CommandLexer {
+    private final String command;
+    private final int length;
+    private final int lastNonBlankIndex;
+    private final int lastNonTrimmedIndex;
+
+    private final CharFinder singleQuoteFinder;
+    private final CharFinder doubleQuoteFinder;
+    private final CharFinder backQuoteFinder;
+
+    private int position;
+    private int argumentSearchStart = -1;
+    private int argumentSearchResult = -1;
+    private int[] backQuotePositions;
+    private int[] nestedEnds;
+
+    CommandLexer(String command) {
+        // trailing whitespace and control characters are never part of the last argument
+        int index = command.length() - 1;
+        while (index >= 0 && command.charAt(index) <= ' ') {
+            index--;
+        }
+        this.lastNonTrimmedIndex = index;
+
+        while (index >= 0 && Character.isWhitespace(command.charAt(index))) {
+            index--;
+        }
+        this.lastNonBlankIndex = index;
+
+        this.command = command;
+        this.length = lastNonTrimmedIndex + 1;
+
+        this.singleQuoteFinder = new CharFinder(command, character -> character == CHAR_SINGLE_QUOTE);
+        this.doubleQuoteFinder = new CharFinder(command, character -> character == CHAR_DOUBLE_QUOTE);
+        this.backQuoteFinder = new CharFinder(command, character -> character == CHAR_BACK_QUOTE);
+    }
+
+    private static boolean isArgumentWhitespace(char character) {
+        return character == ' ' || character == '\t' || character == '\n'
+                || character == '\u000B' || character == '\f' || character == '\r';
+    }
+
+    private static boolean isLineTerminator(char character) {
+        return character == '\n' || character == '\r'
+                || character == '\u0085' || character == '\u2028' || character == '\u2029';
+    }
+
+    private static boolean isUnquoted(char character) {
+        switch (character) {
+        case CHAR_SINGLE_QUOTE:
+        case CHAR_DOUBLE_QUOTE:
+        case CHAR_BACK_QUOTE:
+        case CHAR_PIPE:
+        case CHAR_REDIR_INPUT:
+        case CHAR_REDIR_OUTPUT:
+        case CHAR_SEMICOLON:
+            return false;
+        default:
+            return !isArgumentWhitespace(character);
+        }
+    }
+
+    /**
+     * Skips leading whitespace and returns true if there is anything left to parse.
+     * <p>
+     * A lone semicolon at the end of the command string is ignored.
+     */
+    boolean hasNext() {
+        // the command string as a whole is known to be not blank
+        if (position > 0 && position > lastNonBlankIndex) {
+            return false;
+        }
+
+        while (position < length && command.charAt(position) <= ' ') {
+            position++;
+        }
+
+        return !(position == lastNonTrimmedIndex && command.charAt(position) == CHAR_SEMICOLON);
+    }
+
+    /**
+     * Returns the argument starting at the current position, or null if there is none.
+     */
+    String nextArgument() {
+        int end = position;
+
+        while (end < length) {
+            char character = command.charAt(end);
+
+            if (isUnquoted(character)) {
+                end++;
+                continue;
+            }
+
+            int quotedEnd = findQuotedEnd(end);
+            if (quotedEnd < 0) {
+                break;
+            }
+            end = quotedEnd;
+        }
+
+        if (end == position) {
+            return null;
+        }
+
+        String argument = command.substring(position, end);
+        position = end;
+
+        return argument;
+    }
+
+    /**
+     * Returns the character at the current position, which does not start an argument.
+     *
+     * @throws ShellException if no argument can be found anywhere after the current position.
+     */
+    char nextSpecialChar() throws ShellException {
+        if (findArgumentStart(position) >= length) {
+            throw new ShellException(ERR_SYNTAX);
+        }
+
+        return command.charAt(position++);
+    }
+
+    /**
+     * Returns the index after the quoted part starting at the given index, or -1 if the quote is
+     * not closed.
+     */
+    private int findQuotedEnd(int start) {
+        switch (command.charAt(start)) {
+        case CHAR_SINGLE_QUOTE:
+            return findClosingQuote(singleQuoteFinder, start);
+        case CHAR_BACK_QUOTE:
+            return findClosingQuote(backQuoteFinder, start);
+        case CHAR_DOUBLE_QUOTE:
+            int nestedEnd = findNestedBackQuoteEnd(start);
+            return nestedEnd < 0 ? findClosingQuote(doubleQuoteFinder, start) : nestedEnd;
+        default:
+            return -1;
+        }
+    }
+
+    private int findClosingQuote(CharFinder finder, int start) {
+        int closingIndex = finder.find(start + 1);
+        return closingIndex < length ? closingIndex + 1 : -1;
+    }
+
+    /**
+     * Returns the index after the NESTED_BACK_QUOTE part starting at the given index, or -1 if there
+     * is none.
+     * <p>
+     * This is the part "T`L`T`L`T...T" where T contains no quotes and each L contains no line
+     * terminators, choosing the earliest closing back quote for each L which allows the part to end
+     * with a double quote.
+     */
+    private int findNestedBackQuoteEnd(int start) {
+        int doubleQuoteIndex = doubleQuoteFinder.find(start + 1);
+        int backQuoteIndex = backQuoteFinder.find(start + 1);
+
+        if (doubleQuoteIndex < backQuoteIndex) {
+            // no back quoted part, the same as DOUBLE_QUOTE
+            return doubleQuoteIndex + 1;
+        }
+
+        if (backQuoteIndex >= length) {
+            return -1;
+        }
+
+        if (backQuotePositions == null) {
+            analyzeBackQuotes();
+        }
+
+        int closingIndex = nestedEnds[Arrays.binarySearch(backQuotePositions, backQuoteIndex)];
+        return closingIndex < 0 ? -1 : closingIndex + 1;
+    }
+
+    /**
+     * Computes, for every back quote opening a back quoted part inside double quotes, the index of
+     * the double quote which ends the NESTED_BACK_QUOTE part, in a single right-to-left scan.
+     * <p>
+     * A back quote can close a part if it is followed by the closing double quote, or by a back quote
+     * which opens a part that can be closed. An opening back quote is closed by the first back quote
+     * after it which can close a part, provided that it is on the same line.
+     */
+    private void analyzeBackQuotes() {
+        int count = 0;
+        for (int index = 0; index < length; index++) {
+            if (command.charAt(index) == CHAR_BACK_QUOTE) {
+                count++;
+            }
+        }
+
+        backQuotePositions = new int[count];
+        nestedEnds = new int[count];
+        int[] closedEnds = new int[count];
+
+        int nextLineTerminator = length;
+        int nextDoubleQuote = length;
+        int nextClosing = count;
+        int current = count;
+
+        for (int index = length - 1; index >= 0; index--) {
+            char character = command.charAt(index);
+
+            if (isLineTerminator(character)) {
+                nextLineTerminator = index;
+            } else if (character == CHAR_DOUBLE_QUOTE) {
+                nextDoubleQuote = index;
+            } else if (character == CHAR_BACK_QUOTE) {
+                current--;
+                backQuotePositions[current] = index;
+
+                boolean hasNext = current + 1 < count;
+                int nextBackQuote = hasNext ? backQuotePositions[current + 1] : length;
+
+                if (nextDoubleQuote < nextBackQuote) {
+                    closedEnds[current] = nextDoubleQuote;
+                } else {
+                    closedEnds[current] = hasNext ? nestedEnds[current + 1] : -1;
+                }
+
+                nestedEnds[current] = nextClosing < count && backQuotePositions[nextClosing] < nextLineTerminator
+                        ? closedEnds[nextClosing]
+                        : -1;
+
+                if (closedEnds[current] >= 0) {
+                    nextClosing = current;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the index of the first character at or after the given index where an argument starts,
+     * or the length of the command string if there is none.
+     */
+    private int findArgumentStart(int start) {
+        if (start >= argumentSearchStart && start <= argumentSearchResult) {
+            return argumentSearchResult;
+        }
+
+        int index = start;
+        while (index < length && !isUnquoted(command.charAt(index)) && findQuotedEnd(index) < 0) {
+            index++;
+        }
+
+        argumentSearchStart = start;
+        argumentSearchResult = index;
+
+        return index;
+    }
+
+    /**
+     * Finds the next character matching a predicate, remembering the last answer so that repeated
+     * searches from increasing positions scan each character only once.
+     */
+    private static final class CharFinder {
+        private final String string;
+        private final IntPredicate predicate;
+        private int searchStart = -1;
+        private int searchResult = -1;
+
+        private CharFinder(String string, IntPredicate predicate) {
+            this.string = string;
+            this.predicate = predicate;
+        }
+
+        /**
+         * Returns the index of the first matching character at or after the given index, or the
+         * length of the string if there is none.
+         */
+        private int find(int start) {
+            if (start >= searchStart && start <= searchResult) {
+                return searchResult;
+            }
+
+            int index = start;
+            while (index < string.length() && !predicate.test(string.charAt(index))) {
+                index++;
+            }
+
+            searchStart = start;
+            searchResult = index;
+
+            return index;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package sg.edu.nus.comp.cs4218.impl.util;
+
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_INVALID_ARGS;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import sg.edu.nus.comp.cs4218.Command;
+import sg.edu.nus.comp.cs4218.exception.ShellException;
+
+/**
+ * A bounded cache of parsed commands keyed by command string, evicting the least recently used
+ * command when full.
+ * <p>
+ * A parsed command is never modified by evaluating it: tokenizing, quoting and the redirection
+ * structure are worked out once, while globing and command substitution are performed again on
+ * every evaluation. It can therefore be evaluated any number of times, even after the current
+ * directory has changed, and by several threads at once. Terminating a cached command stops every
+ * evaluation of it running at the time. Command strings with an invalid syntax are not cached.
+ */
+public final class CommandPlanCache {
+    public static final int DEFAULT_CAPACITY = 512;
+
+    private final int capacity;
+    private final ApplicationRunner appRunner;
+    private final boolean isConcurrentPipe;
+    private final Map<String, Command> commands;
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+
+    /**
+     * @param capacity         maximum number of parsed commands to keep.
+     * @param appRunner        application runner used by the parsed commands.
+     * @param isConcurrentPipe true if the stages of every PipeCommand should run concurrently.
+     */
+    public CommandPlanCache(int capacity, ApplicationRunner appRunner, boolean isConcurrentPipe) {
+        if (capacity < 1 || appRunner == null) {
+            throw new IllegalArgumentException(ERR_INVALID_ARGS);
+        }
+
+        this.capacity = capacity;
+        this.appRunner = appRunner;
+        this.isConcurrentPipe = isConcurrentPipe;
+        this.commands = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Command> eldest) {
+                return size() > CommandPlanCache.this.capacity;
+            }
+        };
+    }
+
+    /**
+     * Returns the parsed command for the command string, parsing it only if it is not cached.
+     *
+     * @throws ShellException if the command string has an invalid syntax.
+     */
+    public Command getCommand(String commandString) throws ShellException {
+        synchronized (commands) {
+            Command command = commands.get(commandString);
+
+            if (command != null) {
+                hitCount.incrementAndGet();
+                return command;
+            }
+        }
+
+        missCount.incrementAndGet();
+        Command command = CommandBuilderUtil.parseCommand(commandString, appRunner, isConcurrentPipe);
+
+        synchronized (commands) {
+            commands.put(commandString, command);
+        }
+
+        return command;
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    public int size() {
+        synchronized (commands) {
+            return commands.size();
+        }
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Removes all cached commands. The hit and miss counts are kept.
+     */
+    public void clear() {
+        synchronized (commands) {
+            commands.clear();
+        }
+    }
+}
@@ -59,6 +59,11 @@ public final class ErrorConstants {
     // `split` related
     public static final String ERR_ILLEGAL_LINE_COUNT = "Illegal line count";
     public static final String ERR_ILLEGAL_BYTE_COUNT = "Illegal byte count";
+    public static final String ERR_ILLEGAL_CHUNK_COUNT = "Illegal number of chunks";
+    public static final String ERR_UNKNOWN_INPUT_SIZE = "Cannot determine input size";
+
+    // `sort` related
+    public static final String ERR_INVALID_KEY = "Invalid key definition";
 
     // `mv` related
     public static final String ERR_CANNOT_RENAME = "Failed to rename";
@@ -0,0 +1,295 @@
+package sg.edu.nus.comp.cs4218.impl.util;
+
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_INVALID_ARGS;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Sorts lines which may not fit into memory together.
+ * <p>
+ * Lines are collected until they take up the memory budget, and are then sorted in parallel with
+ * {@link Arrays#parallelSort} and spilled into a temporary run file. At the end, the runs are merged
+ * with a heap holding the next line of every run. If there are too many runs to keep open at once,
+ * groups of them are merged into longer runs first. Lines which compare equal are kept in the order
+ * in which they were added.
+ */
+public final class ExternalSorter implements Closeable {
+    public static final int MAX_MERGE_WIDTH = 64;
+
+    // estimated bytes a line takes up on the heap besides its characters: the String, its array and
+    // the reference to it
+    private static final int LINE_OVERHEAD = 64;
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Comparator<String> comparator;
+    private final boolean isUnique;
+    private final long memoryBudget;
+    private final Path spillDirectory;
+    private final List<Path> runs = new ArrayList<>();
+    private final List<Path> tempFiles = new ArrayList<>();
+    private String[] lines = new String[INITIAL_CAPACITY];
+    private int numOfLines;
+    private long memoryUsed;
+
+    /**
+     * @param comparator     order to sort the lines in.
+     * @param isUnique       true if only the first of the lines which compare equal should be kept.
+     * @param memoryBudget   number of bytes of heap the lines may take up before they are spilled.
+     * @param spillDirectory directory to create the temporary run files in.
+     */
+    public ExternalSorter(Comparator<String> comparator, boolean isUnique, long memoryBudget, Path spillDirectory) {
+        if (comparator == null || memoryBudget < 1 || spillDirectory == null) {
+            throw new IllegalArgumentException(ERR_INVALID_ARGS);
+        }
+
+        this.comparator = comparator;
+        this.isUnique = isUnique;
+        this.memoryBudget = memoryBudget;
+        this.spillDirectory = spillDirectory;
+    }
+
+    /**
+     * Adds a line to be sorted.
+     *
+     * @param line line without its line terminator.
+     * @throws IOException if the lines collected so far cannot be spilled to a temporary file.
+     */
+    public void add(String line) throws IOException {
+        long lineMemory = LINE_OVERHEAD + 2L * line.length();
+
+        if (numOfLines > 0 && memoryUsed + lineMemory > memoryBudget) {
+            spillRun();
+        }
+
+        if (numOfLines == lines.length) {
+            lines = Arrays.copyOf(lines, 2 * lines.length);
+        }
+
+        lines[numOfLines] = line;
+        numOfLines++;
+        memoryUsed += lineMemory;
+    }
+
+    /**
+     * Returns the number of temporary run files the lines have been spilled into so far.
+     */
+    public int getNumOfRuns() {
+        return runs.size();
+    }
+
+    /**
+     * Passes the lines to the consumer in sorted order.
+     *
+     * @throws IOException if the temporary files cannot be read or written.
+     * @throws E           if the consumer fails.
+     */
+    public <E extends Exception> void forEachLine(LineConsumer<E> consumer) throws IOException, E {
+        if (runs.isEmpty()) {
+            Arrays.parallelSort(lines, 0, numOfLines, comparator);
+            UniqueFilter<E> filter = new UniqueFilter<>(consumer);
+
+            for (int i = 0; i < numOfLines; i++) {
+                filter.accept(lines[i]);
+            }
+            return;
+        }
+
+        if (numOfLines > 0) {
+            spillRun();
+        }
+        lines = new String[0];
+
+        while (runs.size() > MAX_MERGE_WIDTH) {
+            mergePass();
+        }
+
+        mergeRuns(List.copyOf(runs), consumer);
+    }
+
+    /**
+     * Sorts the collected lines and writes them into a new run file.
+     */
+    private void spillRun() throws IOException {
+        Arrays.parallelSort(lines, 0, numOfLines, comparator);
+        Path run = createTempFile();
+
+        try (Writer writer = openOutput(run)) {
+            UniqueFilter<IOException> filter = new UniqueFilter<>(line -> writeLine(writer, line));
+            for (int i = 0; i < numOfLines; i++) {
+                filter.accept(lines[i]);
+            }
+        }
+
+        runs.add(run);
+        Arrays.fill(lines, 0, numOfLines, null);
+        numOfLines = 0;
+        memoryUsed = 0;
+    }
+
+    /**
+     * Merges groups of consecutive runs into single runs, so that the runs stay in the order in which
+     * their lines were added.
+     */
+    private void mergePass() throws IOException {
+        List<Path> mergedRuns = new ArrayList<>();
+
+        for (int start = 0; start < runs.size(); start += MAX_MERGE_WIDTH) {
+            List<Path> group = runs.subList(start, Math.min(start + MAX_MERGE_WIDTH, runs.size()));
+            Path mergedRun = createTempFile();
+
+            try (Writer writer = openOutput(mergedRun)) {
+                mergeRuns(group, line -> writeLine(writer, line));
+            }
+
+            for (Path run : group) {
+                Files.delete(run);
+            }
+            mergedRuns.add(mergedRun);
+        }
+
+        runs.clear();
+        runs.addAll(mergedRuns);
+    }
+
+    /**
+     * Merges sorted runs. Of lines which compare equal, those of earlier runs come first.
+     */
+    private <E extends Exception> void mergeRuns(List<Path> runsToMerge, LineConsumer<E> consumer)
+            throws IOException, E {
+        List<RunReader> readers = new ArrayList<>();
+        PriorityQueue<RunReader> heads = new PriorityQueue<>((first, second) -> {
+            int result = comparator.compare(first.line, second.line);
+            return result == 0 ? Integer.compare(first.runIndex, second.runIndex) : result;
+        });
+        UniqueFilter<E> filter = new UniqueFilter<>(consumer);
+
+        try {
+            for (Path run : runsToMerge) {
+                RunReader reader = new RunReader(openInput(run), readers.size());
+                readers.add(reader);
+
+                if (reader.advance()) {
+                    heads.add(reader);
+                }
+            }
+
+            while (!heads.isEmpty()) {
+                RunReader head = heads.remove();
+                filter.accept(head.line);
+
+                if (head.advance()) {
+                    heads.add(head);
+                }
+            }
+        } finally {
+            for (RunReader reader : readers) {
+                reader.close();
+            }
+        }
+    }
+
+    /**
+     * Deletes the temporary files.
+     */
+    @Override
+    public void close() throws IOException {
+        for (Path tempFile : tempFiles) {
+            Files.deleteIfExists(tempFile);
+        }
+        tempFiles.clear();
+        runs.clear();
+    }
+
+    private Path createTempFile() throws IOException {
+        Path tempFile = Files.createTempFile(spillDirectory, "sort", ".tmp");
+        tempFiles.add(tempFile);
+        return tempFile;
+    }
+
+    private static BufferedReader openInput(Path path) throws IOException {
+        return new BufferedReader(new InputStreamReader(Files.newInputStream(path), StandardCharsets.UTF_8),
+                BUFFER_SIZE);
+    }
+
+    private static Writer openOutput(Path path) throws IOException {
+        return new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(path), StandardCharsets.UTF_8),
+                BUFFER_SIZE);
+    }
+
+    private static void writeLine(Writer writer, String line) throws IOException {
+        writer.write(line);
+        writer.write('\n');
+    }
+
+    /**
+     * Receives the sorted lines.
+     */
+    @FunctionalInterface
+    public interface LineConsumer<E extends Exception> {
+        void accept(String line) throws E;
+    }
+
+    /**
+     * Passes sorted lines on, skipping those equal to the previous line if only unique lines are kept.
+     */
+    private final class UniqueFilter<E extends Exception> {
+        private final LineConsumer<E> consumer;
+        private String previousLine;
+
+        private UniqueFilter(LineConsumer<E> consumer) {
+            this.consumer = consumer;
+        }
+
+        private void accept(String line) throws E {
+            if (isUnique && previousLine != null && comparator.compare(previousLine, line) == 0) {
+                return;
+            }
+
+            previousLine = line;
+            consumer.accept(line);
+        }
+    }
+
+    /**
+     * Reads the lines of a run one at a time, keeping the last one read.
+     */
+    private static final class RunReader {
+        private final BufferedReader reader;
+        private final int runIndex;
+        private String line;
+
+        private RunReader(BufferedReader reader, int runIndex) {
+            this.reader = reader;
+            this.runIndex = runIndex;
+        }
+
+        /**
+         * Reads the next line of the run.
+         *
+         * @return false at the end of the run.
+         */
+        private boolean advance() throws IOException {
+            line = reader.readLine();
+            return line != null;
+        }
+
+        private void close() throws IOException {
+            reader.close();
+        }
+    }
+}
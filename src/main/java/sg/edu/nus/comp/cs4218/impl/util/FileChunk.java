@@ -0,0 +1,136 @@
+package sg.edu.nus.comp.cs4218.impl.util;
+
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_INVALID_ARGS;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A range of bytes of a file which ends just after a newline, or at the end of the file, so that
+ * chunks of the same file can be processed independently and their results combined in order.
+ */
+public final class FileChunk {
+    private static final int SCAN_BUFFER_SIZE = 8 * 1024;
+
+    private final long start;
+    private final long end;
+
+    private FileChunk(long start, long end) {
+        this.start = start;
+        this.end = end;
+    }
+
+    /**
+     * Splits the whole file into consecutive chunks of about the given size. A chunk is longer only
+     * if it has to be extended to the end of its last line.
+     *
+     * @param channel   channel of the file to be split.
+     * @param chunkSize the size of each chunk before it is extended to the end of a line.
+     * @return the chunks in file order, or no chunks if the file is empty.
+     * @throws IOException if the file cannot be read.
+     */
+    public static List<FileChunk> split(FileChannel channel, long chunkSize) throws IOException {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException(ERR_INVALID_ARGS);
+        }
+
+        long size = channel.size();
+        List<FileChunk> chunks = new ArrayList<>();
+        ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+        long start = 0;
+
+        while (start < size) {
+            long end = start + chunkSize >= size ? size : findLineEnd(channel, start + chunkSize - 1, size, buffer);
+            chunks.add(new FileChunk(start, end));
+            start = end;
+        }
+
+        return chunks;
+    }
+
+    /**
+     * Splits the whole file into exactly the given number of consecutive chunks of about equal size.
+     * Each chunk is extended to the end of the line containing its last byte, so a chunk is empty if
+     * the chunks before it already cover its range.
+     *
+     * @param channel     channel of the file to be split.
+     * @param numOfChunks the number of chunks.
+     * @return the chunks in file order.
+     * @throws IOException if the file cannot be read.
+     */
+    public static List<FileChunk> splitInto(FileChannel channel, int numOfChunks) throws IOException {
+        if (numOfChunks < 1) {
+            throw new IllegalArgumentException(ERR_INVALID_ARGS);
+        }
+
+        long size = channel.size();
+        long chunkSize = size / numOfChunks;
+        List<FileChunk> chunks = new ArrayList<>(numOfChunks);
+        ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+        long start = 0;
+
+        for (int i = 1; i <= numOfChunks; i++) {
+            long nominalEnd = i == numOfChunks ? size : i * chunkSize;
+            long end = nominalEnd <= start ? start : findLineEnd(channel, nominalEnd - 1, size, buffer);
+            chunks.add(new FileChunk(start, end));
+            start = end;
+        }
+
+        return chunks;
+    }
+
+    /**
+     * Returns the position just after the first newline at or after the given position, or the size
+     * of the file if there is none.
+     */
+    private static long findLineEnd(FileChannel channel, long position, long size, ByteBuffer buffer)
+            throws IOException {
+        long current = position;
+
+        while (current < size) {
+            buffer.clear();
+            int read = channel.read(buffer, current);
+            if (read <= 0) {
+                break;
+            }
+
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return current + i + 1;
+                }
+            }
+            current += read;
+        }
+
+        return size;
+    }
+
+    /**
+     * Maps the chunk into memory for reading.
+     *
+     * @throws IOException if the chunk cannot be mapped, for example because it is larger than 2 GB.
+     */
+    public MappedByteBuffer map(FileChannel channel) throws IOException {
+        if (getSize() > Integer.MAX_VALUE) {
+            throw new IOException(ERR_INVALID_ARGS);
+        }
+
+        return channel.map(FileChannel.MapMode.READ_ONLY, start, getSize());
+    }
+
+    public long getStart() {
+        return start;
+    }
+
+    public long getEnd() {
+        return end;
+    }
+
+    public long getSize() {
+        return end - start;
+    }
+}
@@ -0,0 +1,170 @@
+package sg.edu.nus.comp.cs4218.impl.util;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.STRING_FILE_HEADER;
+import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.STRING_NEWLINE;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.FileChannel;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Copies the bytes appended to a set of files to an outputStream as they are written, for tail -f.
+ * <p>
+ * The directories of the files are registered with a {@link WatchService}, so the thread following
+ * them is blocked while the files do not change. After each change only the bytes from the end of the
+ * previous read are copied. A file which becomes shorter than what has been read is copied again from
+ * its start, and so is a new file created under the same name, as happens when a log is rotated.
+ * <p>
+ * Following stops when the thread is interrupted or the follower is closed.
+ */
+public class FileFollower implements Closeable {
+    private final OutputStream outputStream;
+    private final WatchService watchService;
+    private final Map<Path, FollowedFile> files = new LinkedHashMap<>();
+    private final Set<Path> directories = new HashSet<>();
+    private FollowedFile lastWrittenFile;
+
+    public FileFollower(OutputStream outputStream) throws IOException {
+        this.outputStream = Objects.requireNonNull(outputStream);
+        this.watchService = FileSystems.getDefault().newWatchService();
+    }
+
+    /**
+     * Starts following a file from the given position. When more than one file is followed, the
+     * bytes of each file are preceded by a header with its name whenever the file being copied
+     * changes, starting from the last file added.
+     *
+     * @param path     Path of the file
+     * @param name     String of the name of the file in the headers
+     * @param position Long of the position up to which the file has already been copied
+     * @throws IOException if the directory of the file cannot be watched
+     */
+    public void add(Path path, String name, long position) throws IOException {
+        Path absolutePath = path.toAbsolutePath().normalize();
+        Path directory = absolutePath.getParent();
+
+        if (directories.add(directory)) {
+            directory.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
+        }
+
+        FollowedFile file = new FollowedFile(name, position, readFileKey(absolutePath));
+        files.put(absolutePath, file);
+        lastWrittenFile = file;
+    }
+
+    /**
+     * Copies what is appended to the files until the thread is interrupted or the follower is closed.
+     * The interrupt status of the thread is cleared when it returns.
+     *
+     * @throws IOException if a file cannot be read or the outputStream cannot be written to
+     */
+    public void follow() throws IOException {
+        try {
+            // catch up on what was appended before the directories were watched
+            for (Path path : files.keySet()) {
+                copyAppended(path);
+            }
+
+            while (true) {
+                WatchKey key = watchService.take();
+                Path directory = (Path) key.watchable();
+
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (OVERFLOW.equals(event.kind())) {
+                        // events were lost, so check every file in the directory
+                        for (Path path : files.keySet()) {
+                            if (path.getParent().equals(directory)) {
+                                copyAppended(path);
+                            }
+                        }
+                    } else if (!ENTRY_DELETE.equals(event.kind())) {
+                        // a deleted file is copied from its start once it is created again
+                        Path path = directory.resolve((Path) event.context());
+                        if (files.containsKey(path)) {
+                            copyAppended(path);
+                        }
+                    }
+                }
+
+                key.reset();
+            }
+        } catch (InterruptedException | ClosedByInterruptException | ClosedWatchServiceException e) {
+            Thread.interrupted();
+        }
+    }
+
+    private void copyAppended(Path path) throws IOException {
+        FollowedFile file = files.get(path);
+
+        try (FileChannel channel = FileChannel.open(path)) {
+            Object fileKey = readFileKey(path);
+            long size = channel.size();
+
+            if (size < file.position || !Objects.equals(fileKey, file.fileKey)) {
+                // truncated, or replaced by a new file
+                file.position = 0;
+                file.fileKey = fileKey;
+            }
+
+            if (size == file.position) {
+                return;
+            }
+
+            if (files.size() > 1 && !file.equals(lastWrittenFile)) {
+                String header = STRING_NEWLINE + String.format(STRING_FILE_HEADER, file.name) + STRING_NEWLINE;
+                outputStream.write(header.getBytes());
+                lastWrittenFile = file;
+            }
+
+            file.position += IOUtils.transferTo(channel, file.position, outputStream);
+            outputStream.flush();
+        } catch (NoSuchFileException e) {
+            // deleted after the event, wait for it to be created again
+        }
+    }
+
+    private static Object readFileKey(Path path) throws IOException {
+        try {
+            return Files.readAttributes(path, BasicFileAttributes.class).fileKey();
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+    }
+
+    private static final class FollowedFile {
+        private final String name;
+        private long position;
+        private Object fileKey;
+
+        private FollowedFile(String name, long position, Object fileKey) {
+            this.name = name;
+            this.position = position;
+            this.fileKey = fileKey;
+        }
+    }
+}
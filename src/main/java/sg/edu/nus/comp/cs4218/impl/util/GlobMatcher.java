@@ -0,0 +1,62 @@
+package sg.edu.nus.comp.cs4218.impl.util;
+
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_INVALID_ARGS;
+
+import java.util.List;
+
+/**
+ * Matches names against a glob whose only wildcard is the asterisk, which stands for any sequence of
+ * characters, including none.
+ * <p>
+ * The glob is compiled once into the literal segments between its asterisks. A name matches if it
+ * starts with the first segment and ends with the last, and contains the segments in between in
+ * order. Taking the earliest occurrence of each of those segments is enough, as it leaves the most
+ * room for the segments after it, so a name is matched in a single pass without backtracking.
+ */
+public final class GlobMatcher {
+    private final String prefix;
+    private final String suffix;
+    private final String[] middleSegments;
+    private final boolean hasWildcard;
+    private final int minLength;
+
+    /**
+     * @param segments literal segments of the glob, each separated from the next by an asterisk, so
+     *                 that a glob without asterisks has a single segment.
+     */
+    public GlobMatcher(List<String> segments) {
+        if (segments == null || segments.isEmpty() || CollectionUtils.isAnyNull(segments.toArray())) {
+            throw new IllegalArgumentException(ERR_INVALID_ARGS);
+        }
+
+        int last = segments.size() - 1;
+        this.prefix = segments.get(0);
+        this.suffix = last == 0 ? prefix : segments.get(last);
+        this.middleSegments = last == 0 ? new String[0] : segments.subList(1, last).toArray(String[]::new);
+        this.hasWildcard = last > 0;
+        this.minLength = segments.stream().mapToInt(String::length).sum();
+    }
+
+    public boolean matches(String name) {
+        if (!hasWildcard) {
+            return prefix.equals(name);
+        }
+
+        if (name.length() < minLength || !name.startsWith(prefix) || !name.endsWith(suffix)) {
+            return false;
+        }
+
+        int position = prefix.length();
+        int limit = name.length() - suffix.length();
+
+        for (String segment : middleSegments) {
+            int index = name.indexOf(segment, position);
+            if (index < 0 || index + segment.length() > limit) {
+                return false;
+            }
+            position = index + segment.length();
+        }
+
+        return true;
+    }
+}
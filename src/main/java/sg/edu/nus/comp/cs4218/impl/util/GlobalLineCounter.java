@@ -0,0 +1,332 @@
+package sg.edu.nus.comp.cs4218.impl.util;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Counts how many times each distinct line occurs anywhere in the input, within a fixed budget of
+ * memory outside of the heap.
+ * <p>
+ * Lines are counted in an {@link OffHeapCountTable}. Whenever it is full, its entries are spilled
+ * into temporary partition files by the hash of their lines, so that all occurrences of a line end
+ * up in the same partition. At the end, each partition is counted on its own, and partitioned again
+ * if it still does not fit. The counts of each partition are written out in the order of their
+ * first occurrences, and the partitions are then merged, so the distinct lines are always reported
+ * in the order in which they first occur.
+ */
+public final class GlobalLineCounter implements Closeable {
+    private static final int PARTITION_BITS = 4;
+    private static final int NUM_OF_PARTITIONS = 1 << PARTITION_BITS;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final OffHeapCountTable table;
+    private final Path spillDirectory;
+    private final List<Path> tempFiles = new ArrayList<>();
+    private Partitions partitions;
+    private long numOfLines;
+
+    /**
+     * @param memoryBudget   number of bytes of direct memory the counts may take up, at most 2 GB.
+     * @param spillDirectory directory to create the temporary partition files in.
+     */
+    public GlobalLineCounter(long memoryBudget, Path spillDirectory) {
+        this.table = new OffHeapCountTable(memoryBudget);
+        this.spillDirectory = spillDirectory;
+    }
+
+    /**
+     * Counts one more occurrence of the line.
+     *
+     * @throws IOException if the counts cannot be spilled to a temporary file.
+     */
+    public void add(String line) throws IOException {
+        byte[] key = line.getBytes(StandardCharsets.UTF_8);
+        long hash = hash(key);
+
+        if (!table.add(key, hash, 1, numOfLines)) {
+            if (partitions == null) {
+                partitions = new Partitions(0);
+            }
+            partitions.spill(table);
+            table.add(key, hash, 1, numOfLines);
+        }
+
+        numOfLines++;
+    }
+
+    /**
+     * Passes each distinct line with its count to the consumer, in the order of first occurrence.
+     *
+     * @throws IOException if the temporary files cannot be read or written.
+     * @throws E           if the consumer fails.
+     */
+    public <E extends Exception> void forEachGroup(GroupConsumer<E> consumer) throws IOException, E {
+        if (partitions == null) {
+            table.forEach((key, count, firstIndex) ->
+                    consumer.accept(new String(key, StandardCharsets.UTF_8), count));
+            return;
+        }
+
+        partitions.spill(table);
+        partitions.close();
+
+        List<Path> runs = new ArrayList<>();
+        for (Path partition : partitions.paths) {
+            countPartition(partition, 1, runs);
+        }
+
+        mergeRuns(runs, consumer);
+    }
+
+    /**
+     * Counts the lines of one partition and writes the counts into a run file ordered by first
+     * occurrence, or partitions them further if they do not fit into the table.
+     * <p>
+     * Every partition file is written in the order of first occurrence, since the input is read in
+     * order and the table keeps its entries in the order they were added. Adding its records to the
+     * table in turn therefore keeps the table in the order of first occurrence as well.
+     */
+    private void countPartition(Path partition, int level, List<Path> runs) throws IOException {
+        table.clear();
+        Partitions subPartitions = null;
+
+        try {
+            try (DataInputStream input = openInput(partition)) {
+                Record record;
+                while ((record = Record.read(input)) != null) {
+                    long hash = hash(record.key);
+
+                    if (!table.add(record.key, hash, record.count, record.firstIndex)) {
+                        if (subPartitions == null) {
+                            subPartitions = new Partitions(level);
+                        }
+                        subPartitions.spill(table);
+                        table.add(record.key, hash, record.count, record.firstIndex);
+                    }
+                }
+            }
+            Files.delete(partition);
+
+            if (subPartitions == null) {
+                Path run = createTempFile();
+                try (DataOutputStream output = openOutput(run)) {
+                    table.forEach((key, count, firstIndex) ->
+                            Record.write(output, key, count, firstIndex));
+                }
+                runs.add(run);
+                return;
+            }
+
+            subPartitions.spill(table);
+        } finally {
+            if (subPartitions != null) {
+                subPartitions.close();
+            }
+        }
+
+        for (Path subPartition : subPartitions.paths) {
+            countPartition(subPartition, level + 1, runs);
+        }
+    }
+
+    /**
+     * Merges runs ordered by first occurrence. No line occurs in more than one run.
+     */
+    private <E extends Exception> void mergeRuns(List<Path> runs, GroupConsumer<E> consumer)
+            throws IOException, E {
+        List<RunReader> readers = new ArrayList<>();
+        PriorityQueue<RunReader> heads = new PriorityQueue<>(
+                Comparator.comparingLong(reader -> reader.record.firstIndex));
+
+        try {
+            for (Path run : runs) {
+                RunReader reader = new RunReader(openInput(run));
+                readers.add(reader);
+                if (reader.advance()) {
+                    heads.add(reader);
+                }
+            }
+
+            while (!heads.isEmpty()) {
+                RunReader head = heads.remove();
+                consumer.accept(new String(head.record.key, StandardCharsets.UTF_8), head.record.count);
+
+                if (head.advance()) {
+                    heads.add(head);
+                }
+            }
+        } finally {
+            for (RunReader reader : readers) {
+                reader.close();
+            }
+        }
+    }
+
+    /**
+     * Deletes the temporary files.
+     */
+    @Override
+    public void close() throws IOException {
+        if (partitions != null) {
+            partitions.close();
+        }
+
+        for (Path tempFile : tempFiles) {
+            Files.deleteIfExists(tempFile);
+        }
+        tempFiles.clear();
+    }
+
+    private Path createTempFile() throws IOException {
+        Path tempFile = Files.createTempFile(spillDirectory, "uniq", ".tmp");
+        tempFiles.add(tempFile);
+        return tempFile;
+    }
+
+    private static DataInputStream openInput(Path path) throws IOException {
+        return new DataInputStream(new BufferedInputStream(Files.newInputStream(path), BUFFER_SIZE));
+    }
+
+    private static DataOutputStream openOutput(Path path) throws IOException {
+        return new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), BUFFER_SIZE));
+    }
+
+    /**
+     * Returns the 64-bit FNV-1a hash of the key, with its bits mixed so that every bit depends on
+     * every byte. The low bits select the slot of the table and the high bits the partitions.
+     */
+    private static long hash(byte[] key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key) {
+            hash = (hash ^ (b & 0xff)) * 0x100000001b3L;
+        }
+
+        hash = (hash ^ (hash >>> 33)) * 0xff51afd7ed558ccdL;
+        hash = (hash ^ (hash >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return hash ^ (hash >>> 33);
+    }
+
+    /**
+     * Receives the distinct lines with their counts.
+     */
+    @FunctionalInterface
+    public interface GroupConsumer<E extends Exception> {
+        void accept(String line, long count) throws E;
+    }
+
+    /**
+     * Temporary files which the entries of the table are spilled into, chosen by a group of bits of
+     * the hash which differs for every level of partitioning.
+     */
+    private final class Partitions implements Closeable {
+        private final int shift;
+        private final Path[] paths = new Path[NUM_OF_PARTITIONS];
+        private final DataOutputStream[] outputs = new DataOutputStream[NUM_OF_PARTITIONS];
+
+        private Partitions(int level) throws IOException {
+            this.shift = Long.SIZE - PARTITION_BITS * (level % (Long.SIZE / PARTITION_BITS) + 1);
+
+            try {
+                for (int i = 0; i < NUM_OF_PARTITIONS; i++) {
+                    paths[i] = createTempFile();
+                    outputs[i] = openOutput(paths[i]);
+                }
+            } catch (IOException e) {
+                close();
+                throw e;
+            }
+        }
+
+        private void spill(OffHeapCountTable table) throws IOException {
+            table.forEach((key, count, firstIndex) -> {
+                int partition = (int) (hash(key) >>> shift) & (NUM_OF_PARTITIONS - 1);
+                Record.write(outputs[partition], key, count, firstIndex);
+            });
+            table.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            // if the constructor failed, the outputs after the first one which failed to open are null
+            for (int i = 0; i < NUM_OF_PARTITIONS && outputs[i] != null; i++) {
+                outputs[i].close();
+            }
+        }
+    }
+
+    private static final class Record {
+        private final byte[] key;
+        private final long count;
+        private final long firstIndex;
+
+        private Record(byte[] key, long count, long firstIndex) {
+            this.key = key;
+            this.count = count;
+            this.firstIndex = firstIndex;
+        }
+
+        private static void write(DataOutputStream output, byte[] key, long count, long firstIndex)
+                throws IOException {
+            output.writeLong(firstIndex);
+            output.writeLong(count);
+            output.writeInt(key.length);
+            output.write(key);
+        }
+
+        /**
+         * Returns the next record, or null at the end of the file.
+         */
+        private static Record read(DataInputStream input) throws IOException {
+            long firstIndex;
+            try {
+                firstIndex = input.readLong();
+            } catch (EOFException e) {
+                return null;
+            }
+
+            long count = input.readLong();
+            byte[] key = new byte[input.readInt()];
+            input.readFully(key);
+
+            return new Record(key, count, firstIndex);
+        }
+    }
+
+    /**
+     * Reads the records of a run one at a time, keeping the last one read.
+     */
+    private static final class RunReader {
+        private final DataInputStream input;
+        private Record record;
+
+        private RunReader(DataInputStream input) {
+            this.input = input;
+        }
+
+        /**
+         * Reads the next record of the run.
+         *
+         * @return false at the end of the run.
+         */
+        private boolean advance() throws IOException {
+            record = Record.read(input);
+            return record != null;
+        }
+
+        private void close() throws IOException {
+            input.close();
+        }
+    }
+}
@@ -9,13 +9,12 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.ListIterator;
 
 import sg.edu.nus.comp.cs4218.exception.AbstractApplicationException;
 import sg.edu.nus.comp.cs4218.exception.ShellException;
 
 public class IORedirectionHandler {
-    private final List<String> argsList;
+    private final RedirectionPlan plan;
     private final InputStream origInputStream;
     private final OutputStream origOutputStream;
     private List<String> noRedirArgsList = new ArrayList<>();
@@ -23,51 +22,49 @@ public class IORedirectionHandler {
     private OutputStream outputStream;
 
     public IORedirectionHandler(List<String> argsList, InputStream origInputStream, OutputStream origOutputStream) throws ShellException {
-        if (CollectionUtils.isAnyNull(argsList, origInputStream, origOutputStream) || argsList.isEmpty()) {
+        this(
+                argsList == null || argsList.isEmpty() ? null : RedirectionPlan.analyze(argsList),
+                origInputStream,
+                origOutputStream
+        );
+    }
+
+    private IORedirectionHandler(RedirectionPlan plan, InputStream origInputStream, OutputStream origOutputStream) throws ShellException {
+        if (CollectionUtils.isAnyNull(plan, origInputStream, origOutputStream)) {
             throw new ShellException(ERR_SYNTAX);
         }
 
-        this.argsList = argsList;
+        this.plan = plan;
         this.inputStream = origInputStream;
         this.origInputStream = origInputStream;
         this.outputStream = origOutputStream;
         this.origOutputStream = origOutputStream;
     }
 
-    public void extractRedirOptions() throws AbstractApplicationException, ShellException { //NOPMD
-        noRedirArgsList = new ArrayList<>();
-
-        // extract redirection operators (with their corresponding files) from argsList
-        ListIterator<String> argsIterator = argsList.listIterator();
-        while (argsIterator.hasNext()) {
-            String arg = argsIterator.next();
-
-            // leave the other args untouched
-            if (!isRedirOperator(arg)) {
-                noRedirArgsList.add(arg);
-                continue;
-            }
+    /**
+     * Creates a handler for arguments whose redirection structure has been analysed already.
+     *
+     * @param plan the redirection structure of the arguments, which may be shared between handlers.
+     */
+    public static IORedirectionHandler fromPlan(RedirectionPlan plan, InputStream origInputStream,
+                                                OutputStream origOutputStream) throws ShellException {
+        return new IORedirectionHandler(plan, origInputStream, origOutputStream);
+    }
 
-            // no file specified
-            if (!argsIterator.hasNext()) {
-                throw new ShellException(ERR_SYNTAX);
-            }
+    public void extractRedirOptions() throws AbstractApplicationException, ShellException {
+        noRedirArgsList = new ArrayList<>(plan.getNoRedirArgsList());
 
-            // if current arg is < or >, fast-forward to the next arg to extract the specified file
-            String file = argsIterator.next();
-
-            // consecutive redir operator
-            if (isRedirOperator(file)) {
-                throw new ShellException(ERR_SYNTAX);
-            }
+        // perform the redirections in order, the operators and files having been extracted already
+        for (int i = 0; i < plan.getNumRedirections(); i++) {
+            String arg = plan.getRedirOperator(i);
 
             // handle quoting + globing + command substitution in file arg
-            List<String> fileSegment = ArgumentResolverUtil.resolveOneArgument(file);
+            List<String> fileSegment = plan.getRedirFile(i).resolve();
             if (fileSegment.size() > 1) {
                 // ambiguous redirect if file resolves to more than one parsed arg
                 throw new ShellException(ERR_SYNTAX);
             }
-            file = fileSegment.get(0);
+            String file = fileSegment.get(0);
 
             // replace existing inputStream / outputStream
             if (arg.equals(STRING_REDIR_INPUT)) {
@@ -83,16 +80,11 @@ public class IORedirectionHandler {
                 }
                 outputStream = IOUtils.openOutputStream(file);
             }
+        }
 
-            // check if there are multiple files specified for redirection
-            if (argsIterator.hasNext()) {
-                String nextArg = argsIterator.next();
-                if (isRedirOperator(nextArg)) {
-                    argsIterator.previous();
-                } else {
-                    throw new ShellException(ERR_SYNTAX);
-                }
-            }
+        // no file specified, consecutive redir operators or multiple files specified for redirection
+        if (plan.isSyntaxError()) {
+            throw new ShellException(ERR_SYNTAX);
         }
     }
 
@@ -107,8 +99,4 @@ public class IORedirectionHandler {
     public OutputStream getOutputStream() {
         return outputStream;
     }
-
-    private boolean isRedirOperator(String str) {
-        return str.equals(STRING_REDIR_INPUT) || str.equals(STRING_REDIR_OUTPUT);
-    }
 }
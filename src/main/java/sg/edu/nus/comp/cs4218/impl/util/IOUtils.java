@@ -9,11 +9,12 @@ import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_NO_ISTREAM;
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_NO_PERM;
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_READ_STREAM;
 
-import java.io.BufferedReader;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.InvalidPathException;
 import java.nio.file.Path;
@@ -24,10 +25,22 @@ import sg.edu.nus.comp.cs4218.EnvironmentUtil;
 import sg.edu.nus.comp.cs4218.exception.InvalidDirectoryException;
 import sg.edu.nus.comp.cs4218.exception.ShellException;
 
+@SuppressWarnings("PMD.GodClass")
 public final class IOUtils {
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+    private static final ThreadLocal<byte[]> COPY_BUFFER = ThreadLocal.withInitial(() -> new byte[COPY_BUFFER_SIZE]);
+
     private IOUtils() {
     }
 
+    /**
+     * Returns the buffer which is reused by the calling thread to copy streams. It must not be used
+     * across calls to the copying methods of this class, which overwrite it.
+     */
+    public static byte[] getCopyBuffer() {
+        return COPY_BUFFER.get();
+    }
+
     /**
      * Open an inputStream based on the file name.
      *
@@ -62,7 +75,8 @@ public final class IOUtils {
      */
     public static OutputStream openOutputStream(String fileName) throws ShellException {
         try {
-            return Files.newOutputStream(resolveAbsoluteFilePath(fileName));
+            // a FileOutputStream exposes its channel, so files can be copied to it without buffering
+            return new FileOutputStream(resolveAbsoluteFilePath(fileName).toFile());
         } catch (SecurityException e) {
             throw new ShellException(ERR_NO_PERM, e);
         } catch (IOException e) {
@@ -108,6 +122,65 @@ public final class IOUtils {
         }
     }
 
+    /**
+     * Copies the contents of a file channel, from its start up to its size when the copy starts, to an
+     * outputStream.
+     *
+     * @see #transferTo(FileChannel, long, OutputStream)
+     */
+    public static long transferTo(FileChannel source, OutputStream outputStream) throws IOException {
+        return transferTo(source, 0, outputStream);
+    }
+
+    /**
+     * Copies the contents of a file channel, from a position up to its size when the copy starts, to an
+     * outputStream.
+     * <p>
+     * If the outputStream is a FileOutputStream the bytes are transferred directly between the
+     * channels, which the operating system may do without copying them into the JVM. Otherwise they
+     * are copied through a buffer which is reused by the calling thread.
+     *
+     * @param source        channel of the file to be copied.
+     * @param startPosition position in the file to start copying from.
+     * @param outputStream  outputStream to copy the file to.
+     * @return the number of bytes copied.
+     * @throws IOException if the file cannot be read or the outputStream cannot be written to.
+     */
+    public static long transferTo(FileChannel source, long startPosition, OutputStream outputStream)
+            throws IOException {
+        long size = source.size();
+        long position = startPosition;
+
+        if (outputStream instanceof FileOutputStream) {
+            FileChannel target = ((FileOutputStream) outputStream).getChannel();
+
+            while (position < size) {
+                long transferred = source.transferTo(position, size - position, target);
+                if (transferred <= 0) {
+                    break;
+                }
+                position += transferred;
+            }
+
+            return position - startPosition;
+        }
+
+        byte[] buffer = COPY_BUFFER.get();
+        ByteBuffer byteBuffer = ByteBuffer.wrap(buffer);
+
+        while (position < size) {
+            byteBuffer.clear().limit((int) Math.min(buffer.length, size - position));
+            int read = source.read(byteBuffer, position);
+            if (read <= 0) {
+                break;
+            }
+            outputStream.write(buffer, 0, read);
+            position += read;
+        }
+
+        return position - startPosition;
+    }
+
     public static Path resolveAbsoluteFilePath(String fileName) throws Exception {
         if (fileName == null) {
             throw new Exception(ERR_NO_FILE_ARGS);
@@ -133,7 +206,7 @@ public final class IOUtils {
         }
 
         List<String> output = new ArrayList<>();
-        BufferedReader reader = new BufferedReader(new InputStreamReader(input));
+        LineSource reader = new LineSource(input);
         String line;
 
         try {
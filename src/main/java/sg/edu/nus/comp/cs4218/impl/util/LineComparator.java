@@ -0,0 +1,244 @@
+package sg.edu.nus.comp.cs4218.impl.util;
+
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_INVALID_KEY;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compares lines by their keys, either as text or as numbers.
+ * <p>
+ * A key is a range of blank separated fields, without the blanks in front of it. Lines without
+ * keys are compared as a whole. Keys are compared in place, so comparing two lines does not create
+ * any substrings, which matters when a sort compares every line many times.
+ */
+public final class LineComparator implements Comparator<String> {
+    private static final Pattern KEY_PATTERN = Pattern.compile("^([1-9]\\d*)(,([1-9]\\d*))?$");
+    private static final int NO_FIELD = 0;
+
+    private final boolean isNumeric;
+    private final List<SortKey> keys;
+
+    /**
+     * @param isNumeric true if the keys are compared as numbers rather than as text.
+     * @param keys      keys to compare in turn, or an empty list to compare whole lines.
+     */
+    public LineComparator(boolean isNumeric, List<SortKey> keys) {
+        if (keys == null) {
+            throw new IllegalArgumentException(ERR_INVALID_KEY);
+        }
+
+        this.isNumeric = isNumeric;
+        this.keys = List.copyOf(keys);
+    }
+
+    /**
+     * Parses a key definition of the form FIELD or FIELD,FIELD, where the fields are numbered from 1.
+     * The key starts at the first field and ends at the end of the second field, or at the end of the
+     * line if there is no second field.
+     *
+     * @throws IllegalArgumentException if the definition is not valid.
+     */
+    public static SortKey parseKey(String definition) {
+        Matcher matcher = definition == null ? null : KEY_PATTERN.matcher(definition);
+
+        if (matcher == null || !matcher.matches()) {
+            throw new IllegalArgumentException(ERR_INVALID_KEY);
+        }
+
+        try {
+            int startField = Integer.parseInt(matcher.group(1));
+            int endField = matcher.group(3) == null ? NO_FIELD : Integer.parseInt(matcher.group(3));
+            return new SortKey(startField, endField);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(ERR_INVALID_KEY, e);
+        }
+    }
+
+    @Override
+    public int compare(String first, String second) {
+        if (keys.isEmpty()) {
+            return isNumeric
+                    ? compareRange(first, 0, first.length(), second, 0, second.length())
+                    : first.compareTo(second);
+        }
+
+        for (SortKey key : keys) {
+            long firstBounds = key.findBounds(first);
+            long secondBounds = key.findBounds(second);
+            int result = compareRange(first, SortKey.getStart(firstBounds), SortKey.getEnd(firstBounds),
+                    second, SortKey.getStart(secondBounds), SortKey.getEnd(secondBounds));
+
+            if (result != 0) {
+                return result;
+            }
+        }
+
+        return 0;
+    }
+
+    private int compareRange(String first, int firstStart, int firstEnd, String second, int secondStart,
+                             int secondEnd) {
+        if (isNumeric) {
+            return Numeral.parse(first, firstStart, firstEnd).compareTo(Numeral.parse(second, secondStart, secondEnd));
+        }
+
+        int length = Math.min(firstEnd - firstStart, secondEnd - secondStart);
+        for (int i = 0; i < length; i++) {
+            char firstChar = first.charAt(firstStart + i);
+            char secondChar = second.charAt(secondStart + i);
+
+            if (firstChar != secondChar) {
+                return firstChar - secondChar;
+            }
+        }
+
+        return (firstEnd - firstStart) - (secondEnd - secondStart);
+    }
+
+    private static boolean isBlank(char chr) {
+        return chr == ' ' || chr == '\t';
+    }
+
+    private static int skipBlanks(String line, int position, int end) {
+        int index = position;
+        while (index < end && isBlank(line.charAt(index))) {
+            index++;
+        }
+        return index;
+    }
+
+    private static int skipNonBlanks(String line, int position, int end) {
+        int index = position;
+        while (index < end && !isBlank(line.charAt(index))) {
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * A range of fields of a line.
+     */
+    public static final class SortKey {
+        private final int startField;
+        private final int endField;
+
+        private SortKey(int startField, int endField) {
+            this.startField = startField;
+            this.endField = endField;
+        }
+
+        /**
+         * Returns the start and the end of the key in the line, found in a single pass over the fields
+         * and packed into one value.
+         */
+        private long findBounds(String line) {
+            int length = line.length();
+            int position = 0;
+            int start = 0;
+            int end = length;
+
+            for (int field = 1; field <= Math.max(startField, endField); field++) {
+                position = skipBlanks(line, position, length);
+                if (field == startField) {
+                    start = position;
+                }
+
+                position = skipNonBlanks(line, position, length);
+                if (field == endField) {
+                    end = position;
+                }
+            }
+
+            return (long) start << Integer.SIZE | Math.max(start, end);
+        }
+
+        private static int getStart(long bounds) {
+            return (int) (bounds >>> Integer.SIZE);
+        }
+
+        private static int getEnd(long bounds) {
+            return (int) bounds;
+        }
+    }
+
+    /**
+     * The leading number of a key, which is 0 if the key does not start with one. Its digits are
+     * compared as text, so numbers of any length are compared exactly.
+     */
+    private static final class Numeral implements Comparable<Numeral> {
+        private final String text;
+        private final int sign;
+        private final int integerStart;
+        private final int integerEnd;
+        private final int fractionStart;
+        private final int fractionEnd;
+
+        private Numeral(String text, int sign, int integerStart, int integerEnd, int fractionStart,
+                        int fractionEnd) {
+            this.text = text;
+            this.sign = sign;
+            this.integerStart = integerStart;
+            this.integerEnd = integerEnd;
+            this.fractionStart = fractionStart;
+            this.fractionEnd = fractionEnd;
+        }
+
+        private static Numeral parse(String text, int start, int end) {
+            int position = skipBlanks(text, start, end);
+            boolean isNegative = position < end && text.charAt(position) == '-';
+            if (isNegative) {
+                position++;
+            }
+
+            // leading zeros of the integer part and trailing zeros of the fraction do not count
+            while (position < end && text.charAt(position) == '0') {
+                position++;
+            }
+            int integerStart = position;
+            int integerEnd = skipDigits(text, integerStart, end);
+
+            int fractionStart = integerEnd < end && text.charAt(integerEnd) == '.' ? integerEnd + 1 : integerEnd;
+            int fractionEnd = skipDigits(text, fractionStart, end);
+            while (fractionEnd > fractionStart && text.charAt(fractionEnd - 1) == '0') {
+                fractionEnd--;
+            }
+
+            boolean isZero = integerStart == integerEnd && fractionStart == fractionEnd;
+            int sign = isZero ? 0 : isNegative ? -1 : 1;
+            return new Numeral(text, sign, integerStart, integerEnd, fractionStart, fractionEnd);
+        }
+
+        private static int skipDigits(String text, int position, int end) {
+            int index = position;
+            while (index < end && text.charAt(index) >= '0' && text.charAt(index) <= '9') {
+                index++;
+            }
+            return index;
+        }
+
+        @Override
+        public int compareTo(Numeral other) {
+            if (sign != other.sign) {
+                return Integer.compare(sign, other.sign);
+            }
+
+            int result = Integer.compare(integerEnd - integerStart, other.integerEnd - other.integerStart);
+            for (int i = 0; result == 0 && i < integerEnd - integerStart; i++) {
+                result = Character.compare(text.charAt(integerStart + i), other.text.charAt(other.integerStart + i));
+            }
+
+            int length = Math.min(fractionEnd - fractionStart, other.fractionEnd - other.fractionStart);
+            for (int i = 0; result == 0 && i < length; i++) {
+                result = Character.compare(text.charAt(fractionStart + i), other.text.charAt(other.fractionStart + i));
+            }
+            if (result == 0) {
+                result = Integer.compare(fractionEnd - fractionStart, other.fractionEnd - other.fractionStart);
+            }
+
+            return sign < 0 ? -result : result;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package sg.edu.nus.comp.cs4218.impl.util;
+
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_NO_OSTREAM;
+import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.STRING_NEWLINE;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes lines to an OutputStream as they are produced, each followed by a newline.
+ * <p>
+ * When empty sections are skipped, lines are written in sections, usually one section per input.
+ * The output is then the same as joining the non-empty sections with newlines and appending a
+ * final newline, which is the format the applications use for their stdout: a section consisting
+ * of a single empty line produces no output at all.
+ * <p>
+ * The underlying OutputStream is never closed by the sink.
+ */
+public final class LineSink implements Flushable {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final OutputStream outputStream;
+    private final Writer writer;
+    private final boolean isSkipEmptySections;
+    private boolean isSectionEmpty = true;
+    private boolean hasPendingEmptyLine;
+
+    public LineSink(OutputStream outputStream) {
+        this(outputStream, false);
+    }
+
+    /**
+     * @param outputStream        stream to write the lines to.
+     * @param isSkipEmptySections true if sections whose only line is empty should not be written.
+     */
+    public LineSink(OutputStream outputStream, boolean isSkipEmptySections) {
+        if (outputStream == null) {
+            throw new IllegalArgumentException(ERR_NO_OSTREAM);
+        }
+
+        this.outputStream = outputStream;
+        this.writer = new BufferedWriter(new OutputStreamWriter(outputStream), BUFFER_SIZE);
+        this.isSkipEmptySections = isSkipEmptySections;
+    }
+
+    /**
+     * Runs the given task against an in-memory sink and returns everything it wrote, without the
+     * final newline.
+     *
+     * @param task task that writes its lines to the sink.
+     * @return the written lines joined by newlines.
+     * @throws E if the task fails.
+     */
+    public static <E extends Exception> String collectToString(SinkTask<E> task) throws E {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        LineSink sink = new LineSink(outputStream, true);
+
+        task.writeTo(sink);
+
+        try {
+            sink.flush();
+        } catch (IOException e) {
+            // writing to memory does not fail
+            throw new IllegalStateException(e);
+        }
+
+        String output = outputStream.toString();
+        return output.endsWith(STRING_NEWLINE)
+                ? output.substring(0, output.length() - STRING_NEWLINE.length())
+                : output;
+    }
+
+    /**
+     * Starts a new section.
+     */
+    public void startSection() {
+        isSectionEmpty = true;
+        hasPendingEmptyLine = false;
+    }
+
+    /**
+     * Writes one line followed by a newline.
+     *
+     * @param line line to be written, without its line terminator.
+     * @throws IOException if the line cannot be written to the output stream.
+     */
+    public void writeLine(String line) throws IOException {
+        if (isSkipEmptySections && isSectionEmpty && line.isEmpty()) {
+            // only written once the section is known to contain more than this empty line
+            isSectionEmpty = false;
+            hasPendingEmptyLine = true;
+            return;
+        }
+
+        if (hasPendingEmptyLine) {
+            writer.write(STRING_NEWLINE);
+            hasPendingEmptyLine = false;
+        }
+
+        isSectionEmpty = false;
+        writer.write(line);
+        writer.write(STRING_NEWLINE);
+    }
+
+    /**
+     * Copies the contents of a file to the output as a new section, without decoding them into lines.
+     * <p>
+     * A newline is appended if the file does not end with one, so the output is the same as writing
+     * every line of the file, except that line terminators other than newlines are kept as they are.
+     *
+     * @param path path of the file to be copied.
+     * @throws IOException if the file cannot be read or the output stream cannot be written to.
+     */
+    public void writeFile(Path path) throws IOException {
+        startSection();
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            byte lastByte = size > 0 ? readByte(channel, size - 1) : 0;
+
+            if (size == 0 || isSkipEmptySections && size == 1 && lastByte == '\n') {
+                // a file without lines, or whose only line is empty
+                return;
+            }
+
+            writer.flush();
+            long copied = IOUtils.transferTo(channel, outputStream);
+            isSectionEmpty = copied == 0;
+
+            if (copied > 0 && readByte(channel, copied - 1) != '\n') {
+                writer.write(STRING_NEWLINE);
+            }
+        }
+    }
+
+    private static byte readByte(FileChannel channel, long position) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(1);
+        channel.read(buffer, position);
+        return buffer.get(0);
+    }
+
+    /**
+     * Flushes buffered lines to the underlying output stream.
+     *
+     * @throws IOException if the output stream cannot be written to.
+     */
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    /**
+     * A unit of work which writes its output lines to a sink.
+     */
+    @FunctionalInterface
+    public interface SinkTask<E extends Exception> {
+        void writeTo(LineSink sink) throws E;
+    }
+}
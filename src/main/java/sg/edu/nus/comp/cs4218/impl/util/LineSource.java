@@ -0,0 +1,45 @@
+package sg.edu.nus.comp.cs4218.impl.util;
+
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_NO_ISTREAM;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+
+/**
+ * Reads an InputStream one line at a time, so that only the current line is held in memory.
+ * <p>
+ * Lines are split the same way as {@link IOUtils#getLinesFromInputStream(InputStream)}.
+ */
+public final class LineSource implements Closeable {
+    private final BufferedReader reader;
+
+    public LineSource(InputStream inputStream) {
+        if (inputStream == null) {
+            throw new IllegalArgumentException(ERR_NO_ISTREAM);
+        }
+
+        this.reader = new BufferedReader(new InputStreamReader(inputStream));
+    }
+
+    /**
+     * Returns the next line without its line terminator, or null if the end of the stream is reached.
+     *
+     * @throws IOException if there is error reading from the input stream.
+     */
+    public String readLine() throws IOException {
+        return reader.readLine();
+    }
+
+    /**
+     * Closes the line source together with the underlying input stream.
+     *
+     * @throws IOException if the input stream cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,104 @@
+package sg.edu.nus.comp.cs4218.impl.util;
+
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_NULL_ARGS;
+
+import java.util.Arrays;
+
+/**
+ * Finds a fixed string in text using the Boyer-Moore-Horspool algorithm, which skips ahead by up to
+ * the length of the string after each mismatch instead of trying every position.
+ * <p>
+ * A case-insensitive searcher folds ASCII letters only, which is the same as a regex compiled with
+ * {@link java.util.regex.Pattern#CASE_INSENSITIVE}. Searchers are immutable and can be shared
+ * between threads.
+ */
+public final class LiteralSearcher {
+    private static final String REGEX_META_CHARS = "\\^$.|?*+()[]{}";
+    private static final int SHIFT_TABLE_SIZE = 256;
+
+    private final char[] literal;
+    private final boolean isCaseInsensitive;
+    private final int[] shifts = new int[SHIFT_TABLE_SIZE];
+
+    /**
+     * @param literal           string to search for.
+     * @param isCaseInsensitive true if ASCII letters should match regardless of their case.
+     */
+    public LiteralSearcher(String literal, boolean isCaseInsensitive) {
+        if (literal == null) {
+            throw new IllegalArgumentException(ERR_NULL_ARGS);
+        }
+
+        this.isCaseInsensitive = isCaseInsensitive;
+        this.literal = new char[literal.length()];
+        for (int i = 0; i < literal.length(); i++) {
+            this.literal[i] = fold(literal.charAt(i));
+        }
+
+        // characters sharing the low byte get the smallest of their shifts, which is always safe
+        Arrays.fill(shifts, Math.max(this.literal.length, 1));
+        for (int i = 0; i < this.literal.length - 1; i++) {
+            shifts[this.literal[i] & (SHIFT_TABLE_SIZE - 1)] = this.literal.length - 1 - i;
+        }
+    }
+
+    /**
+     * Returns true if the pattern contains no regex metacharacters, so a regex compiled from it only
+     * matches the pattern itself.
+     */
+    public static boolean isLiteral(String pattern) {
+        for (int i = 0; i < pattern.length(); i++) {
+            if (REGEX_META_CHARS.indexOf(pattern.charAt(i)) >= 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private char fold(char character) {
+        return isCaseInsensitive && character >= 'A' && character <= 'Z'
+                ? (char) (character + ('a' - 'A'))
+                : character;
+    }
+
+    /**
+     * Returns the index of the first occurrence of the string in the text, or -1 if there is none.
+     */
+    public int indexIn(CharSequence text) {
+        int length = literal.length;
+        int last = length - 1;
+
+        if (length == 0) {
+            return 0;
+        }
+
+        int start = 0;
+        while (start <= text.length() - length) {
+            char lastChar = fold(text.charAt(start + last));
+            int index = last;
+
+            if (lastChar == literal[last]) {
+                index--;
+                while (index >= 0 && fold(text.charAt(start + index)) == literal[index]) {
+                    index--;
+                }
+            }
+
+            if (index < 0) {
+                return start;
+            }
+
+            start += shifts[lastChar & (SHIFT_TABLE_SIZE - 1)];
+        }
+
+        return -1;
+    }
+
+    /**
+     * Returns true if the string occurs in the text.
+     */
+    public boolean isFoundIn(CharSequence text) {
+        return indexIn(text) >= 0;
+    }
+}
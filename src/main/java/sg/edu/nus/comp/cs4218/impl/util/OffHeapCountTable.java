@@ -0,0 +1,241 @@
+package sg.edu.nus.comp.cs4218.impl.util;
+
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_INVALID_ARGS;
+
+import java.nio.ByteBuffer;
+
+/**
+ * An open-addressing hash table which counts occurrences of byte string keys, stored outside of the
+ * heap so that millions of distinct keys do not turn into millions of objects.
+ * <p>
+ * Every key is appended to an arena of direct memory together with its count and the index of its
+ * first occurrence as primitive values, and a slot of the table holds the position of the entry in
+ * the arena and the hash of its key. Both grow by doubling until they would exceed the memory
+ * budget, after which new keys are refused, so that the caller can move the entries elsewhere and
+ * {@link #clear()} the table. Since the arena is only appended to, the entries can be read back in
+ * the order in which their keys were first added without sorting them.
+ */
+public final class OffHeapCountTable {
+    private static final int SLOT_SIZE = 8;
+    private static final int SLOT_HASH_OFFSET = 4;
+    private static final int ENTRY_COUNT_OFFSET = 0;
+    private static final int ENTRY_FIRST_INDEX_OFFSET = 8;
+    private static final int ENTRY_LENGTH_OFFSET = 16;
+    private static final int ENTRY_HEADER_SIZE = 20;
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int INITIAL_ARENA_SIZE = 64 * 1024;
+
+    private final long memoryBudget;
+    private ByteBuffer slots;
+    private int capacity;
+    private int numOfEntries;
+    private ByteBuffer arena;
+    private int arenaUsed;
+
+    /**
+     * @param memoryBudget number of bytes of direct memory which the slots and entries may take up
+     *                     together, at most 2 GB. A single key is always accepted into an empty
+     *                     table, even if it does not fit into the budget.
+     */
+    public OffHeapCountTable(long memoryBudget) {
+        if (memoryBudget < 1 || memoryBudget > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(ERR_INVALID_ARGS);
+        }
+
+        this.memoryBudget = memoryBudget;
+        this.capacity = INITIAL_CAPACITY;
+        this.slots = ByteBuffer.allocateDirect(INITIAL_CAPACITY * SLOT_SIZE);
+        this.arena = ByteBuffer.allocateDirect(INITIAL_ARENA_SIZE);
+    }
+
+    /**
+     * Adds to the count of a key, recording the earlier of the first occurrences.
+     *
+     * @param key        the key, which is copied if it is new.
+     * @param hash       hash of the key, the same for equal keys.
+     * @param count      number of occurrences to add.
+     * @param firstIndex index of the first of these occurrences.
+     * @return false if the key is new and there is no room for it within the memory budget.
+     */
+    public boolean add(byte[] key, long hash, long count, long firstIndex) {
+        int slot = findSlot(key, (int) hash);
+
+        if (isOccupied(slot)) {
+            int entry = getEntry(slot);
+            arena.putLong(entry + ENTRY_COUNT_OFFSET, arena.getLong(entry + ENTRY_COUNT_OFFSET) + count);
+            if (firstIndex < arena.getLong(entry + ENTRY_FIRST_INDEX_OFFSET)) {
+                arena.putLong(entry + ENTRY_FIRST_INDEX_OFFSET, firstIndex);
+            }
+            return true;
+        }
+
+        int oldCapacity = capacity;
+        if (!reserveArena(ENTRY_HEADER_SIZE + key.length) || !reserveSlot()) {
+            return false;
+        }
+
+        if (capacity != oldCapacity) {
+            // the table has grown, so the free slot has moved
+            slot = findSlot(key, (int) hash);
+        }
+
+        int entry = arenaUsed;
+        arena.putLong(entry + ENTRY_COUNT_OFFSET, count);
+        arena.putLong(entry + ENTRY_FIRST_INDEX_OFFSET, firstIndex);
+        arena.putInt(entry + ENTRY_LENGTH_OFFSET, key.length);
+        arena.put(entry + ENTRY_HEADER_SIZE, key);
+        arenaUsed += ENTRY_HEADER_SIZE + key.length;
+
+        slots.putInt(slot * SLOT_SIZE, entry + 1);
+        slots.putInt(slot * SLOT_SIZE + SLOT_HASH_OFFSET, (int) hash);
+        numOfEntries++;
+
+        return true;
+    }
+
+    public int size() {
+        return numOfEntries;
+    }
+
+    /**
+     * Removes all entries, keeping the memory which has been allocated.
+     */
+    public void clear() {
+        for (int position = 0; position < capacity * SLOT_SIZE; position += Long.BYTES) {
+            slots.putLong(position, 0);
+        }
+        numOfEntries = 0;
+        arenaUsed = 0;
+    }
+
+    /**
+     * Passes every entry to the consumer in the order in which their keys were first added.
+     */
+    public <E extends Exception> void forEach(EntryConsumer<E> consumer) throws E {
+        int entry = 0;
+
+        while (entry < arenaUsed) {
+            byte[] key = new byte[arena.getInt(entry + ENTRY_LENGTH_OFFSET)];
+            arena.get(entry + ENTRY_HEADER_SIZE, key);
+
+            consumer.accept(key, arena.getLong(entry + ENTRY_COUNT_OFFSET),
+                    arena.getLong(entry + ENTRY_FIRST_INDEX_OFFSET));
+            entry += ENTRY_HEADER_SIZE + key.length;
+        }
+    }
+
+    private boolean isOccupied(int slot) {
+        return slots.getInt(slot * SLOT_SIZE) != 0;
+    }
+
+    private int getEntry(int slot) {
+        return slots.getInt(slot * SLOT_SIZE) - 1;
+    }
+
+    /**
+     * Returns the slot holding the key, or the empty slot where it should be inserted.
+     */
+    private int findSlot(byte[] key, int hash) {
+        int mask = capacity - 1;
+        int slot = hash & mask;
+
+        while (isOccupied(slot) && !isKeyAt(slot, key, hash)) {
+            slot = (slot + 1) & mask;
+        }
+
+        return slot;
+    }
+
+    private boolean isKeyAt(int slot, byte[] key, int hash) {
+        if (slots.getInt(slot * SLOT_SIZE + SLOT_HASH_OFFSET) != hash) {
+            return false;
+        }
+
+        int entry = getEntry(slot);
+        if (arena.getInt(entry + ENTRY_LENGTH_OFFSET) != key.length) {
+            return false;
+        }
+
+        int keyPosition = entry + ENTRY_HEADER_SIZE;
+        for (int i = 0; i < key.length; i++) {
+            if (arena.get(keyPosition + i) != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long getMemoryUsed() {
+        return (long) slots.capacity() + arena.capacity();
+    }
+
+    /**
+     * Grows the arena if needed so that another entry of the given length fits.
+     */
+    private boolean reserveArena(int length) {
+        long required = (long) arenaUsed + length;
+        if (required <= arena.capacity()) {
+            return true;
+        }
+
+        long otherMemory = getMemoryUsed() - arena.capacity();
+        long newSize = Math.min(Math.max(required, 2L * arena.capacity()), memoryBudget - otherMemory);
+        if (newSize < required) {
+            if (numOfEntries > 0) {
+                return false;
+            }
+            newSize = required;
+        }
+        if (newSize > Integer.MAX_VALUE) {
+            return false;
+        }
+
+        ByteBuffer newArena = ByteBuffer.allocateDirect((int) newSize);
+        newArena.put(arena.duplicate().position(0).limit(arenaUsed));
+        arena = newArena;
+
+        return true;
+    }
+
+    /**
+     * Doubles the number of slots if needed so that the table stays at most half full.
+     */
+    private boolean reserveSlot() {
+        if (2 * (numOfEntries + 1) <= capacity) {
+            return true;
+        }
+
+        long newSlotsSize = 2L * capacity * SLOT_SIZE;
+        if (getMemoryUsed() - slots.capacity() + newSlotsSize > memoryBudget || newSlotsSize > Integer.MAX_VALUE) {
+            return false;
+        }
+
+        ByteBuffer oldSlots = slots;
+        int oldCapacity = capacity;
+        capacity *= 2;
+        slots = ByteBuffer.allocateDirect((int) newSlotsSize);
+
+        for (int oldSlot = 0; oldSlot < oldCapacity; oldSlot++) {
+            long oldValue = oldSlots.getLong(oldSlot * SLOT_SIZE);
+            if (oldValue == 0) {
+                continue;
+            }
+
+            int slot = oldSlots.getInt(oldSlot * SLOT_SIZE + SLOT_HASH_OFFSET) & (capacity - 1);
+            while (isOccupied(slot)) {
+                slot = (slot + 1) & (capacity - 1);
+            }
+            slots.putLong(slot * SLOT_SIZE, oldValue);
+        }
+
+        return true;
+    }
+
+    /**
+     * Receives the entries of the table.
+     */
+    @FunctionalInterface
+    public interface EntryConsumer<E extends Exception> {
+        void accept(byte[] key, long count, long firstIndex) throws E;
+    }
+}
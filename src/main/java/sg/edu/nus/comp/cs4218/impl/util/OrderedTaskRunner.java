@@ -0,0 +1,105 @@
+package sg.edu.nus.comp.cs4218.impl.util;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Runs tasks concurrently while handing their results over in the order of the tasks.
+ * <p>
+ * At most a fixed number of tasks are started ahead of the result being handed over, which bounds
+ * the memory held by results that are done but not yet handed over.
+ */
+public final class OrderedTaskRunner {
+    private OrderedTaskRunner() {
+    }
+
+    /**
+     * Runs the tasks on the executor, with at most {@code parallelism} of them started but not yet
+     * handed over, and passes each result to the consumer on the calling thread in task order.
+     *
+     * @param executor    executor to run the tasks on.
+     * @param parallelism maximum number of tasks started ahead of the consumer.
+     * @param tasks       tasks to be run.
+     * @param consumer    consumer of the results.
+     * @throws IOException if a task fails to read its input. No further results are handed over.
+     * @throws E           if the consumer fails. No further results are handed over.
+     */
+    public static <T, E extends Exception> void runInOrder(
+            Executor executor,
+            int parallelism,
+            List<? extends IoTask<T>> tasks,
+            ResultConsumer<T, E> consumer
+    ) throws IOException, E {
+        runInOrder(executor, parallelism, tasks.iterator(), consumer);
+    }
+
+    /**
+     * Runs the tasks like {@link #runInOrder(Executor, int, List, ResultConsumer)}, taking each task
+     * from the iterator only when it is about to start. A task can therefore be created lazily, so
+     * that at most {@code parallelism} of them exist at once however many there are.
+     */
+    public static <T, E extends Exception> void runInOrder(
+            Executor executor,
+            int parallelism,
+            Iterator<? extends IoTask<T>> tasks,
+            ResultConsumer<T, E> consumer
+    ) throws IOException, E {
+        Deque<CompletableFuture<T>> pendingResults = new ArrayDeque<>();
+
+        try {
+            // hasNext() is only called when a task can start, since it may create the next task
+            while (!pendingResults.isEmpty() || tasks.hasNext()) {
+                while (pendingResults.size() < parallelism && tasks.hasNext()) {
+                    IoTask<T> task = tasks.next();
+                    pendingResults.add(CompletableFuture.supplyAsync(() -> {
+                        try {
+                            return task.call();
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    }, executor));
+                }
+
+                consumer.accept(join(pendingResults.remove()));
+            }
+        } finally {
+            // tasks which have not started yet are no longer needed if handing over failed
+            pendingResults.forEach(pendingResult -> pendingResult.cancel(false));
+        }
+    }
+
+    private static <T> T join(CompletableFuture<T> pendingResult) throws IOException {
+        try {
+            return pendingResult.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof UncheckedIOException) {
+                // the exception the task threw, with the stack trace of where it failed
+                throw ((UncheckedIOException) e.getCause()).getCause();//NOPMD - rethrown as it was thrown
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * A task which may fail to read its input.
+     */
+    @FunctionalInterface
+    public interface IoTask<T> {
+        T call() throws IOException;
+    }
+
+    /**
+     * A consumer of task results.
+     */
+    @FunctionalInterface
+    public interface ResultConsumer<T, E extends Exception> {
+        void accept(T result) throws E;
+    }
+}
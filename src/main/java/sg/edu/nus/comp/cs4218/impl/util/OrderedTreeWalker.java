@@ -0,0 +1,201 @@
+package sg.edu.nus.comp.cs4218.impl.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import sg.edu.nus.comp.cs4218.impl.util.OrderedTaskRunner.ResultConsumer;
+
+/**
+ * Walks a tree concurrently while handing the result of each node over in pre-order, that is each
+ * node before its children, and the children in the order they are given.
+ * <p>
+ * At most a fixed number of nodes are started ahead of the result being handed over, which bounds
+ * the memory held by results that are done but not yet handed over, however slow the consumer is.
+ * Nodes waiting to be visited are started in pre-order too, so the node handed over next is always
+ * started before the nodes after it, and its result can be handed over while the rest of the tree is
+ * still being walked.
+ *
+ * @param <N> type of the nodes.
+ * @param <T> type of the result of visiting a node.
+ */
+public final class OrderedTreeWalker<N, T> {
+    private final Executor executor;
+    private final int parallelism;
+    private final Function<N, T> visitor;
+    private final BiFunction<N, T, List<N>> childrenFunction;
+    private final Object lock = new Object();
+    private final PriorityQueue<TreeNode<N, T>> pendingNodes = new PriorityQueue<>();
+    private int numOfStartedNodes;
+    private boolean isCancelled;
+
+    private OrderedTreeWalker(
+            Executor executor,
+            int parallelism,
+            Function<N, T> visitor,
+            BiFunction<N, T, List<N>> childrenFunction
+    ) {
+        this.executor = executor;
+        this.parallelism = parallelism;
+        this.visitor = visitor;
+        this.childrenFunction = childrenFunction;
+    }
+
+    /**
+     * Visits the trees under the roots on the executor, with at most {@code parallelism} nodes started
+     * but not yet handed over, and passes each result to the consumer on the calling thread in
+     * pre-order.
+     *
+     * @param executor         executor to visit the nodes on.
+     * @param parallelism      maximum number of nodes started ahead of the consumer.
+     * @param roots            roots of the trees, walked one after another.
+     * @param visitor          function visiting a node.
+     * @param childrenFunction function returning the children of a node from its result.
+     * @param consumer         consumer of the results.
+     * @throws E if the consumer fails. No further results are handed over and no further nodes are
+     *           visited.
+     */
+    public static <N, T, E extends Exception> void walkInOrder(
+            Executor executor,
+            int parallelism,
+            List<N> roots,
+            Function<N, T> visitor,
+            BiFunction<N, T, List<N>> childrenFunction,
+            ResultConsumer<T, E> consumer
+    ) throws E {
+        OrderedTreeWalker<N, T> walker = new OrderedTreeWalker<>(executor, parallelism, visitor, childrenFunction);
+
+        try {
+            walker.handOver(walker.schedule(new int[0], roots), consumer);
+        } finally {
+            walker.cancel();
+        }
+    }
+
+    /**
+     * Hands the results over in pre-order without keeping the nodes already handed over, so that their
+     * results can be collected while the rest of the tree is walked.
+     */
+    private <E extends Exception> void handOver(List<TreeNode<N, T>> roots, ResultConsumer<T, E> consumer) throws E {
+        Deque<TreeNode<N, T>> nodes = new ArrayDeque<>(roots);
+
+        while (!nodes.isEmpty()) {
+            TreeNode<N, T> node = nodes.pop();
+            T result = join(node.result);
+            List<TreeNode<N, T>> children = join(node.children);
+
+            for (int i = children.size() - 1; i >= 0; i--) {
+                nodes.push(children.get(i));
+            }
+
+            consumer.accept(result);
+            release();
+        }
+    }
+
+    private List<TreeNode<N, T>> schedule(int[] parentPosition, List<N> values) {
+        List<TreeNode<N, T>> nodes = new ArrayList<>(values.size());
+
+        for (int i = 0; i < values.size(); i++) {
+            int[] position = Arrays.copyOf(parentPosition, parentPosition.length + 1);
+            position[parentPosition.length] = i;
+            nodes.add(new TreeNode<>(position, values.get(i)));
+        }
+
+        synchronized (lock) {
+            if (!isCancelled) {
+                pendingNodes.addAll(nodes);
+                startPendingNodes();
+            }
+        }
+
+        return nodes;
+    }
+
+    /**
+     * Starts pending nodes in pre-order while fewer than {@code parallelism} nodes are started but not
+     * yet handed over. Everything before the node handed over next has been handed over, and that node
+     * is known by then, so it is always the first pending node when a node is released.
+     */
+    private void startPendingNodes() {
+        synchronized (lock) {
+            while (numOfStartedNodes < parallelism && !pendingNodes.isEmpty()) {
+                TreeNode<N, T> node = pendingNodes.remove();
+                numOfStartedNodes++;
+                executor.execute(() -> visit(node));
+            }
+        }
+    }
+
+    /**
+     * Frees the place of a node which has been handed over.
+     */
+    private void release() {
+        synchronized (lock) {
+            numOfStartedNodes--;
+            startPendingNodes();
+        }
+    }
+
+    private void visit(TreeNode<N, T> node) {
+        try {
+            T result = visitor.apply(node.value);
+            node.children.complete(schedule(node.position, childrenFunction.apply(node.value, result)));
+            node.result.complete(result);
+        } catch (RuntimeException | Error e) {
+            node.children.complete(List.of());
+            node.result.completeExceptionally(e);
+        }
+    }
+
+    private void cancel() {
+        synchronized (lock) {
+            // nodes which have not started yet are no longer needed if handing over failed
+            isCancelled = true;
+            pendingNodes.clear();
+        }
+    }
+
+    private static <V> V join(CompletableFuture<V> pendingResult) {
+        try {
+            return pendingResult.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private static final class TreeNode<N, T> implements Comparable<TreeNode<N, T>> {
+        private final N value;
+        private final int[] position;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private final CompletableFuture<List<TreeNode<N, T>>> children = new CompletableFuture<>();
+
+        private TreeNode(int[] position, N value) {
+            this.value = value;
+            this.position = position;
+        }
+
+        /**
+         * Orders the nodes in pre-order, which is the lexicographic order of the indices on the path
+         * from the root.
+         */
+        @Override
+        public int compareTo(TreeNode<N, T> other) {
+            return Arrays.compare(position, other.position);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package sg.edu.nus.comp.cs4218.impl.util;
+
+import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.STRING_REDIR_INPUT;
+import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.STRING_REDIR_OUTPUT;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import sg.edu.nus.comp.cs4218.exception.AbstractApplicationException;
+import sg.edu.nus.comp.cs4218.exception.ShellException;
+
+/**
+ * The redirection structure of the arguments of a call command, worked out once without touching
+ * the file system.
+ * <p>
+ * Redirection operators with their files must come after all the other arguments. When they do not,
+ * the redirections before the offending argument are still performed before the syntax error is
+ * reported, the same as when the arguments are scanned during evaluation.
+ */
+public final class RedirectionPlan {
+    private final List<String> noRedirArgsList;
+    private final List<ArgumentTemplate> noRedirArgTemplates;
+    private final List<String> redirOperators;
+    private final List<ArgumentTemplate> redirFiles;
+    private final boolean syntaxError;
+
+    private RedirectionPlan(
+            List<String> noRedirArgsList,
+            List<String> redirOperators,
+            List<ArgumentTemplate> redirFiles,
+            boolean isSyntaxError
+    ) {
+        this.noRedirArgsList = List.copyOf(noRedirArgsList);
+        this.noRedirArgTemplates = noRedirArgsList.stream()
+                .map(ArgumentTemplate::compile)
+                .collect(Collectors.toUnmodifiableList());
+        this.redirOperators = List.copyOf(redirOperators);
+        this.redirFiles = List.copyOf(redirFiles);
+        this.syntaxError = isSyntaxError;
+    }
+
+    /**
+     * Separates the redirection operators and their files from the other arguments.
+     *
+     * @param argsList The original list of arguments.
+     * @return The redirection structure of the arguments.
+     */
+    public static RedirectionPlan analyze(List<String> argsList) {
+        List<String> noRedirArgsList = new ArrayList<>();
+        List<String> redirOperators = new ArrayList<>();
+        List<ArgumentTemplate> redirFiles = new ArrayList<>();
+        boolean isSyntaxError = false;
+
+        int index = 0;
+        while (index < argsList.size()) {
+            String arg = argsList.get(index);
+
+            // leave the other args untouched
+            if (!isRedirOperator(arg)) {
+                noRedirArgsList.add(arg);
+                index++;
+                continue;
+            }
+
+            // no file specified, or consecutive redir operator
+            if (index + 1 == argsList.size() || isRedirOperator(argsList.get(index + 1))) {
+                isSyntaxError = true;
+                break;
+            }
+
+            redirOperators.add(arg);
+            redirFiles.add(ArgumentTemplate.compile(argsList.get(index + 1)));
+            index += 2;
+
+            // multiple files specified for redirection
+            if (index < argsList.size() && !isRedirOperator(argsList.get(index))) {
+                isSyntaxError = true;
+                break;
+            }
+        }
+
+        return new RedirectionPlan(noRedirArgsList, redirOperators, redirFiles, isSyntaxError);
+    }
+
+    private static boolean isRedirOperator(String str) {
+        return str.equals(STRING_REDIR_INPUT) || str.equals(STRING_REDIR_OUTPUT);
+    }
+
+    public List<String> getNoRedirArgsList() {
+        return noRedirArgsList;
+    }
+
+    /**
+     * Handle quoting + globing + command substitution for the arguments which are not part of a
+     * redirection.
+     *
+     * @return The list of parsed arguments.
+     */
+    public List<String> resolveNoRedirArgs() throws AbstractApplicationException, ShellException {
+        List<String> parsedArgsList = new ArrayList<>();
+        for (ArgumentTemplate template : noRedirArgTemplates) {
+            parsedArgsList.addAll(template.resolve());
+        }
+        return parsedArgsList;
+    }
+
+    public int getNumRedirections() {
+        return redirOperators.size();
+    }
+
+    public String getRedirOperator(int index) {
+        return redirOperators.get(index);
+    }
+
+    public ArgumentTemplate getRedirFile(int index) {
+        return redirFiles.get(index);
+    }
+
+    /**
+     * Returns true if a syntax error is to be reported after performing all the redirections.
+     */
+    public boolean isSyntaxError() {
+        return syntaxError;
+    }
+}
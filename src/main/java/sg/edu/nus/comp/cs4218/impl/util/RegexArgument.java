@@ -2,27 +2,35 @@ package sg.edu.nus.comp.cs4218.impl.util;
 
 import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.CHAR_ASTERISK;
 import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.CHAR_FILE_SEP;
-import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.STRING_EMPTY;
-import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.STRING_FILE_SEP;
 
-import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.List;
-import java.util.regex.Pattern;
 
 import sg.edu.nus.comp.cs4218.EnvironmentUtil;
 
+/**
+ * An argument which may contain asterisks to be expanded into the names of matching files.
+ * <p>
+ * Only asterisks appended with {@link #appendAsterisk()} are wildcards, while any other character,
+ * including a quoted asterisk, stands for itself. The positions of the wildcards are kept alongside
+ * the plain text, from which a {@link GlobMatcher} for the last name in the argument is compiled when
+ * the argument is expanded.
+ */
 @SuppressWarnings("PMD.AvoidStringBufferField")
 public final class RegexArgument {
     private final StringBuilder plaintext;
-    private final StringBuilder regex;
+    private final BitSet wildcards;
     private boolean isRegex;
 
     public RegexArgument() {
         this.plaintext = new StringBuilder();
-        this.regex = new StringBuilder();
+        this.wildcards = new BitSet();
         this.isRegex = false;
     }
 
@@ -33,72 +41,119 @@ public final class RegexArgument {
 
     public void append(char chr) {
         plaintext.append(chr);
-        regex.append(Pattern.quote(String.valueOf(chr)));
     }
 
     public void appendAsterisk() {
+        wildcards.set(plaintext.length());
         plaintext.append(CHAR_ASTERISK);
-        regex.append(String.format("%s%s%s", "[^", Pattern.quote(STRING_FILE_SEP), "]*"));
         isRegex = true;
     }
 
     public void merge(RegexArgument other) {
+        int offset = plaintext.length();
+        for (int i = other.wildcards.nextSetBit(0); i >= 0; i = other.wildcards.nextSetBit(i + 1)) {
+            wildcards.set(offset + i);
+        }
+
         plaintext.append(other.plaintext);
-        regex.append(other.regex);
         isRegex = isRegex || other.isRegex;
     }
 
     public void merge(String str) {
         plaintext.append(str);
-        regex.append(Pattern.quote(str));
     }
 
+    /**
+     * Expands the wildcards in the last name of the argument into the names of the matching files in
+     * its directory, sorted. The directory itself is taken as it is written, and a trailing separator
+     * matches directories only. If nothing matches, the argument is returned unchanged.
+     */
     public List<String> globFiles() {
         if (!isRegex) {
             return List.of(plaintext.toString());
         }
 
-        String modifiedPlaintext = plaintext.toString().replaceAll(Pattern.quote(STRING_FILE_SEP), "/");
-        String[] tokens = modifiedPlaintext.split("/");
-        String dir = STRING_EMPTY;
-        for (int i = 0; i < tokens.length - 1; i++) {
-            dir += tokens[i] + STRING_FILE_SEP;
+        int nameEnd = plaintext.length();
+        while (nameEnd > 0 && isFileSeparator(plaintext.charAt(nameEnd - 1))) {
+            nameEnd--;
         }
 
-        boolean isOnlyDirectories = modifiedPlaintext.charAt(modifiedPlaintext.length() - 1) == CHAR_FILE_SEP;
+        int nameStart = nameEnd;
+        while (nameStart > 0 && !isFileSeparator(plaintext.charAt(nameStart - 1))) {
+            nameStart--;
+        }
 
-        File currentDir = Path.of(dir).isAbsolute()
-                ? Path.of(dir).toFile()
-                : Path.of(EnvironmentUtil.currentDirectory, dir).normalize().toFile();
+        int numOfTrailingSeparators = plaintext.length() - nameEnd;
+        List<String> globbedFiles = numOfTrailingSeparators > 1
+                ? new ArrayList<>() // only a single separator is ever appended to a directory name
+                : globDirectory(plaintext.substring(0, nameStart).replace('/', CHAR_FILE_SEP),
+                compileName(nameStart, nameEnd), numOfTrailingSeparators == 1);
 
-        Pattern regexPattern = Pattern.compile(regex.toString());
-        List<String> globbedFiles = new ArrayList<>();
+        Collections.sort(globbedFiles);
+
+        if (globbedFiles.isEmpty()) {
+            globbedFiles.add(plaintext.toString());
+        }
 
-        if (currentDir.exists()) {
-            for (File file : currentDir.listFiles()) {
-                String filePathName = dir + file.getName();
+        return globbedFiles;
+    }
 
-                if (isOnlyDirectories && file.isDirectory()) {
-                    filePathName += STRING_FILE_SEP;
-                }
+    /**
+     * Returns a matcher for the part of the argument between the given indices, split into literal
+     * segments at its wildcards.
+     */
+    private GlobMatcher compileName(int start, int end) {
+        List<String> segments = new ArrayList<>();
+        int segmentStart = start;
+
+        for (int i = wildcards.nextSetBit(start); i >= 0 && i < end; i = wildcards.nextSetBit(i + 1)) {
+            segments.add(plaintext.substring(segmentStart, i));
+            segmentStart = i + 1;
+        }
+        segments.add(plaintext.substring(segmentStart, end));
+
+        return new GlobMatcher(segments);
+    }
+
+    /**
+     * Returns the names of the entries of the directory which match, each prefixed with the directory
+     * as it is written, and followed by a separator if only directories are matched.
+     */
+    private static List<String> globDirectory(String dir, GlobMatcher matcher, boolean isOnlyDirectories) {
+        Path currentDir = Path.of(dir).isAbsolute()
+                ? Path.of(dir)
+                : Path.of(EnvironmentUtil.currentDirectory, dir).normalize();
+
+        List<String> globbedFiles = new ArrayList<>();
 
-                if (!regexPattern.matcher(filePathName).matches()) {
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(currentDir)) {
+            for (Path path : stream) {
+                String fileName = path.getFileName().toString();
+
+                if (!matcher.matches(fileName)) {
                     continue;
                 }
 
-                globbedFiles.add(filePathName);
+                if (isOnlyDirectories) {
+                    if (Files.isDirectory(path)) {
+                        globbedFiles.add(dir + fileName + CHAR_FILE_SEP);
+                    }
+                } else {
+                    globbedFiles.add(dir + fileName);
+                }
             }
-        }
-
-        Collections.sort(globbedFiles);
-
-        if (globbedFiles.isEmpty()) {
-            globbedFiles.add(plaintext.toString());
+        } catch (IOException e) {
+            // a directory which does not exist or cannot be read has no matching files
+            return new ArrayList<>();
         }
 
         return globbedFiles;
     }
 
+    private static boolean isFileSeparator(char chr) {
+        return chr == '/' || chr == CHAR_FILE_SEP;
+    }
+
     public boolean isEmpty() {
         return plaintext.length() == 0;
     }
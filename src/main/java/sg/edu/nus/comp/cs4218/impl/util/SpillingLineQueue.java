@@ -0,0 +1,183 @@
+package sg.edu.nus.comp.cs4218.impl.util;
+
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_INVALID_ARGS;
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_STREAM_CLOSED;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import sg.edu.nus.comp.cs4218.impl.util.ExternalSorter.LineConsumer;
+
+/**
+ * Passes lines from a producer thread to a consumer thread in the order they are added, holding at
+ * most a memory budget of them on the heap.
+ * <p>
+ * Lines the consumer has not taken yet are kept in memory until they take up the memory budget. Every
+ * line added after that is appended to a temporary file instead, which the consumer reads once the
+ * producer has finished. A consumer keeping up with the producer therefore receives the lines as they
+ * are added, while lines waiting for a consumer which has not started yet never take up more than the
+ * budget.
+ */
+public final class SpillingLineQueue implements Closeable {
+    // estimated bytes a line takes up on the heap besides its characters: the String, its array and
+    // the reference to it
+    private static final int LINE_OVERHEAD = 64;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final long memoryBudget;
+    private final Path spillDirectory;
+    private final Object lock = new Object();
+    private Deque<String> lines = new ArrayDeque<>();
+    private long memoryUsed;
+    private Path spillFile;
+    private Writer spillWriter;
+    private boolean isFinished;
+    private boolean isClosed;
+
+    /**
+     * @param memoryBudget   number of bytes of heap the lines may take up before they are spilled.
+     * @param spillDirectory directory to create the temporary file in.
+     */
+    public SpillingLineQueue(long memoryBudget, Path spillDirectory) {
+        if (memoryBudget < 1 || spillDirectory == null) {
+            throw new IllegalArgumentException(ERR_INVALID_ARGS);
+        }
+
+        this.memoryBudget = memoryBudget;
+        this.spillDirectory = spillDirectory;
+    }
+
+    /**
+     * Adds a line, which is spilled if the lines not taken yet would exceed the memory budget.
+     *
+     * @param line line without its line terminator.
+     * @throws IOException if the line cannot be spilled, or the queue has been closed.
+     */
+    public void add(String line) throws IOException {
+        synchronized (lock) {
+            if (isClosed || isFinished) {
+                throw new IOException(ERR_STREAM_CLOSED);
+            }
+
+            long lineMemory = LINE_OVERHEAD + 2L * line.length();
+
+            if (spillWriter == null && (lines.isEmpty() || memoryUsed + lineMemory <= memoryBudget)) {
+                lines.add(line);
+                memoryUsed += lineMemory;
+                lock.notifyAll();
+                return;
+            }
+
+            // once spilled, later lines must follow the spilled ones to keep them in order
+            if (spillWriter == null) {
+                spillFile = Files.createTempFile(spillDirectory, "lines", ".tmp");
+                spillWriter = new BufferedWriter(
+                        new OutputStreamWriter(Files.newOutputStream(spillFile), StandardCharsets.UTF_8), BUFFER_SIZE);
+            }
+
+            spillWriter.write(line);
+            spillWriter.write('\n');
+        }
+    }
+
+    /**
+     * Marks that no more lines will be added, so that the consumer can read the spilled lines.
+     *
+     * @throws IOException if the spilled lines cannot be written out.
+     */
+    public void finish() throws IOException {
+        synchronized (lock) {
+            isFinished = true;
+            lock.notifyAll();
+
+            if (spillWriter != null) {
+                spillWriter.close();
+            }
+        }
+    }
+
+    /**
+     * Passes every line to the consumer in the order they were added, waiting for further lines until
+     * the producer has finished.
+     *
+     * @throws IOException if the spilled lines cannot be read, or the thread is interrupted while waiting.
+     * @throws E           if the consumer fails.
+     */
+    public <E extends Exception> void forEachLine(LineConsumer<E> consumer) throws IOException, E {
+        while (true) {
+            Deque<String> takenLines = takeLines();
+            if (takenLines.isEmpty()) {
+                break;
+            }
+
+            for (String line : takenLines) {
+                consumer.accept(line);
+            }
+        }
+
+        if (spillFile == null) {
+            return;
+        }
+
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(Files.newInputStream(spillFile), StandardCharsets.UTF_8), BUFFER_SIZE)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                consumer.accept(line);
+            }
+        }
+    }
+
+    /**
+     * Takes the lines held in memory, waiting until there are some. Returns no lines only once the
+     * producer has finished and all of them have been taken.
+     */
+    private Deque<String> takeLines() throws InterruptedIOException {
+        synchronized (lock) {
+            while (lines.isEmpty() && !isFinished && !isClosed) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw (InterruptedIOException) new InterruptedIOException(ERR_STREAM_CLOSED).initCause(e);
+                }
+            }
+
+            Deque<String> takenLines = lines;
+            lines = new ArrayDeque<>();
+            memoryUsed = 0;
+            return takenLines;
+        }
+    }
+
+    /**
+     * Deletes the temporary file. Lines added afterwards are rejected, so a producer whose lines are
+     * no longer needed stops.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (lock) {
+            isClosed = true;
+            lines.clear();
+            lock.notifyAll();
+
+            if (spillWriter != null) {
+                spillWriter.close();
+            }
+            if (spillFile != null) {
+                Files.deleteIfExists(spillFile);
+            }
+        }
+    }
+}
@@ -22,6 +22,7 @@ public final class StringUtils {
     public static final String STRING_PARENT_DIR = "..";
     public static final String STRING_WHITESPACE = " ";
     public static final String STRING_STDIN_FLAG = "-";
+    public static final String STRING_FILE_HEADER = "==> %s <==";
     public static final String STRING_FILE_SEP = File.separator;
     public static final String STRING_REDIR_INPUT = String.valueOf(CHAR_REDIR_INPUT);
     public static final String STRING_REDIR_OUTPUT = String.valueOf(CHAR_REDIR_OUTPUT);
@@ -0,0 +1,75 @@
+package sg.edu.nus.comp.cs4218.impl.util;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes characters through to another writer without the leading and trailing characters which
+ * {@link String#trim()} would remove, that is every character up to and including a space, so that
+ * text can be trimmed without holding all of it in memory.
+ * <p>
+ * A run of such characters after the last other character is held back until more characters show
+ * that it is not trailing, and is dropped when the writer is closed. The underlying writer is flushed
+ * but never closed.
+ */
+public final class TrimmingWriter extends Writer {
+    private static final char LAST_TRIMMED_CHAR = ' ';
+
+    private final Writer writer;
+    private final StringBuilder heldBack = new StringBuilder();//NOPMD - bounded by the trailing whitespace
+    private boolean hasWritten;
+
+    public TrimmingWriter(Writer writer) {
+        if (writer == null) {
+            throw new IllegalArgumentException();
+        }
+
+        this.writer = writer;
+    }
+
+    @Override
+    public void write(char[] chars, int offset, int length) throws IOException {
+        int end = offset + length;
+        int last = end - 1;
+
+        while (last >= offset && chars[last] <= LAST_TRIMMED_CHAR) {
+            last--;
+        }
+
+        if (last < offset) {
+            // nothing but trimmed characters, which are leading unless something was written before
+            if (hasWritten) {
+                heldBack.append(chars, offset, length);
+            }
+            return;
+        }
+
+        int start = offset;
+        if (hasWritten) {
+            writer.append(heldBack);
+        } else {
+            while (chars[start] <= LAST_TRIMMED_CHAR) {
+                start++;
+            }
+        }
+
+        writer.write(chars, start, last + 1 - start);
+        heldBack.setLength(0);
+        heldBack.append(chars, last + 1, end - last - 1);
+        hasWritten = true;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    /**
+     * Drops the trailing characters held back and flushes the underlying writer.
+     */
+    @Override
+    public void close() throws IOException {
+        heldBack.setLength(0);
+        writer.flush();
+    }
+}
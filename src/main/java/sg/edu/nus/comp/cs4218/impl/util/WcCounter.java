@@ -0,0 +1,175 @@
+package sg.edu.nus.comp.cs4218.impl.util;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Counts the lines, words and bytes of input fed to it as raw bytes, in a single pass and without
+ * decoding the bytes into characters.
+ * <p>
+ * Lines are counted the same way as {@link LineSource} splits them: every "\n", "\r" or "\r\n" ends a
+ * line, and so does the end of input after a non-empty last line. Words are maximal runs of bytes
+ * other than ASCII whitespace, the same as {@link StringUtils#tokenize(String)} for each line.
+ * Lines and words are only counted if requested.
+ */
+public final class WcCounter {
+    private static final boolean[] IS_WHITESPACE = new boolean[256];
+
+    static {
+        for (char character : " \t\n\u000B\f\r".toCharArray()) {
+            IS_WHITESPACE[character] = true;
+        }
+    }
+
+    private final boolean isLines;
+    private final boolean isWords;
+
+    private long numBytes;
+    private long numLineEnds;
+    private long numWords;
+    private boolean isInWord;
+    private boolean isAfterCarriageReturn;
+    private byte firstByte;
+    private byte lastByte;
+
+    /**
+     * @param isLines true if lines should be counted.
+     * @param isWords true if words should be counted.
+     */
+    public WcCounter(boolean isLines, boolean isWords) {
+        this.isLines = isLines;
+        this.isWords = isWords;
+    }
+
+    /**
+     * Counts the remaining bytes of the buffer as the continuation of the input counted so far, and
+     * moves the position of the buffer to its limit.
+     */
+    public void update(ByteBuffer buffer) {
+        int start = buffer.position();
+        int end = buffer.limit();
+
+        if (start == end) {
+            return;
+        }
+
+        if (isWords) {
+            countLinesAndWords(buffer, start, end);
+        } else if (isLines) {
+            countLines(buffer, start, end);
+        }
+
+        if (numBytes == 0) {
+            firstByte = buffer.get(start);
+        }
+        numBytes += end - start;
+        lastByte = buffer.get(end - 1);
+        buffer.position(end);
+    }
+
+    private void countLines(ByteBuffer buffer, int start, int end) {
+        long lineEnds = numLineEnds;
+        boolean isAfterReturn = isAfterCarriageReturn;
+
+        for (int i = start; i < end; i++) {
+            byte value = buffer.get(i);
+
+            if (value == '\n') {
+                lineEnds += isAfterReturn ? 0 : 1;
+            } else if (value == '\r') {
+                lineEnds++;
+            }
+            isAfterReturn = value == '\r';
+        }
+
+        numLineEnds = lineEnds;
+        isAfterCarriageReturn = isAfterReturn;
+    }
+
+    private void countLinesAndWords(ByteBuffer buffer, int start, int end) {
+        long lineEnds = numLineEnds;
+        long words = numWords;
+        boolean isInsideWord = isInWord;
+        boolean isAfterReturn = isAfterCarriageReturn;
+
+        for (int i = start; i < end; i++) {
+            byte value = buffer.get(i);
+
+            if (value == '\n') {
+                lineEnds += isAfterReturn ? 0 : 1;
+            } else if (value == '\r') {
+                lineEnds++;
+            }
+            isAfterReturn = value == '\r';
+
+            boolean isWordByte = !IS_WHITESPACE[value & 0xFF];
+            if (isWordByte && !isInsideWord) {
+                words++;
+            }
+            isInsideWord = isWordByte;
+        }
+
+        numLineEnds = lineEnds;
+        numWords = words;
+        isInWord = isInsideWord;
+        isAfterCarriageReturn = isAfterReturn;
+    }
+
+    /**
+     * Adds the counts of input which directly follows the input counted so far, as if it had been fed
+     * to this counter. A word or "\r\n" spanning the boundary between the two inputs is counted once.
+     *
+     * @param next counter of the following input, counting the same statistics as this counter.
+     */
+    public void merge(WcCounter next) {
+        if (next.numBytes == 0) {
+            return;
+        }
+
+        long nextLineEnds = next.numLineEnds;
+        long nextWords = next.numWords;
+
+        if (numBytes == 0) {
+            firstByte = next.firstByte;
+        } else {
+            if (lastByte == '\r' && next.firstByte == '\n') {
+                // the next input counted its "\n" as a line end of its own
+                nextLineEnds--;
+            }
+
+            if (isWords && isInWord && !IS_WHITESPACE[next.firstByte & 0xFF]) {
+                // the next input counted the rest of the word as a word of its own
+                nextWords--;
+            }
+        }
+
+        numLineEnds += nextLineEnds;
+        numWords += nextWords;
+        numBytes += next.numBytes;
+        isInWord = next.isInWord;
+        isAfterCarriageReturn = next.isAfterCarriageReturn;
+        lastByte = next.lastByte;
+    }
+
+    /**
+     * Returns the number of lines, or 0 if lines are not counted.
+     */
+    public long getNumLines() {
+        if (!isLines) {
+            return 0;
+        }
+
+        boolean hasUnterminatedLine = numBytes > 0 && lastByte != '\n' && lastByte != '\r';
+        return numLineEnds + (hasUnterminatedLine ? 1 : 0);
+    }
+
+    /**
+     * Returns the number of words, or 0 if words are not counted.
+     */
+    public long getNumWords() {
+        return isWords ? numWords : 0;
+    }
+
+    public long getNumBytes() {
+        return numBytes;
+    }
+}
@@ -0,0 +1,68 @@
+package sg.edu.nus.comp.cs4218;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class EvaluationTest {
+    private final InputStream stdin = mock(InputStream.class);
+    private final OutputStream stdout = mock(OutputStream.class);
+
+    @Test
+    public void current_OutsideEvaluate_ReturnsNewEvaluation() {
+        assertNotSame(Evaluation.current(), Evaluation.current());
+    }
+
+    @Test
+    public void evaluate_NestedEvaluations_CurrentIsInnermostThenRestored() throws Exception {
+        Evaluation outer = new Evaluation();
+        Evaluation inner = new Evaluation();
+        List<Evaluation> currents = new ArrayList<>();
+        Command innerCommand = mock(Command.class);
+        Command outerCommand = mock(Command.class);
+        doAnswer(invocation -> currents.add(Evaluation.current())).when(innerCommand).evaluate(any(), any());
+        doAnswer(invocation -> {
+            inner.evaluate(innerCommand, stdin, stdout);
+            return currents.add(Evaluation.current());
+        }).when(outerCommand).evaluate(any(), any());
+
+        outer.evaluate(outerCommand, stdin, stdout);
+
+        assertSame(inner, currents.get(0));
+        assertSame(outer, currents.get(1));
+        assertNotSame(outer, Evaluation.current());
+    }
+
+    @Test
+    public void startApp_Terminated_ReturnsFalse() {
+        Evaluation evaluation = new Evaluation();
+
+        evaluation.terminate();
+
+        assertTrue(evaluation.isTerminated());
+        assertFalse(evaluation.startApp());
+    }
+
+    @Test
+    public void finishApp_TerminatedWhileRunning_ClearsInterrupt() {
+        Evaluation evaluation = new Evaluation();
+        assertTrue(evaluation.startApp());
+
+        evaluation.terminate();
+        assertTrue(Thread.currentThread().isInterrupted());
+        evaluation.finishApp();
+
+        assertFalse(Thread.currentThread().isInterrupted());
+    }
+}
@@ -0,0 +1,94 @@
+package sg.edu.nus.comp.cs4218.benchmark;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import sg.edu.nus.comp.cs4218.EnvironmentUtil;
+import sg.edu.nus.comp.cs4218.impl.app.GrepApplication;
+
+/**
+ * Compares grep on plain literal patterns, which are searched for as strings, with equivalent
+ * patterns that go through the regex engine, on a generated log file.
+ * <p>
+ * Run the main method directly, optionally with the size of the log in MB (1024 by default). Each
+ * literal pattern is paired with a regex matching exactly the same lines, so both count the same
+ * number of lines.
+ */
+public final class GrepLiteralBenchmark {
+    private static final int DEFAULT_SIZE_MB = 1024;
+    private static final int NUM_RUNS = 3;
+    private static final String[] LEVELS = {"INFO", "DEBUG", "WARN", "ERROR"};
+    private static final String[] MESSAGES = {
+        "request served in %d ms",
+        "connection timeout after %d retries",
+        "cache miss for key user-%d",
+        "Timeout waiting for lock %d",
+    };
+    private static final String[][] PATTERN_PAIRS = {
+        {"ERROR", "ERRO[R]"},
+        {"connection timeout", "connection timeou[t]"},
+    };
+
+    private GrepLiteralBenchmark() {
+    }
+
+    private static Path generateLog(int sizeMb) throws IOException {
+        Path log = Files.createTempFile("grep-benchmark", ".log");
+        Random random = new Random(4218);
+        long size = 0;
+
+        try (BufferedWriter writer = Files.newBufferedWriter(log)) {
+            while (size < sizeMb * 1024L * 1024L) {
+                String line = String.format("2021-04-%02d %s [worker-%d] %s", 1 + random.nextInt(28),
+                        LEVELS[random.nextInt(LEVELS.length)], random.nextInt(16),
+                        String.format(MESSAGES[random.nextInt(MESSAGES.length)], random.nextInt(1000)));
+                writer.write(line);
+                writer.newLine();
+                size += line.length() + 1;
+            }
+        }
+
+        return log;
+    }
+
+    private static long measureBestMillis(GrepApplication grepApp, String pattern, boolean isCaseInsensitive,
+                                          Path log) throws Exception {
+        long best = Long.MAX_VALUE;
+
+        for (int i = 0; i < NUM_RUNS; i++) {
+            long start = System.nanoTime();
+            grepApp.grepFromFiles(pattern, isCaseInsensitive, true, false, log.toString());
+            best = Math.min(best, (System.nanoTime() - start) / 1_000_000);
+        }
+
+        return best;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int sizeMb = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_SIZE_MB;
+        Path log = generateLog(sizeMb);
+        GrepApplication grepApp = new GrepApplication();
+        String originalDirectory = EnvironmentUtil.currentDirectory;
+
+        try {
+            EnvironmentUtil.currentDirectory = log.getParent().toString();
+            System.out.println("pattern\t\t\t-i\tliteral (ms)\tregex (ms)");
+
+            for (String[] patterns : PATTERN_PAIRS) {
+                for (boolean isCaseInsensitive : new boolean[]{false, true}) {
+                    long literalMillis = measureBestMillis(grepApp, patterns[0], isCaseInsensitive, log);
+                    long regexMillis = measureBestMillis(grepApp, patterns[1], isCaseInsensitive, log);
+
+                    System.out.printf("%-20s\t%s\t%d\t\t%d%n", patterns[0], isCaseInsensitive, literalMillis,
+                            regexMillis);
+                }
+            }
+        } finally {
+            EnvironmentUtil.currentDirectory = originalDirectory;
+            Files.delete(log);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package sg.edu.nus.comp.cs4218.benchmark;
+
+import java.util.Arrays;
+
+import sg.edu.nus.comp.cs4218.impl.util.ApplicationRunner;
+import sg.edu.nus.comp.cs4218.impl.util.CommandBuilderUtil;
+
+/**
+ * Measures how the time taken by {@link CommandBuilderUtil#parseCommand} grows with the length of
+ * generated command strings.
+ * <p>
+ * Run the main method directly. For each size the median time over several runs is printed, together
+ * with the time per KB, which stays roughly constant when parsing takes linear time.
+ */
+public final class ParseCommandBenchmark {
+    private static final String[] FRAGMENTS = {
+        "echo \"hello `echo nested \"quoted\" text` world\" 'single quoted | text' ; ",
+        "cat input.txt | grep -i \"pattern with spaces\" | wc -l > count.txt ; ",
+        "paste -s file1.txt file2.txt `ls *.txt` < stdin.txt ; ",
+    };
+    private static final int[] SIZES_KB = {25, 50, 100, 200};
+    private static final int NUM_RUNS = 11;
+
+    private ParseCommandBenchmark() {
+    }
+
+    private static String generateScript(int sizeKb) {
+        StringBuilder builder = new StringBuilder();
+        int index = 0;
+
+        while (builder.length() < sizeKb * 1024) {
+            builder.append(FRAGMENTS[index % FRAGMENTS.length]);
+            index++;
+        }
+
+        return builder.append("echo done").toString();
+    }
+
+    private static long measureMedianNanos(String script, ApplicationRunner appRunner) throws Exception {
+        long[] times = new long[NUM_RUNS];
+
+        for (int i = 0; i < NUM_RUNS; i++) {
+            long start = System.nanoTime();
+            CommandBuilderUtil.parseCommand(script, appRunner);
+            times[i] = System.nanoTime() - start;
+        }
+
+        Arrays.sort(times);
+        return times[NUM_RUNS / 2];
+    }
+
+    public static void main(String[] args) throws Exception {
+        ApplicationRunner appRunner = new ApplicationRunner();
+
+        // warm up the JIT compiler before measuring
+        measureMedianNanos(generateScript(SIZES_KB[SIZES_KB.length - 1]), appRunner);
+
+        System.out.println("size (KB)\tmedian (ms)\tper KB (us)");
+
+        for (int sizeKb : SIZES_KB) {
+            long nanos = measureMedianNanos(generateScript(sizeKb), appRunner);
+
+            System.out.printf("%d\t\t%.3f\t\t%.3f%n", sizeKb, nanos / 1e6, nanos / 1e3 / sizeKb);
+        }
+    }
+}
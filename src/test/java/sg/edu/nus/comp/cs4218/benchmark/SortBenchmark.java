@@ -0,0 +1,79 @@
+package sg.edu.nus.comp.cs4218.benchmark;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import sg.edu.nus.comp.cs4218.impl.app.SortApplication;
+
+/**
+ * Measures sort on a generated file which is much larger than its memory budget, so that the lines
+ * are sorted in runs which are spilled to temporary files and merged.
+ * <p>
+ * Run the main method directly, optionally with the size of the input in MB (10240 by default) and
+ * the memory budget in MB (256 by default). The heap has to be at least a few times larger than the
+ * memory budget. The temporary files take up about as much disk space as the input.
+ */
+public final class SortBenchmark {
+    private static final int DEFAULT_SIZE_MB = 10 * 1024;
+    private static final int DEFAULT_BUDGET_MB = 256;
+    private static final String[][] OPTIONS = {
+        {},
+        {"-n", "-k", "2,2"},
+    };
+
+    private SortBenchmark() {
+    }
+
+    private static Path generateInput(int sizeMb) throws IOException {
+        Path input = Files.createTempFile("sort-benchmark", ".txt");
+        Random random = new Random(4218);
+        long size = 0;
+
+        try (BufferedWriter writer = Files.newBufferedWriter(input)) {
+            while (size < sizeMb * 1024L * 1024L) {
+                String line = String.format("user-%08x %d %s", random.nextInt(), random.nextInt(1_000_000),
+                        Long.toString(random.nextLong() & Long.MAX_VALUE, 36));
+                writer.write(line);
+                writer.newLine();
+                size += line.length() + 1;
+            }
+        }
+
+        return input;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int sizeMb = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_SIZE_MB;
+        long budget = (args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_BUDGET_MB) * 1024L * 1024L;
+        Path input = generateInput(sizeMb);
+        Path output = Files.createTempFile("sort-benchmark", ".out");
+        SortApplication sortApp = new SortApplication(budget, input.getParent());
+
+        try {
+            System.out.println("options\t\ttime (s)\tMB/s");
+
+            for (String[] options : OPTIONS) {
+                String[] sortArgs = new String[options.length + 1];
+                System.arraycopy(options, 0, sortArgs, 0, options.length);
+                sortArgs[options.length] = input.toString();
+
+                long start = System.nanoTime();
+                try (InputStream stdin = InputStream.nullInputStream();
+                     OutputStream stdout = Files.newOutputStream(output)) {
+                    sortApp.run(sortArgs, stdin, stdout);
+                }
+                double seconds = (System.nanoTime() - start) / 1e9;
+
+                System.out.printf("%-12s\t%.1f\t\t%.1f%n", String.join(" ", options), seconds, sizeMb / seconds);
+            }
+        } finally {
+            Files.delete(input);
+            Files.delete(output);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package sg.edu.nus.comp.cs4218.impl;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.STRING_NEWLINE;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.io.StringReader;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ShellImplTest {
+    private static final String ECHO_A = "echo a";
+
+    private ShellImpl shell;
+    private ByteArrayOutputStream stdout;
+    private ByteArrayOutputStream stderr;
+
+    @BeforeEach
+    void setUp() {
+        shell = new ShellImpl();
+        stdout = new ByteArrayOutputStream();
+        stderr = new ByteArrayOutputStream();
+    }
+
+    private void runScript(String script) {
+        assertDoesNotThrow(() -> shell.runScript(
+                new BufferedReader(new StringReader(script)),
+                stdout,
+                new PrintStream(stderr)
+        ));
+    }
+
+    @Test
+    public void runScript_MultipleCommands_OutputsInOrderWithoutPrompt() {
+        runScript(ECHO_A + STRING_NEWLINE + "echo b | cat" + STRING_NEWLINE);
+
+        assertEquals("a" + STRING_NEWLINE + "b" + STRING_NEWLINE, stdout.toString());
+        assertEquals("", stderr.toString());
+    }
+
+    @Test
+    public void runScript_BlankLines_LinesSkipped() {
+        runScript(STRING_NEWLINE + "   " + STRING_NEWLINE + ECHO_A);
+
+        assertEquals("a" + STRING_NEWLINE, stdout.toString());
+    }
+
+    @Test
+    public void runScript_InvalidCommand_ErrorWrittenAndLaterCommandsRun() {
+        runScript(ECHO_A + STRING_NEWLINE + "|" + STRING_NEWLINE + "echo b" + STRING_NEWLINE);
+
+        assertEquals("a" + STRING_NEWLINE + "b" + STRING_NEWLINE, stdout.toString());
+        assertEquals("shell: Invalid syntax" + STRING_NEWLINE, stderr.toString());
+    }
+
+    @Test
+    public void runScript_RepeatedCommand_ParsedOnce() {
+        runScript(ECHO_A + STRING_NEWLINE + ECHO_A + STRING_NEWLINE + ECHO_A + STRING_NEWLINE);
+
+        assertEquals(1, shell.getCommandCache().getMissCount());
+        assertEquals(2, shell.getCommandCache().getHitCount());
+    }
+}
@@ -3,6 +3,7 @@ package sg.edu.nus.comp.cs4218.impl.app;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static sg.edu.nus.comp.cs4218.impl.app.GrepApplication.DEFAULT_CHUNK_SIZE;
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_FILE_NOT_FOUND;
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_IS_DIR;
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_MISSING_ARG;
@@ -27,13 +28,16 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import sg.edu.nus.comp.cs4218.EnvironmentUtil;
 import sg.edu.nus.comp.cs4218.exception.GrepException;
@@ -54,6 +58,7 @@ class GrepApplicationTest {
     private static final String TEST_FILENAME_2 = "bsd2.txt";
     private static final String NON_EXISTENT_FILE = "non-existent.txt";
     private static final String TEST_FOLDER = "folder";
+    private static final String COPYRIGHT_PATTERN = "copyright";
 
     private static final String TEST_LINE_1 = "Copyright (c) The Regents of the University of California.";
     private static final String TEST_LINE_2 = "All rights reserved.";
@@ -419,6 +424,99 @@ class GrepApplicationTest {
         assertEquals(TEST_FILENAME_2 + ": " + TEST_LINE_5, result.get(3));
     }
 
+    @Test
+    void initialization_NonPositiveParallelism_ThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> new GrepApplication(ForkJoinPool.commonPool(), 0));
+    }
+
+    @Test
+    void grepFromFiles_ParallelMultipleFiles_SameOutputAsSequential() {
+        GrepApplication parallelApp = new GrepApplication(ForkJoinPool.commonPool(), 2);
+        GrepApplication sequentialApp = new GrepApplication(ForkJoinPool.commonPool(), 1);
+        String[] fileNames = {TEST_FILENAME, TEST_FILENAME_2, TEST_FILENAME, TEST_FILENAME_2, TEST_FILENAME};
+
+        assertDoesNotThrow(() -> {
+            assertEquals(
+                    sequentialApp.grepFromFiles(COPYRIGHT_PATTERN, true, false, false, fileNames),
+                    parallelApp.grepFromFiles(COPYRIGHT_PATTERN, true, false, false, fileNames)
+            );
+            assertEquals(
+                    sequentialApp.grepFromFiles(COPYRIGHT_PATTERN, true, true, false, fileNames),
+                    parallelApp.grepFromFiles(COPYRIGHT_PATTERN, true, true, false, fileNames)
+            );
+        });
+    }
+
+    @Test
+    void grepFromFiles_ParallelMultipleFilesWithMissingFile_WritesErrInFileOrder() {
+        GrepApplication parallelApp = new GrepApplication(ForkJoinPool.commonPool(), 3);
+        captureErr();
+
+        String output = assertDoesNotThrow(() ->
+                parallelApp.grepFromFiles(TEST_LINE_2, false, true, false, TEST_FILENAME, NON_EXISTENT_FILE, TEST_FILENAME_2));
+
+        assertEquals(TEST_FILENAME + ": 1" + STRING_NEWLINE + TEST_FILENAME_2 + ": 1", output);
+        assertEquals(new GrepException(
+                        String.format(STRING_LABEL_VALUE_PAIR, NON_EXISTENT_FILE, ERR_FILE_NOT_FOUND)
+                ).getMessage() + STRING_NEWLINE,
+                getErrOutput());
+    }
+
+    @Test
+    void grepFromFiles_ParallelWithTinyMemoryBudget_SpillsSameOutputAsSequential(@TempDir Path spillDir)
+            throws IOException {
+        GrepApplication parallelApp = new GrepApplication(ForkJoinPool.commonPool(), 3, DEFAULT_CHUNK_SIZE, 1,
+                spillDir);
+        GrepApplication sequentialApp = new GrepApplication(ForkJoinPool.commonPool(), 1);
+        String[] fileNames = {TEST_FILENAME, TEST_FILENAME_2, TEST_FILENAME, TEST_FILENAME_2, TEST_FILENAME};
+
+        assertDoesNotThrow(() -> assertEquals(
+                sequentialApp.grepFromFiles("e", false, false, false, fileNames),
+                parallelApp.grepFromFiles("e", false, false, false, fileNames)
+        ));
+
+        try (Stream<Path> spillFiles = Files.list(spillDir)) {
+            assertEquals(0, spillFiles.count());
+        }
+    }
+
+    @Test
+    void grepFromFiles_LargeFileInChunks_SameOutputAsSequential() {
+        GrepApplication chunkedApp = new GrepApplication(ForkJoinPool.commonPool(), 3, 16);
+        GrepApplication sequentialApp = new GrepApplication(ForkJoinPool.commonPool(), 1);
+
+        assertDoesNotThrow(() -> {
+            for (String pattern : new String[]{COPYRIGHT_PATTERN, "^$", "e"}) {
+                assertEquals(
+                        sequentialApp.grepFromFiles(pattern, true, false, true, TEST_FILENAME),
+                        chunkedApp.grepFromFiles(pattern, true, false, true, TEST_FILENAME)
+                );
+                assertEquals(
+                        sequentialApp.grepFromFiles(pattern, true, true, false, TEST_FILENAME),
+                        chunkedApp.grepFromFiles(pattern, true, true, false, TEST_FILENAME)
+                );
+            }
+        });
+    }
+
+    @Test
+    void grepFromFiles_LargeFileWithCarriageReturnsInChunks_SplitsLinesAsSequential() {
+        GrepApplication chunkedApp = new GrepApplication(ForkJoinPool.commonPool(), 2, 4);
+        Path file = testFolder.resolve("crlf.txt");
+
+        assertDoesNotThrow(() -> {
+            Files.writeString(file, "a1\r\nb2\rc3\n\nd4\r\na5");
+            String fileName = TEST_FOLDER + STRING_FILE_SEP + "crlf.txt";
+
+            assertEquals(
+                    String.join(STRING_NEWLINE, "a1", "b2", "c3", "", "d4", "a5"),
+                    chunkedApp.grepFromFiles("", false, false, false, fileName)
+            );
+            assertEquals("2", chunkedApp.grepFromFiles("a", false, true, false, fileName));
+            Files.delete(file);
+        });
+    }
+
     @Test
     void grepFromFileAndStdin_NullStdin_ThrowsException() {
         assertThrows(
@@ -0,0 +1,198 @@
+package sg.edu.nus.comp.cs4218.impl.app;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_FILE_NOT_FOUND;
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_ILLEGAL_LINE_COUNT;
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_IS_DIR;
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_NO_ISTREAM;
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_NO_OSTREAM;
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_NULL_ARGS;
+import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.STRING_NEWLINE;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import sg.edu.nus.comp.cs4218.exception.HeadException;
+import sg.edu.nus.comp.cs4218.exception.InvalidDirectoryException;
+
+class HeadApplicationTest {
+    private static final PrintStream ORIGINAL_STDERR = System.err;
+    private static final String INPUT_LINES = lines(1, 15);
+
+    @TempDir
+    Path tempDir;
+
+    private final HeadApplication app = new HeadApplication();
+    private ByteArrayOutputStream stdout;
+
+    @BeforeEach
+    void setUp() {
+        stdout = new ByteArrayOutputStream();
+    }
+
+    private static String lines(int first, int last) {
+        return IntStream.rangeClosed(first, last)
+                .mapToObj(i -> "line " + i)
+                .collect(Collectors.joining(STRING_NEWLINE));
+    }
+
+    private static InputStream toStream(String content) {
+        return new ByteArrayInputStream(content.getBytes());
+    }
+
+    private Path createFile(String name, String content) throws Exception {
+        return Files.writeString(tempDir.resolve(name), content);
+    }
+
+    /**
+     * Runs the application and returns what it writes to stderr.
+     */
+    private String runWithStderr(String... args) {
+        ByteArrayOutputStream stderr = new ByteArrayOutputStream();
+
+        try (PrintStream capturedStderr = new PrintStream(stderr)) {
+            System.setErr(capturedStderr);
+            assertDoesNotThrow(() -> app.run(args, toStream(INPUT_LINES), stdout));
+        } finally {
+            System.setErr(ORIGINAL_STDERR);
+        }
+
+        return stderr.toString();
+    }
+
+    @Test
+    public void run_NoOption_WritesFirstTenLines() {
+        assertDoesNotThrow(() -> app.run(new String[0], toStream(INPUT_LINES), stdout));
+
+        assertEquals(lines(1, 10) + STRING_NEWLINE, stdout.toString());
+    }
+
+    @Test
+    public void run_NumOfLinesAttached_WritesFirstLines() {
+        assertDoesNotThrow(() -> app.run(new String[]{"-n3"}, toStream(INPUT_LINES), stdout));
+
+        assertEquals(lines(1, 3) + STRING_NEWLINE, stdout.toString());
+    }
+
+    @Test
+    public void run_MoreLinesThanInput_WritesWholeInputEndingWithNewline() {
+        assertDoesNotThrow(() -> app.run(new String[]{"-n", "100"}, toStream(INPUT_LINES), stdout));
+
+        assertEquals(INPUT_LINES + STRING_NEWLINE, stdout.toString());
+    }
+
+    @Test
+    public void run_ZeroLines_WritesNothing() {
+        assertDoesNotThrow(() -> app.run(new String[]{"-n", "0"}, toStream(INPUT_LINES), stdout));
+
+        assertEquals("", stdout.toString());
+    }
+
+    @Test
+    public void run_LinesLongerThanBuffer_StopsAfterNthNewline() {
+        String longLine = "x".repeat(200_000);
+        String content = String.join(STRING_NEWLINE, longLine, longLine, "last");
+
+        assertDoesNotThrow(() -> {
+            Path file = createFile("long.txt", content);
+            app.run(new String[]{"-n", "2", file.toString()}, toStream(""), stdout);
+        });
+
+        assertEquals(longLine + STRING_NEWLINE + longLine + STRING_NEWLINE, stdout.toString());
+    }
+
+    @Test
+    public void run_MultipleFilesAndStdin_WritesHeaderBeforeEachInput() {
+        assertDoesNotThrow(() -> {
+            Path first = createFile("first.txt", lines(1, 5));
+            Path second = createFile("second.txt", lines(6, 7) + STRING_NEWLINE);
+
+            app.run(new String[]{"-n", "2", first.toString(), "-", second.toString()}, toStream("in"), stdout);
+        });
+
+        String expected = String.join(STRING_NEWLINE,
+                "==> " + tempDir.resolve("first.txt") + " <==",
+                "line 1",
+                "line 2",
+                "",
+                "==> - <==",
+                "in",
+                "",
+                "==> " + tempDir.resolve("second.txt") + " <==",
+                "line 6",
+                "line 7") + STRING_NEWLINE;
+        assertEquals(expected, stdout.toString());
+    }
+
+    @Test
+    public void run_IllegalLineCount_ThrowsHeadException() {
+        for (String numOfLines : new String[]{"-1", "abc", ""}) {
+            HeadException exception = assertThrows(HeadException.class,
+                    () -> app.run(new String[]{"-n", numOfLines}, toStream(INPUT_LINES), stdout));
+
+            assertEquals(new HeadException(ERR_ILLEGAL_LINE_COUNT).getMessage(), exception.getMessage());
+        }
+    }
+
+    @Test
+    public void run_FileDoesNotExistOrDirectory_WritesErrorToStderr() {
+        String fileName = tempDir.resolve("missing.txt").toString();
+
+        assertEquals(new HeadException(new InvalidDirectoryException(fileName, ERR_FILE_NOT_FOUND).getMessage())
+                .getMessage() + STRING_NEWLINE, runWithStderr(fileName));
+        assertEquals(new HeadException(new InvalidDirectoryException(tempDir.toString(), ERR_IS_DIR).getMessage())
+                .getMessage() + STRING_NEWLINE, runWithStderr(tempDir.toString()));
+        assertEquals("", stdout.toString());
+    }
+
+    @Test
+    public void run_MissingFileAndValidFile_WritesValidFileAfterError() throws Exception {
+        String missing = tempDir.resolve("missing.txt").toString();
+        Path valid = createFile("valid.txt", lines(1, 5));
+
+        String stderr = runWithStderr("-n", "2", missing, valid.toString(), missing);
+
+        String expected = String.join(STRING_NEWLINE,
+                "==> " + valid + " <==",
+                "line 1",
+                "line 2") + STRING_NEWLINE;
+        assertEquals(expected, stdout.toString());
+        String error = new HeadException(new InvalidDirectoryException(missing, ERR_FILE_NOT_FOUND).getMessage()).getMessage();
+        assertEquals(error + STRING_NEWLINE + error + STRING_NEWLINE, stderr);
+    }
+
+    @Test
+    public void run_NullStreams_ThrowsHeadException() {
+        assertEquals(new HeadException(ERR_NO_ISTREAM).getMessage(),
+                assertThrows(HeadException.class, () -> app.run(new String[0], null, stdout)).getMessage());
+        assertEquals(new HeadException(ERR_NO_OSTREAM).getMessage(),
+                assertThrows(HeadException.class, () -> app.run(new String[0], toStream(INPUT_LINES), null)).getMessage());
+    }
+
+    @Test
+    public void headFromStdin_NumOfLines_ReturnsFirstLinesWithoutTrailingNewline() {
+        String result = assertDoesNotThrow(() -> app.headFromStdin(4L, toStream(INPUT_LINES)));
+
+        assertEquals(lines(1, 4), result);
+    }
+
+    @Test
+    public void headFromFiles_NullArgs_ThrowsHeadException() {
+        assertEquals(new HeadException(ERR_NULL_ARGS).getMessage(),
+                assertThrows(HeadException.class, () -> app.headFromFiles(null, "file.txt")).getMessage());
+        assertEquals(new HeadException(ERR_NULL_ARGS).getMessage(),
+                assertThrows(HeadException.class, () -> app.headFromFiles(1L, "file.txt", null)).getMessage());
+    }
+}
@@ -28,6 +28,8 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
@@ -35,6 +37,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.condition.DisabledOnOs;
 import org.junit.jupiter.api.condition.OS;
+import org.junit.jupiter.api.io.TempDir;
 
 import sg.edu.nus.comp.cs4218.EnvironmentUtil;
 import sg.edu.nus.comp.cs4218.exception.LsException;
@@ -286,4 +289,70 @@ class LsApplicationTest {
             assertEquals(FILE_1, app.listFolderContent(false, false, false, FILE_1));
         });
     }
-}
\ No newline at end of file
+
+    @DisabledOnOs(OS.WINDOWS)
+    @Test
+    public void run_RecursiveWithBrokenSymbolicLink_LinkListedAsFile(@TempDir Path tempDir) throws IOException {
+        Files.createDirectory(tempDir.resolve(FOLDER_1));
+        Files.createFile(tempDir.resolve(FOLDER_1).resolve(FILE_1));
+        Files.createSymbolicLink(tempDir.resolve(FILE_2), tempDir.resolve(NON_EXISTENT_FOLDER));
+
+        String folder = tempDir.toString();
+        String expected = folder + ":" + STRING_NEWLINE + FILE_2 + STRING_NEWLINE + FOLDER_1 + STRING_NEWLINE
+                + STRING_NEWLINE + Path.of(folder, FOLDER_1) + ":" + STRING_NEWLINE + FILE_1 + STRING_NEWLINE;
+
+        assertDoesNotThrow(() -> app.run(new String[]{"-R", folder}, stdin, stdout));
+        assertEquals(expected, stdout.toString());
+    }
+
+    @Test
+    public void constructor_ZeroParallelism_ThrowsException() {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        assertThrows(IllegalArgumentException.class, () -> new LsApplication(executor, 0));
+        executor.shutdown();
+    }
+
+    @Test
+    public void run_RecursiveWithParallelism_SameOutputAsSequential(@TempDir Path tempDir) throws Exception {
+        for (String folder : List.of("b", "a", "a/c", "a/c/e", "a/d", "b/f", "b/f/g")) {
+            Files.createDirectories(tempDir.resolve(folder));
+            Files.createFile(tempDir.resolve(folder).resolve(FILE_1));
+        }
+        String[] args = {"-R", FOLDER_1, tempDir.toString(), NON_EXISTENT_FOLDER, NESTED_FOLDER};
+        OutputStream sequential = new ByteArrayOutputStream();
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+
+        try {
+            new LsApplication(executor, 1).run(args, stdin, sequential);
+            new LsApplication(executor, 3).run(args, stdin, stdout);
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(sequential.toString(), stdout.toString());
+    }
+
+    @Test
+    public void run_NamesSpilledToTempFiles_SameOutputAndTempFilesDeleted(@TempDir Path tempDir) throws Exception {
+        Path folder = Files.createDirectory(tempDir.resolve(FOLDER_1));
+        Path spillDirectory = Files.createDirectory(tempDir.resolve(FOLDER_2));
+        for (int i = 0; i < 100; i++) {
+            Files.createFile(folder.resolve("file" + i + (i % 3 == 0 ? ".txt" : ".md")));
+        }
+        Files.createDirectory(folder.resolve(NESTED_FOLDER));
+        String[] args = {"-R", "-X", folder.toString()};
+        OutputStream expected = new ByteArrayOutputStream();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            new LsApplication(executor, 1).run(args, stdin, expected);
+            new LsApplication(executor, 2, 200, spillDirectory).run(args, stdin, stdout);
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(expected.toString(), stdout.toString());
+        assertEquals(0, spillDirectory.toFile().list().length);
+    }
+}
@@ -12,11 +12,15 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
 
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import sg.edu.nus.comp.cs4218.EnvironmentUtil;
 import sg.edu.nus.comp.cs4218.exception.PasteException;
@@ -278,4 +282,35 @@ class PasteApplicationTest {
             assertEquals(expected, output);
         });
     }
-}
\ No newline at end of file
+
+    @Test
+    public void constructor_ZeroParallelism_ThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> new PasteApplication(ForkJoinPool.commonPool(), 0));
+    }
+
+    @Test
+    public void run_SerialWithParallelism_SameOutputAsSequential(@TempDir Path tempDir) throws Exception {
+        Path empty = Files.writeString(tempDir.resolve("empty.txt"), "");
+        Path blank = Files.writeString(tempDir.resolve("blank.txt"), " \t" + STRING_NEWLINE + STRING_NEWLINE);
+        Path words = Files.writeString(tempDir.resolve("words.txt"), " x " + STRING_NEWLINE + "y" + STRING_NEWLINE);
+        String[] args = {"-s", empty.toString(), FILE_1, blank.toString(), words.toString(), blank.toString(),
+                FILE_2, empty.toString()};
+        OutputStream sequential = new ByteArrayOutputStream();
+
+        new PasteApplication(ForkJoinPool.commonPool(), 1).run(args, stdin, sequential);
+        new PasteApplication(ForkJoinPool.commonPool(), 3).run(args, stdin, stdout);
+
+        assertEquals(sequential.toString(), stdout.toString());
+    }
+
+    @Test
+    public void run_SerialStdinGivenTwiceWithParallelism_ReadsStdinOnce() {
+        provideInput(STD_INPUT);
+        app = new PasteApplication(ForkJoinPool.commonPool(), 2);
+
+        String expected = "Hello world\tCS4218" + STRING_NEWLINE;
+
+        assertDoesNotThrow(() -> app.run(new String[]{"-s", STRING_STDIN_FLAG, STRING_STDIN_FLAG}, stdin, stdout));
+        assertEquals(expected, stdout.toString());
+    }
+}
@@ -0,0 +1,180 @@
+package sg.edu.nus.comp.cs4218.impl.app;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_FILE_NOT_FOUND;
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_INVALID_KEY;
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_IS_DIR;
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_NO_ISTREAM;
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_NO_OSTREAM;
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_NULL_ARGS;
+import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.STRING_NEWLINE;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import sg.edu.nus.comp.cs4218.exception.InvalidDirectoryException;
+import sg.edu.nus.comp.cs4218.exception.SortException;
+
+class SortApplicationTest {
+    private static final String LARGE_NUMBER = "100";
+    private static final String DECIMAL_NUMBER = "2.5";
+    private static final String NUMBERS =
+            String.join(STRING_NEWLINE, "10", "9", "-3", LARGE_NUMBER, "9", DECIMAL_NUMBER);
+    private static final String RECORDS = String.join(STRING_NEWLINE,
+            "carol 30 sales",
+            "alice 25 admin",
+            "bob 30 admin",
+            "dave 25 sales");
+
+    @TempDir
+    Path tempDir;
+
+    private final SortApplication app = new SortApplication();
+    private ByteArrayOutputStream stdout;
+
+    @BeforeEach
+    void setUp() {
+        stdout = new ByteArrayOutputStream();
+    }
+
+    private static InputStream toStream(String content) {
+        return new ByteArrayInputStream(content.getBytes());
+    }
+
+    private Path createFile(String name, String content) throws Exception {
+        return Files.writeString(tempDir.resolve(name), content);
+    }
+
+    @Test
+    public void run_NoFiles_SortsStdinAsText() {
+        assertDoesNotThrow(() -> app.run(new String[0], toStream(NUMBERS), stdout));
+
+        assertEquals(String.join(STRING_NEWLINE, "-3", "10", LARGE_NUMBER, DECIMAL_NUMBER, "9", "9") + STRING_NEWLINE,
+                stdout.toString());
+    }
+
+    @Test
+    public void run_NumericReverseUnique_SortsNumbersDescendingOnce() {
+        assertDoesNotThrow(() -> app.run(new String[]{"-nru"}, toStream(NUMBERS), stdout));
+
+        assertEquals(String.join(STRING_NEWLINE, LARGE_NUMBER, "10", "9", DECIMAL_NUMBER, "-3") + STRING_NEWLINE,
+                stdout.toString());
+    }
+
+    @Test
+    public void run_NumericKeyThenTextKey_SortsByEachKeyInTurn() {
+        assertDoesNotThrow(() -> app.run(new String[]{"-k", "2,2", "-k3"}, toStream(RECORDS), stdout));
+
+        assertEquals(String.join(STRING_NEWLINE,
+                "alice 25 admin",
+                "dave 25 sales",
+                "bob 30 admin",
+                "carol 30 sales") + STRING_NEWLINE, stdout.toString());
+    }
+
+    @Test
+    public void run_UniqueByKey_KeepsFirstLineOfEachKey() {
+        assertDoesNotThrow(() -> app.run(new String[]{"-u", "-k3"}, toStream(RECORDS), stdout));
+
+        assertEquals(String.join(STRING_NEWLINE, "alice 25 admin", "carol 30 sales") + STRING_NEWLINE,
+                stdout.toString());
+    }
+
+    @Test
+    public void run_FilesAndStdin_SortsAllInputsTogether() {
+        assertDoesNotThrow(() -> {
+            Path first = createFile("first.txt", "pear" + STRING_NEWLINE + "apple");
+            Path second = createFile("second.txt", "fig" + STRING_NEWLINE);
+
+            app.run(new String[]{first.toString(), "-", second.toString()}, toStream("kiwi"), stdout);
+        });
+
+        assertEquals(String.join(STRING_NEWLINE, "apple", "fig", "kiwi", "pear") + STRING_NEWLINE, stdout.toString());
+    }
+
+    @Test
+    public void run_SmallMemoryBudget_SameOrderAsInMemorySort() {
+        Random random = new Random(4218);
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < 20000; i++) {
+            lines.add(random.nextInt(1000) + " x " + random.nextInt());
+        }
+        List<String> expected = new ArrayList<>(lines);
+        Collections.sort(expected);
+
+        SortApplication spillingApp = new SortApplication(4096, tempDir);
+        assertDoesNotThrow(() -> spillingApp.run(new String[0], toStream(String.join(STRING_NEWLINE, lines)), stdout));
+
+        assertEquals(String.join(STRING_NEWLINE, expected) + STRING_NEWLINE, stdout.toString());
+        assertDoesNotThrow(() -> {
+            try (var files = Files.list(tempDir)) {
+                assertEquals(0, files.count());
+            }
+        });
+    }
+
+    @Test
+    public void run_FileDoesNotExist_ThrowsSortException() {
+        String fileName = tempDir.resolve("missing.txt").toString();
+        SortException exception = assertThrows(SortException.class,
+                () -> app.run(new String[]{fileName}, toStream(NUMBERS), stdout));
+
+        assertEquals(new SortException(new InvalidDirectoryException(fileName, ERR_FILE_NOT_FOUND).getMessage())
+                .getMessage(), exception.getMessage());
+    }
+
+    @Test
+    public void run_Directory_ThrowsSortException() {
+        SortException exception = assertThrows(SortException.class,
+                () -> app.run(new String[]{tempDir.toString()}, toStream(NUMBERS), stdout));
+
+        assertEquals(new SortException(new InvalidDirectoryException(tempDir.toString(), ERR_IS_DIR).getMessage())
+                .getMessage(), exception.getMessage());
+    }
+
+    @Test
+    public void run_InvalidKey_ThrowsSortException() {
+        SortException exception = assertThrows(SortException.class,
+                () -> app.run(new String[]{"-k0"}, toStream(NUMBERS), stdout));
+
+        assertEquals(new SortException(ERR_INVALID_KEY).getMessage(), exception.getMessage());
+    }
+
+    @Test
+    public void run_NullStreams_ThrowsSortException() {
+        assertEquals(new SortException(ERR_NO_ISTREAM).getMessage(),
+                assertThrows(SortException.class, () -> app.run(new String[0], null, stdout)).getMessage());
+        assertEquals(new SortException(ERR_NO_OSTREAM).getMessage(),
+                assertThrows(SortException.class, () -> app.run(new String[0], toStream(NUMBERS), null)).getMessage());
+    }
+
+    @Test
+    public void sortFromStdin_Numeric_ReturnsSortedLines() {
+        String result = assertDoesNotThrow(() -> app.sortFromStdin(true, false, false, List.of(), toStream(NUMBERS)));
+
+        assertEquals(String.join(STRING_NEWLINE, "-3", DECIMAL_NUMBER, "9", "9", "10", LARGE_NUMBER), result);
+    }
+
+    @Test
+    public void sortFromFiles_NullArgs_ThrowsSortException() {
+        assertEquals(new SortException(ERR_NULL_ARGS).getMessage(), assertThrows(SortException.class,
+                () -> app.sortFromFiles(null, false, false, List.of(), "file.txt")).getMessage());
+        assertEquals(new SortException(ERR_NULL_ARGS).getMessage(), assertThrows(SortException.class,
+                () -> app.sortFromFiles(false, false, false, null, "file.txt")).getMessage());
+        assertEquals(new SortException(ERR_NULL_ARGS).getMessage(), assertThrows(SortException.class,
+                () -> app.sortFromFiles(false, false, false, List.of(), "file.txt", null)).getMessage());
+    }
+}
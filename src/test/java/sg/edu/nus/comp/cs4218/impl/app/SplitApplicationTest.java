@@ -11,12 +11,14 @@ import static sg.edu.nus.comp.cs4218.impl.app.SplitApplication.DEFAULT_PREFIX;
 import static sg.edu.nus.comp.cs4218.impl.parser.ArgsParser.ILLEGAL_FLAG_MSG;
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_FILE_NOT_FOUND;
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_ILLEGAL_BYTE_COUNT;
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_ILLEGAL_CHUNK_COUNT;
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_ILLEGAL_LINE_COUNT;
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_IS_DIR;
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_NULL_ARGS;
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_OPTION_REQUIRES_ARGUMENT;
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_TOO_MANY_ARGS;
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_TOO_MANY_OPTIONS;
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_UNKNOWN_INPUT_SIZE;
 import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.CHAR_FLAG_PREFIX;
 import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.STRING_FILE_SEP;
 import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.STRING_NEWLINE;
@@ -31,6 +33,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.AfterEach;
@@ -536,4 +539,130 @@ class SplitApplicationTest {
         byte[] actualLastContent = Files.readAllBytes(lastFile.toPath());
         assertArrayEquals(expectedLastContent, actualLastContent);
     }
-}
\ No newline at end of file
+
+    @Test
+    void splitStdinByLines_CrlfAndNoTrailingNewline_LineEndingsUnchanged() throws Exception {
+        testStream = generateStream("one\r\ntwo\r\nthree");
+        assertDoesNotThrow(() -> splitApp.splitStdinByLines(testStream, null, 2));
+        File firstFile = new File(TEST_DIR + STRING_FILE_SEP + XAA);
+        File lastFile = new File(TEST_DIR + STRING_FILE_SEP + XAB);
+        assertEquals("one\r\ntwo\r\n", new String(Files.readAllBytes(firstFile.toPath()), StandardCharsets.UTF_8));
+        assertEquals("three", new String(Files.readAllBytes(lastFile.toPath()), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void splitFileByLines_NonUtf8Bytes_BytesUnchanged() throws Exception {
+        byte[] testContent = {(byte) 0xff, (byte) 0xfe, '\n', (byte) 0x80, '\n', (byte) 0xc3};
+        Files.write(testFile.toPath(), testContent);
+        assertDoesNotThrow(() -> splitApp.splitFileByLines(TEST_FILENAME, null, 1));
+        assertArrayEquals(Arrays.copyOfRange(testContent, 0, 3),
+                Files.readAllBytes(Path.of(TEST_DIR, XAA)));
+        assertArrayEquals(Arrays.copyOfRange(testContent, 3, 5),
+                Files.readAllBytes(Path.of(TEST_DIR, XAB)));
+        assertArrayEquals(Arrays.copyOfRange(testContent, 5, 6),
+                Files.readAllBytes(Path.of(TEST_DIR, XAC)));
+    }
+
+    @Test
+    void splitFileByLines_LinesLongerThanBuffer_SplitAtNewlines() throws Exception {
+        String longLine = "a".repeat(1500000) + STRING_NEWLINE;
+        Files.writeString(testFile.toPath(), longLine + TEST_STRING + longLine);
+        assertDoesNotThrow(() -> splitApp.splitFileByLines(TEST_FILENAME, null, 2));
+        assertEquals(longLine + TEST_STRING, Files.readString(Path.of(TEST_DIR, XAA)));
+        assertEquals(longLine, Files.readString(Path.of(TEST_DIR, XAB)));
+        assertFalse(Files.exists(Path.of(TEST_DIR, XAC)));
+    }
+
+    @Test
+    void splitStdinByLines_EmptyStdin_NoPieces() {
+        assertDoesNotThrow(() -> splitApp.splitStdinByLines(testStream, null, 1));
+        assertFalse(Files.exists(Path.of(TEST_DIR, XAA)));
+    }
+
+    @Test
+    void splitFileByBytes_ConcurrentPieces_SameAsInput() throws Exception {
+        byte[] testContent = generateBytes(100000);
+        Files.write(testFile.toPath(), testContent);
+        SplitApplication concurrentApp = new SplitApplication(ForkJoinPool.commonPool(), 3);
+        assertDoesNotThrow(() -> concurrentApp.splitFileByBytes(TEST_FILENAME, null, "7k"));
+        for (int i = 0; i < 14; i++) {
+            String pieceName = "xa" + (char) ('a' + i);
+            int start = i * 7168;
+            assertArrayEquals(Arrays.copyOfRange(testContent, start, Math.min(start + 7168, testContent.length)),
+                    Files.readAllBytes(Path.of(TEST_DIR, pieceName)));
+        }
+        assertFalse(Files.exists(Path.of(TEST_DIR, "xao")));
+    }
+
+    @Test
+    void splitFileByBytes_PieceLargerThan2Gb_SinglePiece() throws Exception {
+        Files.writeString(testFile.toPath(), generateString(3));
+        assertDoesNotThrow(() -> splitApp.splitFileByBytes(TEST_FILENAME, null, "3000m"));
+        assertEquals(generateString(3), Files.readString(Path.of(TEST_DIR, XAA)));
+        assertFalse(Files.exists(Path.of(TEST_DIR, XAB)));
+    }
+
+    @Test
+    void splitStdinByBytes_ByteCountOverflows_ThrowsException() {
+        Throwable thrown = assertThrows(SplitException.class,
+                () -> splitApp.splitStdinByBytes(testStream, null, "9999999999999999m"));
+        assertEquals(new SplitException(ERR_ILLEGAL_BYTE_COUNT).getMessage(), thrown.getMessage());
+    }
+
+    @Test
+    void splitStdinByBytes_StdinReturnsFewerBytesThanRequested_FullPieces() throws Exception {
+        byte[] testContent = generateBytes(10);
+        testStream = new ByteArrayInputStream(testContent) {
+            @Override
+            public int read(byte[] bytes, int offset, int length) {
+                return super.read(bytes, offset, Math.min(length, 3));
+            }
+        };
+        assertDoesNotThrow(() -> splitApp.splitStdinByBytes(testStream, null, "4"));
+        assertArrayEquals(Arrays.copyOfRange(testContent, 0, 4), Files.readAllBytes(Path.of(TEST_DIR, XAA)));
+        assertArrayEquals(Arrays.copyOfRange(testContent, 4, 8), Files.readAllBytes(Path.of(TEST_DIR, XAB)));
+        assertArrayEquals(Arrays.copyOfRange(testContent, 8, 10), Files.readAllBytes(Path.of(TEST_DIR, XAC)));
+    }
+
+    @Test
+    void run_3ChunksOption_EqualPiecesWithRemainderInLast() throws Exception {
+        byte[] testContent = generateBytes(100);
+        Files.write(testFile.toPath(), testContent);
+        String[] args = {CHAR_FLAG_PREFIX + "n", "3", TEST_FILENAME};
+        SplitApplication concurrentApp = new SplitApplication(ForkJoinPool.commonPool(), 2);
+        assertDoesNotThrow(() -> concurrentApp.run(args, testStream, null));
+        assertArrayEquals(Arrays.copyOfRange(testContent, 0, 33), Files.readAllBytes(Path.of(TEST_DIR, XAA)));
+        assertArrayEquals(Arrays.copyOfRange(testContent, 33, 66), Files.readAllBytes(Path.of(TEST_DIR, XAB)));
+        assertArrayEquals(Arrays.copyOfRange(testContent, 66, 100), Files.readAllBytes(Path.of(TEST_DIR, XAC)));
+        assertFalse(Files.exists(Path.of(TEST_DIR, XAD)));
+    }
+
+    @Test
+    void splitFileByChunks_LineChunks_PiecesEndAfterNewlines() throws Exception {
+        Files.writeString(testFile.toPath(), generateString(10));
+        SplitApplication concurrentApp = new SplitApplication(ForkJoinPool.commonPool(), 2);
+        assertDoesNotThrow(() -> concurrentApp.splitFileByChunks(TEST_FILENAME, "part", "l/4"));
+        assertEquals(generateString(3), Files.readString(Path.of(TEST_DIR, "partaa")));
+        assertEquals(generateString(2), Files.readString(Path.of(TEST_DIR, "partab")));
+        assertEquals(generateString(3), Files.readString(Path.of(TEST_DIR, "partac")));
+        assertEquals(generateString(2), Files.readString(Path.of(TEST_DIR, "partad")));
+        assertFalse(Files.exists(Path.of(TEST_DIR, "partae")));
+    }
+
+    @Test
+    void run_ChunksOptionStdin_ThrowsException() {
+        String[] args = {CHAR_FLAG_PREFIX + "n", "2"};
+        Throwable thrown = assertThrows(SplitException.class, () -> splitApp.run(args, testStream, null));
+        assertEquals(new SplitException(ERR_UNKNOWN_INPUT_SIZE).getMessage(), thrown.getMessage());
+    }
+
+    @Test
+    void splitFileByChunks_InvalidChunks_ThrowsException() throws Exception {
+        Files.writeString(testFile.toPath(), generateString(10));
+        for (String chunks : new String[]{"0", "l/0", "l/", "r/2", "99999999999"}) {
+            Throwable thrown = assertThrows(SplitException.class,
+                    () -> splitApp.splitFileByChunks(TEST_FILENAME, null, chunks));
+            assertEquals(new SplitException(ERR_ILLEGAL_CHUNK_COUNT).getMessage(), thrown.getMessage());
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package sg.edu.nus.comp.cs4218.impl.app;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_FILE_NOT_FOUND;
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_ILLEGAL_LINE_COUNT;
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_IS_DIR;
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_NO_ISTREAM;
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_NO_OSTREAM;
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_NULL_ARGS;
+import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.STRING_NEWLINE;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import sg.edu.nus.comp.cs4218.exception.InvalidDirectoryException;
+import sg.edu.nus.comp.cs4218.exception.TailException;
+import sg.edu.nus.comp.cs4218.testutil.AwaitableOutputStream;
+
+class TailApplicationTest {
+    private static final PrintStream ORIGINAL_STDERR = System.err;
+    private static final String INPUT_LINES = lines(1, 15);
+
+    @TempDir
+    Path tempDir;
+
+    private final TailApplication app = new TailApplication();
+    private ByteArrayOutputStream stdout;
+
+    @BeforeEach
+    void setUp() {
+        stdout = new ByteArrayOutputStream();
+    }
+
+    private static String lines(int first, int last) {
+        return IntStream.rangeClosed(first, last)
+                .mapToObj(i -> "line " + i)
+                .collect(Collectors.joining(STRING_NEWLINE));
+    }
+
+    private static InputStream toStream(String content) {
+        return new ByteArrayInputStream(content.getBytes());
+    }
+
+    private Path createFile(String name, String content) throws Exception {
+        return Files.writeString(tempDir.resolve(name), content);
+    }
+
+    /**
+     * Runs the application and returns what it writes to stderr.
+     */
+    private String runWithStderr(String... args) {
+        ByteArrayOutputStream stderr = new ByteArrayOutputStream();
+
+        try (PrintStream capturedStderr = new PrintStream(stderr)) {
+            System.setErr(capturedStderr);
+            assertDoesNotThrow(() -> app.run(args, toStream(INPUT_LINES), stdout));
+        } finally {
+            System.setErr(ORIGINAL_STDERR);
+        }
+
+        return stderr.toString();
+    }
+
+    @Test
+    public void run_StdinNoOption_WritesLastTenLines() {
+        assertDoesNotThrow(() -> app.run(new String[0], toStream(INPUT_LINES), stdout));
+
+        assertEquals(lines(6, 15) + STRING_NEWLINE, stdout.toString());
+    }
+
+    @Test
+    public void run_StdinFromLine_WritesLinesFromThatLine() {
+        assertDoesNotThrow(() -> app.run(new String[]{"-n", "+13"}, toStream(INPUT_LINES), stdout));
+
+        assertEquals(lines(13, 15) + STRING_NEWLINE, stdout.toString());
+    }
+
+    @Test
+    public void run_FileWithAndWithoutTrailingNewline_WritesSameLastLines() {
+        assertDoesNotThrow(() -> {
+            Path withNewline = createFile("with.txt", INPUT_LINES + STRING_NEWLINE);
+            Path withoutNewline = createFile("without.txt", INPUT_LINES);
+
+            app.run(new String[]{"-n3", withNewline.toString()}, toStream(""), stdout);
+            app.run(new String[]{"-n3", withoutNewline.toString()}, toStream(""), stdout);
+        });
+
+        assertEquals(lines(13, 15) + STRING_NEWLINE + lines(13, 15) + STRING_NEWLINE, stdout.toString());
+    }
+
+    @Test
+    public void run_LastLinesSpanningManyBlocks_SameAsReadingForwards() {
+        String content = lines(1, 50_000) + STRING_NEWLINE;
+
+        for (String numOfLines : new String[]{"0", "1", "12345", "49999", "50000", "60000", "+1", "+20000", "+60000"}) {
+            ByteArrayOutputStream fromFile = new ByteArrayOutputStream();
+            ByteArrayOutputStream fromStdin = new ByteArrayOutputStream();
+
+            assertDoesNotThrow(() -> {
+                Path file = createFile("big.txt", content);
+                app.run(new String[]{"-n", numOfLines, file.toString()}, toStream(""), fromFile);
+                app.run(new String[]{"-n", numOfLines}, toStream(content), fromStdin);
+            });
+
+            assertEquals(fromStdin.toString(), fromFile.toString(), numOfLines);
+        }
+    }
+
+    @Test
+    public void run_LastLinesSpanningManyBlocks_WritesLastLines() {
+        assertDoesNotThrow(() -> {
+            Path file = createFile("big.txt", lines(1, 50_000) + STRING_NEWLINE);
+            app.run(new String[]{"-n", "20000", file.toString()}, toStream(""), stdout);
+        });
+
+        assertEquals(lines(30_001, 50_000) + STRING_NEWLINE, stdout.toString());
+    }
+
+    @Test
+    public void run_MultipleFilesAndStdin_WritesHeaderBeforeEachInput() {
+        assertDoesNotThrow(() -> {
+            Path first = createFile("first.txt", lines(1, 5));
+            Path second = createFile("second.txt", "");
+
+            app.run(new String[]{"-n", "2", first.toString(), "-", second.toString()}, toStream("in"), stdout);
+        });
+
+        String expected = String.join(STRING_NEWLINE,
+                "==> " + tempDir.resolve("first.txt") + " <==",
+                "line 4",
+                "line 5",
+                "",
+                "==> - <==",
+                "in",
+                "",
+                "==> " + tempDir.resolve("second.txt") + " <==") + STRING_NEWLINE;
+        assertEquals(expected, stdout.toString());
+    }
+
+    @Test
+    public void run_FollowFile_WritesAppendedLinesUntilInterrupted() throws Exception {
+        Path file = createFile("app.log", lines(1, 5) + STRING_NEWLINE);
+        String expected = lines(4, 6) + STRING_NEWLINE;
+
+        try (AwaitableOutputStream output = new AwaitableOutputStream()) {
+            Thread followingThread = new Thread(() -> assertDoesNotThrow(
+                    () -> app.run(new String[]{"-f", "-n", "2", file.toString()}, toStream(""), output)));
+            followingThread.start();
+
+            output.whenEquals(lines(4, 5) + STRING_NEWLINE).get(10_000, TimeUnit.MILLISECONDS);
+            Files.writeString(file, "line 6" + STRING_NEWLINE, StandardOpenOption.APPEND);
+            output.whenEquals(expected).get(10_000, TimeUnit.MILLISECONDS);
+
+            followingThread.interrupt();
+            followingThread.join(10_000);
+
+            assertFalse(followingThread.isAlive());
+            assertEquals(expected, output.toString());
+        }
+    }
+
+    @Test
+    public void run_FollowStdin_ReturnsAtEndOfStdin() {
+        assertDoesNotThrow(() -> app.run(new String[]{"-f", "-n", "2"}, toStream(INPUT_LINES), stdout));
+
+        assertEquals(lines(14, 15) + STRING_NEWLINE, stdout.toString());
+    }
+
+    @Test
+    public void run_IllegalLineCount_ThrowsTailException() {
+        for (String numOfLines : new String[]{"-1", "++1", "abc", "+", ""}) {
+            TailException exception = assertThrows(TailException.class,
+                    () -> app.run(new String[]{"-n", numOfLines}, toStream(INPUT_LINES), stdout));
+
+            assertEquals(new TailException(ERR_ILLEGAL_LINE_COUNT).getMessage(), exception.getMessage());
+        }
+    }
+
+    @Test
+    public void run_FileDoesNotExistOrDirectory_WritesErrorToStderr() {
+        String fileName = tempDir.resolve("missing.txt").toString();
+
+        assertEquals(new TailException(new InvalidDirectoryException(fileName, ERR_FILE_NOT_FOUND).getMessage())
+                .getMessage() + STRING_NEWLINE, runWithStderr(fileName));
+        assertEquals(new TailException(new InvalidDirectoryException(tempDir.toString(), ERR_IS_DIR).getMessage())
+                .getMessage() + STRING_NEWLINE, runWithStderr(tempDir.toString()));
+        assertEquals("", stdout.toString());
+    }
+
+    @Test
+    public void run_MissingFileAndValidFile_WritesValidFileAfterError() throws Exception {
+        String missing = tempDir.resolve("missing.txt").toString();
+        Path valid = createFile("valid.txt", lines(1, 5));
+
+        String stderr = runWithStderr("-n", "2", missing, valid.toString(), missing);
+
+        String expected = String.join(STRING_NEWLINE,
+                "==> " + valid + " <==",
+                "line 4",
+                "line 5") + STRING_NEWLINE;
+        assertEquals(expected, stdout.toString());
+        String error = new TailException(new InvalidDirectoryException(missing, ERR_FILE_NOT_FOUND).getMessage()).getMessage();
+        assertEquals(error + STRING_NEWLINE + error + STRING_NEWLINE, stderr);
+    }
+
+    @Test
+    public void run_NullStreams_ThrowsTailException() {
+        assertEquals(new TailException(ERR_NO_ISTREAM).getMessage(),
+                assertThrows(TailException.class, () -> app.run(new String[0], null, stdout)).getMessage());
+        assertEquals(new TailException(ERR_NO_OSTREAM).getMessage(),
+                assertThrows(TailException.class, () -> app.run(new String[0], toStream(INPUT_LINES), null)).getMessage());
+    }
+
+    @Test
+    public void tailFromStdin_NumOfLines_ReturnsLastLinesWithoutTrailingNewline() {
+        String result = assertDoesNotThrow(() -> app.tailFromStdin("4", toStream(INPUT_LINES)));
+
+        assertEquals(lines(12, 15), result);
+    }
+
+    @Test
+    public void tailFromFiles_NullArgs_ThrowsTailException() {
+        assertEquals(new TailException(ERR_NULL_ARGS).getMessage(),
+                assertThrows(TailException.class, () -> app.tailFromFiles(null, "file.txt")).getMessage());
+        assertEquals(new TailException(ERR_NULL_ARGS).getMessage(),
+                assertThrows(TailException.class, () -> app.tailFromFiles("1", "file.txt", null)).getMessage());
+    }
+}
@@ -1,5 +1,6 @@
 package sg.edu.nus.comp.cs4218.impl.app;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -328,4 +329,51 @@ class TeeApplicationTest {
             assertEquals(FILE_CONTENT_1 + INPUT_2, fromFile1);
         });
     }
-}
\ No newline at end of file
+
+    @Test
+    public void run_StdinNotEnded_EarlierChunksAlreadyWritten() {
+        String[] writtenBeforeEnd = new String[2];
+        inputStream = new InputStream() {
+            private int numOfReads;
+
+            @Override
+            public int read() {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) {
+                numOfReads++;
+                if (numOfReads == 1) {
+                    byte[] chunk = (INPUT_1 + STRING_NEWLINE).getBytes();
+                    System.arraycopy(chunk, 0, buffer, offset, chunk.length);
+                    return chunk.length;
+                }
+
+                // the producer has not finished yet when the first chunk is checked
+                writtenBeforeEnd[0] = STD_OUTPUT.toString();
+                writtenBeforeEnd[1] = readFromFile(file1);
+                return -1;
+            }
+        };
+
+        assertDoesNotThrow(() -> app.run(ARGS_1, inputStream, STD_OUTPUT));
+
+        assertEquals(INPUT_1 + STRING_NEWLINE, writtenBeforeEnd[0]);
+        assertEquals(INPUT_1, writtenBeforeEnd[1]);
+    }
+
+    @Test
+    public void run_BytesWithCarriageReturns_CopiedUnchanged() {
+        byte[] input = {'a', '\r', '\n', (byte) 0xff, 0, 'b', '\n'};
+        inputStream = new ByteArrayInputStream(input);
+        ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+
+        assertDoesNotThrow(() -> {
+            app.run(ARGS_1, inputStream, stdout);
+
+            assertArrayEquals(input, stdout.toByteArray());
+            assertArrayEquals(input, Files.readAllBytes(file1));
+        });
+    }
+}
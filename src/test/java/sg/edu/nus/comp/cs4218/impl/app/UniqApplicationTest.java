@@ -18,6 +18,7 @@ import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_NO_ISTREAM;
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_NO_OSTREAM;
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_NO_PERM;
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_NULL_ARGS;
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_READ_STREAM;
 import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_TOO_MANY_ARGS;
 import static sg.edu.nus.comp.cs4218.impl.util.IOUtils.getLinesFromInputStream;
 import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.STRING_EMPTY;
@@ -1179,4 +1180,93 @@ public class UniqApplicationTest {
             assertEquals(STRING_EMPTY, readFromFile(out1));
         });
     }
+
+    @Test
+    public void uniqFromFile_OutputFileIsInputFile_OverwritesInputWithResult() {
+        assertDoesNotThrow(() -> {
+            String result = app.uniqFromFile(true, false, false, INPUT_FILE_1, INPUT_FILE_1);
+            String expected = String.join(STRING_NEWLINE,
+                    "2 " + STRING_MULTI_WORDS,
+                    "2 " + STRING_SINGLE_WORD,
+                    "1 " + STRING_FILE_MD,
+                    "1 " + STRING_SINGLE_WORD,
+                    "1 " + STRING_FILE_MD);
+
+            assertEquals(expected, result);
+            assertEquals(expected, readFromFile(in1));
+            assertEquals(0, Files.list(TEST_PATH)
+                    .filter(path -> path.getFileName().toString().startsWith(".uniq"))
+                    .count());
+        });
+    }
+
+    @Test
+    public void uniqFromStdin_ManyGroups_CountsEveryGroup() {
+        StringBuilder input = new StringBuilder();
+        StringBuilder expected = new StringBuilder();
+
+        for (int i = 0; i < 10000; i++) {
+            String line = "line " + i + STRING_NEWLINE;
+            input.append(line.repeat(3));
+            expected.append("3 ").append(line);
+        }
+
+        assertDoesNotThrow(() -> {
+            String result = app.uniqFromStdin(true, false, false,
+                    new ByteArrayInputStream(input.toString().getBytes()), null);
+
+            assertEquals(expected.toString().trim(), result);
+        });
+    }
+
+    @Test
+    public void run_StdinFailsWhileReading_ThrowsException() throws IOException {
+        try (InputStream failingStdin = new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("stream closed");
+            }
+        }) {
+            Throwable exception = assertThrows(UniqException.class,
+                    () -> app.run(new String[]{}, failingStdin, stdout));
+            assertEquals(new UniqException(ERR_READ_STREAM).getMessage(), exception.getMessage());
+        }
+    }
+
+    @Test
+    public void run_IsGlobalIsCount_CountsNonAdjacentDupInFirstOccurrenceOrder() {
+        assertDoesNotThrow(() -> {
+            app.run(new String[]{"-g", "-c", INPUT_FILE_1}, stdin, stdout);
+            String expected = String.join(STRING_NEWLINE,
+                    "2 " + STRING_MULTI_WORDS,
+                    "3 " + STRING_SINGLE_WORD,
+                    "2 " + STRING_FILE_MD) + STRING_NEWLINE;
+
+            assertEquals(expected, stdout.toString());
+        });
+    }
+
+    @Test
+    public void run_IsGlobalIsRepeatedCountsSpilled_DisplaysOnlyDup() {
+        StringBuilder input = new StringBuilder();
+        StringBuilder expected = new StringBuilder();
+
+        for (int i = 0; i < 13000; i++) {
+            input.append("line ").append(i % 7000).append(STRING_NEWLINE);
+        }
+        for (int i = 0; i < 6000; i++) {
+            expected.append("line ").append(i).append(STRING_NEWLINE);
+        }
+
+        assertDoesNotThrow(() -> {
+            UniqApplication spillingApp = new UniqApplication(1, TEST_PATH);
+            spillingApp.run(new String[]{"-g", "-d", STRING_STDIN_FLAG, OUTPUT_FILE_1},
+                    new ByteArrayInputStream(input.toString().getBytes()), stdout);
+
+            assertEquals(expected.toString().trim(), readFromFile(out1));
+            assertEquals(0, Files.list(TEST_PATH)
+                    .filter(path -> path.getFileName().toString().endsWith(".tmp"))
+                    .count());
+        });
+    }
 }
@@ -23,6 +23,7 @@ import java.io.PrintStream;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
 
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.AfterEach;
@@ -323,6 +324,32 @@ class WcApplicationTest {
         assertEquals(getWordCount(testLines), words);
     }
 
+    @Test
+    void initialization_ChunkSizeTooLarge_ThrowsException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new WcApplication(ForkJoinPool.commonPool(), 2, Integer.MAX_VALUE + 1L));
+    }
+
+    @Test
+    void countFromFiles_LargeFileInChunks_SameCountsAsSequential() throws Exception {
+        File testFile = new File(TEST_DIR + STRING_FILE_SEP + TEST_FILENAME_1);
+        Files.writeString(testFile.toPath(), generateString(5) + "a\r\nb\r\r\n  word");
+        WcApplication sequentialApp = new WcApplication(ForkJoinPool.commonPool(), 1, 1);
+
+        for (int chunkSize = 1; chunkSize < 8; chunkSize++) {
+            WcApplication chunkedApp = new WcApplication(ForkJoinPool.commonPool(), 3, chunkSize);
+
+            assertEquals(
+                    assertDoesNotThrow(() -> sequentialApp.countFromFiles(true, true, true, TEST_FILENAME_1)),
+                    assertDoesNotThrow(() -> chunkedApp.countFromFiles(true, true, true, TEST_FILENAME_1))
+            );
+            assertEquals(
+                    assertDoesNotThrow(() -> sequentialApp.countFromFiles(false, true, false, TEST_FILENAME_1)),
+                    assertDoesNotThrow(() -> chunkedApp.countFromFiles(false, true, false, TEST_FILENAME_1))
+            );
+        }
+    }
+
     @Test
     void countFromFiles_MultipleFiles_CountsLinesWordsBytes() throws Exception {
         int testLines1 = 2;
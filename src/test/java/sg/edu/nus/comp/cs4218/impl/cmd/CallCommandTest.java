@@ -4,6 +4,7 @@ import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.eq;
 import static org.mockito.Mockito.isA;
 import static org.mockito.Mockito.mock;
@@ -19,16 +20,22 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
 import sg.edu.nus.comp.cs4218.EnvironmentUtil;
+import sg.edu.nus.comp.cs4218.Evaluation;
 import sg.edu.nus.comp.cs4218.exception.ShellException;
 import sg.edu.nus.comp.cs4218.impl.util.ApplicationRunner;
 
 class CallCommandTest {
+    private static final long TIMEOUT_SECONDS = 10;
 
     private static final String ORIGINAL_DIR = EnvironmentUtil.currentDirectory;
     private static final String TEST_DIR = EnvironmentUtil.currentDirectory + STRING_FILE_SEP + RESOURCES_PATH + STRING_FILE_SEP + "CallCommandTest";
@@ -153,6 +160,109 @@ class CallCommandTest {
         });
     }
 
+    @Test
+    public void terminate_DuringEvaluate_InterruptsApp() throws Exception {
+        buildCommand(List.of(APP_ECHO, STRING_SINGLE_WORD));
+        CountDownLatch isRunning = new CountDownLatch(1);
+        AtomicInteger numOfInterrupted = new AtomicInteger();
+        doAnswer(invocation -> {
+            isRunning.countDown();
+            awaitInterrupt(numOfInterrupted);
+            return null;
+        }).when(appRunner).runApp(any(), any(), any(), any());
+
+        FutureTask<Void> evaluating = new FutureTask<>(() -> {
+            command.evaluate(stdin, stdout);
+            return null;
+        });
+        new Thread(evaluating).start();
+        isRunning.await();
+        command.terminate();
+        evaluating.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+        assertEquals(1, numOfInterrupted.get());
+    }
+
+    @Test
+    public void evaluate_EvaluationTerminatedDuringApp_InterruptsApp() throws Exception {
+        buildCommand(List.of(APP_ECHO, STRING_SINGLE_WORD));
+        CountDownLatch isRunning = new CountDownLatch(1);
+        AtomicInteger numOfInterrupted = new AtomicInteger();
+        doAnswer(invocation -> {
+            isRunning.countDown();
+            awaitInterrupt(numOfInterrupted);
+            return null;
+        }).when(appRunner).runApp(any(), any(), any(), any());
+        Evaluation evaluation = new Evaluation();
+
+        FutureTask<Void> evaluating = startEvaluating(evaluation);
+        isRunning.await();
+        evaluation.terminate();
+        evaluating.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+        assertEquals(1, numOfInterrupted.get());
+    }
+
+    @Test
+    public void evaluate_EvaluationTerminatedBeforeApp_AppNotRun() throws Exception {
+        buildCommand(List.of(APP_ECHO, STRING_SINGLE_WORD));
+        Evaluation evaluation = new Evaluation();
+
+        evaluation.terminate();
+        evaluation.evaluate(command, stdin, stdout);
+
+        verify(appRunner, never()).runApp(any(), any(), any(), any());
+    }
+
+    @Test
+    public void evaluate_OtherEvaluationOfSameCommandTerminated_AppNotInterrupted() throws Exception {
+        buildCommand(List.of(APP_ECHO, STRING_SINGLE_WORD));
+        CountDownLatch areRunning = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger numOfInterrupted = new AtomicInteger();
+        doAnswer(invocation -> {
+            areRunning.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                numOfInterrupted.incrementAndGet();
+            }
+            return null;
+        }).when(appRunner).runApp(any(), any(), any(), any());
+        Evaluation terminated = new Evaluation();
+        Evaluation running = new Evaluation();
+
+        FutureTask<Void> terminatedEvaluating = startEvaluating(terminated);
+        FutureTask<Void> runningEvaluating = startEvaluating(running);
+        areRunning.await();
+        terminated.terminate();
+        terminatedEvaluating.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        release.countDown();
+        runningEvaluating.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+        assertEquals(1, numOfInterrupted.get());
+    }
+
+    private FutureTask<Void> startEvaluating(Evaluation evaluation) {
+        FutureTask<Void> evaluating = new FutureTask<>(() -> {
+            evaluation.evaluate(command, stdin, stdout);
+            return null;
+        });
+        new Thread(evaluating).start();
+        return evaluating;
+    }
+
+    /**
+     * Blocks until the current thread is interrupted, which is counted.
+     */
+    private static void awaitInterrupt(AtomicInteger numOfInterrupted) {
+        try {
+            new CountDownLatch(1).await();
+        } catch (InterruptedException e) {
+            numOfInterrupted.incrementAndGet();
+        }
+    }
+
     @Test
     public void getArgsList_NonEmptyArgsList_ReturnsNonEmptyArgsList() {
         assertDoesNotThrow(() -> {
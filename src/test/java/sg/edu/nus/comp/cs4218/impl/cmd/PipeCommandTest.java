@@ -2,7 +2,9 @@ package sg.edu.nus.comp.cs4218.impl.cmd;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
@@ -10,14 +12,20 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
+import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.STRING_NEWLINE;
 import static sg.edu.nus.comp.cs4218.testutil.TestConstants.STRING_SINGLE_WORD;
 
+import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.ArgumentCaptor;
 
 import sg.edu.nus.comp.cs4218.exception.AbstractApplicationException;
@@ -27,10 +35,15 @@ import sg.edu.nus.comp.cs4218.impl.util.ApplicationRunner;
 import sg.edu.nus.comp.cs4218.impl.util.IOUtils;
 
 class PipeCommandTest {
+    private static final PrintStream ORIGINAL_STDERR = System.err;
+    private static final String ECHO = "echo";
 
     private final InputStream stdin = mock(InputStream.class);
     private final OutputStream stdout = mock(OutputStream.class);
 
+    @TempDir
+    Path tempDir;
+
     @Test
     public void initialization_NullCallCommands_ThrowsException() {
         assertThrows(ShellException.class, () -> new PipeCommand(null));
@@ -61,7 +74,7 @@ class PipeCommandTest {
     @Test
     public void evaluate_TwoCallCommands_CommandsExecuted() {
         assertDoesNotThrow(() -> {
-            CallCommand command1 = spy(new CallCommand(List.of("echo", STRING_SINGLE_WORD), new ApplicationRunner()));
+            CallCommand command1 = spy(new CallCommand(List.of(ECHO, STRING_SINGLE_WORD), new ApplicationRunner()));
             CallCommand command2 = mock(CallCommand.class);
 
             PipeCommand command = new PipeCommand(List.of(command1, command2));
@@ -119,7 +132,7 @@ class PipeCommandTest {
     @Test
     public void terminate_BeforeEvaluate_DoesNothing() {
         assertDoesNotThrow(() -> {
-            CallCommand command1 = spy(new CallCommand(List.of("echo", STRING_SINGLE_WORD), new ApplicationRunner()));
+            CallCommand command1 = spy(new CallCommand(List.of(ECHO, STRING_SINGLE_WORD), new ApplicationRunner()));
             CallCommand command2 = mock(CallCommand.class);
 
             PipeCommand command = new PipeCommand(List.of(command1, command2));
@@ -145,7 +158,7 @@ class PipeCommandTest {
     @Test
     public void getCallCommands_NonEmptyCallCommandList_ReturnsNonEmptyCallCommandList() {
         assertDoesNotThrow(() -> {
-            CallCommand command1 = spy(new CallCommand(List.of("echo", STRING_SINGLE_WORD), new ApplicationRunner()));
+            CallCommand command1 = spy(new CallCommand(List.of(ECHO, STRING_SINGLE_WORD), new ApplicationRunner()));
             CallCommand command2 = mock(CallCommand.class);
 
             List<CallCommand> callCommandList = List.of(command1, command2);
@@ -161,4 +174,83 @@ class PipeCommandTest {
             assertEquals(callCommandList, command.getCallCommands());
         });
     }
-}
\ No newline at end of file
+
+    @Test
+    public void isConcurrent_DefaultConstructor_ReturnsFalse() {
+        assertDoesNotThrow(() -> {
+            PipeCommand command = new PipeCommand(List.of(mock(CallCommand.class), mock(CallCommand.class)));
+
+            assertFalse(command.isConcurrent());
+        });
+    }
+
+    @Test
+    public void evaluate_ConcurrentThreeCallCommands_OutputPassedThroughAllStages() {
+        assertDoesNotThrow(() -> {
+            ApplicationRunner appRunner = new ApplicationRunner();
+            CallCommand command1 = new CallCommand(List.of(ECHO, STRING_SINGLE_WORD), appRunner);
+            CallCommand command2 = new CallCommand(List.of("cat"), appRunner);
+            CallCommand command3 = new CallCommand(List.of("cat", "-n"), appRunner);
+            OutputStream output = new ByteArrayOutputStream();
+
+            PipeCommand command = new PipeCommand(List.of(command1, command2, command3), true);
+
+            assertTrue(command.isConcurrent());
+
+            command.evaluate(stdin, output);
+
+            assertEquals("1 " + STRING_SINGLE_WORD + STRING_NEWLINE, output.toString());
+        });
+    }
+
+    @Test
+    public void evaluate_ConcurrentAppExceptionThrown_ExceptionPropagated() throws AbstractApplicationException, ShellException {
+        CallCommand command1 = mock(CallCommand.class);
+        CallCommand command2 = mock(CallCommand.class);
+        doThrow(CatException.class)
+                .when(command1)
+                .evaluate(eq(stdin), any());
+
+        PipeCommand command = new PipeCommand(List.of(command1, command2), true);
+
+        assertThrows(CatException.class, () -> command.evaluate(stdin, stdout));
+    }
+
+    @Test
+    public void evaluate_ConcurrentLastStageFails_LastStageExceptionPropagated() throws AbstractApplicationException, ShellException {
+        CallCommand command1 = mock(CallCommand.class);
+        CallCommand command2 = mock(CallCommand.class);
+        doThrow(CatException.class)
+                .when(command1)
+                .evaluate(eq(stdin), any());
+        doThrow(ShellException.class)
+                .when(command2)
+                .evaluate(any(), eq(stdout));
+
+        PipeCommand command = new PipeCommand(List.of(command1, command2), true);
+
+        assertThrows(ShellException.class, () -> command.evaluate(stdin, stdout));
+    }
+
+    @Test
+    public void evaluate_ConcurrentProducerIntoHead_ProducerEndsSilently() throws Exception {
+        // far more than the pipe holds, so the producer is still writing when head finishes
+        Path file = Files.writeString(tempDir.resolve("big.txt"), ("line" + STRING_NEWLINE).repeat(100_000));
+        ApplicationRunner appRunner = new ApplicationRunner();
+        CallCommand command1 = new CallCommand(List.of("cat", file.toString()), appRunner);
+        CallCommand command2 = new CallCommand(List.of("head", "-n", "1"), appRunner);
+        PipeCommand command = new PipeCommand(List.of(command1, command2), true);
+        OutputStream output = new ByteArrayOutputStream();
+        ByteArrayOutputStream stderr = new ByteArrayOutputStream();
+
+        try (PrintStream capturedStderr = new PrintStream(stderr)) {
+            System.setErr(capturedStderr);
+            assertDoesNotThrow(() -> command.evaluate(stdin, output));
+        } finally {
+            System.setErr(ORIGINAL_STDERR);
+        }
+
+        assertEquals("line" + STRING_NEWLINE, output.toString());
+        assertEquals("", stderr.toString());
+    }
+}
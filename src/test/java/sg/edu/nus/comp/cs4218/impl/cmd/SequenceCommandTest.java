@@ -6,6 +6,7 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
 
@@ -18,6 +19,7 @@ import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 
 import sg.edu.nus.comp.cs4218.Command;
+import sg.edu.nus.comp.cs4218.Evaluation;
 import sg.edu.nus.comp.cs4218.exception.ShellException;
 import sg.edu.nus.comp.cs4218.impl.util.ApplicationRunner;
 import sg.edu.nus.comp.cs4218.impl.util.IOUtils;
@@ -86,4 +88,16 @@ class SequenceCommandTest {
             assertEquals("hello", input.get(0));
         });
     }
+
+    @Test
+    public void evaluate_EvaluationTerminated_CommandsSkipped() throws Exception {
+        CallCommand callCommand = mock(CallCommand.class);
+        SequenceCommand command = new SequenceCommand(List.of(callCommand));
+        Evaluation evaluation = new Evaluation();
+
+        evaluation.terminate();
+        evaluation.evaluate(command, stdin, stdout);
+
+        verify(callCommand, never()).evaluate(any(), any());
+    }
 }
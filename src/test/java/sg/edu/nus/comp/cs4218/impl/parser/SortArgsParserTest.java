@@ -0,0 +1,93 @@
+package sg.edu.nus.comp.cs4218.impl.parser;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static sg.edu.nus.comp.cs4218.impl.parser.ArgsParser.ILLEGAL_FLAG_MSG;
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_INVALID_KEY;
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_NULL_ARGS;
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_OPTION_REQUIRES_ARGUMENT;
+import static sg.edu.nus.comp.cs4218.testutil.TestConstants.STRING_FILE_MD;
+import static sg.edu.nus.comp.cs4218.testutil.TestConstants.STRING_SPACE_FILE_TXT;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import sg.edu.nus.comp.cs4218.exception.InvalidArgsException;
+
+class SortArgsParserTest {
+    private SortArgsParser parser;
+
+    @BeforeEach
+    void setUp() {
+        parser = new SortArgsParser();
+    }
+
+    @Test
+    public void parse_NoArgs_NoFlagsKeysOrFiles() {
+        assertDoesNotThrow(() -> parser.parse());
+
+        assertFalse(parser.isNumeric());
+        assertFalse(parser.isReverse());
+        assertFalse(parser.isUnique());
+        assertEquals(List.of(), parser.getKeys());
+        assertEquals(List.of(), parser.getFileNames());
+    }
+
+    @Test
+    public void parse_CombinedFlagsAndFiles_FlagsAndFilesParsed() {
+        assertDoesNotThrow(() -> parser.parse("-nru", STRING_FILE_MD, "-", STRING_SPACE_FILE_TXT));
+
+        assertTrue(parser.isNumeric());
+        assertTrue(parser.isReverse());
+        assertTrue(parser.isUnique());
+        assertEquals(List.of(STRING_FILE_MD, "-", STRING_SPACE_FILE_TXT), parser.getFileNames());
+    }
+
+    @Test
+    public void parse_KeysInEveryForm_KeysInOrder() {
+        assertDoesNotThrow(() -> parser.parse("-k", "2", "-k3,4", "-nk", "1,1", STRING_FILE_MD));
+
+        assertTrue(parser.isNumeric());
+        assertEquals(List.of("2", "3,4", "1,1"), parser.getKeys());
+        assertEquals(List.of(STRING_FILE_MD), parser.getFileNames());
+    }
+
+    @Test
+    public void parse_KeyWithoutDefinition_ThrowsInvalidArgsException() {
+        InvalidArgsException exception = assertThrows(InvalidArgsException.class, () -> parser.parse("-n", "-k"));
+
+        assertEquals(ERR_OPTION_REQUIRES_ARGUMENT, exception.getMessage());
+    }
+
+    @Test
+    public void parse_InvalidKeyDefinitions_ThrowsInvalidArgsException() {
+        for (String key : new String[]{"0", "a", "1,", ",2", "1,2,3", "-1", "1.2"}) {
+            InvalidArgsException exception = assertThrows(InvalidArgsException.class, () -> parser.parse("-k", key));
+
+            assertEquals(ERR_INVALID_KEY, exception.getMessage());
+            setUp();
+        }
+    }
+
+    @Test
+    public void parse_IllegalFlag_ThrowsInvalidArgsException() {
+        InvalidArgsException exception = assertThrows(InvalidArgsException.class, () -> parser.parse("-nx"));
+
+        assertEquals(ILLEGAL_FLAG_MSG + 'x', exception.getMessage());
+    }
+
+    @Test
+    public void parse_NullArgs_ThrowsInvalidArgsException() {
+        assertEquals(ERR_NULL_ARGS,
+                assertThrows(InvalidArgsException.class, () -> parser.parse((String[]) null)).getMessage());
+        assertEquals(ERR_NULL_ARGS,
+                assertThrows(InvalidArgsException.class, () -> parser.parse(STRING_FILE_MD, null)).getMessage());
+        assertEquals(ERR_NULL_ARGS,
+                assertThrows(InvalidArgsException.class, () -> parser.parse("-k", null)).getMessage());
+    }
+}
@@ -450,4 +450,25 @@ class SplitArgsParserTest {
             );
         });
     }
+
+    @Test
+    void isSplitByChunks_WithSplitByChunksOption_ReturnsTrue() {
+        assertDoesNotThrow(() -> {
+            parser = new SplitArgsParser();
+            parser.parse(CHAR_FLAG_PREFIX + "n", "l/4", STRING_FILE_MD);
+            assertTrue(parser.isSplitByChunks());
+            assertFalse(parser.isSplitByLines());
+            assertEquals("l/4", parser.getNumOfLinesOrBytes());
+            assertEquals(STRING_FILE_MD, parser.getFileName());
+            assertNull(parser.getPrefix());
+        });
+    }
+
+    @Test
+    void parse_ChunksAndLinesOptions_ThrowsException() {
+        assertThrows(InvalidArgsException.class, () -> {
+            parser = new SplitArgsParser();
+            parser.parse(CHAR_FLAG_PREFIX + "n", "2", CHAR_FLAG_PREFIX + "l", "2");
+        });
+    }
 }
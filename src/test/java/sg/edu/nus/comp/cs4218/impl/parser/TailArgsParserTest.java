@@ -0,0 +1,88 @@
+package sg.edu.nus.comp.cs4218.impl.parser;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static sg.edu.nus.comp.cs4218.impl.parser.ArgsParser.ILLEGAL_FLAG_MSG;
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_NULL_ARGS;
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_OPTION_REQUIRES_ARGUMENT;
+import static sg.edu.nus.comp.cs4218.testutil.TestConstants.STRING_FILE_MD;
+import static sg.edu.nus.comp.cs4218.testutil.TestConstants.STRING_SPACE_FILE_TXT;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import sg.edu.nus.comp.cs4218.exception.InvalidArgsException;
+
+class TailArgsParserTest {
+    private TailArgsParser parser;
+
+    @BeforeEach
+    void setUp() {
+        parser = new TailArgsParser();
+    }
+
+    @Test
+    public void parse_NoArgs_NoNumOfLinesOrFiles() {
+        assertDoesNotThrow(() -> parser.parse());
+
+        assertFalse(parser.isFollow());
+        assertNull(parser.getNumOfLines());
+        assertEquals(List.of(), parser.getFileNames());
+    }
+
+    @Test
+    public void parse_NumOfLinesAndFiles_NumOfLinesAndFilesParsed() {
+        assertDoesNotThrow(() -> parser.parse(STRING_FILE_MD, "-n", "+5", "-", STRING_SPACE_FILE_TXT));
+
+        assertEquals("+5", parser.getNumOfLines());
+        assertEquals(List.of(STRING_FILE_MD, "-", STRING_SPACE_FILE_TXT), parser.getFileNames());
+    }
+
+    @Test
+    public void parse_FollowFlag_IsFollow() {
+        assertDoesNotThrow(() -> parser.parse("-fn", "3", STRING_FILE_MD));
+
+        assertTrue(parser.isFollow());
+        assertEquals("3", parser.getNumOfLines());
+        assertEquals(List.of(STRING_FILE_MD), parser.getFileNames());
+    }
+
+    @Test
+    public void parse_RepeatedNumOfLines_LastNumOfLinesUsed() {
+        assertDoesNotThrow(() -> parser.parse("-n", "+5", "-n3", STRING_FILE_MD));
+
+        assertEquals("3", parser.getNumOfLines());
+        assertEquals(List.of(STRING_FILE_MD), parser.getFileNames());
+    }
+
+    @Test
+    public void parse_NumOfLinesMissing_ThrowsInvalidArgsException() {
+        InvalidArgsException exception = assertThrows(InvalidArgsException.class,
+                () -> parser.parse(STRING_FILE_MD, "-n"));
+
+        assertEquals(ERR_OPTION_REQUIRES_ARGUMENT, exception.getMessage());
+    }
+
+    @Test
+    public void parse_IllegalFlag_ThrowsInvalidArgsException() {
+        InvalidArgsException exception = assertThrows(InvalidArgsException.class, () -> parser.parse("-c", "5"));
+
+        assertEquals(ILLEGAL_FLAG_MSG + 'c', exception.getMessage());
+    }
+
+    @Test
+    public void parse_NullArgs_ThrowsInvalidArgsException() {
+        assertEquals(ERR_NULL_ARGS,
+                assertThrows(InvalidArgsException.class, () -> parser.parse((String[]) null)).getMessage());
+        assertEquals(ERR_NULL_ARGS,
+                assertThrows(InvalidArgsException.class, () -> parser.parse(STRING_FILE_MD, null)).getMessage());
+        assertEquals(ERR_NULL_ARGS,
+                assertThrows(InvalidArgsException.class, () -> parser.parse("-n", null)).getMessage());
+    }
+}
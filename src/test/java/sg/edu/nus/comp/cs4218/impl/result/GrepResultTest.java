@@ -117,4 +117,25 @@ class GrepResultTest {
                 new GrepResult(STRING_MULTI_WORDS, lines).formatToString(false, true)
         );
     }
-}
\ No newline at end of file
+
+    @Test
+    void formatToLines_CountOnlyResult_ReturnsCount() {
+        GrepResult result = new GrepResult(STRING_FILE_MD, 3);
+
+        assertEquals(List.of("3"), result.formatToLines(true, false));
+        assertEquals(List.of(String.format(STRING_LABEL_VALUE_PAIR, STRING_FILE_MD, "3")), result.formatToLines(true, true));
+    }
+
+    @Test
+    void formatToLines_PrefixFileName_ReturnsPrefixedLines() {
+        GrepResult result = new GrepResult(STRING_FILE_MD, List.of(STRING_SINGLE_WORD, STRING_MULTI_WORDS));
+
+        assertEquals(
+                List.of(
+                        String.format(STRING_LABEL_VALUE_PAIR, STRING_FILE_MD, STRING_SINGLE_WORD),
+                        String.format(STRING_LABEL_VALUE_PAIR, STRING_FILE_MD, STRING_MULTI_WORDS)
+                ),
+                result.formatToLines(false, true)
+        );
+    }
+}
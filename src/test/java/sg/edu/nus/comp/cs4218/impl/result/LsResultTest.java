@@ -14,12 +14,18 @@ import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.OutputStream;
 import java.io.PrintStream;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import sg.edu.nus.comp.cs4218.EnvironmentUtil;
+import sg.edu.nus.comp.cs4218.impl.util.ExternalSorter;
 
 class LsResultTest {
     private static final String TEST_DIR = EnvironmentUtil.currentDirectory + STRING_FILE_SEP + RESOURCES_PATH + STRING_FILE_SEP + "GrepResultTest";
@@ -52,7 +58,9 @@ class LsResultTest {
     void initialization_NullLabelOrFiles_ThrowsException() {
         assertThrows(IllegalArgumentException.class, () -> new LsResult(null, List.of(new File(TEST_FILE_1))) {
         });
-        assertThrows(IllegalArgumentException.class, () -> new LsResult(STRING_SINGLE_WORD, null) {
+        assertThrows(IllegalArgumentException.class, () -> new LsResult(STRING_SINGLE_WORD, (List<File>) null) {
+        });
+        assertThrows(IllegalArgumentException.class, () -> new LsResult(STRING_SINGLE_WORD, (Map<Path, BasicFileAttributes>) null) {
         });
     }
 
@@ -180,4 +188,48 @@ class LsResultTest {
                 new LsResult(STRING_MULTI_WORDS, files).formatToString(true, true)
         );
     }
-}
\ No newline at end of file
+
+    @Test
+    void getDirectories_EntriesWithAttributes_ReturnsDirectoriesSortedByName(@TempDir Path tempDir) throws Exception {
+        Path file = Files.createFile(tempDir.resolve("a.txt"));
+        Path directory1 = Files.createDirectory(tempDir.resolve("b"));
+        Path directory2 = Files.createDirectory(tempDir.resolve("B"));
+        Map<Path, BasicFileAttributes> entries = Map.of(
+                directory1, Files.readAttributes(directory1, BasicFileAttributes.class),
+                file, Files.readAttributes(file, BasicFileAttributes.class),
+                directory2, Files.readAttributes(directory2, BasicFileAttributes.class)
+        );
+
+        try (LsResult result = new LsResult(STRING_SINGLE_WORD, entries)) {
+            assertEquals(List.of(directory2, directory1), result.getDirectories());
+            assertEquals(String.join(STRING_NEWLINE, "B", "a.txt", "b"), result.formatToString(false, false));
+        }
+    }
+
+    @Test
+    void getDirectories_EntriesWithoutAttributes_ReturnsEmptyList() {
+        assertEquals(List.of(), new LsResult(STRING_EMPTY, List.of(new File(TEST_DIR))).getDirectories());
+    }
+
+    @Test
+    void forEachLine_NamesInSorter_PassesLabelAndSortedNames(@TempDir Path tempDir) throws Exception {
+        ExternalSorter sorter = new ExternalSorter(LsResult.createNameComparator(true), false, 100, tempDir);
+        for (String name : List.of(FILE_NAME_1, FILE_NAME_3, FILE_NAME_2, "b.txt")) {
+            sorter.add(name);
+        }
+        List<String> lines = new ArrayList<>();
+
+        try (LsResult result = new LsResult(STRING_SINGLE_WORD, Map.of(), sorter)) {
+            result.forEachLine(true, true, lines::add);
+        }
+
+        assertEquals(List.of(STRING_SINGLE_WORD + ":", FILE_NAME_3, FILE_NAME_2, "b.txt", FILE_NAME_1), lines);
+        assertEquals(0, tempDir.toFile().list().length);
+    }
+
+    @Test
+    void initialization_NullSorter_ThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> new LsResult(STRING_SINGLE_WORD, Map.of(), null) {
+        });
+    }
+}
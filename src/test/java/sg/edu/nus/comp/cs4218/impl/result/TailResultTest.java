@@ -0,0 +1,38 @@
+package sg.edu.nus.comp.cs4218.impl.result;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.STRING_NEWLINE;
+import static sg.edu.nus.comp.cs4218.testutil.TestConstants.STRING_MULTI_WORDS;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+import org.junit.jupiter.api.Test;
+
+class TailResultTest {
+    private static final PrintStream ORIGINAL_STDERR = System.err;
+
+
+    @Test
+    void initialization_NullErrorMessage_ThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> new TailResult(null));
+    }
+
+    @Test
+    void outputError_NonEmptyErrorMessage_PrintErrorToStdErr() {
+        ByteArrayOutputStream stderr = new ByteArrayOutputStream();
+
+        try (PrintStream capturedStderr = new PrintStream(stderr)) {
+            System.setErr(capturedStderr);
+            TailResult result = new TailResult(STRING_MULTI_WORDS);
+            assertTrue(result.isError());
+            result.outputError();
+        } finally {
+            System.setErr(ORIGINAL_STDERR);
+        }
+
+        assertEquals(STRING_MULTI_WORDS + STRING_NEWLINE, stderr.toString());
+    }
+}
@@ -0,0 +1,59 @@
+package sg.edu.nus.comp.cs4218.impl.util;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class ArgumentTemplateTest {
+
+    @Test
+    public void compile_QuotedArgument_IsConstant() {
+        ArgumentTemplate template = ArgumentTemplate.compile("'a b'\"*\"c");
+
+        assertTrue(template.isConstant());
+        assertDoesNotThrow(() -> assertEquals(List.of("a b*c"), template.resolve()));
+    }
+
+    @Test
+    public void compile_EmptyQuotes_ResolvesToEmptyArgument() {
+        ArgumentTemplate template = ArgumentTemplate.compile("''");
+
+        assertTrue(template.isConstant());
+        assertDoesNotThrow(() -> assertEquals(List.of(""), template.resolve()));
+    }
+
+    @Test
+    public void compile_UnquotedAsterisk_IsNotConstant() {
+        assertFalse(ArgumentTemplate.compile("*.txt").isConstant());
+    }
+
+    @Test
+    public void compile_BackQuote_IsNotConstant() {
+        assertFalse(ArgumentTemplate.compile("\"`echo a`\"").isConstant());
+    }
+
+    @Test
+    public void resolve_BackQuoteResolvedTwice_EvaluatesSubCommandEachTime() {
+        ArgumentTemplate template = ArgumentTemplate.compile("x`echo 1 2`y");
+
+        assertDoesNotThrow(() -> {
+            assertEquals(List.of("x1", "2y"), template.resolve());
+            assertEquals(List.of("x1", "2y"), template.resolve());
+        });
+    }
+
+    @Test
+    public void resolve_ConstantResultModified_DoesNotAffectLaterResults() {
+        ArgumentTemplate template = ArgumentTemplate.compile("a");
+
+        assertDoesNotThrow(() -> {
+            template.resolve().add("b");
+            assertEquals(List.of("a"), template.resolve());
+        });
+    }
+}
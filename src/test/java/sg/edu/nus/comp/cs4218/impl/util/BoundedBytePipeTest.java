@@ -0,0 +1,99 @@
+package sg.edu.nus.comp.cs4218.impl.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Test;
+
+class BoundedBytePipeTest {
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    @Test
+    public void initialization_NonPositiveCapacity_ThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> new BoundedBytePipe(0));
+    }
+
+    @Test
+    public void read_WriterClosed_ReturnsWrittenBytesThenEndOfStream() {
+        BoundedBytePipe pipe = new BoundedBytePipe(16);
+
+        assertDoesNotThrow(() -> {
+            pipe.getOutputStream().write(new byte[]{1, 2, 3});
+            pipe.getOutputStream().close();
+
+            assertArrayEquals(new byte[]{1, 2, 3}, pipe.getInputStream().readAllBytes());
+            assertEquals(-1, pipe.getInputStream().read());
+        });
+    }
+
+    @Test
+    public void read_DataLargerThanCapacity_AllBytesTransferredInOrder() {
+        BoundedBytePipe pipe = new BoundedBytePipe(7);
+        byte[] data = new byte[10_000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) i;
+        }
+
+        assertTimeoutPreemptively(TIMEOUT, () -> {
+            CompletableFuture<Void> producer = CompletableFuture.runAsync(() -> {
+                try (OutputStream outputStream = pipe.getOutputStream()) {
+                    outputStream.write(data);
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+
+            assertArrayEquals(data, pipe.getInputStream().readAllBytes());
+            producer.join();
+        });
+    }
+
+    @Test
+    public void write_ReaderClosedWhileWriterBlocked_ThrowsException() throws IOException {
+        BoundedBytePipe pipe = new BoundedBytePipe(4);
+
+        try (InputStream inputStream = pipe.getInputStream()) {
+            assertTimeoutPreemptively(TIMEOUT, () -> {
+                CompletableFuture<Void> consumer = CompletableFuture.runAsync(() -> {
+                    try {
+                        inputStream.read();
+                        inputStream.close();
+                    } catch (IOException e) {
+                        throw new IllegalStateException(e);
+                    }
+                });
+
+                assertThrows(IOException.class, () -> pipe.getOutputStream().write(new byte[64]));
+                consumer.join();
+            });
+        }
+    }
+
+    @Test
+    public void write_WriterClosed_ThrowsException() throws IOException {
+        BoundedBytePipe pipe = new BoundedBytePipe();
+        pipe.getOutputStream().close();
+
+        assertThrows(IOException.class, () -> pipe.getOutputStream().write(1));
+    }
+
+    @Test
+    public void isReaderClosed_ReaderClosed_ReturnsTrue() throws IOException {
+        BoundedBytePipe pipe = new BoundedBytePipe();
+
+        assertFalse(pipe.isReaderClosed());
+        pipe.getInputStream().close();
+        assertTrue(pipe.isReaderClosed());
+    }
+}
@@ -15,8 +15,11 @@ import sg.edu.nus.comp.cs4218.Command;
 import sg.edu.nus.comp.cs4218.exception.ShellException;
 import sg.edu.nus.comp.cs4218.impl.cmd.CallCommand;
 import sg.edu.nus.comp.cs4218.impl.cmd.PipeCommand;
+import sg.edu.nus.comp.cs4218.impl.cmd.SequenceCommand;
 
 class CommandBuilderUtilTest {
+    private static final String ECHO = "echo";
+
     @Test
     void parseCommand_EmptyString_ThrowsException() {
         assertThrows(ShellException.class, () -> {
@@ -71,7 +74,7 @@ class CommandBuilderUtilTest {
         assertDoesNotThrow(() -> {
             Command command = CommandBuilderUtil.parseCommand("  echo hello world", new ApplicationRunner());
             assertEquals(CallCommand.class, command.getClass());
-            assertEquals(List.of("echo", "hello", "world"), ((CallCommand) command).getArgsList());
+            assertEquals(List.of(ECHO, "hello", "world"), ((CallCommand) command).getArgsList());
         });
     }
 
@@ -102,8 +105,74 @@ class CommandBuilderUtilTest {
             List<CallCommand> callCommands = ((PipeCommand) command).getCallCommands();
 
             assertEquals(2, callCommands.size());
-            assertEquals(List.of("echo", "hello"), callCommands.get(0).getArgsList());
+            assertEquals(List.of(ECHO, "hello"), callCommands.get(0).getArgsList());
             assertEquals(List.of("grep", "he"), callCommands.get(1).getArgsList());
         });
     }
-}
\ No newline at end of file
+
+    @Test
+    void parseCommand_TrailingSemicolon_CallCommand() {
+        assertDoesNotThrow(() -> {
+            Command command = CommandBuilderUtil.parseCommand("echo a ; ", new ApplicationRunner());
+            assertEquals(CallCommand.class, command.getClass());
+            assertEquals(List.of(ECHO, "a"), ((CallCommand) command).getArgsList());
+        });
+    }
+
+    @Test
+    void parseCommand_SequenceCommandString_SequenceCommand() {
+        assertDoesNotThrow(() -> {
+            Command command = CommandBuilderUtil.parseCommand("echo a;echo b | cat", new ApplicationRunner());
+            assertEquals(SequenceCommand.class, command.getClass());
+
+            List<Command> commands = ((SequenceCommand) command).getCommands();
+
+            assertEquals(2, commands.size());
+            assertEquals(List.of(ECHO, "a"), ((CallCommand) commands.get(0)).getArgsList());
+            assertEquals(PipeCommand.class, commands.get(1).getClass());
+        });
+    }
+
+    @Test
+    void parseCommand_QuotedSpecialCharacters_SingleArguments() {
+        assertDoesNotThrow(() -> {
+            Command command = CommandBuilderUtil.parseCommand("echo 'a | b'\"c ; d\"`e > f`", new ApplicationRunner());
+            assertEquals(List.of(ECHO, "'a | b'\"c ; d\"`e > f`"), ((CallCommand) command).getArgsList());
+        });
+    }
+
+    @Test
+    void parseCommand_DoubleQuotesAroundBackQuotes_SingleArgument() {
+        assertDoesNotThrow(() -> {
+            Command command = CommandBuilderUtil.parseCommand("echo \"a `echo \"b c\"` d\" e", new ApplicationRunner());
+            assertEquals(List.of(ECHO, "\"a `echo \"b c\"` d\"", "e"), ((CallCommand) command).getArgsList());
+        });
+    }
+
+    @Test
+    void parseCommand_UnclosedBackQuoteInsideDoubleQuotes_ClosesAtLaterBackQuote() {
+        assertDoesNotThrow(() -> {
+            Command command = CommandBuilderUtil.parseCommand("a|\"bb`<\"`a`\"", new ApplicationRunner());
+            List<CallCommand> callCommands = ((PipeCommand) command).getCallCommands();
+            assertEquals(List.of("\"bb`<\"`a`\""), callCommands.get(1).getArgsList());
+        });
+    }
+
+    @Test
+    void parseCommand_RedirectionWithoutArgumentAfter_ThrowsException() {
+        assertThrows(ShellException.class, () -> {
+            CommandBuilderUtil.parseCommand("echo a >", new ApplicationRunner());
+        });
+    }
+
+    @Test
+    void parseCommand_LongCommandString_ParsesAllCommands() {
+        String fragment = "echo \"x `echo \"y\"` z\" 'q' | cat; ";
+        int numFragments = 100 * 1024 / fragment.length();
+
+        assertDoesNotThrow(() -> {
+            Command command = CommandBuilderUtil.parseCommand(fragment.repeat(numFragments), new ApplicationRunner());
+            assertEquals(numFragments, ((SequenceCommand) command).getCommands().size());
+        });
+    }
+}
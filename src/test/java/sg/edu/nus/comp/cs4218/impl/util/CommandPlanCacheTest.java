@@ -0,0 +1,131 @@
+package sg.edu.nus.comp.cs4218.impl.util;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.STRING_NEWLINE;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import sg.edu.nus.comp.cs4218.Command;
+import sg.edu.nus.comp.cs4218.exception.ShellException;
+import sg.edu.nus.comp.cs4218.impl.cmd.PipeCommand;
+import sg.edu.nus.comp.cs4218.testutil.AwaitableOutputStream;
+
+class CommandPlanCacheTest {
+    private static final String COMMAND_1 = "echo a";
+    private static final String COMMAND_2 = "echo b";
+    private static final String COMMAND_3 = "echo c";
+    private static final long TIMEOUT_SECONDS = 10;
+
+    private CommandPlanCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new CommandPlanCache(2, new ApplicationRunner(), false);
+    }
+
+    @Test
+    public void initialization_NonPositiveCapacity_ThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> new CommandPlanCache(0, new ApplicationRunner(), false));
+    }
+
+    @Test
+    public void getCommand_SameCommandString_ReturnsCachedCommand() {
+        assertDoesNotThrow(() -> {
+            Command first = cache.getCommand(COMMAND_1);
+            Command second = cache.getCommand(COMMAND_1);
+
+            assertSame(first, second);
+            assertEquals(1, cache.getHitCount());
+            assertEquals(1, cache.getMissCount());
+        });
+    }
+
+    @Test
+    public void getCommand_CapacityExceeded_EvictsLeastRecentlyUsed() {
+        assertDoesNotThrow(() -> {
+            Command first = cache.getCommand(COMMAND_1);
+            Command second = cache.getCommand(COMMAND_2);
+            cache.getCommand(COMMAND_1);
+            cache.getCommand(COMMAND_3);
+
+            assertEquals(2, cache.size());
+            assertSame(first, cache.getCommand(COMMAND_1));
+            assertNotSame(second, cache.getCommand(COMMAND_2));
+        });
+    }
+
+    @Test
+    public void getCommand_InvalidSyntax_ThrowsExceptionAndNotCached() {
+        assertThrows(ShellException.class, () -> cache.getCommand("|"));
+        assertThrows(ShellException.class, () -> cache.getCommand("|"));
+
+        assertEquals(0, cache.size());
+        assertEquals(2, cache.getMissCount());
+    }
+
+    @Test
+    public void getCommand_ConcurrentPipe_BuildsConcurrentPipeCommand() {
+        CommandPlanCache concurrentCache = new CommandPlanCache(2, new ApplicationRunner(), true);
+
+        assertDoesNotThrow(() -> {
+            Command command = concurrentCache.getCommand("echo a | cat");
+            assertTrue(((PipeCommand) command).isConcurrent());
+        });
+    }
+
+    @Test
+    public void clear_CachedCommands_RemovesCommands() {
+        assertDoesNotThrow(() -> cache.getCommand(COMMAND_1));
+
+        cache.clear();
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void getCommand_CachedTailFollowTerminated_StopsEveryEvaluation(@TempDir Path tempDir) throws Exception {
+        Path file = Files.writeString(tempDir.resolve("app.log"), "line" + STRING_NEWLINE);
+        String commandString = "tail -f '" + file + "'";
+        Command command = cache.getCommand(commandString);
+
+        try (AwaitableOutputStream first = new AwaitableOutputStream();
+             AwaitableOutputStream second = new AwaitableOutputStream()) {
+            List<FutureTask<Void>> evaluations = List.of(
+                    startEvaluating(command, first),
+                    startEvaluating(command, second)
+            );
+
+            first.whenEquals("line" + STRING_NEWLINE).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            second.whenEquals("line" + STRING_NEWLINE).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            assertSame(command, cache.getCommand(commandString));
+            command.terminate();
+
+            for (FutureTask<Void> evaluation : evaluations) {
+                evaluation.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            }
+        }
+    }
+
+    private static FutureTask<Void> startEvaluating(Command command, AwaitableOutputStream output) {
+        FutureTask<Void> evaluation = new FutureTask<>(() -> {
+            command.evaluate(InputStream.nullInputStream(), output);
+            return null;
+        });
+        new Thread(evaluation).start();
+        return evaluation;
+    }
+}
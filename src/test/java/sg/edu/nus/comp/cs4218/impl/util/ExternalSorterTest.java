@@ -0,0 +1,115 @@
+package sg.edu.nus.comp.cs4218.impl.util;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ExternalSorterTest {
+    // compares only the first character, so that the order of equal lines shows
+    private static final Comparator<String> FIRST_CHAR = Comparator.comparing(line -> line.isEmpty() ? 0 : line.charAt(0));
+
+    private static List<String> sortAll(ExternalSorter sorter, List<String> lines) throws Exception {
+        for (String line : lines) {
+            sorter.add(line);
+        }
+
+        List<String> result = new ArrayList<>();
+        sorter.forEachLine(result::add);
+        return result;
+    }
+
+    private static List<String> generateLines(int numOfLines) {
+        Random random = new Random(numOfLines);
+        List<String> lines = new ArrayList<>();
+
+        for (int i = 0; i < numOfLines; i++) {
+            lines.add((char) ('a' + random.nextInt(26)) + " line \u00e9 " + i);
+        }
+        return lines;
+    }
+
+    private static void assertNoTempFiles(Path tempDir) throws Exception {
+        try (var files = Files.list(tempDir)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    public void constructor_InvalidArgs_ThrowsIllegalArgumentException(@TempDir Path tempDir) {
+        assertThrows(IllegalArgumentException.class, () -> new ExternalSorter(null, false, 1, tempDir));
+        assertThrows(IllegalArgumentException.class, () -> new ExternalSorter(FIRST_CHAR, false, 0, tempDir));
+        assertThrows(IllegalArgumentException.class, () -> new ExternalSorter(FIRST_CHAR, false, 1, null));
+    }
+
+    @Test
+    public void forEachLine_FitsInMemory_StableSortWithoutRuns(@TempDir Path tempDir) {
+        List<String> lines = generateLines(5000);
+        List<String> expected = lines.stream().sorted(FIRST_CHAR).collect(Collectors.toList());
+
+        assertDoesNotThrow(() -> {
+            try (ExternalSorter sorter = new ExternalSorter(FIRST_CHAR, false, 64 * 1024 * 1024, tempDir)) {
+                assertEquals(expected, sortAll(sorter, lines));
+                assertEquals(0, sorter.getNumOfRuns());
+            }
+            assertNoTempFiles(tempDir);
+        });
+    }
+
+    @Test
+    public void forEachLine_SpilledRuns_StableSortAndTempFilesDeleted(@TempDir Path tempDir) {
+        List<String> lines = generateLines(5000);
+        List<String> expected = lines.stream().sorted(FIRST_CHAR).collect(Collectors.toList());
+
+        assertDoesNotThrow(() -> {
+            try (ExternalSorter sorter = new ExternalSorter(FIRST_CHAR, false, 16 * 1024, tempDir)) {
+                assertEquals(expected, sortAll(sorter, lines));
+                assertTrue(sorter.getNumOfRuns() > 1);
+            }
+            assertNoTempFiles(tempDir);
+        });
+    }
+
+    @Test
+    public void forEachLine_MoreRunsThanMergeWidth_MergedInPasses(@TempDir Path tempDir) {
+        // a budget of one byte spills every line into a run of its own
+        List<String> lines = generateLines(ExternalSorter.MAX_MERGE_WIDTH * ExternalSorter.MAX_MERGE_WIDTH + 7);
+        List<String> expected = lines.stream().sorted(FIRST_CHAR).collect(Collectors.toList());
+
+        assertDoesNotThrow(() -> {
+            try (ExternalSorter sorter = new ExternalSorter(FIRST_CHAR, false, 1, tempDir)) {
+                assertEquals(expected, sortAll(sorter, lines));
+            }
+            assertNoTempFiles(tempDir);
+        });
+    }
+
+    @Test
+    public void forEachLine_Unique_KeepsFirstOfEqualLines(@TempDir Path tempDir) {
+        List<String> lines = generateLines(3000);
+        List<String> expected = new ArrayList<>();
+        for (char chr = 'a'; chr <= 'z'; chr++) {
+            char first = chr;
+            lines.stream().filter(line -> line.charAt(0) == first).findFirst().ifPresent(expected::add);
+        }
+
+        for (long memoryBudget : new long[]{64 * 1024 * 1024, 8 * 1024, 1}) {
+            assertDoesNotThrow(() -> {
+                try (ExternalSorter sorter = new ExternalSorter(FIRST_CHAR, true, memoryBudget, tempDir)) {
+                    assertEquals(expected, sortAll(sorter, lines));
+                }
+            });
+        }
+    }
+}
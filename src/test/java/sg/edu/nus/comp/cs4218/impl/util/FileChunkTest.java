@@ -0,0 +1,101 @@
+package sg.edu.nus.comp.cs4218.impl.util;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class FileChunkTest {
+    private static final String FILE_NAME = "a.txt";
+    private static final String LINES = "ab\ncdefgh\ni\njk";
+
+    private static List<String> splitToStrings(Path file, long chunkSize) throws Exception {
+        try (FileChannel channel = FileChannel.open(file)) {
+            return FileChunk.split(channel, chunkSize).stream()
+                    .map(chunk -> assertDoesNotThrow(() -> StandardCharsets.UTF_8.decode(chunk.map(channel)).toString()))
+                    .collect(Collectors.toList());
+        }
+    }
+
+    @Test
+    public void split_NonPositiveChunkSize_ThrowsException(@TempDir Path tempDir) {
+        assertThrows(IllegalArgumentException.class, () -> {
+            try (FileChannel channel = FileChannel.open(Files.writeString(tempDir.resolve(FILE_NAME), "a"))) {
+                FileChunk.split(channel, 0);
+            }
+        });
+    }
+
+    @Test
+    public void split_EmptyFile_ReturnsNoChunks(@TempDir Path tempDir) {
+        assertDoesNotThrow(() ->
+                assertEquals(List.of(), splitToStrings(Files.writeString(tempDir.resolve(FILE_NAME), ""), 4)));
+    }
+
+    @Test
+    public void split_MultipleLines_ChunksEndAfterNewlines(@TempDir Path tempDir) {
+        assertDoesNotThrow(() -> {
+            Path file = Files.writeString(tempDir.resolve(FILE_NAME), LINES);
+
+            assertEquals(List.of("ab\n", "cdefgh\n", "i\n", "jk"), splitToStrings(file, 2));
+            assertEquals(List.of("ab\ncdefgh\n", "i\njk"), splitToStrings(file, 4));
+            assertEquals(List.of(LINES), splitToStrings(file, 100));
+        });
+    }
+
+    @Test
+    public void split_ChunkSizeOne_EveryLineInOwnChunk(@TempDir Path tempDir) {
+        assertDoesNotThrow(() -> {
+            Path file = Files.writeString(tempDir.resolve(FILE_NAME), "\n\na\n");
+
+            assertEquals(List.of("\n", "\n", "a\n"), splitToStrings(file, 1));
+        });
+    }
+
+    private static List<String> splitIntoStrings(Path file, int numOfChunks) throws Exception {
+        try (FileChannel channel = FileChannel.open(file)) {
+            return FileChunk.splitInto(channel, numOfChunks).stream()
+                    .map(chunk -> assertDoesNotThrow(() -> StandardCharsets.UTF_8.decode(chunk.map(channel)).toString()))
+                    .collect(Collectors.toList());
+        }
+    }
+
+    @Test
+    public void splitInto_NonPositiveNumOfChunks_ThrowsException(@TempDir Path tempDir) {
+        assertThrows(IllegalArgumentException.class, () -> {
+            try (FileChannel channel = FileChannel.open(Files.writeString(tempDir.resolve(FILE_NAME), "a"))) {
+                FileChunk.splitInto(channel, 0);
+            }
+        });
+    }
+
+    @Test
+    public void splitInto_MultipleLines_ExactNumberOfChunksEndingAfterNewlines(@TempDir Path tempDir) {
+        assertDoesNotThrow(() -> {
+            Path file = Files.writeString(tempDir.resolve(FILE_NAME), LINES);
+
+            assertEquals(List.of(LINES), splitIntoStrings(file, 1));
+            assertEquals(List.of("ab\ncdefgh\n", "i\njk"), splitIntoStrings(file, 2));
+            assertEquals(List.of("ab\ncdefgh\n", "", "i\njk"), splitIntoStrings(file, 3));
+        });
+    }
+
+    @Test
+    public void splitInto_MoreChunksThanBytes_TrailingChunksEmpty(@TempDir Path tempDir) {
+        assertDoesNotThrow(() -> {
+            Path file = Files.writeString(tempDir.resolve(FILE_NAME), "a\n");
+
+            assertEquals(List.of("", "", "a\n"), splitIntoStrings(file, 3));
+            assertEquals(List.of("", ""), splitIntoStrings(Files.writeString(tempDir.resolve("b.txt"), ""), 2));
+        });
+    }
+}
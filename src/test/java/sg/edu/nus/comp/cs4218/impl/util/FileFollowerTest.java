@@ -0,0 +1,140 @@
+package sg.edu.nus.comp.cs4218.impl.util;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.STRING_NEWLINE;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import sg.edu.nus.comp.cs4218.testutil.AwaitableOutputStream;
+
+class FileFollowerTest {
+    private static final long TIMEOUT_MILLIS = 10_000;
+    private static final String FILE_NAME = "app.log";
+
+    @TempDir
+    Path tempDir;
+
+    private AwaitableOutputStream output;
+    private FileFollower follower;
+    private Thread followingThread;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        output = new AwaitableOutputStream();
+        follower = new FileFollower(output);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (followingThread != null) {
+            followingThread.interrupt();
+            followingThread.join(TIMEOUT_MILLIS);
+        }
+        follower.close();
+    }
+
+    private void startFollowing() {
+        followingThread = new Thread(() -> assertDoesNotThrow(() -> follower.follow()));
+        followingThread.start();
+    }
+
+    private static void append(Path file, String content) throws Exception {
+        Files.writeString(file, content, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    private void assertOutputEventually(String expected) throws Exception {
+        output.whenEquals(expected).get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        assertEquals(expected, output.toString());
+    }
+
+    @Test
+    public void follow_BytesAppended_CopiesOnlyAppendedBytes() throws Exception {
+        Path file = Files.writeString(tempDir.resolve(FILE_NAME), "old" + STRING_NEWLINE);
+        follower.add(file, FILE_NAME, Files.size(file));
+        startFollowing();
+
+        append(file, "first" + STRING_NEWLINE);
+        assertOutputEventually("first" + STRING_NEWLINE);
+
+        append(file, "second" + STRING_NEWLINE);
+        assertOutputEventually("first" + STRING_NEWLINE + "second" + STRING_NEWLINE);
+    }
+
+    @Test
+    public void follow_FileTruncated_CopiesFromStart() throws Exception {
+        Path file = Files.writeString(tempDir.resolve(FILE_NAME), "old line" + STRING_NEWLINE);
+        follower.add(file, FILE_NAME, Files.size(file));
+        startFollowing();
+
+        Files.writeString(file, "new" + STRING_NEWLINE);
+        assertOutputEventually("new" + STRING_NEWLINE);
+    }
+
+    @Test
+    public void follow_FileRotated_CopiesNewFileFromStart() throws Exception {
+        Path file = Files.writeString(tempDir.resolve(FILE_NAME), "old" + STRING_NEWLINE);
+        follower.add(file, FILE_NAME, Files.size(file));
+        startFollowing();
+
+        Files.move(file, tempDir.resolve("app.log.1"));
+        append(tempDir.resolve("app.log.1"), "late" + STRING_NEWLINE);
+        append(file, "rotated" + STRING_NEWLINE);
+        assertOutputEventually("rotated" + STRING_NEWLINE);
+    }
+
+    @Test
+    public void follow_MultipleFiles_WritesHeaderWhenFileChanges() throws Exception {
+        Path first = Files.writeString(tempDir.resolve("first.log"), "");
+        Path second = Files.writeString(tempDir.resolve("second.log"), "");
+        follower.add(first, "first.log", 0);
+        follower.add(second, "second.log", 0);
+        startFollowing();
+
+        append(second, "a" + STRING_NEWLINE);
+        assertOutputEventually("a" + STRING_NEWLINE);
+
+        append(first, "b" + STRING_NEWLINE);
+        assertOutputEventually("a" + STRING_NEWLINE + STRING_NEWLINE + "==> first.log <==" + STRING_NEWLINE
+                + "b" + STRING_NEWLINE);
+    }
+
+    @Test
+    public void follow_ThreadInterrupted_ReturnsWithInterruptCleared() throws Exception {
+        Path file = Files.writeString(tempDir.resolve(FILE_NAME), "");
+        follower.add(file, FILE_NAME, 0);
+        boolean[] isInterrupted = {true};
+        followingThread = new Thread(() -> {
+            assertDoesNotThrow(() -> follower.follow());
+            isInterrupted[0] = Thread.currentThread().isInterrupted();
+        });
+        followingThread.start();
+
+        followingThread.interrupt();
+        followingThread.join(TIMEOUT_MILLIS);
+
+        assertFalse(followingThread.isAlive());
+        assertFalse(isInterrupted[0]);
+    }
+
+    @Test
+    public void follow_Closed_Returns() throws Exception {
+        Path file = Files.writeString(tempDir.resolve(FILE_NAME), "");
+        follower.add(file, FILE_NAME, 0);
+        startFollowing();
+
+        follower.close();
+        followingThread.join(TIMEOUT_MILLIS);
+
+        assertFalse(followingThread.isAlive());
+    }
+}
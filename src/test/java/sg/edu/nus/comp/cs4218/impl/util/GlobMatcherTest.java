@@ -0,0 +1,104 @@
+package sg.edu.nus.comp.cs4218.impl.util;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class GlobMatcherTest {
+    private static final String FILE_NAME = "file.txt";
+
+    @Test
+    public void constructor_NullSegments_ThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> new GlobMatcher(null));
+    }
+
+    @Test
+    public void constructor_NoSegments_ThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> new GlobMatcher(List.of()));
+    }
+
+    @Test
+    public void constructor_NullSegment_ThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> new GlobMatcher(Arrays.asList("a", null)));
+    }
+
+    @Test
+    public void matches_NoWildcard_MatchesSameNameOnly() {
+        GlobMatcher matcher = new GlobMatcher(List.of(FILE_NAME));
+
+        assertTrue(matcher.matches(FILE_NAME));
+        assertFalse(matcher.matches("file.txt2"));
+        assertFalse(matcher.matches("file"));
+    }
+
+    @Test
+    public void matches_LeadingWildcard_MatchesSuffix() {
+        // *.txt
+        GlobMatcher matcher = new GlobMatcher(List.of("", ".txt"));
+
+        assertTrue(matcher.matches(FILE_NAME));
+        assertTrue(matcher.matches(".txt"));
+        assertFalse(matcher.matches("file.txt.md"));
+    }
+
+    @Test
+    public void matches_TrailingWildcard_MatchesPrefix() {
+        // file*
+        GlobMatcher matcher = new GlobMatcher(List.of("file", ""));
+
+        assertTrue(matcher.matches("file1.txt"));
+        assertTrue(matcher.matches("file"));
+        assertFalse(matcher.matches("afile"));
+    }
+
+    @Test
+    public void matches_WildcardOnly_MatchesAnyName() {
+        GlobMatcher matcher = new GlobMatcher(List.of("", ""));
+
+        assertTrue(matcher.matches(FILE_NAME));
+        assertTrue(matcher.matches(""));
+    }
+
+    @Test
+    public void matches_ConsecutiveWildcards_SameAsSingleWildcard() {
+        // f**t
+        GlobMatcher matcher = new GlobMatcher(List.of("f", "", "t"));
+
+        assertTrue(matcher.matches("ft"));
+        assertTrue(matcher.matches(FILE_NAME));
+        assertFalse(matcher.matches("file.md"));
+    }
+
+    @Test
+    public void matches_MiddleSegments_MatchesSegmentsInOrder() {
+        // *a*b*
+        GlobMatcher matcher = new GlobMatcher(List.of("", "a", "b", ""));
+
+        assertTrue(matcher.matches("ab"));
+        assertTrue(matcher.matches("xaxbx"));
+        assertFalse(matcher.matches("ba"));
+    }
+
+    @Test
+    public void matches_PrefixOverlapsSuffix_DoesNotMatch() {
+        // ab*ba
+        GlobMatcher matcher = new GlobMatcher(List.of("ab", "ba"));
+
+        assertFalse(matcher.matches("aba"));
+        assertTrue(matcher.matches("abba"));
+    }
+
+    @Test
+    public void matches_MiddleSegmentOverlapsSuffix_DoesNotMatch() {
+        // a*bc*cd
+        GlobMatcher matcher = new GlobMatcher(List.of("a", "bc", "cd"));
+
+        assertFalse(matcher.matches("abcd"));
+        assertTrue(matcher.matches("abccd"));
+    }
+}
@@ -0,0 +1,68 @@
+package sg.edu.nus.comp.cs4218.impl.util;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class GlobalLineCounterTest {
+
+    private static Map<String, Long> countAll(GlobalLineCounter counter) throws Exception {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        counter.forEachGroup(counts::put);
+        return counts;
+    }
+
+    private static void assertSameCounts(int numOfLines, int numOfDistinct, long memoryBudget, Path tempDir)
+            throws Exception {
+        Random random = new Random(numOfLines);
+        Map<String, Long> expected = new LinkedHashMap<>();
+
+        try (GlobalLineCounter counter = new GlobalLineCounter(memoryBudget, tempDir)) {
+            for (int i = 0; i < numOfLines; i++) {
+                String line = "line \u00e9 " + random.nextInt(numOfDistinct);
+                expected.merge(line, 1L, Long::sum);
+                counter.add(line);
+            }
+
+            Map<String, Long> actual = countAll(counter);
+            assertEquals(expected, actual);
+            assertEquals(expected.keySet().toString(), actual.keySet().toString());
+        }
+
+        try (var files = Files.list(tempDir)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    public void forEachGroup_NoLines_NoGroups(@TempDir Path tempDir) {
+        assertDoesNotThrow(() -> {
+            try (GlobalLineCounter counter = new GlobalLineCounter(1024, tempDir)) {
+                assertEquals(Map.of(), countAll(counter));
+            }
+        });
+    }
+
+    @Test
+    public void forEachGroup_FitsInMemory_CountsInFirstOccurrenceOrder(@TempDir Path tempDir) {
+        assertDoesNotThrow(() -> assertSameCounts(10000, 300, 64 * 1024 * 1024, tempDir));
+    }
+
+    @Test
+    public void forEachGroup_SpilledOnce_CountsInFirstOccurrenceOrder(@TempDir Path tempDir) {
+        assertDoesNotThrow(() -> assertSameCounts(20000, 3000, 1, tempDir));
+    }
+
+    @Test
+    public void forEachGroup_PartitionsSpilledAgain_CountsInFirstOccurrenceOrder(@TempDir Path tempDir) {
+        assertDoesNotThrow(() -> assertSameCounts(100000, 60000, 1, tempDir));
+    }
+}
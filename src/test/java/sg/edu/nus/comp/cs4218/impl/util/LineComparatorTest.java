@@ -0,0 +1,81 @@
+package sg.edu.nus.comp.cs4218.impl.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static sg.edu.nus.comp.cs4218.impl.util.ErrorConstants.ERR_INVALID_KEY;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class LineComparatorTest {
+
+    private static List<String> sorted(LineComparator comparator, String... lines) {
+        List<String> result = new ArrayList<>(List.of(lines));
+        result.sort(comparator);
+        return result;
+    }
+
+    @Test
+    public void compare_NoKeys_ComparesWholeLinesAsText() {
+        LineComparator comparator = new LineComparator(false, List.of());
+
+        assertEquals(List.of("", "B", "a", "ab", "b"), sorted(comparator, "b", "ab", "", "a", "B"));
+        assertEquals(0, comparator.compare("same", "same"));
+    }
+
+    @Test
+    public void compare_Numeric_ComparesLeadingNumbers() {
+        LineComparator comparator = new LineComparator(true, List.of());
+
+        assertEquals(List.of("-10", "-2.5", "-0.5", "x", "0.25", "2", "  10 apples", "99999999999999999999"),
+                sorted(comparator, "2", "99999999999999999999", "-0.5", "0.25", "x", "  10 apples", "-10", "-2.5"));
+    }
+
+    @Test
+    public void compare_NumericEqualValues_ComparesEqual() {
+        LineComparator comparator = new LineComparator(true, List.of());
+
+        assertEquals(0, comparator.compare("007", "7"));
+        assertEquals(0, comparator.compare("1.50", "1.5"));
+        assertEquals(0, comparator.compare("-0", "0"));
+        assertEquals(0, comparator.compare("text", ""));
+        assertTrue(comparator.compare("0.15", "0.2") < 0);
+    }
+
+    @Test
+    public void compare_KeyToEndOfLine_IgnoresEarlierFields() {
+        LineComparator comparator = new LineComparator(false, List.of(LineComparator.parseKey("2")));
+
+        assertEquals(List.of("only", "z  apple pie", "a banana", "m cherry"),
+                sorted(comparator, "a banana", "m cherry", "only", "z  apple pie"));
+    }
+
+    @Test
+    public void compare_SeveralKeys_ComparesInTurn() {
+        LineComparator comparator = new LineComparator(true,
+                List.of(LineComparator.parseKey("2,2"), LineComparator.parseKey("1,1")));
+
+        assertEquals(List.of("3 1 x", "1 2 z", "2 2 y", "9\t10"),
+                sorted(comparator, "9\t10", "2 2 y", "3 1 x", "1 2 z"));
+    }
+
+    @Test
+    public void compare_EndFieldBeforeStartField_EmptyKeys() {
+        LineComparator comparator = new LineComparator(false, List.of(LineComparator.parseKey("3,1")));
+
+        assertEquals(0, comparator.compare("a b c", "x y z"));
+    }
+
+    @Test
+    public void parseKey_InvalidDefinitions_ThrowsIllegalArgumentException() {
+        for (String definition : new String[]{null, "", "0", "1,0", "a", "1,", "99999999999"}) {
+            IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                    () -> LineComparator.parseKey(definition));
+
+            assertEquals(ERR_INVALID_KEY, exception.getMessage());
+        }
+    }
+}
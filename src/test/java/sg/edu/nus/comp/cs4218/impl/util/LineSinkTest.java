@@ -0,0 +1,152 @@
+package sg.edu.nus.comp.cs4218.impl.util;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.STRING_NEWLINE;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class LineSinkTest {
+    private static final String FIRST_LINE = "first";
+
+    @Test
+    public void initialization_NullOutputStream_ThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> new LineSink(null));
+    }
+
+    @Test
+    public void writeLine_PlainSink_WritesEveryLine() {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        LineSink sink = new LineSink(outputStream);
+
+        assertDoesNotThrow(() -> {
+            sink.writeLine("");
+            sink.writeLine("a");
+            sink.flush();
+        });
+
+        assertEquals(STRING_NEWLINE + "a" + STRING_NEWLINE, outputStream.toString());
+    }
+
+    @Test
+    public void writeLine_SectionWithSingleEmptyLine_WritesNothing() {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        LineSink sink = new LineSink(outputStream, true);
+
+        assertDoesNotThrow(() -> {
+            sink.startSection();
+            sink.writeLine("");
+            sink.startSection();
+            sink.writeLine("a");
+            sink.flush();
+        });
+
+        assertEquals("a" + STRING_NEWLINE, outputStream.toString());
+    }
+
+    @Test
+    public void writeLine_SectionStartingWithEmptyLine_WritesAllLines() {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        LineSink sink = new LineSink(outputStream, true);
+
+        assertDoesNotThrow(() -> {
+            sink.startSection();
+            sink.writeLine("");
+            sink.writeLine("a");
+            sink.flush();
+        });
+
+        assertEquals(STRING_NEWLINE + "a" + STRING_NEWLINE, outputStream.toString());
+    }
+
+    @Test
+    public void writeLine_BeforeFlush_HoldsLinesInBuffer() {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        LineSink sink = new LineSink(outputStream);
+
+        assertDoesNotThrow(() -> sink.writeLine("a"));
+
+        assertEquals("", outputStream.toString());
+    }
+
+    @Test
+    public void collectToString_MultipleSections_JoinsNonEmptySectionsWithoutFinalNewline() {
+        String output = assertDoesNotThrow(() -> LineSink.collectToString(sink -> {
+            sink.startSection();
+            sink.writeLine("a");
+            sink.writeLine("b");
+            sink.startSection();
+            sink.startSection();
+            sink.writeLine("c");
+        }));
+
+        assertEquals("a" + STRING_NEWLINE + "b" + STRING_NEWLINE + "c", output);
+    }
+
+    @Test
+    public void collectToString_TaskThrows_PropagatesException() {
+        IOException exception = new IOException("fail");
+
+        IOException thrown = assertThrows(IOException.class, () -> LineSink.collectToString(sink -> {
+            throw exception;
+        }));
+
+        assertEquals(exception, thrown);
+    }
+
+    @Test
+    public void writeFile_FileWithoutTrailingNewline_NewlineAppended(@TempDir Path tempDir) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        LineSink sink = new LineSink(outputStream, true);
+
+        assertDoesNotThrow(() -> {
+            Path file = Files.writeString(tempDir.resolve("file.txt"), "a" + STRING_NEWLINE + "b");
+            sink.writeLine(FIRST_LINE);
+            sink.writeFile(file);
+            sink.writeLine("last");
+            sink.flush();
+        });
+
+        assertEquals(String.join(STRING_NEWLINE, FIRST_LINE, "a", "b", "last") + STRING_NEWLINE,
+                outputStream.toString());
+    }
+
+    @Test
+    public void writeFile_FileWithSingleEmptyLine_WritesNothing(@TempDir Path tempDir) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        LineSink sink = new LineSink(outputStream, true);
+
+        assertDoesNotThrow(() -> {
+            sink.writeFile(Files.writeString(tempDir.resolve("file.txt"), "\n"));
+            sink.writeFile(Files.writeString(tempDir.resolve("empty.txt"), ""));
+            sink.flush();
+        });
+
+        assertEquals("", outputStream.toString());
+    }
+
+    @Test
+    public void writeFile_FileOutputStream_FileCopied(@TempDir Path tempDir) {
+        assertDoesNotThrow(() -> {
+            Path source = Files.writeString(tempDir.resolve("source.txt"), "a\r\nb\n");
+            Path target = tempDir.resolve("target.txt");
+
+            try (FileOutputStream outputStream = new FileOutputStream(target.toFile())) {
+                LineSink sink = new LineSink(outputStream, true);
+                sink.writeLine(FIRST_LINE);
+                sink.writeFile(source);
+                sink.flush();
+            }
+
+            assertEquals(FIRST_LINE + STRING_NEWLINE + "a\r\nb\n", Files.readString(target));
+        });
+    }
+}
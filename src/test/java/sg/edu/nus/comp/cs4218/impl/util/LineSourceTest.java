@@ -0,0 +1,50 @@
+package sg.edu.nus.comp.cs4218.impl.util;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.junit.jupiter.api.Test;
+
+class LineSourceTest {
+
+    @Test
+    public void initialization_NullInputStream_ThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> new LineSource(null));
+    }
+
+    @Test
+    public void readLine_MixedLineTerminators_ReturnsLinesWithoutTerminators() {
+        LineSource source = new LineSource(new ByteArrayInputStream("a\nb\r\n\nc".getBytes()));
+
+        assertDoesNotThrow(() -> {
+            assertEquals("a", source.readLine());
+            assertEquals("b", source.readLine());
+            assertEquals("", source.readLine());
+            assertEquals("c", source.readLine());
+            assertNull(source.readLine());
+        });
+    }
+
+    @Test
+    public void readLine_EmptyInput_ReturnsNull() {
+        LineSource source = new LineSource(new ByteArrayInputStream(new byte[0]));
+
+        assertDoesNotThrow(() -> assertNull(source.readLine()));
+    }
+
+    @Test
+    public void close_OpenSource_ClosesInputStream() throws IOException {
+        try (InputStream inputStream = mock(InputStream.class)) {
+            assertDoesNotThrow(() -> new LineSource(inputStream).close());
+            verify(inputStream).close();
+        }
+    }
+}
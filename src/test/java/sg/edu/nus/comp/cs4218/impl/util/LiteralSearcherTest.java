@@ -0,0 +1,82 @@
+package sg.edu.nus.comp.cs4218.impl.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+
+class LiteralSearcherTest {
+
+    @Test
+    public void initialization_NullLiteral_ThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> new LiteralSearcher(null, false));
+    }
+
+    @Test
+    public void isLiteral_PlainWords_ReturnsTrue() {
+        assertTrue(LiteralSearcher.isLiteral("ERROR: disk full"));
+        assertTrue(LiteralSearcher.isLiteral(""));
+    }
+
+    @Test
+    public void isLiteral_RegexMetaCharacters_ReturnsFalse() {
+        for (char metaChar : "\\^$.|?*+()[]{}".toCharArray()) {
+            assertFalse(LiteralSearcher.isLiteral("a" + metaChar + "b"));
+        }
+    }
+
+    @Test
+    public void indexIn_LiteralPresent_ReturnsFirstIndex() {
+        assertEquals(4, new LiteralSearcher("abc", false).indexIn("xabdabcabc"));
+    }
+
+    @Test
+    public void indexIn_LiteralAbsent_ReturnsMinusOne() {
+        assertEquals(-1, new LiteralSearcher("abc", false).indexIn("ab"));
+        assertEquals(-1, new LiteralSearcher("abc", false).indexIn("xABCx"));
+    }
+
+    @Test
+    public void indexIn_EmptyLiteral_ReturnsZero() {
+        assertEquals(0, new LiteralSearcher("", false).indexIn(""));
+    }
+
+    @Test
+    public void indexIn_CaseInsensitive_AsciiLettersFolded() {
+        assertEquals(1, new LiteralSearcher("TimeOut", true).indexIn("xtIMEoUTx"));
+        assertEquals(-1, new LiteralSearcher("\u00C9t\u00E9", true).indexIn("\u00E9t\u00E9"));
+    }
+
+    @Test
+    public void isFoundIn_RandomText_SameAsRegex() {
+        Random random = new Random(4218);
+
+        for (int i = 0; i < 20_000; i++) {
+            String literal = randomString(random, 1 + random.nextInt(4));
+            String text = randomString(random, random.nextInt(30));
+            boolean isCaseInsensitive = random.nextBoolean();
+            Pattern pattern = isCaseInsensitive
+                    ? Pattern.compile(literal, Pattern.CASE_INSENSITIVE)
+                    : Pattern.compile(literal);
+
+            assertEquals(pattern.matcher(text).find(), new LiteralSearcher(literal, isCaseInsensitive).isFoundIn(text),
+                    literal + " in " + text);
+        }
+    }
+
+    private static String randomString(Random random, int length) {
+        String alphabet = "abAB \u00E9\u00C9\u0100\u0200";
+        StringBuilder builder = new StringBuilder();
+
+        for (int i = 0; i < length; i++) {
+            builder.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+
+        return builder.toString();
+    }
+}
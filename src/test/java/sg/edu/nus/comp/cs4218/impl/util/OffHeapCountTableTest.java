@@ -0,0 +1,110 @@
+package sg.edu.nus.comp.cs4218.impl.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class OffHeapCountTableTest {
+    private static final long LARGE_BUDGET = 64 * 1024 * 1024;
+    private static final String KEY_PREFIX = "key";
+
+    private static byte[] bytes(String key) {
+        return key.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static Map<String, Long> toMap(OffHeapCountTable table) {
+        Map<String, Long> entries = new LinkedHashMap<>();
+        table.forEach((key, count, firstIndex) ->
+                entries.put(new String(key, StandardCharsets.UTF_8), count));
+        return entries;
+    }
+
+    @Test
+    public void constructor_InvalidBudget_ThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> new OffHeapCountTable(0));
+        assertThrows(IllegalArgumentException.class, () -> new OffHeapCountTable(Integer.MAX_VALUE + 1L));
+    }
+
+    @Test
+    public void add_RepeatedKeys_CountsInFirstIndexOrder() {
+        OffHeapCountTable table = new OffHeapCountTable(LARGE_BUDGET);
+        String[] keys = {"b", "a", "", "b", "a", "b"};
+
+        for (int i = 0; i < keys.length; i++) {
+            assertTrue(table.add(bytes(keys[i]), keys[i].hashCode(), 1, i));
+        }
+
+        assertEquals(3, table.size());
+        assertEquals(Map.of("b", 3L, "a", 2L, "", 1L), toMap(table));
+        assertEquals(List.of("b", "a", ""), new ArrayList<>(toMap(table).keySet()));
+    }
+
+    @Test
+    public void add_EarlierFirstIndex_KeepsEarliest() {
+        OffHeapCountTable table = new OffHeapCountTable(LARGE_BUDGET);
+        table.add(bytes("x"), 1, 2, 10);
+        table.add(bytes("y"), 2, 1, 5);
+        table.add(bytes("x"), 1, 3, 3);
+
+        assertEquals(List.of("x", "y"), new ArrayList<>(toMap(table).keySet()));
+        assertEquals(5L, toMap(table).get("x"));
+    }
+
+    @Test
+    public void add_CollidingHashes_KeepsKeysApart() {
+        OffHeapCountTable table = new OffHeapCountTable(LARGE_BUDGET);
+
+        for (int i = 0; i < 5000; i++) {
+            // every key has the same hash, and the table grows several times
+            assertTrue(table.add(bytes(KEY_PREFIX + i), 42, 1, i));
+            assertTrue(table.add(bytes(KEY_PREFIX + i / 2), 42, 1, i));
+        }
+
+        Map<String, Long> entries = toMap(table);
+        assertEquals(5000, entries.size());
+        assertEquals(3L, entries.get("key0"));
+        assertEquals(1L, entries.get("key4999"));
+    }
+
+    @Test
+    public void add_BudgetExceeded_RefusesNewKeysOnly() {
+        OffHeapCountTable table = new OffHeapCountTable(1);
+        int added = 0;
+
+        while (table.add(bytes(KEY_PREFIX + added), (KEY_PREFIX + added).hashCode(), 1, added)) {
+            added++;
+        }
+
+        assertEquals(added, table.size());
+        assertTrue(table.add(bytes("key0"), "key0".hashCode(), 1, added));
+        assertFalse(table.add(bytes("new"), "new".hashCode(), 1, added));
+    }
+
+    @Test
+    public void add_KeyLargerThanBudgetIntoEmptyTable_Accepted() {
+        OffHeapCountTable table = new OffHeapCountTable(1);
+        byte[] key = new byte[1024 * 1024];
+
+        assertTrue(table.add(key, 7, 1, 0));
+        assertFalse(table.add(new byte[1], 8, 1, 1));
+    }
+
+    @Test
+    public void clear_NonEmptyTable_RemovesEntries() {
+        OffHeapCountTable table = new OffHeapCountTable(LARGE_BUDGET);
+        table.add(bytes("a"), 1, 1, 0);
+        table.clear();
+        table.add(bytes("b"), 1, 1, 1);
+
+        assertEquals(Map.of("b", 1L), toMap(table));
+    }
+}
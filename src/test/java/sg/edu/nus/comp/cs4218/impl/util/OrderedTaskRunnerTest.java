@@ -0,0 +1,99 @@
+package sg.edu.nus.comp.cs4218.impl.util;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import sg.edu.nus.comp.cs4218.impl.util.OrderedTaskRunner.IoTask;
+
+class OrderedTaskRunnerTest {
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void runInOrder_TasksFinishingOutOfOrder_ResultsInTaskOrder() {
+        List<IoTask<Integer>> tasks = IntStream.range(0, 20)
+                .<IoTask<Integer>>mapToObj(index -> () -> {
+                    try {
+                        Thread.sleep((20 - index) % 5);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return index;
+                })
+                .collect(Collectors.toList());
+        List<Integer> results = new ArrayList<>();
+
+        assertDoesNotThrow(() -> OrderedTaskRunner.runInOrder(executor, 3, tasks, results::add));
+
+        assertEquals(IntStream.range(0, 20).boxed().collect(Collectors.toList()), results);
+    }
+
+    @Test
+    public void runInOrder_TaskThrowsIOException_ThrowsIOException() {
+        IOException exception = new IOException("failed");
+        List<IoTask<Integer>> tasks = List.of(() -> 1, () -> {
+            throw exception;
+        });
+        List<Integer> results = new ArrayList<>();
+
+        IOException thrown = assertThrows(IOException.class,
+                () -> OrderedTaskRunner.runInOrder(executor, 2, tasks, results::add));
+
+        assertEquals(exception, thrown);
+        assertEquals(List.of(1), results);
+    }
+
+    @Test
+    public void runInOrder_ConsumerThrowsException_ThrowsException() {
+        List<IoTask<Integer>> tasks = List.of(() -> 1, () -> 2);
+
+        assertThrows(IllegalStateException.class, () -> OrderedTaskRunner.runInOrder(executor, 2, tasks, result -> {
+            throw new IllegalStateException();
+        }));
+    }
+
+    @Test
+    public void runInOrder_TaskIterator_TakesAtMostParallelismTasksAhead() {
+        AtomicInteger numOfTaken = new AtomicInteger();
+        List<Integer> numsOfTakenAhead = new ArrayList<>();
+        Iterator<IoTask<Integer>> tasks = IntStream.range(0, 20)
+                .<IoTask<Integer>>mapToObj(index -> {
+                    numOfTaken.incrementAndGet();
+                    return () -> index;
+                })
+                .iterator();
+        List<Integer> results = new ArrayList<>();
+
+        assertDoesNotThrow(() -> OrderedTaskRunner.runInOrder(executor, 3, tasks, result -> {
+            results.add(result);
+            numsOfTakenAhead.add(numOfTaken.get() - results.size());
+        }));
+
+        assertEquals(IntStream.range(0, 20).boxed().collect(Collectors.toList()), results);
+        assertEquals(2, numsOfTakenAhead.stream().mapToInt(Integer::intValue).max().getAsInt());
+    }
+}
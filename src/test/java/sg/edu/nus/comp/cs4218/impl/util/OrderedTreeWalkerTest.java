@@ -0,0 +1,157 @@
+package sg.edu.nus.comp.cs4218.impl.util;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class OrderedTreeWalkerTest {
+    private static final int DEPTH = 4;
+    private static final int NUM_OF_CHILDREN = 3;
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Returns the children of a node named by its path from the root, such as "0/2/1".
+     */
+    private static List<String> children(String node, String result) {
+        List<String> children = new ArrayList<>();
+
+        if (node.split("/").length < DEPTH) {
+            for (int i = 0; i < NUM_OF_CHILDREN; i++) {
+                children.add(node + "/" + i);
+            }
+        }
+
+        return children;
+    }
+
+    private static void addPreOrder(String node, List<String> result) {
+        result.add(node);
+        for (String child : children(node, node)) {
+            addPreOrder(child, result);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    public void walkInOrder_NodesFinishingOutOfOrder_ResultsInPreOrder() {
+        List<String> expected = new ArrayList<>();
+        addPreOrder("0", expected);
+        addPreOrder("1", expected);
+        Function<String, String> visitor = node -> {
+            sleep((node.hashCode() & Integer.MAX_VALUE) % 3);
+            return node;
+        };
+        List<String> results = new ArrayList<>();
+
+        assertDoesNotThrow(() -> OrderedTreeWalker.walkInOrder(executor, 3, List.of("0", "1"), visitor,
+                OrderedTreeWalkerTest::children, results::add));
+
+        assertEquals(expected, results);
+    }
+
+    @Test
+    public void walkInOrder_ManyNodes_VisitsAtMostParallelismNodesAtOnce() {
+        AtomicInteger numOfRunningNodes = new AtomicInteger();
+        AtomicInteger maxNumOfRunningNodes = new AtomicInteger();
+        Function<String, String> visitor = node -> {
+            maxNumOfRunningNodes.accumulateAndGet(numOfRunningNodes.incrementAndGet(), Math::max);
+            sleep(1);
+            numOfRunningNodes.decrementAndGet();
+            return node;
+        };
+        List<String> results = new ArrayList<>();
+
+        assertDoesNotThrow(() -> OrderedTreeWalker.walkInOrder(executor, 2, List.of("0"), visitor,
+                OrderedTreeWalkerTest::children, results::add));
+
+        assertEquals(40, results.size());
+        assertTrue(maxNumOfRunningNodes.get() <= 2);
+    }
+
+    @Test
+    public void walkInOrder_SlowConsumer_VisitsAtMostParallelismNodesAhead() {
+        AtomicInteger numOfVisitedNodes = new AtomicInteger();
+        List<Integer> numOfNodesAhead = new ArrayList<>();
+        Function<String, String> visitor = node -> {
+            numOfVisitedNodes.incrementAndGet();
+            return node;
+        };
+
+        assertDoesNotThrow(() -> OrderedTreeWalker.walkInOrder(executor, 3, List.of("0"), visitor,
+                OrderedTreeWalkerTest::children, result -> {
+                    sleep(2);
+                    numOfNodesAhead.add(numOfVisitedNodes.get() - numOfNodesAhead.size());
+                }));
+
+        assertEquals(40, numOfNodesAhead.size());
+        assertTrue(numOfNodesAhead.stream().allMatch(numOfNodes -> numOfNodes <= 3));
+    }
+
+    @Test
+    public void walkInOrder_VisitorThrowsException_ThrowsException() {
+        IllegalStateException exception = new IllegalStateException("failed");
+        Function<String, String> visitor = node -> {
+            if ("0/1".equals(node)) {
+                throw exception;
+            }
+            return node;
+        };
+        List<String> results = new ArrayList<>();
+
+        IllegalStateException thrown = assertThrows(IllegalStateException.class,
+                () -> OrderedTreeWalker.walkInOrder(executor, 2, List.of("0"), visitor,
+                        OrderedTreeWalkerTest::children, results::add));
+
+        assertEquals(exception, thrown);
+        assertEquals(14, results.size());
+        assertEquals("0/0/2/2", results.get(results.size() - 1));
+    }
+
+    @Test
+    public void walkInOrder_ConsumerThrowsException_ThrowsException() {
+        assertThrows(IllegalStateException.class, () -> OrderedTreeWalker.walkInOrder(executor, 2, List.of("0"),
+                Function.identity(), OrderedTreeWalkerTest::children, result -> {
+                    throw new IllegalStateException();
+                }));
+    }
+
+    @Test
+    public void walkInOrder_NoRoots_HandsNothingOver() {
+        List<String> results = new ArrayList<>();
+
+        assertDoesNotThrow(() -> OrderedTreeWalker.walkInOrder(executor, 2, List.<String>of(), Function.identity(),
+                OrderedTreeWalkerTest::children, results::add));
+
+        assertEquals(List.of(), results);
+    }
+}
@@ -0,0 +1,66 @@
+package sg.edu.nus.comp.cs4218.impl.util;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.STRING_REDIR_INPUT;
+import static sg.edu.nus.comp.cs4218.impl.util.StringUtils.STRING_REDIR_OUTPUT;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class RedirectionPlanTest {
+    private static final String CAT = "cat";
+
+    @Test
+    public void analyze_NoRedirection_AllArgsKept() {
+        RedirectionPlan plan = RedirectionPlan.analyze(List.of("echo", "'a b'"));
+
+        assertEquals(List.of("echo", "'a b'"), plan.getNoRedirArgsList());
+        assertEquals(0, plan.getNumRedirections());
+        assertFalse(plan.isSyntaxError());
+        assertDoesNotThrow(() -> assertEquals(List.of("echo", "a b"), plan.resolveNoRedirArgs()));
+    }
+
+    @Test
+    public void analyze_InputAndOutputRedirection_RedirectionsExtracted() {
+        RedirectionPlan plan = RedirectionPlan.analyze(
+                List.of(CAT, STRING_REDIR_INPUT, "in.txt", STRING_REDIR_OUTPUT, "'out.txt'")
+        );
+
+        assertEquals(List.of(CAT), plan.getNoRedirArgsList());
+        assertEquals(2, plan.getNumRedirections());
+        assertEquals(STRING_REDIR_INPUT, plan.getRedirOperator(0));
+        assertEquals(STRING_REDIR_OUTPUT, plan.getRedirOperator(1));
+        assertDoesNotThrow(() -> assertEquals(List.of("out.txt"), plan.getRedirFile(1).resolve()));
+        assertFalse(plan.isSyntaxError());
+    }
+
+    @Test
+    public void analyze_MissingFile_SyntaxError() {
+        RedirectionPlan plan = RedirectionPlan.analyze(List.of(CAT, STRING_REDIR_OUTPUT));
+
+        assertEquals(0, plan.getNumRedirections());
+        assertTrue(plan.isSyntaxError());
+    }
+
+    @Test
+    public void analyze_ConsecutiveOperators_SyntaxError() {
+        RedirectionPlan plan = RedirectionPlan.analyze(
+                List.of(CAT, STRING_REDIR_INPUT, STRING_REDIR_OUTPUT, "out.txt")
+        );
+
+        assertEquals(0, plan.getNumRedirections());
+        assertTrue(plan.isSyntaxError());
+    }
+
+    @Test
+    public void analyze_ArgumentAfterRedirection_RedirectionKeptBeforeSyntaxError() {
+        RedirectionPlan plan = RedirectionPlan.analyze(List.of(CAT, STRING_REDIR_OUTPUT, "out.txt", "extra"));
+
+        assertEquals(1, plan.getNumRedirections());
+        assertTrue(plan.isSyntaxError());
+    }
+}
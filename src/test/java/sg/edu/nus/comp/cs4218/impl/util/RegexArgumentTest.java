@@ -195,6 +195,60 @@ class RegexArgumentTest {
         assertEquals(FOLDER_3, globbedFiles.get(1));
     }
 
+    @Test
+    void globFiles_WildcardInMiddle_ReturnsGlobbedFilesSorted() {
+        // f*1*
+        regexArgument.merge("f");
+        regexArgument.appendAsterisk();
+        regexArgument.merge("1");
+        regexArgument.appendAsterisk();
+
+        List<String> globbedFiles = regexArgument.globFiles();
+
+        assertEquals(2, globbedFiles.size());
+        assertEquals(FILE_1, globbedFiles.get(0));
+        assertEquals(FOLDER_1, globbedFiles.get(1));
+    }
+
+    @Test
+    void globFiles_QuotedAsterisk_NotWildcard() {
+        // "*".txt
+        regexArgument.append('*');
+        regexArgument.merge(".txt");
+
+        List<String> globbedFiles = regexArgument.globFiles();
+
+        assertEquals(1, globbedFiles.size());
+        assertEquals("*.txt", globbedFiles.get(0));
+    }
+
+    @Test
+    void globFiles_ParentIsFile_ArgUnchanged() {
+        // file1.txt/*
+        regexArgument.merge(FILE_1);
+        regexArgument.merge(STRING_FILE_SEP);
+        regexArgument.appendAsterisk();
+
+        List<String> globbedFiles = regexArgument.globFiles();
+
+        assertEquals(1, globbedFiles.size());
+        assertEquals(regexArgument.toString(), globbedFiles.get(0));
+    }
+
+    @Test
+    void globFiles_WildcardInParentFolder_ArgUnchanged() {
+        // f*/*
+        regexArgument.merge("f");
+        regexArgument.appendAsterisk();
+        regexArgument.merge(STRING_FILE_SEP);
+        regexArgument.appendAsterisk();
+
+        List<String> globbedFiles = regexArgument.globFiles();
+
+        assertEquals(1, globbedFiles.size());
+        assertEquals(regexArgument.toString(), globbedFiles.get(0));
+    }
+
     @Test
     void append_EmptyRegexArg_CharAppendedRegexArg() {
         regexArgument.append('a');
@@ -0,0 +1,112 @@
+package sg.edu.nus.comp.cs4218.impl.util;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SpillingLineQueueTest {
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    @TempDir
+    Path tempDir;
+
+    private static List<String> lines(int count) {
+        return IntStream.range(0, count).mapToObj(i -> "line " + i).collect(Collectors.toList());
+    }
+
+    private long countTempFiles() throws IOException {
+        try (Stream<Path> files = Files.list(tempDir)) {
+            return files.count();
+        }
+    }
+
+    @Test
+    public void initialization_InvalidArgs_ThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> new SpillingLineQueue(0, tempDir));
+        assertThrows(IllegalArgumentException.class, () -> new SpillingLineQueue(1024, null));
+    }
+
+    @Test
+    public void forEachLine_WithinMemoryBudget_PassesLinesInOrderWithoutSpilling() throws IOException {
+        List<String> result = new ArrayList<>();
+
+        try (SpillingLineQueue queue = new SpillingLineQueue(1024 * 1024, tempDir)) {
+            for (String line : lines(100)) {
+                queue.add(line);
+            }
+            queue.finish();
+
+            assertEquals(0, countTempFiles());
+            queue.forEachLine(result::add);
+        }
+
+        assertEquals(lines(100), result);
+    }
+
+    @Test
+    public void forEachLine_OverMemoryBudget_SpillsAndPassesLinesInOrder() throws IOException {
+        List<String> result = new ArrayList<>();
+
+        try (SpillingLineQueue queue = new SpillingLineQueue(1000, tempDir)) {
+            for (String line : lines(1000)) {
+                queue.add(line);
+            }
+            queue.finish();
+
+            assertEquals(1, countTempFiles());
+            queue.forEachLine(result::add);
+        }
+
+        assertEquals(lines(1000), result);
+        assertEquals(0, countTempFiles());
+    }
+
+    @Test
+    public void forEachLine_ProducerStillAdding_PassesLinesAsTheyAreAdded() throws IOException {
+        CountDownLatch firstLineTaken = new CountDownLatch(1);
+        List<String> result = new ArrayList<>();
+
+        try (SpillingLineQueue queue = new SpillingLineQueue(1024 * 1024, tempDir)) {
+            CompletableFuture<Void> producer = CompletableFuture.runAsync(() -> assertDoesNotThrow(() -> {
+                queue.add("first");
+                // the second line is only added once the consumer has received the first one
+                firstLineTaken.await();
+                queue.add("second");
+                queue.finish();
+            }));
+
+            assertTimeoutPreemptively(TIMEOUT, () -> queue.forEachLine(line -> {
+                result.add(line);
+                firstLineTaken.countDown();
+            }));
+            producer.join();
+        }
+
+        assertEquals(List.of("first", "second"), result);
+    }
+
+    @Test
+    public void add_Closed_ThrowsException() throws IOException {
+        try (SpillingLineQueue queue = new SpillingLineQueue(1024, tempDir)) {
+            queue.close();
+
+            assertThrows(IOException.class, () -> queue.add("line"));
+        }
+    }
+}
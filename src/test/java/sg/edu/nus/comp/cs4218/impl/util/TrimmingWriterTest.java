@@ -0,0 +1,61 @@
+package sg.edu.nus.comp.cs4218.impl.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.StringWriter;
+
+import org.junit.jupiter.api.Test;
+
+class TrimmingWriterTest {
+    private String writeAll(String... chunks) throws Exception {
+        StringWriter output = new StringWriter();
+        TrimmingWriter writer = new TrimmingWriter(output);
+
+        for (String chunk : chunks) {
+            writer.write(chunk);
+        }
+        writer.close();
+
+        return output.toString();
+    }
+
+    @Test
+    public void constructor_NullWriter_ThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> new TrimmingWriter(null));
+    }
+
+    @Test
+    public void write_LeadingAndTrailingWhitespace_WritesTrimmedText() throws Exception {
+        assertEquals("a\tb", writeAll(" \n\ta\tb \r\n"));
+    }
+
+    @Test
+    public void write_WhitespaceAcrossChunks_KeepsInnerWhitespace() throws Exception {
+        assertEquals("a \n b\tc", writeAll("  ", " a ", "\n", " b", "\t", "", "c", "  \n", " "));
+    }
+
+    @Test
+    public void write_OnlyWhitespace_WritesNothing() throws Exception {
+        assertEquals("", writeAll(" ", "\t\n", ""));
+    }
+
+    @Test
+    public void write_SameAsStringTrim_WritesSameText() throws Exception {
+        String text = "\u0001 x\u0000y \u0002";
+
+        assertEquals(text.trim(), writeAll(text.substring(0, 3), text.substring(3)));
+    }
+
+    @Test
+    public void close_UnderlyingWriter_IsNotClosed() throws Exception {
+        StringWriter output = new StringWriter();
+        TrimmingWriter writer = new TrimmingWriter(output);
+
+        writer.write("a ");
+        writer.close();
+        output.write("b");
+
+        assertEquals("ab", output.toString());
+    }
+}
@@ -0,0 +1,133 @@
+package sg.edu.nus.comp.cs4218.impl.util;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class WcCounterTest {
+
+    private static WcCounter count(String text, boolean isLines, boolean isWords, int... splitPoints) {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        WcCounter counter = new WcCounter(isLines, isWords);
+        int start = 0;
+
+        for (int splitPoint : splitPoints) {
+            counter.update(ByteBuffer.wrap(bytes, start, splitPoint - start));
+            start = splitPoint;
+        }
+        counter.update(ByteBuffer.wrap(bytes, start, bytes.length - start));
+
+        return counter;
+    }
+
+    @Test
+    public void update_EmptyInput_CountsNothing() {
+        WcCounter counter = count("", true, true);
+
+        assertEquals(0, counter.getNumLines());
+        assertEquals(0, counter.getNumWords());
+        assertEquals(0, counter.getNumBytes());
+    }
+
+    @Test
+    public void update_LinesWithMixedTerminators_CountsEachTerminatorOnce() {
+        WcCounter counter = count("a b\r\nc\rd\n\n  e  f", true, true);
+
+        assertEquals(5, counter.getNumLines());
+        assertEquals(6, counter.getNumWords());
+        assertEquals(16, counter.getNumBytes());
+    }
+
+    @Test
+    public void update_InputSplitInsideWordAndTerminator_SameCounts() {
+        WcCounter counter = count("ab\r\ncd", true, true, 1, 3);
+
+        assertEquals(2, counter.getNumLines());
+        assertEquals(2, counter.getNumWords());
+        assertEquals(6, counter.getNumBytes());
+    }
+
+    @Test
+    public void update_OnlyBytesRequested_LinesAndWordsNotCounted() {
+        WcCounter counter = count("a b\nc", false, false);
+
+        assertEquals(0, counter.getNumLines());
+        assertEquals(0, counter.getNumWords());
+        assertEquals(5, counter.getNumBytes());
+    }
+
+    @Test
+    public void update_RandomText_SameCountsAsLineSourceAndTokenize() {
+        Random random = new Random(4218);
+        List<String> pieces = List.of("a", "bc", " ", "\t", "\n", "\r", "\r\n", "\u00E9");
+
+        for (int i = 0; i < 2_000; i++) {
+            StringBuilder builder = new StringBuilder();
+            for (int j = random.nextInt(20); j > 0; j--) {
+                builder.append(pieces.get(random.nextInt(pieces.size())));
+            }
+            String text = builder.toString();
+            int length = text.getBytes(StandardCharsets.UTF_8).length;
+            WcCounter counter = length > 0
+                    ? count(text, true, true, random.nextInt(length + 1))
+                    : count(text, true, true);
+
+            long[] expected = assertDoesNotThrow(() -> countWithLineSource(text));
+            assertEquals(expected[0], counter.getNumLines(), text);
+            assertEquals(expected[1], counter.getNumWords(), text);
+        }
+    }
+
+    private static long[] countWithLineSource(String text) throws Exception {
+        LineSource source = new LineSource(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)));
+        long numLines = 0;
+        long numWords = 0;
+        String line;
+
+        while ((line = source.readLine()) != null) {
+            numLines++;
+            numWords += StringUtils.tokenize(line).length;
+        }
+
+        return new long[]{numLines, numWords};
+    }
+
+    @Test
+    public void merge_RandomTextSplitIntoCounters_SameCountsAsSingleCounter() {
+        Random random = new Random(4218);
+        List<String> pieces = List.of("a", " ", "\n", "\r", "\r\n");
+
+        for (int i = 0; i < 2_000; i++) {
+            StringBuilder builder = new StringBuilder();
+            for (int j = random.nextInt(20); j > 0; j--) {
+                builder.append(pieces.get(random.nextInt(pieces.size())));
+            }
+            byte[] bytes = builder.toString().getBytes(StandardCharsets.UTF_8);
+            boolean isWords = random.nextBoolean();
+
+            WcCounter expected = new WcCounter(true, isWords);
+            expected.update(ByteBuffer.wrap(bytes));
+
+            WcCounter merged = new WcCounter(true, isWords);
+            int start = 0;
+            while (start < bytes.length) {
+                int end = start + 1 + random.nextInt(bytes.length - start);
+                WcCounter part = new WcCounter(true, isWords);
+                part.update(ByteBuffer.wrap(bytes, start, end - start));
+                merged.merge(part);
+                start = end;
+            }
+
+            assertEquals(expected.getNumLines(), merged.getNumLines(), builder.toString());
+            assertEquals(expected.getNumWords(), merged.getNumWords(), builder.toString());
+            assertEquals(expected.getNumBytes(), merged.getNumBytes());
+        }
+    }
+}
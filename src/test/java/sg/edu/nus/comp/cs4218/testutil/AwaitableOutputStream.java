@@ -0,0 +1,48 @@
+package sg.edu.nus.comp.cs4218.testutil;
+
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Collects what is written to it like a ByteArrayOutputStream, and lets a test wait until the
+ * content written from another thread equals an expected string.
+ */
+public final class AwaitableOutputStream extends ByteArrayOutputStream {
+    private final Object lock = new Object();
+    private String expected;
+    private CompletableFuture<Void> hasExpected = CompletableFuture.completedFuture(null);
+
+    /**
+     * Returns a future completed once the content written so far equals the expected string.
+     */
+    public CompletableFuture<Void> whenEquals(String expected) {
+        synchronized (lock) {
+            this.expected = expected;
+            hasExpected = new CompletableFuture<>();
+            completeIfExpected();
+            return hasExpected;
+        }
+    }
+
+    @Override
+    public void write(int oneByte) {
+        super.write(oneByte);
+        synchronized (lock) {
+            completeIfExpected();
+        }
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) {
+        super.write(bytes, offset, length);
+        synchronized (lock) {
+            completeIfExpected();
+        }
+    }
+
+    private void completeIfExpected() {
+        if (!hasExpected.isDone() && toString().equals(expected)) {
+            hasExpected.complete(null);
+        }
+    }
+}